@@ -0,0 +1,27 @@
+package org.jdexter.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Defers a {@link Depends} dependency, including an {@link Optional} one, until it is first needed. The field must be
+ * a {@link java.util.function.Supplier} of the configuration depended upon:
+ * <pre>
+ * 	&#64;Depends &#64;Lazy private Supplier&lt;TariffConfiguration&gt; tariffs;
+ * </pre>
+ * The context injects a supplier without reading anything, and the dependency is resolved exactly as an eager one on
+ * the first call to {@link java.util.function.Supplier#get()}, at most once however many threads call it. An
+ * optional dependency which cannot be read is supplied as <code>null</code>, while a required one fails the call with
+ * an {@link IllegalStateException} and is tried again on the next call.
+ * <br/><br/>
+ * Dependencies touched only on rare code paths are thus kept off the startup read.
+ * @author Narendra
+ *
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Lazy {
+
+}
@@ -6,6 +6,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -16,11 +17,13 @@ import org.jdexter.annotation.Decision;
 import org.jdexter.annotation.Depends;
 import org.jdexter.annotation.Optional;
 import org.jdexter.reader.Reader;
+import org.jdexter.util.FieldInjector;
 import org.jdexter.util.Maps;
 import org.jdexter.util.ReflectionUtil;
 import org.reflections.ReflectionUtils;
 
 import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
 
 public class AnnotationMetaDataCollector implements MetaDataCollector {
 	private Class<?> clazz;
@@ -32,6 +35,7 @@ public class AnnotationMetaDataCollector implements MetaDataCollector {
 	
 	private Map<String, FieldConditionalAnnotationEntry> conditionalConfigurationFieldNameToConditionalAnnotation;
 	private Set<Field> conditionalCongurations;
+	private Map<Field, FieldInjector> injectors;
 	
 	public AnnotationMetaDataCollector(Class<?> clazz) {
 		this.clazz = clazz;
@@ -55,6 +59,14 @@ public class AnnotationMetaDataCollector implements MetaDataCollector {
 		
 		validate();
 		
+		resolveInjectors();
+	}
+
+	private void resolveInjectors() {
+		injectors = new HashMap<Field, FieldInjector>();
+		for(Field field : Iterables.concat(dependencies, optionalDependencies, innerConfigurations, conditionalCongurations)){
+			injectors.put(field, FieldInjector.of(field));
+		}
 	}
 
 	@SuppressWarnings("unchecked")
@@ -174,6 +186,16 @@ public class AnnotationMetaDataCollector implements MetaDataCollector {
 		
 		return entry.getConditionalConfigurationDependencies();
 	}
+
+	public FieldInjector getInjector(Field field) {
+		checkNotNull(field, "field should not be null");
+		
+		FieldInjector injector = injectors.get(field);
+		
+		checkArgument(injector != null, field.getName() + " is not an injectable field");
+		
+		return injector;
+	}
 	
 	static class FieldNameFunction implements Function<Field, String>{
 		
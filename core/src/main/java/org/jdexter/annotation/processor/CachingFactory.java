@@ -0,0 +1,51 @@
+package org.jdexter.annotation.processor;
+
+/**
+ * Creates one instance per class and caches it for as long as the class is loaded.
+ * <br/><br/>
+ * The cache is held by the classes themselves through a {@link ClassValue}, so lookups of a cached instance take no
+ * lock, and an instance is neither evicted while its class is in use nor keeps the class from being unloaded. The
+ * instance of a class is created only once, callers asking for it while it is being created wait for it. A failed
+ * creation is not cached, and is retried on the next call.
+ * @author Narendra
+ *
+ */
+public abstract class CachingFactory<T>{
+	private final ClassValue<Slot<T>> cache;
+	
+	public CachingFactory(){
+		cache = new ClassValue<Slot<T>>() {
+			@Override
+			protected Slot<T> computeValue(Class<?> type) {
+				return new Slot<T>();
+			}
+		};
+	}
+	
+	public T create(Class<?> configurationClass){
+		Slot<T> slot = cache.get(configurationClass);
+		T instance = slot.instance;
+		
+		if(instance == null){
+			synchronized (slot) {
+				instance = slot.instance;
+				if(instance == null){
+					instance = createInstance(configurationClass);
+					slot.instance = instance;
+				}
+			}
+		}
+		
+		return instance;
+	}
+
+	protected abstract T createInstance(Class<?> configurationClass);
+	
+	T cacheQuery(Class<?> configurationClass){
+		return cache.get(configurationClass).instance;
+	}
+
+	private static class Slot<T>{
+		private volatile T instance;
+	}
+}
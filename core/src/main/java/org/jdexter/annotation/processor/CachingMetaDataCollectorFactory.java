@@ -0,0 +1,18 @@
+package org.jdexter.annotation.processor;
+
+/**
+ * Caches the metadata of configuration classes. The metadata of a class is loaded from the collector generated for it
+ * at compile time, see {@link CompiledMetaDataCollector}, and is collected through reflection by
+ * {@link AnnotationMetaDataCollector} when there is no generated collector, whereas
+ * {@link CachingAnnotationMetaDataCollectorFactory} always collects through reflection.
+ * @author Narendra
+ *
+ */
+public class CachingMetaDataCollectorFactory extends CachingFactory<MetaDataCollector>{
+
+	@Override
+	protected MetaDataCollector createInstance(Class<?> configurationClass) {
+		MetaDataCollector collector = CompiledMetaDataCollector.find(configurationClass);
+		return collector != null ? collector : AnnotationMetaDataCollector.of(configurationClass);
+	}
+}
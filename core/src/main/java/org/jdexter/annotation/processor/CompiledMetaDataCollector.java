@@ -0,0 +1,187 @@
+package org.jdexter.annotation.processor;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.reader.Reader;
+import org.jdexter.util.FieldInjector;
+import org.jdexter.util.ReflectionUtil;
+
+/**
+ * Base of the {@link MetaDataCollector}s generated at compile time by the JDexter annotation processor. The generated
+ * collector of a configuration class registers the fields and the decision method found by the processor, each by its
+ * name and the class declaring it, given as the distance of the declaring class from the configuration class in its
+ * class hierarchy. Hence the class hierarchy is never scanned at runtime, only the registered members are looked up.
+ * <br/>
+ * The processor validates the metadata at compile time, and does not generate a collector for classes with invalid
+ * metadata, so such classes are collected by {@link AnnotationMetaDataCollector} which reports the problem.
+ * @author Narendra
+ *
+ */
+public abstract class CompiledMetaDataCollector implements MetaDataCollector{
+	public static final String SUFFIX = "$$MetaData";
+
+	private final Class<?> configurationClass;
+	private final Set<Field> dependencies;
+	private final Set<Field> optionalDependencies;
+	private final Set<Field> innerConfigurations;
+	private final Set<Field> conditionalConfigurations;
+	private final Map<String, Set<Field>> conditionalConfigurationDependencies;
+	private final Map<String, String[]> conditionalConfigurationDependencyNames;
+	private final Map<Field, FieldInjector> injectors;
+	private Method decisionMethod;
+
+	protected CompiledMetaDataCollector(Class<?> configurationClass) {
+		if(configurationClass == null)
+			throw new IllegalArgumentException("Invalid parameter null, cannot collect metadata");
+
+		this.configurationClass = configurationClass;
+		this.dependencies = new LinkedHashSet<Field>();
+		this.optionalDependencies = new LinkedHashSet<Field>();
+		this.innerConfigurations = new LinkedHashSet<Field>();
+		this.conditionalConfigurations = new LinkedHashSet<Field>();
+		this.conditionalConfigurationDependencies = new HashMap<String, Set<Field>>();
+		this.conditionalConfigurationDependencyNames = new HashMap<String, String[]>();
+		this.injectors = new HashMap<Field, FieldInjector>();
+	}
+
+	/**
+	 * @return the generated collector of the class or <code>null</code> if there is none on the classpath, or if it
+	 * does not match the class as it is loaded now
+	 */
+	public static MetaDataCollector find(Class<?> configurationClass){
+		Class<?> collectorClass;
+		try {
+			collectorClass = Class.forName(configurationClass.getName() + SUFFIX, true, configurationClass.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			return null;
+		}
+
+		try {
+			return collectorClass.asSubclass(MetaDataCollector.class).getConstructor(Class.class).newInstance(configurationClass);
+		} catch (InvocationTargetException e) {
+			//compiled against a different version of the class
+			return null;
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Generated collector: " + collectorClass.getName() + " cannot be instantiated", e);
+		}
+	}
+
+	protected void dependency(int declaringClass, String name) throws NoSuchFieldException{
+		dependencies.add(register(declaringClass, name));
+	}
+
+	protected void optionalDependency(int declaringClass, String name) throws NoSuchFieldException{
+		optionalDependencies.add(register(declaringClass, name));
+	}
+
+	protected void innerConfiguration(int declaringClass, String name) throws NoSuchFieldException{
+		innerConfigurations.add(register(declaringClass, name));
+	}
+
+	/**
+	 * @param dependsOn names of the conditional configurations this one depends on
+	 */
+	protected void conditionalConfiguration(int declaringClass, String name, String... dependsOn) throws NoSuchFieldException{
+		conditionalConfigurations.add(register(declaringClass, name));
+		conditionalConfigurationDependencyNames.put(name, dependsOn);
+	}
+
+	protected void decisionMethod(int declaringClass, String name) throws NoSuchMethodException{
+		decisionMethod = declaringClass(declaringClass).getDeclaredMethod(name, Class.class);
+	}
+
+	/**
+	 * Resolves the dependencies among conditional configurations, called once all the members are registered
+	 */
+	protected void complete(){
+		Map<String, Field> conditionalConfigurationsByName = new HashMap<String, Field>();
+		for(Field field : conditionalConfigurations){
+			conditionalConfigurationsByName.put(field.getName(), field);
+		}
+
+		for(Map.Entry<String, String[]> entry : conditionalConfigurationDependencyNames.entrySet()){
+			Set<Field> dependenciesOfConditionalConfiguration = new LinkedHashSet<Field>();
+			for(String name : entry.getValue()){
+				dependenciesOfConditionalConfiguration.add(conditionalConfigurationsByName.get(name));
+			}
+			conditionalConfigurationDependencies.put(entry.getKey(), Collections.unmodifiableSet(dependenciesOfConditionalConfiguration));
+		}
+	}
+
+	private Field register(int declaringClass, String name) throws NoSuchFieldException{
+		Field field = declaringClass(declaringClass).getDeclaredField(name);
+		injectors.put(field, FieldInjector.of(field));
+		return field;
+	}
+
+	private Class<?> declaringClass(int distance){
+		Class<?> declaringClass = configurationClass;
+		for(int level = 0; level < distance; level++){
+			declaringClass = declaringClass.getSuperclass();
+		}
+		return declaringClass;
+	}
+
+	@Override
+	public Class<? extends Reader> getReader() {
+		return ReflectionUtil.getAnnotation(configurationClass, Configuration.class).readWith();
+	}
+
+	@Override
+	public Set<Field> getDependencies() {
+		return dependencies;
+	}
+
+	@Override
+	public Set<Field> getOptionalDependencies() {
+		return optionalDependencies;
+	}
+
+	@Override
+	public Method getDecisionMethod() {
+		return decisionMethod;
+	}
+
+	@Override
+	public Set<Field> getInnerConfigurations() {
+		return innerConfigurations;
+	}
+
+	@Override
+	public Set<Field> getConditionalConfigurations() {
+		return conditionalConfigurations;
+	}
+
+	@Override
+	public Set<Field> getDependenciesForConditionalConfiguration(Field field) {
+		checkNotNull(field, "field should not be null");
+
+		Set<Field> dependenciesOfConditionalConfiguration = conditionalConfigurationDependencies.get(field.getName());
+
+		checkArgument(dependenciesOfConditionalConfiguration != null, field.getName() + " is not a conditional configuration");
+
+		return dependenciesOfConditionalConfiguration;
+	}
+
+	@Override
+	public FieldInjector getInjector(Field field) {
+		checkNotNull(field, "field should not be null");
+
+		FieldInjector injector = injectors.get(field);
+
+		checkArgument(injector != null, field.getName() + " is not an injectable field");
+
+		return injector;
+	}
+}
@@ -5,6 +5,7 @@ import java.lang.reflect.Method;
 import java.util.Set;
 
 import org.jdexter.reader.Reader;
+import org.jdexter.util.FieldInjector;
 
 public interface MetaDataCollector {
 
@@ -22,4 +23,12 @@ public interface MetaDataCollector {
 
 	public Set<Field> getDependenciesForConditionalConfiguration(Field field);
 
+	/**
+	 * @return setter of a dependency, inner or conditional configuration field. Resolved on every call by default,
+	 * collectors override it to return the setter resolved once while collecting the metadata
+	 */
+	public default FieldInjector getInjector(Field field){
+		return FieldInjector.of(field);
+	}
+
 }
\ No newline at end of file
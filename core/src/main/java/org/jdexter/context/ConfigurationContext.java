@@ -0,0 +1,840 @@
+package org.jdexter.context;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jdexter.annotation.processor.CachingMetaDataCollectorFactory;
+import org.jdexter.annotation.processor.MetaDataCollector;
+import org.jdexter.exception.CircularDependencyException;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.FileSource;
+import org.jdexter.reader.Reader;
+import org.jdexter.reader.ReaderFactory;
+import org.jdexter.reader.ReaderUtil;
+import org.jdexter.reader.SourceRecorder;
+import org.jdexter.reader.XMLDocumentReader;
+import org.jdexter.reader.annotation.XMLDocument;
+import org.jdexter.reader.annotation.XMLProperties;
+import org.jdexter.reader.exception.ReaderInstantiationException;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ClassToInstanceMap;
+import com.google.common.collect.ImmutableClassToInstanceMap;
+
+/**
+ * Reads configurations along with their dependencies, inner and conditional configurations, and keeps the read
+ * configurations to be injected as dependencies of later reads.
+ * <br/><br/>
+ * By default the whole graph of a configuration is read depth first on the calling thread. When created with an
+ * {@link Executor}, such as a {@link java.util.concurrent.ForkJoinPool}, the context reads the dependencies and inner
+ * configurations of a configuration concurrently, so reading a wide graph takes about as long as its longest chain of
+ * reads. Conditional configurations are still read one after another once all the other fields are injected, as the
+ * decisions, and the order imposed by {@link org.jdexter.annotation.Conditional#dependsOn()}, depend on them. For reads
+ * dominated by blocking I/O, a {@link ThreadPerReadExecutor} gives every such read a thread of its own, virtual where
+ * the runtime supports it, and fails the configuration as soon as one of its required reads fails.
+ * <br/><br/>
+ * The metadata of a configuration class is compiled into a {@link ReadPlan} on its first read, later reads of the
+ * class only execute the plan. Plans are executed on a {@link ReadStack} rather than on the stack of the calling
+ * thread, so deep graphs read in constant thread stack. That holds on an executor as well, as a forked read which no
+ * thread of the executor has picked up is read on the stack of the read forking it instead of nested on its thread.
+ * A cycle of configurations fails the read as soon as it closes, with a {@link ReadConfigurationException} caused by
+ * a {@link CircularDependencyException} naming every class of the cycle.
+ * <br/><br/>
+ * Reads can also be started without blocking the caller, {@link #readAsync(Class)} returns a
+ * {@link CompletableFuture} of the configuration read on an executor. The configurations needed at startup are best
+ * read with a single {@link #readAll(Collection)}, which reads the configurations they share only once.
+ * <br/><br/>
+ * A dependency which is being read by one thread is not read again by other threads needing it at the same time,
+ * they wait for the read in progress and are injected with the same instance, see {@link #getCoalescedReadCount()}.
+ * <br/><br/>
+ * Every read saves the configurations it reads into a private draft, which is published as the next {@link Generation}
+ * with one atomic swap once the read completes, so threads looking up configurations through {@link #get(Class)} or
+ * {@link #getGeneration()} never see a read half done, and a failed read publishes nothing. {@link #reload(Class)}
+ * publishes a new generation in the same way, and is called by a {@link ReloadService} whenever the file of a watched
+ * class changes. A read which was already in progress when a class was reloaded does not bring back the stale
+ * configuration it read of that class when it completes. Only the changed classes and the read classes reaching them
+ * are read again on a reload, found through the edges recorded from the metadata of every class as its plan is
+ * compiled. The fingerprint of the file of every configuration read through a {@link FileSource} is kept with its
+ * generation, and a changed class whose file still has the same content is not read again, see
+ * {@link #getSkippedParseCount()}.
+ * @author Narendra
+ *
+ */
+//TODO on a second thought I think it won't be advisable to catch all the throwable.
+//TODO Run time exceptions such as NPE and all should not be caught by context and should be allowed to bubble up
+public class ConfigurationContext {
+	/**
+	 * Time to live, in seconds, of the failures of optional dependencies unless changed through
+	 * {@link #setOptionalDependencyFailureTtl(long, TimeUnit)}
+	 */
+	public static final long DEFAULT_OPTIONAL_DEPENDENCY_FAILURE_TTL_SECONDS = 30;
+	
+	private CachingMetaDataCollectorFactory collectorFactory;
+	private ReaderFactory readerFactory;
+	private XMLDocumentReader documentReader;
+	private Executor executor;
+	
+	private AtomicReference<Generation> generation;
+	private ThreadLocal<Draft> drafts;
+	private ThreadLocal<ReadStack.Frame> reading;
+	private DependencyIndex dependencyIndex;
+	private Object reloadLock;
+	private AtomicLong parseCount;
+	private AtomicLong skippedParseCount;
+	private FailedReads failedOptionalDependencies;
+	private FailedReads reportedReadPathFailures;
+	private List<OptionalDependencyListener> optionalDependencyListeners;
+	private AtomicLong skippedOptionalDependencyReadCount;
+	private ConcurrentMap<Class<?>, ReadPlan> plans;
+	private SingleFlightReads dependencyReads;
+	
+	public ConfigurationContext() {
+		collectorFactory = new CachingMetaDataCollectorFactory();
+		readerFactory = new ReaderFactory();
+		documentReader = new XMLDocumentReader();
+		generation = new AtomicReference<Generation>(Generation.empty());
+		drafts = new ThreadLocal<Draft>();
+		reading = new ThreadLocal<ReadStack.Frame>();
+		dependencyIndex = new DependencyIndex();
+		reloadLock = new Object();
+		parseCount = new AtomicLong();
+		skippedParseCount = new AtomicLong();
+		failedOptionalDependencies = new FailedReads(DEFAULT_OPTIONAL_DEPENDENCY_FAILURE_TTL_SECONDS, TimeUnit.SECONDS, Ticker.systemTicker());
+		reportedReadPathFailures = new FailedReads(DEFAULT_OPTIONAL_DEPENDENCY_FAILURE_TTL_SECONDS, TimeUnit.SECONDS, Ticker.systemTicker());
+		optionalDependencyListeners = new CopyOnWriteArrayList<OptionalDependencyListener>();
+		skippedOptionalDependencyReadCount = new AtomicLong();
+		plans = new ConcurrentHashMap<Class<?>, ReadPlan>();
+		dependencyReads = new SingleFlightReads();
+	}
+	
+	public ConfigurationContext(ReaderFactory readerFactory){
+		this();
+		if(readerFactory == null)
+			throw new IllegalArgumentException("Reader Factory cannot be null");
+		
+		this.readerFactory = readerFactory;
+	}
+	
+	/**
+	 * Creates a context reading independent parts of configuration graphs concurrently on the executor.
+	 */
+	public ConfigurationContext(ReaderFactory readerFactory, Executor executor){
+		this(readerFactory);
+		if(executor == null)
+			throw new IllegalArgumentException("Executor cannot be null");
+		
+		this.executor = executor;
+	}
+	
+	public <T> T read(Class<T> configurationClassToRead) throws ReadConfigurationException{
+		Draft enclosing = drafts.get();
+		try {
+			if(configurationClassToRead == null)
+				throw new IllegalArgumentException("Class to read cannot be null");
+
+			Draft draft = enclosing == null ? new Draft(generation.get(), Collections.<Class<?>>emptySet(), false) : enclosing;
+			drafts.set(draft);
+			Object configurationInstance = new ReadStack(this, dependencyReads, reading).read(configurationClassToRead);
+			if(enclosing == null)
+				publish(draft);
+			
+			return configurationClassToRead.cast(configurationInstance);
+		}catch(Throwable t){
+			throw readConfigurationExceptionOf(t);
+		}finally{
+			restore(enclosing);
+		}
+	}
+
+	/**
+	 * Reads the configuration class on the executor of the context, or on the common {@link ForkJoinPool} when the
+	 * context was created without one, see {@link #readAsync(Class, Executor)}. Reads block on file I/O, so a context
+	 * reading asynchronously at any rate is best created with a dedicated executor rather than sharing the common pool.
+	 */
+	public <T> CompletableFuture<T> readAsync(Class<T> configurationClassToRead){
+		return readAsync(configurationClassToRead, executor == null ? ForkJoinPool.commonPool() : executor);
+	}
+
+	/**
+	 * Reads the configuration class on the executor without blocking the calling thread. The read follows the same
+	 * plan as {@link #read(Class)}, so life cycle events are fired in the same order, and when the context was created
+	 * with an executor the dependencies and inner configurations are forked on it as usual. The configurations read are
+	 * published as one generation before the future completes. On a {@link ForkJoinPool} the read runs through
+	 * {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)}, so that the pool can make up for the worker
+	 * blocked by the read instead of starving the other tasks sharing it.
+	 * @return future completed with the read configuration, or exceptionally with the {@link ReadConfigurationException}
+	 * which {@link #read(Class)} would have thrown
+	 */
+	public <T> CompletableFuture<T> readAsync(final Class<T> configurationClassToRead, Executor executor){
+		if(configurationClassToRead == null)
+			throw new IllegalArgumentException("Class to read cannot be null");
+		if(executor == null)
+			throw new IllegalArgumentException("Executor cannot be null");
+
+		final CompletableFuture<T> future = new CompletableFuture<T>();
+		try{
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					if(future.isDone())
+						return;
+					if(!ForkJoinTask.inForkJoinPool()){
+						try {
+							future.complete(read(configurationClassToRead));
+						} catch (ReadConfigurationException e) {
+							future.completeExceptionally(e);
+						}
+						return;
+					}
+
+					try {
+						ForkJoinPool.managedBlock(new BlockingRead<T>(configurationClassToRead, future));
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						future.completeExceptionally(new ReadConfigurationException(e));
+					}
+				}
+			});
+		}catch (RejectedExecutionException e) {
+			future.completeExceptionally(new ReadConfigurationException(e));
+		}
+		return future;
+	}
+
+	/**
+	 * Reads all the configuration classes together, see {@link #readAll(Collection)}.
+	 */
+	public ClassToInstanceMap<Object> readAll(Class<?>... configurationClassesToRead) throws ReadConfigurationException{
+		if(configurationClassesToRead == null)
+			throw new IllegalArgumentException("Classes to read cannot be null");
+
+		return readAll(Arrays.asList(configurationClassesToRead));
+	}
+
+	/**
+	 * Reads all the configuration classes as one graph, which costs one read of every configuration reachable from
+	 * any of them instead of one walk of the graph of every class. A configuration reached from several of the classes,
+	 * or itself one of them, is read only once and the same instance is injected everywhere. When the context was
+	 * created with an executor the classes are read concurrently, and their dependencies are shared between the
+	 * concurrent reads as usual. Everything read is published together as one generation, and nothing is published
+	 * when any of the classes fails to read.
+	 * @return read configurations keyed by their class, in the order the classes are given
+	 */
+	public ClassToInstanceMap<Object> readAll(Collection<? extends Class<?>> configurationClassesToRead) throws ReadConfigurationException{
+		if(configurationClassesToRead == null || configurationClassesToRead.contains(null))
+			throw new IllegalArgumentException("Classes to read cannot be null");
+
+		Draft enclosing = drafts.get();
+		try {
+			Draft draft = enclosing == null ? new Draft(generation.get(), Collections.<Class<?>>emptySet(), false) : enclosing;
+			drafts.set(draft);
+			Set<Class<?>> roots = new LinkedHashSet<Class<?>>(configurationClassesToRead);
+			List<Object> instances = new ArrayList<Object>(roots.size());
+			if(executor == null){
+				for(Class<?> root : roots){
+					instances.add(rootRead(root, draft).call());
+				}
+			}else{
+				ForkedReads reads = new ForkedReads(executor);
+				List<FutureTask<Object>> rootReads = new ArrayList<FutureTask<Object>>(roots.size());
+				for(Class<?> root : roots){
+					rootReads.add(reads.fork(dependencyReads.inherit(inDraft(rootRead(root, draft)))));
+				}
+				try{
+					for(FutureTask<Object> rootRead : rootReads){
+						instances.add(reads.join(rootRead));
+					}
+				}finally{
+					reads.cancelPending();
+				}
+			}
+			if(enclosing == null)
+				publish(draft);
+
+			ImmutableClassToInstanceMap.Builder<Object> configurations = ImmutableClassToInstanceMap.builder();
+			int index = 0;
+			for(Class<?> root : roots){
+				put(configurations, root, instances.get(index++));
+			}
+			return configurations.build();
+		}catch(Throwable t){
+			throw readConfigurationExceptionOf(t);
+		}finally{
+			restore(enclosing);
+		}
+	}
+
+	/**
+	 * @return read of one of the classes given to {@link #readAll(Collection)}, which takes the instance already read
+	 * as part of another one of them instead of reading it again
+	 */
+	private Callable<Object> rootRead(final Class<?> root, final Draft draft){
+		return new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				try {
+					return dependencyReads.read(root, new Callable<Object>() {
+						@Override
+						public Object call() throws ReadConfigurationException {
+							Object saved = draft.saved.get(root);
+							return saved != null ? saved : read(root);
+						}
+					});
+				} catch (Exception e) {
+					throw e;
+				} catch (Throwable t) {
+					throw readConfigurationExceptionOf(t);
+				}
+			}
+		};
+	}
+
+	private static <T> void put(ImmutableClassToInstanceMap.Builder<Object> configurations, Class<T> configurationClass, Object configuration){
+		configurations.put(configurationClass, configurationClass.cast(configuration));
+	}
+
+	/**
+	 * Reads the configuration class again along with the read classes reaching it, see {@link #reload(Collection)}.
+	 * @return the freshly read instance of the class
+	 */
+	public <T> T reload(Class<T> configurationClass) throws ReadConfigurationException{
+		if(configurationClass == null)
+			throw new IllegalArgumentException("Class to reload cannot be null");
+
+		return configurationClass.cast(reload(Collections.<Class<?>>singleton(configurationClass)).get(configurationClass));
+	}
+
+	/**
+	 * Reads the changed classes again, along with only those classes read by the context which reach any of them
+	 * through a dependency, inner configuration or conditional configuration. The affected classes are read in
+	 * dependency order, each dependent being injected with the fresh instances of the classes it reaches, while the
+	 * rest of the configurations are injected as saved. All of them are published together as one generation, so
+	 * instances handed out earlier keep referring to the configurations they were read with, and nothing is published
+	 * when any of the reads fails. Used by {@link ReloadService} when the files of watched classes change.
+	 * @return freshly read instances of the affected classes keyed by their class, in the order they were read
+	 */
+	public Map<Class<?>, Object> reload(Collection<? extends Class<?>> changedClasses) throws ReadConfigurationException{
+		if(changedClasses == null || changedClasses.contains(null))
+			throw new IllegalArgumentException("Classes to reload cannot be null");
+
+		synchronized (reloadLock) {
+			Draft enclosing = drafts.get();
+			try{
+				Generation current = generation.get();
+				Set<Class<?>> changed = new LinkedHashSet<Class<?>>();
+				Map<Class<?>, Object> unchanged = new LinkedHashMap<Class<?>, Object>();
+				for(Class<?> configurationClass : changedClasses){
+					if(isSourceUnchanged(current, configurationClass)){
+						skippedParseCount.incrementAndGet();
+						unchanged.put(configurationClass, current.fetch(configurationClass));
+					}else{
+						changed.add(configurationClass);
+					}
+				}
+				
+				List<Class<?>> affected = dependencyIndex.affectedBy(changed);
+				failedOptionalDependencies.invalidate(affected);
+				Draft draft = new Draft(current, new HashSet<Class<?>>(affected), true);
+				drafts.set(draft);
+				
+				List<Class<?>> reloaded = new ArrayList<Class<?>>(affected.size());
+				for(Class<?> configurationClass : affected){
+					//dependents which have not been read are left for their first read
+					if(!changed.contains(configurationClass) && !current.contains(configurationClass))
+						continue;
+					
+					reloaded.add(configurationClass);
+					if(!draft.saved.containsKey(configurationClass))
+						read(configurationClass);
+				}
+				publish(draft);
+				
+				Map<Class<?>, Object> configurations = new LinkedHashMap<Class<?>, Object>();
+				for(Class<?> configurationClass : reloaded){
+					configurations.put(configurationClass, draft.saved.get(configurationClass));
+				}
+				for(Map.Entry<Class<?>, Object> configuration : unchanged.entrySet()){
+					//an unchanged class may still have been read again as a dependent of a changed one
+					if(!configurations.containsKey(configuration.getKey()))
+						configurations.put(configuration.getKey(), configuration.getValue());
+				}
+				return configurations;
+			}catch(Throwable t){
+				throw readConfigurationExceptionOf(t);
+			}finally{
+				restore(enclosing);
+			}
+		}
+	}
+
+	/**
+	 * @return true if the class was read from a file whose content is the same as when it was read, in which case
+	 * reading it again would only produce an equal configuration
+	 */
+	private static boolean isSourceUnchanged(Generation current, Class<?> configurationClass){
+		Long fingerprint = current.fingerprintOf(configurationClass);
+		if(fingerprint == null || !current.contains(configurationClass))
+			return false;
+		
+		try {
+			return FileSource.open(ReaderUtil.extractFileName(configurationClass)).getFingerprint() == fingerprint;
+		} catch (IOException e) {
+			//left for the read to report
+			return false;
+		}
+	}
+
+	/**
+	 * @return the instance of the class in the current generation, <code>null</code> when the class is not read yet
+	 */
+	public <T> T get(Class<T> configurationClass){
+		return generation.get().get(configurationClass);
+	}
+
+	/**
+	 * @return the latest published generation of the configurations saved in the context
+	 */
+	public Generation getGeneration(){
+		return generation.get();
+	}
+
+	/**
+	 * Reads all the configurations declared as sections of a document using {@link XMLDocument}, parsing the document
+	 * only once. Every section is saved in the context before any of them is completed, so a section depending on
+	 * another section of the same document is injected with that section instead of reading it on its own.
+	 * @return read sections keyed by their class, in the order they are declared
+	 */
+	public Map<Class<?>, Object> readDocument(Class<?> documentClass) throws ReadConfigurationException{
+		Draft enclosing = drafts.get();
+		try {
+			Draft draft = enclosing == null ? new Draft(generation.get(), Collections.<Class<?>>emptySet(), false) : enclosing;
+			drafts.set(draft);
+			Map<Class<?>, Object> sections = documentReader.read(documentClass);
+			for(Object section : sections.values()){
+				save(section);
+			}
+			
+			for(Map.Entry<Class<?>, Object> section : sections.entrySet()){
+				new ReadStack(this, dependencyReads, reading).complete(section.getKey(), section.getValue());
+			}
+			if(enclosing == null)
+				publish(draft);
+			return sections;
+		}catch(Throwable t){
+			throw readConfigurationExceptionOf(t);
+		}finally{
+			restore(enclosing);
+		}
+	}
+
+	/**
+	 * Publishes the configurations saved by the draft as the next generation, on top of any generation published
+	 * since the draft was started. A configuration which a reload, or another read, published after the draft was
+	 * started is kept, as the draft read it earlier, unless the draft is itself a reload.
+	 */
+	private void publish(Draft draft){
+		if(draft.saved.isEmpty())
+			return;
+		
+		Generation current;
+		Generation next;
+		do{
+			current = generation.get();
+			Set<Class<?>> outdated = draft.outdatedBy(current);
+			if(outdated.isEmpty()){
+				next = current.next(draft.saved, draft.fingerprints);
+			}else{
+				Map<Class<?>, Object> saved = new HashMap<Class<?>, Object>(draft.saved);
+				saved.keySet().removeAll(outdated);
+				if(saved.isEmpty())
+					return;
+				Map<Class<?>, Long> fingerprints = new HashMap<Class<?>, Long>(draft.fingerprints);
+				fingerprints.keySet().removeAll(outdated);
+				next = current.next(saved, fingerprints);
+			}
+		}while(!generation.compareAndSet(current, next));
+	}
+
+	private void restore(Draft enclosing){
+		if(enclosing == null)
+			drafts.remove();
+		else
+			drafts.set(enclosing);
+	}
+
+	/**
+	 * @return the read running in the draft of the calling thread, wherever it is run, so that a read forked on an
+	 * executor saves into the draft of the read forking it, and continues the path of the frame forking it
+	 */
+	private Callable<Object> inDraft(final Callable<Object> read){
+		final Draft draft = drafts.get();
+		final ReadStack.Frame frame = reading.get();
+		if(draft == null && frame == null)
+			return read;
+
+		return new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				Draft enclosing = drafts.get();
+				ReadStack.Frame enclosingFrame = reading.get();
+				drafts.set(draft);
+				reading.set(frame);
+				try{
+					return read.call();
+				}finally{
+					restore(enclosing);
+					if(enclosingFrame == null)
+						reading.remove();
+					else
+						reading.set(enclosingFrame);
+				}
+			}
+		};
+	}
+
+	/**
+	 * @return the plan of reading the class, compiled on the first read of the class
+	 */
+	ReadPlan planOf(Class<?> configurationClass){
+		ReadPlan plan = plans.get(configurationClass);
+		if(plan == null){
+			MetaDataCollector metaDataCollector = collectorFactory.create(configurationClass);
+			ReadPlan compiled = ReadPlan.compile(configurationClass, metaDataCollector, executor);
+			plan = plans.putIfAbsent(configurationClass, compiled);
+			if(plan == null){
+				dependencyIndex.register(configurationClass, metaDataCollector);
+				plan = compiled;
+			}
+		}
+		return plan;
+	}
+
+	static ReadConfigurationException readConfigurationExceptionOf(Throwable t){
+		if(t instanceof ReaderInstantiationException)
+			return new ReadConfigurationException(t.getCause());
+		if(t instanceof InvocationTargetException)
+			return new ReadConfigurationException(((InvocationTargetException) t).getTargetException());
+		if(t instanceof ReadConfigurationException)
+			return new ReadConfigurationException(t.getCause());
+		return new ReadConfigurationException(t);
+	}
+
+	Callable<Object> dependencyRead(final Class<?> dependencyClass){
+		return dependencyReads.inherit(inDraft(new Callable<Object>() {
+			@Override
+			public Object call() throws ReadConfigurationException {
+				return resolveDependency(dependencyClass);
+			}
+		}));
+	}
+
+	Callable<Object> innerConfigurationRead(final Class<?> innerConfigurationClass){
+		return dependencyReads.inherit(inDraft(new Callable<Object>() {
+			@Override
+			public Object call() throws ReadConfigurationException {
+				//expects always a freshly read instance
+				return read(innerConfigurationClass);
+			}
+		}));
+	}
+
+	boolean isSaved(Class<?> configurationClassToRead){
+		Draft draft = drafts.get();
+		return draft == null ? generation.get().contains(configurationClassToRead) : draft.contains(configurationClassToRead);
+	}
+	
+	/**
+	 * Saves the configuration into the draft of the read in progress, or publishes it right away when called outside
+	 * of a read
+	 */
+	void save(Object configurationInstance) {
+		Draft draft = drafts.get();
+		if(draft != null){
+			draft.saved.put(configurationInstance.getClass(), configurationInstance);
+		}else{
+			Draft single = new Draft(generation.get(), Collections.<Class<?>>emptySet(), false);
+			single.saved.put(configurationInstance.getClass(), configurationInstance);
+			publish(single);
+		}
+	}
+
+	/**
+	 * Saves a dependency coalesced with the read of another thread into the draft of the read in progress, as it is
+	 * saved in the draft of that other read only
+	 */
+	void adopt(Object dependency){
+		Draft draft = drafts.get();
+		if(draft != null)
+			draft.saved.putIfAbsent(dependency.getClass(), dependency);
+	}
+
+	Object fetch(Class<?> configurationClass){
+		Draft draft = drafts.get();
+		return draft == null ? generation.get().fetch(configurationClass) : draft.fetch(configurationClass);
+	}
+	
+	//FIXME exception handling tests
+	/**
+	 * Checks if the instance to be injected is already present, if yes then same instance is returned
+	 * else a call to {@link #read(Class)} is made
+	 * @throws ReadConfigurationException 
+	 * @throws IllegalAccessException 
+	 */
+	public void injectRequiredDependencies(Object configurationInstance,MetaDataCollector metaDataCollector) throws ReadConfigurationException, IllegalAccessException {
+		for(Field field : metaDataCollector.getDependencies()){
+			if(LazyDependency.isLazy(field))
+				metaDataCollector.getInjector(field).inject(configurationInstance,
+						new LazyDependency(this, configurationInstance.getClass(), LazyDependency.dependencyClassOf(field), false));
+			else
+				metaDataCollector.getInjector(field).inject(configurationInstance, resolveDependency(field.getType()));
+		}
+	}
+
+	/**
+	 * Fetches the saved instance of the dependency or reads it. Concurrent reads of the same dependency are coalesced,
+	 * only one of them reads the dependency and the others are injected with the same instance.
+	 */
+	Object resolveDependency(final Class<?> dependencyClass) throws ReadConfigurationException{
+		if(isSaved(dependencyClass))
+			return fetch(dependencyClass);
+		
+		try {
+			ReadStack.checkNotInProgress(dependencyClass, reading.get());
+			Object dependency = dependencyReads.read(dependencyClass, new Callable<Object>() {
+				@Override
+				public Object call() throws ReadConfigurationException {
+					return isSaved(dependencyClass) ? fetch(dependencyClass) : read(dependencyClass);
+				}
+			});
+			adopt(dependency);
+			return dependency;
+		}catch (ReadConfigurationException e) {
+			throw e;
+		}catch(Throwable t){
+			throw readConfigurationExceptionOf(t);
+		}
+	}
+
+	/**
+	 * @return number of dependency reads which were served by a concurrent read of the same class instead of reading it again
+	 */
+	public long getCoalescedReadCount(){
+		return dependencyReads.getCoalescedCount();
+	}
+
+	Reader getReader(Class<? extends Reader> reader) throws ReaderInstantiationException {
+		return readerFactory.getInstanceOf(reader);
+	}
+
+	/**
+	 * Reads the configuration with an instance of the reader, recording the fingerprint of its file when the reader
+	 * reads the file given by {@link XMLProperties} through a {@link FileSource}
+	 */
+	Object readWith(Class<? extends Reader> reader, Class<?> configurationClass) throws Throwable{
+		Reader instance = getReader(reader);
+		Draft draft = drafts.get();
+		if(draft == null || configurationClass.getAnnotation(XMLProperties.class) == null)
+			return instance.read(configurationClass);
+		
+		SourceRecorder recorder = SourceRecorder.start();
+		try{
+			Object configuration = instance.read(configurationClass);
+			FileSource source = recorder.sourceOf(new File(ReaderUtil.extractFileName(configurationClass)));
+			if(source != null){
+				if(recorder.isParsed(source))
+					parseCount.incrementAndGet();
+				draft.fingerprints.put(configurationClass, source.getFingerprint());
+			}
+			return configuration;
+		}finally{
+			recorder.stop();
+		}
+	}
+
+	/**
+	 * Registers a listener of the optional dependencies which fail to read. As long as no listener is registered, the
+	 * failures are not reported anywhere.
+	 */
+	public void addOptionalDependencyListener(OptionalDependencyListener listener){
+		if(listener == null)
+			throw new IllegalArgumentException("Listener cannot be null");
+
+		optionalDependencyListeners.add(listener);
+	}
+
+	/**
+	 * Sets for how long an optional dependency which failed to read is left out of the configurations depending on it
+	 * without trying to read it again, {@value #DEFAULT_OPTIONAL_DEPENDENCY_FAILURE_TTL_SECONDS} seconds by default.
+	 * Failures are reported once per such period, so a missing file neither costs a failed read on every read of its
+	 * dependents nor floods the listeners. Reloading the class of the dependency, or any class it reaches, forgets its
+	 * failure. A failure depending on the path the dependency is read through, such as a cycle it closes, is not kept,
+	 * but is still reported only once per period. A time to live of 0 reads failed dependencies again every time,
+	 * reporting every failure.
+	 */
+	public void setOptionalDependencyFailureTtl(long timeToLive, TimeUnit unit){
+		failedOptionalDependencies.setTimeToLive(timeToLive, unit);
+		reportedReadPathFailures.setTimeToLive(timeToLive, unit);
+	}
+
+	/**
+	 * @return number of optional dependencies left out without reading them, as they failed to read recently
+	 */
+	public long getSkippedOptionalDependencyReadCount(){
+		return skippedOptionalDependencyReadCount.get();
+	}
+
+	/**
+	 * @return true if the optional dependency is not saved and failed to read recently, in which case it is to be left
+	 * out without reading it
+	 */
+	boolean isFailing(Class<?> dependencyClass){
+		if(isSaved(dependencyClass) || !failedOptionalDependencies.hasFailed(dependencyClass))
+			return false;
+
+		skippedOptionalDependencyReadCount.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Records the failure of reading the optional dependency, which is left out of the configuration, and reports it
+	 * unless it is already known to fail. A failure depending on the path the dependency is read through, such as a
+	 * cycle it closes, is not recorded, as the dependency may read fine through another path, and is reported unless
+	 * it was reported within the time to live.
+	 */
+	void optionalDependencyFailed(Class<?> configurationClass, Class<?> dependencyClass, ReadConfigurationException e){
+		FailedReads failures = dependsOnReadPath(e) ? reportedReadPathFailures : failedOptionalDependencies;
+		if(!failures.failed(dependencyClass))
+			return;
+
+		for(OptionalDependencyListener listener : optionalDependencyListeners){
+			listener.optionalDependencyFailed(configurationClass, dependencyClass, e);
+		}
+	}
+
+	private static boolean dependsOnReadPath(Throwable failure){
+		for(Throwable cause = failure; cause != null; cause = cause.getCause()){
+			if(cause instanceof CircularDependencyException || cause instanceof InterruptedException)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return number of configurations parsed from their files by readers, not counting those a reader restored without
+	 * parsing, such as from a {@link org.jdexter.reader.snapshot.SnapshotCache}, along with {@link #getSkippedParseCount()}
+	 * tells how often reloads find files rewritten with the same content
+	 */
+	public long getParseCount(){
+		return parseCount.get();
+	}
+
+	/**
+	 * @return number of classes which were asked to be reloaded but were not read again, as the content of their file
+	 * had not changed since they were read
+	 */
+	public long getSkippedParseCount(){
+		return skippedParseCount.get();
+	}
+
+	/**
+	 * Read of an asynchronous read running on a {@link ForkJoinPool}, completing the future of the read
+	 */
+	private final class BlockingRead<T> implements ForkJoinPool.ManagedBlocker{
+		private final Class<T> configurationClassToRead;
+		private final CompletableFuture<T> future;
+
+		BlockingRead(Class<T> configurationClassToRead, CompletableFuture<T> future) {
+			this.configurationClassToRead = configurationClassToRead;
+			this.future = future;
+		}
+
+		@Override
+		public boolean block() {
+			try {
+				future.complete(read(configurationClassToRead));
+			} catch (ReadConfigurationException e) {
+				future.completeExceptionally(e);
+			}
+			return true;
+		}
+
+		@Override
+		public boolean isReleasable() {
+			return future.isDone();
+		}
+	}
+
+	/**
+	 * Configurations saved by a read in progress on top of the generation which was current when the read started,
+	 * hiding the stale configurations of that generation which a reload is reading again. Shared by the reads forked
+	 * from the read, hence concurrent.
+	 */
+	private static final class Draft{
+		private final Generation base;
+		private final Set<Class<?>> stale;
+		private final boolean reload;
+		private final ConcurrentMap<Class<?>, Object> saved;
+		private final ConcurrentMap<Class<?>, Long> fingerprints;
+
+		Draft(Generation base, Set<Class<?>> stale, boolean reload) {
+			this.base = base;
+			this.stale = stale;
+			this.reload = reload;
+			this.saved = new ConcurrentHashMap<Class<?>, Object>();
+			this.fingerprints = new ConcurrentHashMap<Class<?>, Long>();
+		}
+
+		/**
+		 * @return the saved classes which the generation holds as published after the draft was started, none for a
+		 * reload, which always replaces them with what it read
+		 */
+		Set<Class<?>> outdatedBy(Generation current){
+			if(reload || current == base)
+				return Collections.emptySet();
+
+			Set<Class<?>> outdated = new HashSet<Class<?>>();
+			for(Class<?> configurationClass : saved.keySet()){
+				if(current.publicationOf(configurationClass) > base.getNumber())
+					outdated.add(configurationClass);
+			}
+			return outdated;
+		}
+
+		boolean contains(Class<?> configurationClass){
+			return saved.containsKey(configurationClass) || (!stale.contains(configurationClass) && base.contains(configurationClass));
+		}
+
+		Object fetch(Class<?> configurationClass){
+			Object configuration = saved.get(configurationClass);
+			if(configuration != null || stale.contains(configurationClass))
+				return configuration;
+			return base.fetch(configurationClass);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package org.jdexter.context;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+import org.jdexter.annotation.processor.MetaDataCollector;
+
+/**
+ * Edges between the configuration classes read by a context, recorded from their metadata as their plans are compiled.
+ * A class reaches every class it declares as a dependency, optional dependency, inner configuration or conditional
+ * configuration, and the index keeps those edges in both directions so that the classes affected by a change to a
+ * class are found without scanning every class read so far.
+ * @author Narendra
+ *
+ */
+class DependencyIndex {
+	private final ConcurrentMap<Class<?>, Set<Class<?>>> dependencies;
+	private final ConcurrentMap<Class<?>, Set<Class<?>>> dependents;
+
+	DependencyIndex() {
+		this.dependencies = new ConcurrentHashMap<Class<?>, Set<Class<?>>>();
+		this.dependents = new ConcurrentHashMap<Class<?>, Set<Class<?>>>();
+	}
+
+	void register(Class<?> configurationClass, MetaDataCollector metaDataCollector){
+		for(Set<Field> fields : fieldsReachedBy(metaDataCollector)){
+			for(Field field : fields){
+				Class<?> reached = LazyDependency.dependencyClassOf(field);
+				setOf(dependencies, configurationClass).add(reached);
+				setOf(dependents, reached).add(configurationClass);
+			}
+		}
+	}
+
+	Set<Class<?>> dependenciesOf(Class<?> configurationClass){
+		return viewOf(dependencies, configurationClass);
+	}
+
+	Set<Class<?>> dependentsOf(Class<?> configurationClass){
+		return viewOf(dependents, configurationClass);
+	}
+
+	/**
+	 * @return the changed classes along with every class reaching any of them, directly or transitively, ordered so
+	 * that every class comes after the classes it reaches
+	 */
+	List<Class<?>> affectedBy(Collection<? extends Class<?>> changedClasses){
+		Set<Class<?>> affected = new LinkedHashSet<Class<?>>();
+		List<Class<?>> pending = new ArrayList<Class<?>>(changedClasses);
+		while(!pending.isEmpty()){
+			Class<?> configurationClass = pending.remove(pending.size() - 1);
+			if(affected.add(configurationClass))
+				pending.addAll(dependentsOf(configurationClass));
+		}
+
+		List<Class<?>> ordered = new ArrayList<Class<?>>(affected.size());
+		Set<Class<?>> visited = new HashSet<Class<?>>();
+		for(Class<?> configurationClass : affected){
+			visit(configurationClass, affected, visited, ordered);
+		}
+		return ordered;
+	}
+
+	/**
+	 * Post order walk over the edges within the affected classes. Reads of circular graphs fail, so a cycle can only
+	 * be met here for classes which never completed a read, and it is simply not followed.
+	 */
+	private void visit(Class<?> configurationClass, Set<Class<?>> affected, Set<Class<?>> visited, List<Class<?>> ordered){
+		if(!visited.add(configurationClass))
+			return;
+
+		for(Class<?> dependency : dependenciesOf(configurationClass)){
+			if(affected.contains(dependency))
+				visit(dependency, affected, visited, ordered);
+		}
+		ordered.add(configurationClass);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Set<Field>> fieldsReachedBy(MetaDataCollector metaDataCollector){
+		List<Set<Field>> fields = new ArrayList<Set<Field>>();
+		Collections.addAll(fields, metaDataCollector.getDependencies(), metaDataCollector.getOptionalDependencies(),
+				metaDataCollector.getInnerConfigurations(), metaDataCollector.getConditionalConfigurations());
+		return fields;
+	}
+
+	private static Set<Class<?>> setOf(ConcurrentMap<Class<?>, Set<Class<?>>> edges, Class<?> configurationClass){
+		Set<Class<?>> classes = edges.get(configurationClass);
+		if(classes == null){
+			Set<Class<?>> created = new CopyOnWriteArraySet<Class<?>>();
+			classes = edges.putIfAbsent(configurationClass, created);
+			if(classes == null)
+				classes = created;
+		}
+		return classes;
+	}
+
+	private static Set<Class<?>> viewOf(ConcurrentMap<Class<?>, Set<Class<?>>> edges, Class<?> configurationClass){
+		Set<Class<?>> classes = edges.get(configurationClass);
+		return classes == null ? Collections.<Class<?>>emptySet() : Collections.unmodifiableSet(classes);
+	}
+}
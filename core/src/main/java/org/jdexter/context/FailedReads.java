@@ -0,0 +1,82 @@
+package org.jdexter.context;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Negative cache of the classes which recently failed to read as optional dependencies. A class stays failed for the
+ * time to live since its last failure, during which optional dependencies on it are left out without reading it, and
+ * its next failure is reported only once the time to live has passed. A time to live of 0 disables the cache.
+ * @author Narendra
+ *
+ */
+final class FailedReads {
+	private final Ticker ticker;
+	private final ConcurrentMap<Class<?>, Long> expiries;
+	private volatile long timeToLive;
+
+	FailedReads(long timeToLive, TimeUnit unit, Ticker ticker) {
+		this.ticker = ticker;
+		this.expiries = new ConcurrentHashMap<Class<?>, Long>();
+		setTimeToLive(timeToLive, unit);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the time to live is negative or the unit is null
+	 */
+	void setTimeToLive(long timeToLive, TimeUnit unit){
+		if(timeToLive < 0 || unit == null)
+			throw new IllegalArgumentException("Invalid time to live: " + timeToLive + " " + unit);
+
+		this.timeToLive = unit.toNanos(timeToLive);
+		if(timeToLive == 0)
+			expiries.clear();
+	}
+
+	/**
+	 * @return true if the class failed to read less than the time to live ago
+	 */
+	boolean hasFailed(Class<?> configurationClass){
+		Long expiry = expiries.get(configurationClass);
+		if(expiry == null)
+			return false;
+		if(expiry - ticker.read() > 0)
+			return true;
+
+		expiries.remove(configurationClass, expiry);
+		return false;
+	}
+
+	/**
+	 * Records a failure of the class
+	 * @return true if the failure is to be reported, which is when the class has not failed within the time to live,
+	 * false for the failures of concurrent reads of the class racing the first one
+	 */
+	boolean failed(Class<?> configurationClass){
+		long ttl = timeToLive;
+		if(ttl == 0)
+			return true;
+
+		long now = ticker.read();
+		Long expiry = expiries.putIfAbsent(configurationClass, now + ttl);
+		while(expiry != null){
+			if(expiry - now > 0)
+				return false;
+			if(expiries.replace(configurationClass, expiry, now + ttl))
+				return true;
+			expiry = expiries.putIfAbsent(configurationClass, now + ttl);
+		}
+		return true;
+	}
+
+	/**
+	 * Forgets the failures of the classes, so that they are read again when next needed
+	 */
+	void invalidate(Collection<? extends Class<?>> configurationClasses){
+		expiries.keySet().removeAll(configurationClasses);
+	}
+}
@@ -0,0 +1,143 @@
+package org.jdexter.context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads forked together on an executor by the thread completing a configuration, which then joins them one by one.
+ * <br/>
+ * A thread joining a read which has not been picked up by the executor yet runs the read itself. Hence a thread never
+ * waits for a read which is not running, so nested reads cannot starve a bounded executor, and a read which the
+ * executor rejects is simply run by the joining thread. A read can also be claimed before joining it, so that the
+ * joining thread reads it on its own {@link ReadStack} rather than nesting the read on its thread stack.
+ * <br/><br/>
+ * The forked reads form one scope: as soon as a required read fails, the thread joining any read of the scope stops
+ * waiting and fails with it, and the reads still pending are cancelled. With a {@link ThreadPerReadExecutor} every
+ * read has a thread of its own from the start, so the joining thread never runs them itself, and the running reads are
+ * interrupted on cancellation as well. That is not done on other executors, as interrupting the threads of a shared
+ * pool would leak into unrelated tasks.
+ * @author Narendra
+ *
+ */
+class ForkedReads {
+	private final Executor executor;
+	private final boolean threadPerRead;
+	private final List<FutureTask<Object>> reads;
+	private Throwable failure;
+
+	ForkedReads(Executor executor) {
+		this.executor = executor;
+		this.threadPerRead = executor instanceof ThreadPerReadExecutor;
+		this.reads = new ArrayList<FutureTask<Object>>();
+	}
+
+	/**
+	 * Forks a required read, the failure of which fails the whole scope
+	 */
+	FutureTask<Object> fork(Callable<Object> read){
+		return fork(read, true);
+	}
+
+	FutureTask<Object> fork(Callable<Object> read, boolean required){
+		ForkedRead task = new ForkedRead(read, required);
+		reads.add(task);
+		try{
+			executor.execute(task);
+			task.stealable = !threadPerRead;
+		}catch (RejectedExecutionException e) {
+			//run by the joining thread
+		}
+		return task;
+	}
+
+	/**
+	 * @return result of the read
+	 * @throws Throwable exactly as thrown by the read, or by the required read of the scope which failed first
+	 */
+	Object join(FutureTask<Object> read) throws Throwable{
+		//no-op if the read is already running or done
+		if(((ForkedRead) read).stealable)
+			read.run();
+		synchronized (this) {
+			while(!read.isDone() && failure == null){
+				wait();
+			}
+			if(!read.isDone())
+				throw failure;
+		}
+
+		try{
+			return read.get();
+		}catch (ExecutionException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Claims a read which has not been picked up by the executor yet, for the joining thread to read it by other means
+	 * @return true if the read is claimed, in which case it is cancelled and never run by the executor, false if it is
+	 * already running or done, or has a thread of its own
+	 */
+	boolean claim(FutureTask<Object> read){
+		ForkedRead forked = (ForkedRead) read;
+		//a running read cannot be told from a pending one by cancelling it
+		if(!forked.stealable || !forked.started.compareAndSet(false, true))
+			return false;
+		forked.cancel(false);
+		return true;
+	}
+
+	/**
+	 * Cancels the reads which have not completed yet, used when the configuration cannot be completed anyway
+	 */
+	void cancelPending(){
+		for(FutureTask<Object> read : reads){
+			read.cancel(threadPerRead);
+		}
+	}
+
+	private synchronized void completed(Throwable readFailure){
+		if(readFailure != null && failure == null)
+			failure = readFailure;
+		notifyAll();
+	}
+
+	private class ForkedRead extends FutureTask<Object>{
+		private final boolean required;
+		private final AtomicBoolean started = new AtomicBoolean();
+		private boolean stealable = true;
+
+		ForkedRead(Callable<Object> read, boolean required) {
+			super(read);
+			this.required = required;
+		}
+
+		@Override
+		public void run() {
+			if(started.compareAndSet(false, true))
+				super.run();
+		}
+
+		@Override
+		protected void done() {
+			Throwable readFailure = null;
+			if(required && !isCancelled()){
+				try{
+					get();
+				}catch (ExecutionException e) {
+					readFailure = e.getCause();
+				}catch (InterruptedException e) {
+					//cannot happen as the read is done
+					Thread.currentThread().interrupt();
+				}
+			}
+			completed(readFailure);
+		}
+	}
+}
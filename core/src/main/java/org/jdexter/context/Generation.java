@@ -0,0 +1,106 @@
+package org.jdexter.context;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of the configurations saved in a {@link ConfigurationContext}. A read, reload or document read saves
+ * the configurations it reads into a private draft, and publishes them all at once as the next generation when it
+ * completes, so a generation never contains a mix of configurations of a read in progress and a generation once
+ * obtained never changes. Looking up a configuration neither locks nor allocates.
+ * <br/><br/>
+ * Threads needing several configurations that are consistent with each other should take them from the same
+ * generation, see {@link ConfigurationContext#getGeneration()}.
+ * @author Narendra
+ *
+ */
+public final class Generation {
+	private final long number;
+	private final Map<Class<?>, Object> configurations;
+	private final Map<Class<?>, Long> fingerprints;
+	private final Map<Class<?>, Long> publications;
+
+	private Generation(long number, Map<Class<?>, Object> configurations, Map<Class<?>, Long> fingerprints,
+			Map<Class<?>, Long> publications) {
+		this.number = number;
+		this.configurations = configurations;
+		this.fingerprints = fingerprints;
+		this.publications = publications;
+	}
+
+	static Generation empty(){
+		return new Generation(0, new HashMap<Class<?>, Object>(), new HashMap<Class<?>, Long>(), new HashMap<Class<?>, Long>());
+	}
+
+	/**
+	 * @return the generation following this one, with the configurations saved by a draft replacing those of this one
+	 */
+	Generation next(Map<Class<?>, Object> saved){
+		return next(saved, Collections.<Class<?>, Long>emptyMap());
+	}
+
+	/**
+	 * @param savedFingerprints fingerprints of the sources the saved configurations were read from, a saved
+	 * configuration without one drops the fingerprint of the configuration it replaces
+	 */
+	Generation next(Map<Class<?>, Object> saved, Map<Class<?>, Long> savedFingerprints){
+		Map<Class<?>, Object> configurations = new HashMap<Class<?>, Object>(this.configurations);
+		configurations.putAll(saved);
+		Map<Class<?>, Long> fingerprints = new HashMap<Class<?>, Long>(this.fingerprints);
+		fingerprints.keySet().removeAll(saved.keySet());
+		fingerprints.putAll(savedFingerprints);
+		Map<Class<?>, Long> publications = new HashMap<Class<?>, Long>(this.publications);
+		for(Class<?> configurationClass : saved.keySet()){
+			publications.put(configurationClass, number + 1);
+		}
+		return new Generation(number + 1, configurations, fingerprints, publications);
+	}
+
+	/**
+	 * @return number of the generation, starting with 0 for a context which has not read anything and incremented by
+	 * every publication
+	 */
+	public long getNumber() {
+		return number;
+	}
+
+	/**
+	 * @return the configuration of the class in this generation, <code>null</code> when the class was not read
+	 */
+	public <T> T get(Class<T> configurationClass){
+		if(configurationClass == null)
+			throw new IllegalArgumentException("Class cannot be null");
+
+		return configurationClass.cast(configurations.get(configurationClass));
+	}
+
+	boolean contains(Class<?> configurationClass){
+		return configurations.containsKey(configurationClass);
+	}
+
+	Object fetch(Class<?> configurationClass){
+		return configurations.get(configurationClass);
+	}
+
+	/**
+	 * @return fingerprint of the source the configuration of the class was read from, <code>null</code> when it was
+	 * not read from a file
+	 */
+	Long fingerprintOf(Class<?> configurationClass){
+		return fingerprints.get(configurationClass);
+	}
+
+	/**
+	 * @return number of the generation which published the configuration of the class held by this generation, 0 when
+	 * the class was not read
+	 */
+	long publicationOf(Class<?> configurationClass){
+		Long publication = publications.get(configurationClass);
+		return publication == null ? 0 : publication;
+	}
+
+	int size(){
+		return configurations.size();
+	}
+}
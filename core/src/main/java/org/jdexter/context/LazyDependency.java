@@ -0,0 +1,88 @@
+package org.jdexter.context;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.function.Supplier;
+
+import org.jdexter.annotation.Lazy;
+import org.jdexter.exception.ReadConfigurationException;
+
+/**
+ * Supplier injected into a {@link Lazy} dependency, resolving the dependency through the context on the first call
+ * and returning the same instance on every later call.
+ * @author Narendra
+ *
+ */
+final class LazyDependency implements Supplier<Object> {
+	private final ConfigurationContext context;
+	private final Class<?> configurationClass;
+	private final Class<?> dependencyClass;
+	private final boolean optional;
+	private volatile boolean resolved;
+	private Object dependency;
+
+	LazyDependency(ConfigurationContext context, Class<?> configurationClass, Class<?> dependencyClass, boolean optional) {
+		this.context = context;
+		this.configurationClass = configurationClass;
+		this.dependencyClass = dependencyClass;
+		this.optional = optional;
+	}
+
+	static boolean isLazy(Field field){
+		return field.isAnnotationPresent(Lazy.class);
+	}
+
+	/**
+	 * @return class of the configuration the field depends upon, which for a {@link Lazy} field is the type supplied
+	 * @throws IllegalArgumentException if the field is lazy but not a supplier of a configuration class
+	 */
+	static Class<?> dependencyClassOf(Field field){
+		if(!isLazy(field))
+			return field.getType();
+
+		Type type = field.getGenericType();
+		if(field.getType() != Supplier.class || !(type instanceof ParameterizedType))
+			throw new IllegalArgumentException("Lazy dependency: " + field.getName() + " of class: "
+					+ field.getDeclaringClass().getName() + " must be a " + Supplier.class.getName() + " of the configuration it depends upon");
+
+		Type supplied = ((ParameterizedType) type).getActualTypeArguments()[0];
+		if(!(supplied instanceof Class))
+			throw new IllegalArgumentException("Lazy dependency: " + field.getName() + " of class: "
+					+ field.getDeclaringClass().getName() + " must supply a configuration class, found: " + supplied);
+		return (Class<?>) supplied;
+	}
+
+	@Override
+	public Object get() {
+		if(!resolved){
+			synchronized (this) {
+				if(!resolved){
+					dependency = resolve();
+					resolved = true;
+				}
+			}
+		}
+		return dependency;
+	}
+
+	private Object resolve(){
+		if(optional && context.isFailing(dependencyClass))
+			return null;
+
+		try {
+			return context.resolveDependency(dependencyClass);
+		} catch (ReadConfigurationException e) {
+			if(!optional)
+				throw new IllegalStateException("Lazy dependency: " + dependencyClass.getName() + " could not be read", e);
+
+			context.optionalDependencyFailed(configurationClass, dependencyClass, e);
+			return null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "LazyDependency[" + dependencyClass.getName() + (resolved ? ", resolved]" : "]");
+	}
+}
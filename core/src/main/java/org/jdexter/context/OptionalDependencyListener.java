@@ -0,0 +1,19 @@
+package org.jdexter.context;
+
+import org.jdexter.exception.ReadConfigurationException;
+
+/**
+ * Notified by {@link ConfigurationContext} of the optional dependencies which fail to read and are left out. A
+ * dependency is reported when it fails, and then not read again, nor reported, for as long as the context keeps its
+ * failure, see {@link ConfigurationContext#setOptionalDependencyFailureTtl(long, java.util.concurrent.TimeUnit)}.
+ * Listeners are called on the thread of the read, so they should hand off any lengthy work.
+ * @author Narendra
+ *
+ */
+public interface OptionalDependencyListener {
+
+	/**
+	 * @param configurationClass class declaring the optional dependency, which is read without it
+	 */
+	void optionalDependencyFailed(Class<?> configurationClass, Class<?> dependencyClass, ReadConfigurationException e);
+}
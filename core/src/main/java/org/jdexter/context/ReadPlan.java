@@ -0,0 +1,398 @@
+package org.jdexter.context;
+
+import static org.jdexter.util.ReflectionUtil.invokeLifeCycleEvent;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.jdexter.annotation.PostRead;
+import org.jdexter.annotation.processor.MetaDataCollector;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.Reader;
+import org.jdexter.util.FieldInjector;
+import org.jdexter.util.ReflectionUtil;
+
+/**
+ * Immutable plan of reading a configuration class, compiled once from its {@link MetaDataCollector} so that reads of
+ * the class only execute it. The plan is a flat array of steps:
+ * <ol>
+ * <li>invocation of the reader</li>
+ * <li>injection of the dependencies and inner configurations, or a single step resolving all of them concurrently</li>
+ * <li>injection of a {@link LazyDependency} into every {@link org.jdexter.annotation.Lazy} dependency</li>
+ * <li>one step per conditional configuration, deciding and reading it, sorted topologically by
+ * {@link org.jdexter.annotation.Conditional#dependsOn()}</li>
+ * <li>saving the instance in the context and firing {@link PostRead}</li>
+ * </ol>
+ * Plans are executed by a {@link ReadStack}, steps needing another configuration read request it from the frame of
+ * the configuration being read rather than reading it themselves.
+ * @author Narendra
+ *
+ */
+final class ReadPlan {
+	private final Class<?> configurationClass;
+	private final Step[] steps;
+
+	private ReadPlan(Class<?> configurationClass, Step[] steps) {
+		this.configurationClass = configurationClass;
+		this.steps = steps;
+	}
+
+	/**
+	 * @param executor executor to resolve dependencies and inner configurations on or <code>null</code> to resolve them sequentially
+	 * @throws IllegalArgumentException if the conditional configurations depend on each other in a cycle, or a lazy
+	 * dependency is not a supplier of a configuration class
+	 */
+	static ReadPlan compile(Class<?> configurationClass, MetaDataCollector metaDataCollector, Executor executor){
+		List<Step> steps = new ArrayList<Step>();
+		steps.add(new ReaderInvocation(metaDataCollector.getReader(), configurationClass));
+
+		FieldInjector[] dependencies = injectorsOf(eagerFieldsOf(metaDataCollector.getDependencies()), metaDataCollector);
+		FieldInjector[] optionalDependencies = injectorsOf(eagerFieldsOf(metaDataCollector.getOptionalDependencies()), metaDataCollector);
+		FieldInjector[] innerConfigurations = injectorsOf(metaDataCollector.getInnerConfigurations(), metaDataCollector);
+		if(executor == null){
+			for(FieldInjector injector : dependencies){
+				steps.add(new DependencyInjection(injector));
+			}
+			for(FieldInjector injector : optionalDependencies){
+				steps.add(new OptionalDependencyInjection(injector));
+			}
+			for(FieldInjector injector : innerConfigurations){
+				steps.add(new InnerConfigurationInjection(injector));
+			}
+		}else if(dependencies.length + optionalDependencies.length + innerConfigurations.length > 0){
+			steps.add(new ConcurrentResolution(executor, dependencies, optionalDependencies, innerConfigurations));
+		}
+		for(Field field : lazyFieldsOf(metaDataCollector.getDependencies())){
+			steps.add(new LazyDependencyInjection(metaDataCollector.getInjector(field), false));
+		}
+		for(Field field : lazyFieldsOf(metaDataCollector.getOptionalDependencies())){
+			steps.add(new LazyDependencyInjection(metaDataCollector.getInjector(field), true));
+		}
+
+		for(Field field : sortConditionalConfigurations(metaDataCollector)){
+			steps.add(new ConditionalConfigurationInjection(metaDataCollector.getDecisionMethod(), metaDataCollector.getInjector(field)));
+		}
+
+		steps.add(new Completion());
+		return new ReadPlan(configurationClass, steps.toArray(new Step[steps.size()]));
+	}
+
+	Class<?> getConfigurationClass() {
+		return configurationClass;
+	}
+
+	int size(){
+		return steps.length;
+	}
+
+	/**
+	 * Executes the step on the frame of the configuration being read
+	 */
+	void execute(int step, ConfigurationContext context, ReadStack.Frame frame) throws Throwable{
+		steps[step].execute(context, frame);
+	}
+
+	private static FieldInjector[] injectorsOf(Set<Field> fields, MetaDataCollector metaDataCollector){
+		FieldInjector[] injectors = new FieldInjector[fields.size()];
+		int index = 0;
+		for(Field field : fields){
+			injectors[index++] = metaDataCollector.getInjector(field);
+		}
+		return injectors;
+	}
+
+	private static Set<Field> eagerFieldsOf(Set<Field> dependencies){
+		Set<Field> eager = new LinkedHashSet<Field>(dependencies);
+		eager.removeAll(lazyFieldsOf(dependencies));
+		return eager;
+	}
+
+	private static Set<Field> lazyFieldsOf(Set<Field> dependencies){
+		Set<Field> lazy = new LinkedHashSet<Field>();
+		for(Field field : dependencies){
+			if(LazyDependency.isLazy(field))
+				lazy.add(field);
+		}
+		return lazy;
+	}
+
+	private static Set<Field> sortConditionalConfigurations(MetaDataCollector metaDataCollector){
+		Set<Field> sorted = new LinkedHashSet<Field>();
+		Set<Field> visiting = new LinkedHashSet<Field>();
+		for(Field field : metaDataCollector.getConditionalConfigurations()){
+			visit(field, metaDataCollector, visiting, sorted);
+		}
+		return sorted;
+	}
+
+	private static void visit(Field field, MetaDataCollector metaDataCollector, Set<Field> visiting, Set<Field> sorted){
+		if(sorted.contains(field))
+			return;
+		if(!visiting.add(field))
+			throw new IllegalArgumentException("Conditional configurations depend on each other in a cycle: " + namesOf(visiting) + " -> " + field.getName());
+
+		for(Field dependency : metaDataCollector.getDependenciesForConditionalConfiguration(field)){
+			visit(dependency, metaDataCollector, visiting, sorted);
+		}
+		visiting.remove(field);
+		sorted.add(field);
+	}
+
+	private static List<String> namesOf(Set<Field> fields){
+		List<String> names = new ArrayList<String>();
+		for(Field field : fields){
+			names.add(field.getName());
+		}
+		return names;
+	}
+
+	/**
+	 * A step of the plan
+	 */
+	interface Step{
+		/**
+		 * Executes the step on the instance being read, which the reader invocation sets on the frame. A step needing
+		 * a configuration read requests it from the frame and returns, and is executed again once the read is
+		 * delivered.
+		 */
+		void execute(ConfigurationContext context, ReadStack.Frame frame) throws Throwable;
+	}
+
+	static class ReaderInvocation implements Step{
+		private final Class<? extends Reader> reader;
+		private final Class<?> configurationClass;
+
+		ReaderInvocation(Class<? extends Reader> reader, Class<?> configurationClass) {
+			this.reader = reader;
+			this.configurationClass = configurationClass;
+		}
+
+		@Override
+		public void execute(ConfigurationContext context, ReadStack.Frame frame) throws Throwable {
+			frame.setInstance(context.readWith(reader, configurationClass));
+		}
+	}
+
+	static class DependencyInjection implements Step{
+		private final FieldInjector injector;
+
+		DependencyInjection(FieldInjector injector) {
+			this.injector = injector;
+		}
+
+		@Override
+		public void execute(ConfigurationContext context, ReadStack.Frame frame) throws Throwable {
+			if(!frame.hasRead())
+				frame.resolve(injector.getField().getType());
+			else
+				injector.inject(frame.getInstance(), frame.takeRead());
+		}
+	}
+
+	static class OptionalDependencyInjection implements Step{
+		private final FieldInjector injector;
+
+		OptionalDependencyInjection(FieldInjector injector) {
+			this.injector = injector;
+		}
+
+		@Override
+		public void execute(ConfigurationContext context, ReadStack.Frame frame) throws Throwable {
+			Class<?> dependencyClass = injector.getField().getType();
+			if(!frame.hasRead()){
+				if(!context.isFailing(dependencyClass))
+					frame.resolve(dependencyClass);
+				return;
+			}
+			try{
+				injector.inject(frame.getInstance(), frame.takeRead());
+			}catch (ReadConfigurationException ex) {
+				//left out as dependency is optional
+				context.optionalDependencyFailed(frame.getInstance().getClass(), dependencyClass, ex);
+			}
+		}
+	}
+
+	/**
+	 * Injects a supplier reading the dependency on first access, without reading anything
+	 */
+	static class LazyDependencyInjection implements Step{
+		private final FieldInjector injector;
+		private final Class<?> dependencyClass;
+		private final boolean optional;
+
+		LazyDependencyInjection(FieldInjector injector, boolean optional) {
+			this.injector = injector;
+			this.dependencyClass = LazyDependency.dependencyClassOf(injector.getField());
+			this.optional = optional;
+		}
+
+		@Override
+		public void execute(ConfigurationContext context, ReadStack.Frame frame) throws Throwable {
+			injector.inject(frame.getInstance(), new LazyDependency(context, frame.getInstance().getClass(), dependencyClass, optional));
+		}
+	}
+
+	static class InnerConfigurationInjection implements Step{
+		private final FieldInjector injector;
+
+		InnerConfigurationInjection(FieldInjector injector) {
+			this.injector = injector;
+		}
+
+		@Override
+		public void execute(ConfigurationContext context, ReadStack.Frame frame) throws Throwable {
+			//expects always a freshly read instance
+			if(!frame.hasRead())
+				frame.read(injector.getField().getType());
+			else
+				injector.inject(frame.getInstance(), frame.takeRead());
+		}
+	}
+
+	/**
+	 * Forks the reads of all the dependencies and inner configurations, and injects them in the same order as they
+	 * are injected by a sequential read. A forked read which the executor has not picked up yet by the time it is to
+	 * be injected is claimed back and requested from the frame instead, so that it is read on the stack of the frame
+	 * rather than nested on the thread stack, and the step is executed again once it is delivered.
+	 */
+	static class ConcurrentResolution implements Step{
+		private final Executor executor;
+		private final FieldInjector[] dependencies;
+		private final FieldInjector[] optionalDependencies;
+		private final FieldInjector[] innerConfigurations;
+
+		ConcurrentResolution(Executor executor, FieldInjector[] dependencies, FieldInjector[] optionalDependencies, FieldInjector[] innerConfigurations) {
+			this.executor = executor;
+			this.dependencies = dependencies;
+			this.optionalDependencies = optionalDependencies;
+			this.innerConfigurations = innerConfigurations;
+		}
+
+		@Override
+		public void execute(ConfigurationContext context, ReadStack.Frame frame) throws Throwable {
+			Object configurationInstance = frame.getInstance();
+			Resolution resolution = (Resolution) frame.getStepState();
+			try{
+				if(resolution == null){
+					resolution = fork(context);
+					frame.setStepState(resolution);
+				}
+
+				boolean delivered = frame.hasRead();
+				for(; resolution.next < resolution.forked.size(); resolution.next++){
+					int index = resolution.next;
+					FutureTask<Object> read = resolution.forked.get(index);
+					if(!delivered && read != null && resolution.reads.claim(read)){
+						if(index < dependencies.length + optionalDependencies.length)
+							frame.resolve(injectorAt(index).getField().getType());
+						else
+							frame.read(injectorAt(index).getField().getType());
+						return;
+					}
+					if(!delivered && read == null)
+						continue;
+
+					try{
+						injectorAt(index).inject(configurationInstance, delivered ? frame.takeRead() : resolution.reads.join(read));
+					}catch (ReadConfigurationException ex) {
+						if(!isOptional(index))
+							throw ex;
+						//left out as dependency is optional
+						context.optionalDependencyFailed(configurationInstance.getClass(), injectorAt(index).getField().getType(), ex);
+					}
+					delivered = false;
+				}
+				frame.setStepState(null);
+			}catch (Throwable t) {
+				frame.setStepState(null);
+				if(resolution != null)
+					resolution.reads.cancelPending();
+				throw t;
+			}
+		}
+
+		private Resolution fork(ConfigurationContext context){
+			ForkedReads reads = new ForkedReads(executor);
+			List<FutureTask<Object>> forked = new ArrayList<FutureTask<Object>>();
+			for(FieldInjector injector : dependencies){
+				forked.add(reads.fork(context.dependencyRead(injector.getField().getType())));
+			}
+			for(FieldInjector injector : optionalDependencies){
+				Class<?> dependencyClass = injector.getField().getType();
+				//a dependency failing recently is left out without forking its read
+				forked.add(context.isFailing(dependencyClass) ? null : reads.fork(context.dependencyRead(dependencyClass), false));
+			}
+			for(FieldInjector injector : innerConfigurations){
+				forked.add(reads.fork(context.innerConfigurationRead(injector.getField().getType())));
+			}
+			return new Resolution(reads, forked);
+		}
+
+		private FieldInjector injectorAt(int index){
+			if(index < dependencies.length)
+				return dependencies[index];
+			index -= dependencies.length;
+			if(index < optionalDependencies.length)
+				return optionalDependencies[index];
+			return innerConfigurations[index - optionalDependencies.length];
+		}
+
+		private boolean isOptional(int index){
+			return index >= dependencies.length && index < dependencies.length + optionalDependencies.length;
+		}
+
+		/**
+		 * Reads forked by the step, in the order of injection, with <code>null</code> for the optional dependencies
+		 * left out, and the index of the next one to inject
+		 */
+		private static final class Resolution{
+			private final ForkedReads reads;
+			private final List<FutureTask<Object>> forked;
+			private int next;
+
+			Resolution(ForkedReads reads, List<FutureTask<Object>> forked) {
+				this.reads = reads;
+				this.forked = forked;
+			}
+		}
+	}
+
+	static class ConditionalConfigurationInjection implements Step{
+		private final Method decisionMethod;
+		private final FieldInjector injector;
+
+		ConditionalConfigurationInjection(Method decisionMethod, FieldInjector injector) {
+			this.decisionMethod = decisionMethod;
+			this.injector = injector;
+		}
+
+		@Override
+		public void execute(ConfigurationContext context, ReadStack.Frame frame) throws Throwable {
+			if(frame.hasRead()){
+				injector.inject(frame.getInstance(), frame.takeRead());
+				return;
+			}
+			Class<?> configurationClass = injector.getField().getType();
+			if((Boolean) ReflectionUtil.invokeMethod(decisionMethod, frame.getInstance(), configurationClass))
+				frame.read(configurationClass);
+		}
+	}
+
+	/**
+	 * Saves the instance in the context and fires {@link PostRead}
+	 */
+	static class Completion implements Step{
+		@Override
+		public void execute(ConfigurationContext context, ReadStack.Frame frame) throws Throwable {
+			context.save(frame.getInstance());
+			invokeLifeCycleEvent(frame.getInstance(), PostRead.class);
+		}
+	}
+}
@@ -0,0 +1,312 @@
+package org.jdexter.context;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.jdexter.context.SingleFlightReads.Flight;
+import org.jdexter.exception.CircularDependencyException;
+import org.jdexter.exception.ReadConfigurationException;
+
+/**
+ * Reads a configuration by executing its {@link ReadPlan} along with the plans of all the configurations read as part
+ * of it, on an explicit stack of frames instead of the stack of the calling thread, so reading a deep configuration
+ * graph takes a constant amount of thread stack. A step needing another configuration requests its read from the
+ * frame of the configuration being read and returns; the stack then pushes a frame for the requested read, and
+ * executes the step again once the read is delivered to the frame.
+ * <br/><br/>
+ * The classes being read on the stack are kept in a map, so a read of a class which is already being read, that is
+ * a cycle of dependencies, inner configurations or conditional configurations, fails as soon as it is requested and
+ * reports the whole cycle. The failure is delivered to the step requesting the read like any other, so an optional
+ * dependency closing a cycle is left out. Reads forked on an executor run on stacks of their own, which continue the
+ * path of the frame forking them, hence a cycle through forked reads is found by walking the frames of the forking
+ * reads as well. A forked read which no thread of the executor has picked up by the time it is joined is claimed back
+ * and requested from the frame like any other read, so the thread stack stays constant on an executor too.
+ * @author Narendra
+ *
+ */
+final class ReadStack {
+	private final ConfigurationContext context;
+	private final SingleFlightReads flights;
+	private final ThreadLocal<Frame> reading;
+	private final Deque<Frame> frames;
+	private final Map<Class<?>, Frame> inProgress;
+	private final Frame host;
+
+	/**
+	 * @param reading frame being read on the calling thread, which is the frame forking or otherwise starting this
+	 * read, kept up to date with the frame on top of the stack while it is run
+	 */
+	ReadStack(ConfigurationContext context, SingleFlightReads flights, ThreadLocal<Frame> reading) {
+		this.context = context;
+		this.flights = flights;
+		this.reading = reading;
+		this.frames = new ArrayDeque<Frame>();
+		this.inProgress = new HashMap<Class<?>, Frame>();
+		this.host = new Frame(null, null, reading.get(), flights.current(), false);
+	}
+
+	/**
+	 * Reads a new instance of the configuration class and completes it
+	 */
+	Object read(Class<?> configurationClass) throws Throwable{
+		host.read(configurationClass);
+		return run();
+	}
+
+	/**
+	 * Completes an instance which is already read, by executing all the steps of its plan but the reader invocation
+	 */
+	Object complete(Class<?> configurationClass, Object configurationInstance) throws Throwable{
+		checkNotInProgress(configurationClass, host);
+		Frame frame = push(host, configurationClass, null);
+		frame.instance = configurationInstance;
+		frame.next = 1;
+		return run();
+	}
+
+	private Object run() throws Throwable{
+		try{
+			while(true){
+				Frame frame = frames.isEmpty() ? host : frames.peek();
+				enter(frame);
+				if(frame.requested != null){
+					start(frame);
+					continue;
+				}
+				if(frame == host)
+					return host.takeRead();
+
+				try{
+					if(frame.next < frame.plan.size()){
+						frame.plan.execute(frame.next, context, frame);
+						if(frame.requested == null)
+							frame.next++;
+					}else{
+						pop(frame, frame.instance, null);
+					}
+				}catch (Throwable t) {
+					pop(frame, null, ConfigurationContext.readConfigurationExceptionOf(t));
+				}
+			}
+		}finally{
+			restore();
+		}
+	}
+
+	/**
+	 * Starts the read requested by the frame, either by pushing a frame for it or, for a dependency which is saved or
+	 * being read by another thread, by delivering the dependency right away
+	 */
+	private void start(Frame caller){
+		Class<?> configurationClass = caller.requested;
+		boolean dependency = caller.dependency;
+		caller.requested = null;
+		try{
+			if(dependency && context.isSaved(configurationClass)){
+				caller.deliver(context.fetch(configurationClass), null);
+				return;
+			}
+			if(inProgress.containsKey(configurationClass) || isBeingRead(configurationClass, host.caller))
+				throw new CircularDependencyException("Circular dependency: " + cycleOf(configurationClass, caller));
+			if(!dependency){
+				push(caller, configurationClass, null);
+				return;
+			}
+
+			Flight flight = flights.begin(configurationClass);
+			if(!flight.isPilotedByCurrentThread()){
+				Object coalesced = flights.await(flight);
+				context.adopt(coalesced);
+				caller.deliver(coalesced, null);
+				return;
+			}
+			try{
+				if(context.isSaved(configurationClass)){
+					Object saved = context.fetch(configurationClass);
+					flights.land(flight, saved, null);
+					caller.deliver(saved, null);
+				}else{
+					push(caller, configurationClass, flight);
+				}
+			}catch (Throwable t) {
+				flights.land(flight, null, ConfigurationContext.readConfigurationExceptionOf(t));
+				throw t;
+			}
+		}catch (Throwable t) {
+			caller.deliver(null, ConfigurationContext.readConfigurationExceptionOf(t));
+		}
+	}
+
+	private Frame push(Frame caller, Class<?> configurationClass, Flight flight){
+		Frame frame = new Frame(configurationClass, context.planOf(configurationClass), caller,
+				flight == null ? caller.flight : flight, flight != null);
+		frames.push(frame);
+		inProgress.put(configurationClass, frame);
+		return frame;
+	}
+
+	private void pop(Frame frame, Object instance, ReadConfigurationException failure){
+		frames.pop();
+		inProgress.remove(frame.configurationClass);
+		if(frame.piloting)
+			flights.land(frame.flight, instance, failure);
+		frame.caller.deliver(instance, failure);
+	}
+
+	/**
+	 * Checks the path of a read starting outside of the stack of the frame, such as a read forked by it
+	 * @param frame frame starting the read or <code>null</code>
+	 * @throws CircularDependencyException if the class is being read by the frame or by any frame it was started from
+	 */
+	static void checkNotInProgress(Class<?> configurationClass, Frame frame){
+		if(isBeingRead(configurationClass, frame))
+			throw new CircularDependencyException("Circular dependency: " + cycleOf(configurationClass, frame));
+	}
+
+	private static boolean isBeingRead(Class<?> configurationClass, Frame frame){
+		for(Frame caller = frame; caller != null; caller = caller.caller){
+			if(caller.configurationClass == configurationClass)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return path of classes from the frame reading the class to the frame requesting it again, and back to the class
+	 */
+	private static String cycleOf(Class<?> configurationClass, Frame caller){
+		List<String> path = new LinkedList<String>();
+		path.add(configurationClass.getName());
+		for(Frame frame = caller; frame != null; frame = frame.caller){
+			if(frame.configurationClass == null)
+				continue;
+			path.add(0, frame.configurationClass.getName());
+			if(frame.configurationClass == configurationClass)
+				break;
+		}
+
+		StringBuilder cycle = new StringBuilder();
+		for(String name : path){
+			if(cycle.length() > 0)
+				cycle.append(" -> ");
+			cycle.append(name);
+		}
+		return cycle.toString();
+	}
+
+	private void enter(Frame frame){
+		if(reading.get() == frame)
+			return;
+
+		reading.set(frame);
+		flights.resume(frame.flight);
+	}
+
+	private void restore(){
+		if(host.caller == null)
+			reading.remove();
+		else
+			reading.set(host.caller);
+		flights.resume(host.flight);
+	}
+
+	/**
+	 * Configuration being read on a {@link ReadStack}, along with the step of its plan to execute next and the read
+	 * requested by that step
+	 */
+	static final class Frame{
+		private final Class<?> configurationClass;
+		private final ReadPlan plan;
+		private final Frame caller;
+		private final Flight flight;
+		private final boolean piloting;
+		private Object instance;
+		private int next;
+		private Class<?> requested;
+		private boolean dependency;
+		private boolean delivered;
+		private Object read;
+		private ReadConfigurationException failure;
+		private Object stepState;
+
+		private Frame(Class<?> configurationClass, ReadPlan plan, Frame caller, Flight flight, boolean piloting) {
+			this.configurationClass = configurationClass;
+			this.plan = plan;
+			this.caller = caller;
+			this.flight = flight;
+			this.piloting = piloting;
+		}
+
+		Object getInstance() {
+			return instance;
+		}
+
+		void setInstance(Object instance) {
+			this.instance = instance;
+		}
+
+		/**
+		 * @return state kept by the step being executed between its executions, <code>null</code> when the step is
+		 * executed for the first time
+		 */
+		Object getStepState() {
+			return stepState;
+		}
+
+		void setStepState(Object stepState) {
+			this.stepState = stepState;
+		}
+
+		/**
+		 * Requests a freshly read instance of the class, the requesting step returns and is executed again once the
+		 * instance is delivered
+		 */
+		void read(Class<?> configurationClass){
+			request(configurationClass, false);
+		}
+
+		/**
+		 * Requests the saved instance of the dependency, which is read only if it is not saved yet
+		 */
+		void resolve(Class<?> dependencyClass){
+			request(dependencyClass, true);
+		}
+
+		/**
+		 * @return true if the read requested by the step has been delivered
+		 */
+		boolean hasRead(){
+			return delivered;
+		}
+
+		/**
+		 * @return the delivered read, which the step can take only once
+		 * @throws ReadConfigurationException if the requested read failed
+		 */
+		Object takeRead() throws ReadConfigurationException{
+			Object taken = read;
+			ReadConfigurationException takenFailure = failure;
+			delivered = false;
+			read = null;
+			failure = null;
+			if(takenFailure != null)
+				throw takenFailure;
+			return taken;
+		}
+
+		private void request(Class<?> configurationClass, boolean dependency){
+			this.requested = configurationClass;
+			this.dependency = dependency;
+		}
+
+		private void deliver(Object read, ReadConfigurationException failure){
+			this.delivered = true;
+			this.read = read;
+			this.failure = failure;
+		}
+	}
+}
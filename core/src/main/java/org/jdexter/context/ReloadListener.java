@@ -0,0 +1,22 @@
+package org.jdexter.context;
+
+import org.jdexter.exception.ReadConfigurationException;
+
+/**
+ * Notified by {@link ReloadService} of every configuration it reloads. Listeners are called on the thread of the
+ * service, one class after another, so they should hand off any lengthy work.
+ * @author Narendra
+ *
+ */
+public interface ReloadListener {
+
+	/**
+	 * @param configuration the freshly read instance which has replaced the earlier one in the context
+	 */
+	void reloaded(Class<?> configurationClass, Object configuration);
+
+	/**
+	 * The file of the class keeps being watched after a failed reload, so fixing the file reloads it again.
+	 */
+	void reloadFailed(Class<?> configurationClass, ReadConfigurationException e);
+}
@@ -0,0 +1,285 @@
+package org.jdexter.context;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.ReaderUtil;
+
+/**
+ * Reloads configurations of a context when the files they are read from change. The directories of all the watched
+ * files are registered with a single {@link WatchService} and drained by one daemon thread, so watching hundreds of
+ * files costs one thread and no polling of the file system.
+ * <br/><br/>
+ * Editors and deployment tools usually write a file in several steps, hence the changes are debounced: once a change
+ * is seen the service keeps collecting changes until none is seen for the debounce interval, or for at most
+ * {@value #MAX_DEBOUNCE_INTERVALS} intervals when files keep changing. Every class whose file changed in such a batch
+ * is then reloaded exactly once, whatever the number of events seen for the file, together with the classes reaching
+ * it, in one call to {@link ConfigurationContext#reload(java.util.Collection)}. Classes which neither changed nor reach
+ * a changed class are not touched. When the batch fails to be read, its changed classes are reloaded one by one, so
+ * that a broken file neither keeps the other changed classes of the batch from reloading, nor has a failure reported
+ * for them. A listener throwing a runtime exception has it passed to the listener exception handler, see
+ * {@link #setListenerExceptionHandler(Thread.UncaughtExceptionHandler)}, and neither keeps the other listeners from
+ * being notified nor stops the service.
+ * <br/><br/>
+ * Only classes read from a file given by {@link org.jdexter.reader.annotation.XMLProperties} can be watched.
+ * @author Narendra
+ *
+ */
+public class ReloadService implements Closeable {
+	static final int MAX_DEBOUNCE_INTERVALS = 10;
+
+	private final ConfigurationContext context;
+	private final long debounceNanos;
+	private final WatchService watchService;
+	private final ConcurrentMap<Path, Set<Class<?>>> classesByFile;
+	private final Set<Path> directories;
+	private final List<ReloadListener> listeners;
+	private final Thread thread;
+	private final AtomicLong batchCount;
+	private final AtomicLong reloadCount;
+	private volatile Thread.UncaughtExceptionHandler listenerExceptionHandler;
+	private volatile boolean closed;
+
+	public ReloadService(ConfigurationContext context, long debounce, TimeUnit unit) throws IOException {
+		if(context == null)
+			throw new IllegalArgumentException("Context cannot be null");
+		if(debounce <= 0)
+			throw new IllegalArgumentException("Debounce interval must be positive, found: " + debounce);
+		if(unit == null)
+			throw new IllegalArgumentException("Time unit cannot be null");
+
+		this.context = context;
+		this.debounceNanos = unit.toNanos(debounce);
+		this.watchService = FileSystems.getDefault().newWatchService();
+		this.classesByFile = new ConcurrentHashMap<Path, Set<Class<?>>>();
+		this.directories = new CopyOnWriteArraySet<Path>();
+		this.listeners = new CopyOnWriteArrayList<ReloadListener>();
+		this.batchCount = new AtomicLong();
+		this.reloadCount = new AtomicLong();
+		this.thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				drain();
+			}
+		}, "jdexter-reload");
+		this.thread.setDaemon(true);
+	}
+
+	/**
+	 * Starts reloading the class whenever its file changes. Can be called before or after the service is started.
+	 */
+	public void watch(Class<?> configurationClass) throws IOException{
+		if(configurationClass == null)
+			throw new IllegalArgumentException("Class to watch cannot be null");
+
+		Path file = fileOf(configurationClass);
+		Set<Class<?>> classes = classesByFile.get(file);
+		if(classes == null){
+			Set<Class<?>> created = new CopyOnWriteArraySet<Class<?>>();
+			classes = classesByFile.putIfAbsent(file, created);
+			if(classes == null)
+				classes = created;
+		}
+		classes.add(configurationClass);
+
+		Path directory = file.getParent();
+		if(!directories.contains(directory)){
+			//registering a directory again only returns the same key, so racing registrations are harmless
+			directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+			directories.add(directory);
+		}
+	}
+
+	public void addListener(ReloadListener listener){
+		if(listener == null)
+			throw new IllegalArgumentException("Listener cannot be null");
+
+		listeners.add(listener);
+	}
+
+	/**
+	 * Sets the handler of the runtime exceptions thrown by listeners, which is called on the thread of the service.
+	 * Until one is set, they are passed to the uncaught exception handler of the thread, as any exception thrown by a
+	 * thread would be, though without stopping it.
+	 */
+	public void setListenerExceptionHandler(Thread.UncaughtExceptionHandler handler){
+		if(handler == null)
+			throw new IllegalArgumentException("Listener exception handler cannot be null");
+
+		listenerExceptionHandler = handler;
+	}
+
+	public void start(){
+		thread.start();
+	}
+
+	/**
+	 * Stops watching, a batch being reloaded is completed first.
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		watchService.close();
+	}
+
+	/**
+	 * @return number of batches of changes which caused atleast one class to be reloaded
+	 */
+	public long getBatchCount(){
+		return batchCount.get();
+	}
+
+	/**
+	 * @return number of classes reloaded, including the dependents of changed classes and the failed reloads
+	 */
+	public long getReloadCount(){
+		return reloadCount.get();
+	}
+
+	private void drain(){
+		try{
+			while(!closed){
+				Set<Path> changedFiles = new LinkedHashSet<Path>();
+				collect(watchService.take(), changedFiles);
+
+				long deadline = System.nanoTime() + MAX_DEBOUNCE_INTERVALS * debounceNanos;
+				long remaining;
+				WatchKey key;
+				while((remaining = deadline - System.nanoTime()) > 0
+						&& (key = watchService.poll(Math.min(debounceNanos, remaining), TimeUnit.NANOSECONDS)) != null){
+					collect(key, changedFiles);
+				}
+
+				reload(changedFiles);
+			}
+		}catch (InterruptedException e) {
+			//stop watching
+		}catch (ClosedWatchServiceException e) {
+			//closed
+		}
+	}
+
+	private void collect(WatchKey key, Set<Path> changedFiles){
+		Path directory = (Path) key.watchable();
+		for(WatchEvent<?> event : key.pollEvents()){
+			if(event.kind() == OVERFLOW){
+				//events were lost, so every watched file of the directory may have changed
+				for(Path file : classesByFile.keySet()){
+					if(file.getParent().equals(directory))
+						changedFiles.add(file);
+				}
+			}else{
+				changedFiles.add(directory.resolve((Path) event.context()));
+			}
+		}
+		key.reset();
+	}
+
+	void reload(Set<Path> changedFiles){
+		Set<Class<?>> classesToReload = new LinkedHashSet<Class<?>>();
+		for(Path file : changedFiles){
+			Set<Class<?>> classes = classesByFile.get(file);
+			if(classes != null)
+				classesToReload.addAll(classes);
+		}
+		if(classesToReload.isEmpty())
+			return;
+
+		batchCount.incrementAndGet();
+		ReadConfigurationException failure = reloadTogether(classesToReload);
+		if(failure == null)
+			return;
+		if(classesToReload.size() == 1){
+			reloadFailed(classesToReload, failure);
+			return;
+		}
+
+		//the failing classes are not known, so each is reloaded alone
+		for(Class<?> configurationClass : classesToReload){
+			Set<Class<?>> classToReload = Collections.<Class<?>>singleton(configurationClass);
+			failure = reloadTogether(classToReload);
+			if(failure != null)
+				reloadFailed(classToReload, failure);
+		}
+	}
+
+	/**
+	 * @return failure of the reload, in which case nothing is reloaded, or <code>null</code> once the listeners are
+	 * notified of the reloaded configurations
+	 */
+	private ReadConfigurationException reloadTogether(Set<Class<?>> classesToReload){
+		Map<Class<?>, Object> configurations;
+		try{
+			configurations = context.reload(classesToReload);
+		}catch (ReadConfigurationException e) {
+			return e;
+		}catch (RuntimeException e) {
+			return new ReadConfigurationException(e);
+		}
+
+		reloadCount.addAndGet(configurations.size());
+		for(Map.Entry<Class<?>, Object> configuration : configurations.entrySet()){
+			for(ReloadListener listener : listeners){
+				try{
+					listener.reloaded(configuration.getKey(), configuration.getValue());
+				}catch (RuntimeException e) {
+					listenerFailed(e);
+				}
+			}
+		}
+		return null;
+	}
+
+	private void reloadFailed(Set<Class<?>> classesToReload, ReadConfigurationException failure){
+		reloadCount.addAndGet(classesToReload.size());
+		for(Class<?> configurationClass : classesToReload){
+			for(ReloadListener listener : listeners){
+				try{
+					listener.reloadFailed(configurationClass, failure);
+				}catch (RuntimeException e) {
+					listenerFailed(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Hands the exception of a listener to the handler, a failing listener must neither stop the others nor the service
+	 */
+	private void listenerFailed(RuntimeException e){
+		Thread current = Thread.currentThread();
+		Thread.UncaughtExceptionHandler handler = listenerExceptionHandler;
+		try{
+			(handler != null ? handler : current.getUncaughtExceptionHandler()).uncaughtException(current, e);
+		}catch (RuntimeException handlerFailure) {
+			//the failure of the handler itself has nowhere else to go
+		}
+	}
+
+	static Path fileOf(Class<?> configurationClass){
+		return Paths.get(ReaderUtil.extractFileName(configurationClass)).toAbsolutePath().normalize();
+	}
+}
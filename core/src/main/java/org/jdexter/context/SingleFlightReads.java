@@ -0,0 +1,210 @@
+package org.jdexter.context;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jdexter.exception.CircularDependencyException;
+
+/**
+ * Coordinates concurrent reads of the same configuration class, so that only the first caller reads the class while
+ * the callers arriving during that read wait for its result instead of reading the class again.
+ * <br/><br/>
+ * Every read in flight remembers the read it was started from, and every waiting read is registered with the read it
+ * waits for. A read which would end up waiting for itself, as happens with circular dependencies, fails instead of
+ * blocking forever. Reads forked on an executor must be wrapped with {@link #inherit(Callable)} so that they are
+ * attributed to the read forking them.
+ * <br/><br/>
+ * A read can be run within a call to {@link #read(Class, Callable)}, or by a caller which does not run it on its own
+ * stack, such as {@link ReadStack}, between {@link #begin(Class)} and {@link #land(Flight, Object, Throwable)}.
+ * @author Narendra
+ *
+ */
+class SingleFlightReads {
+	private final ConcurrentMap<Class<?>, Flight> flights;
+	private final ThreadLocal<Flight> current;
+	private final AtomicLong coalescedCount;
+
+	SingleFlightReads() {
+		this.flights = new ConcurrentHashMap<Class<?>, Flight>();
+		this.current = new ThreadLocal<Flight>();
+		this.coalescedCount = new AtomicLong();
+	}
+
+	/**
+	 * @return number of reads which waited for the result of a read of the same class instead of reading it
+	 */
+	long getCoalescedCount(){
+		return coalescedCount.get();
+	}
+
+	/**
+	 * Runs the read of the class unless the class is already being read, in which case the result of that read is
+	 * returned
+	 * @throws Throwable exactly as thrown by the read
+	 */
+	Object read(Class<?> configurationClass, Callable<Object> read) throws Throwable{
+		Flight flight = begin(configurationClass);
+		if(!flight.isPilotedByCurrentThread())
+			return await(flight);
+
+		Flight caller = current.get();
+		current.set(flight);
+		try{
+			land(flight, read.call(), null);
+		}catch (Throwable t) {
+			land(flight, null, t);
+		}finally{
+			current.set(caller);
+		}
+		return flight.get();
+	}
+
+	/**
+	 * Starts a flight of the class as part of the read in flight on the calling thread, unless the class is already
+	 * in flight. A flight piloted by the calling thread must be completed with {@link #land(Flight, Object, Throwable)},
+	 * any other one awaited with {@link #await(Flight)}.
+	 * @throws CircularDependencyException if the class is in flight on the calling thread, which is then still reading it
+	 */
+	Flight begin(Class<?> configurationClass){
+		Flight flight = new Flight(configurationClass, current.get());
+		Flight existing = flights.putIfAbsent(configurationClass, flight);
+		if(existing == null)
+			return flight;
+		if(existing.isPilotedByCurrentThread())
+			throw new CircularDependencyException("Circular dependency on configuration: " + configurationClass.getName());
+		return existing;
+	}
+
+	/**
+	 * Completes the flight with the result or failure of the read, releasing the reads waiting for it
+	 */
+	void land(Flight flight, Object result, Throwable failure){
+		flight.complete(result, failure);
+		flights.remove(flight.configurationClass, flight);
+	}
+
+	/**
+	 * @return flight of the read running on the calling thread, <code>null</code> outside of dependency reads
+	 */
+	Flight current(){
+		return current.get();
+	}
+
+	/**
+	 * Attributes the reads started on the calling thread from now on to the flight
+	 */
+	void resume(Flight flight){
+		if(flight == null)
+			current.remove();
+		else
+			current.set(flight);
+	}
+
+	/**
+	 * @return read which runs as part of the read in flight on the calling thread
+	 */
+	Callable<Object> inherit(final Callable<Object> read){
+		final Flight parent = current.get();
+		return new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				Flight previous = current.get();
+				current.set(parent);
+				try{
+					return read.call();
+				}finally{
+					current.set(previous);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Waits for the result of a flight piloted by another thread
+	 * @throws Throwable exactly as thrown by the read, or {@link CircularDependencyException} if the read in flight on the
+	 * calling thread is needed to complete the flight
+	 */
+	Object await(Flight flight) throws Throwable{
+		Flight caller = current.get();
+		if(caller == null){
+			coalescedCount.incrementAndGet();
+			return flight.get();
+		}
+
+		//registered before checking, so that of two reads starting to wait for each other at least one sees the cycle
+		flight.waiters.add(caller);
+		try{
+			if(isWaitedBy(caller, flight))
+				throw new CircularDependencyException("Circular dependency on configuration: " + flight.configurationClass.getName());
+
+			coalescedCount.incrementAndGet();
+			return flight.get();
+		}finally{
+			flight.waiters.remove(caller);
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the flight cannot complete before the other one, that is if it is the other one or
+	 * waits for it directly or through other reads
+	 */
+	private static boolean isWaitedBy(Flight flight, Flight other){
+		Set<Flight> visited = new HashSet<Flight>();
+		Deque<Flight> pending = new ArrayDeque<Flight>();
+		pending.add(flight);
+		while(!pending.isEmpty()){
+			Flight next = pending.poll();
+			if(next == other)
+				return true;
+			if(!visited.add(next))
+				continue;
+			if(next.parent != null)
+				pending.add(next.parent);
+			pending.addAll(next.waiters);
+		}
+		return false;
+	}
+
+	static final class Flight{
+		private final Class<?> configurationClass;
+		private final Flight parent;
+		private final Thread pilot;
+		private final Set<Flight> waiters;
+		private final CountDownLatch landed;
+		private Object result;
+		private Throwable failure;
+
+		Flight(Class<?> configurationClass, Flight parent) {
+			this.configurationClass = configurationClass;
+			this.parent = parent;
+			this.pilot = Thread.currentThread();
+			this.waiters = Collections.newSetFromMap(new ConcurrentHashMap<Flight, Boolean>());
+			this.landed = new CountDownLatch(1);
+		}
+
+		boolean isPilotedByCurrentThread(){
+			return pilot == Thread.currentThread();
+		}
+
+		private void complete(Object result, Throwable failure){
+			this.result = result;
+			this.failure = failure;
+			landed.countDown();
+		}
+
+		private Object get() throws Throwable{
+			landed.await();
+			if(failure != null)
+				throw failure;
+			return result;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package org.jdexter.context;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor starting a thread of its own for every read, meant for contexts whose reads mostly block on file or, with
+ * custom readers, socket I/O. A context created with it fans every dependency and inner configuration of a
+ * configuration out onto its own thread, so no read ever waits for a pool thread to become free and the number of
+ * blocked reads is not bounded by the size of any pool.
+ * <br/><br/>
+ * On a runtime supporting virtual threads every read runs on a new virtual thread, which costs about as much as a
+ * task submitted to a pool. Elsewhere daemon platform threads are started instead, which still suits the occasional
+ * read of a configuration graph. The reads forked for a configuration are scoped to it: when a required read fails
+ * the others are interrupted and the configuration fails with the first failure.
+ * @author Narendra
+ *
+ */
+public final class ThreadPerReadExecutor implements Executor {
+	private static final ThreadFactory VIRTUAL_THREAD_FACTORY = virtualThreadFactory();
+
+	private final ThreadFactory threadFactory;
+
+	/**
+	 * Creates an executor running reads on virtual threads when the runtime supports them
+	 */
+	public ThreadPerReadExecutor() {
+		this(VIRTUAL_THREAD_FACTORY != null);
+	}
+
+	ThreadPerReadExecutor(boolean virtual) {
+		this.threadFactory = virtual && VIRTUAL_THREAD_FACTORY != null ? VIRTUAL_THREAD_FACTORY : new DaemonThreadFactory();
+	}
+
+	@Override
+	public void execute(Runnable read) {
+		if(read == null)
+			throw new IllegalArgumentException("Read to execute cannot be null");
+
+		threadFactory.newThread(read).start();
+	}
+
+	/**
+	 * @return true if reads are run on virtual threads
+	 */
+	public boolean isVirtual(){
+		return threadFactory == VIRTUAL_THREAD_FACTORY;
+	}
+
+	/**
+	 * Looks up <code>Thread.ofVirtual().factory()</code> reflectively, as the library is built for runtimes which do
+	 * not have virtual threads
+	 * @return factory of virtual threads or <code>null</code> when the runtime has none
+	 */
+	static ThreadFactory virtualThreadFactory(){
+		try {
+			Method ofVirtual = Thread.class.getMethod("ofVirtual");
+			Object builder = ofVirtual.invoke(null);
+			Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+			return (ThreadFactory) factory.invoke(builder);
+		} catch (Exception e) {
+			//no virtual threads, or only as a preview feature which is not enabled
+			return null;
+		}
+	}
+
+	private static class DaemonThreadFactory implements ThreadFactory{
+		private static final AtomicLong COUNT = new AtomicLong();
+
+		@Override
+		public Thread newThread(Runnable read) {
+			Thread thread = new Thread(read, "jdexter-read-" + COUNT.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
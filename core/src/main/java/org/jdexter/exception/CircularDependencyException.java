@@ -0,0 +1,17 @@
+package org.jdexter.exception;
+
+/**
+ * Thrown when a configuration is needed, through a dependency, inner configuration or conditional configuration,
+ * while it is still being read, that is when its graph closes a cycle. Whether a read closes a cycle depends on the
+ * path it is read through, so the configuration may well read on its own.
+ * @author Narendra
+ *
+ */
+public class CircularDependencyException extends IllegalStateException{
+
+	private static final long serialVersionUID = 1L;
+
+	public CircularDependencyException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,80 @@
+package org.jdexter.reader;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jdexter.reader.annotation.ThreadSafe;
+import org.jdexter.reader.exception.ReaderInstantiationException;
+
+/**
+ * Caching counterpart of {@link ReaderFactory}, which keeps the readers it creates so that a reader can hold state,
+ * such as JAXB contexts or compiled schemas, across reads:
+ * <ul>
+ * <li>readers marked {@link ThreadSafe} are created once and shared by all the threads</li>
+ * <li>any other reader is created once per thread, so it is never used by two threads at the same time but is
+ * still reused by successive reads on the same thread</li>
+ * </ul>
+ * A reader which fails to be created is not cached, it is created again when it is asked for next time.
+ * <pre>
+ * ConfigurationContext ctx = new ConfigurationContext(new CachingReaderFactory());
+ * </pre>
+ * @author Narendra
+ *
+ */
+public class CachingReaderFactory extends ReaderFactory{
+	private final ReaderFactory readerFactory;
+	private final ConcurrentMap<Class<? extends Reader>, Reader> sharedReaders;
+	private final ConcurrentMap<Class<? extends Reader>, ThreadLocal<Reader>> threadReaders;
+
+	public CachingReaderFactory() {
+		this(new ReaderFactory());
+	}
+
+	/**
+	 * @param readerFactory factory creating the readers which are cached
+	 */
+	public CachingReaderFactory(ReaderFactory readerFactory) {
+		if(readerFactory == null)
+			throw new IllegalArgumentException("Reader Factory cannot be null");
+
+		this.readerFactory = readerFactory;
+		this.sharedReaders = new ConcurrentHashMap<Class<? extends Reader>, Reader>();
+		this.threadReaders = new ConcurrentHashMap<Class<? extends Reader>, ThreadLocal<Reader>>();
+	}
+
+	@Override
+	public Reader getInstanceOf(Class<? extends Reader> readerClass) throws ReaderInstantiationException {
+		if(readerClass == null)
+			return readerFactory.getInstanceOf(readerClass);
+
+		return readerClass.isAnnotationPresent(ThreadSafe.class) ? sharedInstanceOf(readerClass) : threadInstanceOf(readerClass);
+	}
+
+	private Reader sharedInstanceOf(Class<? extends Reader> readerClass) throws ReaderInstantiationException{
+		Reader reader = sharedReaders.get(readerClass);
+		if(reader == null){
+			Reader created = readerFactory.getInstanceOf(readerClass);
+			reader = sharedReaders.putIfAbsent(readerClass, created);
+			if(reader == null)
+				reader = created;
+		}
+		return reader;
+	}
+
+	private Reader threadInstanceOf(Class<? extends Reader> readerClass) throws ReaderInstantiationException{
+		ThreadLocal<Reader> threadReader = threadReaders.get(readerClass);
+		if(threadReader == null){
+			ThreadLocal<Reader> created = new ThreadLocal<Reader>();
+			threadReader = threadReaders.putIfAbsent(readerClass, created);
+			if(threadReader == null)
+				threadReader = created;
+		}
+
+		Reader reader = threadReader.get();
+		if(reader == null){
+			reader = readerFactory.getInstanceOf(readerClass);
+			threadReader.set(reader);
+		}
+		return reader;
+	}
+}
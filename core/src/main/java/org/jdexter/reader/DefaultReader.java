@@ -1,7 +1,9 @@
 package org.jdexter.reader;
 
+import org.jdexter.reader.annotation.ThreadSafe;
 import org.jdexter.util.ReflectionUtil;
 
+@ThreadSafe
 public class DefaultReader extends Reader{
 
 	@Override
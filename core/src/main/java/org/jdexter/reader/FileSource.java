@@ -0,0 +1,205 @@
+package org.jdexter.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.zip.CRC32;
+
+/**
+ * Content of a configuration file as used by the file backed readers. Files of atleast the mapping threshold
+ * bytes are opened through {@link FileChannel#map(MapMode, long, long)} as a read only {@link java.nio.MappedByteBuffer},
+ * so the parser reads straight from the page cache without any intermediate copies and several contexts reading the
+ * same file share the same pages. Smaller files are read into a heap buffer in one go, as mapping has a setup cost
+ * which does not pay off for them.
+ * <br/><br/>
+ * The content can be fingerprinted, see {@link #getFingerprint()}, and the sources opened by a thread can be recorded
+ * with a {@link SourceRecorder}. A reader which opened a source, and hands the read over to another reader, can pin it
+ * with {@link #pin(FileSource)}, so that the other reader parses the very content which was opened instead of reading
+ * the file again.
+ * <br/><br/>
+ * The threshold defaults to {@value #DEFAULT_MAPPING_THRESHOLD} bytes and can be changed using the
+ * <code>{@value #MAPPING_THRESHOLD_PROPERTY}</code> system property.
+ * @author Narendra
+ *
+ */
+public final class FileSource {
+	public static final String MAPPING_THRESHOLD_PROPERTY = "jdexter.mapping.threshold";
+	public static final long DEFAULT_MAPPING_THRESHOLD = 256 * 1024;
+
+	private static final long MAPPING_THRESHOLD = Long.getLong(MAPPING_THRESHOLD_PROPERTY, DEFAULT_MAPPING_THRESHOLD);
+	private static final ThreadLocal<FileSource> PINNED = new ThreadLocal<FileSource>();
+
+	private final File file;
+	private final long lastModified;
+	private final ByteBuffer content;
+	private final boolean mapped;
+	private volatile Long fingerprint;
+
+	private FileSource(File file, long lastModified, ByteBuffer content, boolean mapped) {
+		this.file = file;
+		this.lastModified = lastModified;
+		this.content = content;
+		this.mapped = mapped;
+	}
+
+	public static FileSource open(String fileName) throws IOException{
+		return open(fileName, MAPPING_THRESHOLD);
+	}
+
+	static FileSource open(String fileName, long mappingThreshold) throws IOException{
+		if(fileName == null)
+			throw new IllegalArgumentException("File name cannot be null");
+
+		File file = new File(fileName);
+		FileSource pinned = PINNED.get();
+		if(pinned != null && pinned.file.getAbsoluteFile().equals(file.getAbsoluteFile())){
+			SourceRecorder.opened(pinned);
+			return pinned;
+		}
+
+		RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+		try{
+			//taken before the content, so that a change made while reading is seen as a change next time
+			long lastModified = file.lastModified();
+			FileChannel channel = randomAccessFile.getChannel();
+			long size = channel.size();
+			if(size > Integer.MAX_VALUE)
+				throw new IOException("File: " + fileName + " is too large to be read, size: " + size);
+
+			FileSource source;
+			if(size >= mappingThreshold){
+				source = new FileSource(file, lastModified, channel.map(MapMode.READ_ONLY, 0, size), true);
+			}else{
+				ByteBuffer buffer = ByteBuffer.allocate((int) size);
+				while(buffer.hasRemaining() && channel.read(buffer) >= 0);
+				buffer.flip();
+				source = new FileSource(file, lastModified, buffer, false);
+			}
+			SourceRecorder.opened(source);
+			return source;
+		}finally{
+			randomAccessFile.close();
+		}
+	}
+
+	/**
+	 * Has the file of the source, whenever opened by the calling thread from now on, be opened as the source itself, so
+	 * that they have the same content whatever happens to the file meanwhile. Must be undone by the same thread with
+	 * {@link #unpin(FileSource)}.
+	 * @return the source pinned until now, to be given to {@link #unpin(FileSource)}
+	 */
+	public static FileSource pin(FileSource source){
+		if(source == null)
+			throw new IllegalArgumentException("Source to pin cannot be null");
+
+		FileSource previous = PINNED.get();
+		PINNED.set(source);
+		return previous;
+	}
+
+	/**
+	 * @param previous the source returned by {@link #pin(FileSource)}, pinned again
+	 */
+	public static void unpin(FileSource previous){
+		if(previous == null)
+			PINNED.remove();
+		else
+			PINNED.set(previous);
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return modification time of the file as it was when the source was opened
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * @return system id to be used by parsers for resolving relative references from the document
+	 */
+	public String getSystemId(){
+		return file.toURI().toString();
+	}
+
+	public boolean isMapped() {
+		return mapped;
+	}
+
+	/**
+	 * @return size of the content in the high order 32 bits and its CRC32 in the low order ones, computed straight over
+	 * the buffer on the first call. Meant for telling a file rewritten with the same content from a changed one.
+	 */
+	public long getFingerprint(){
+		Long value = fingerprint;
+		if(value == null){
+			CRC32 crc = new CRC32();
+			crc.update(content.duplicate());
+			value = ((long) content.limit() << 32) | crc.getValue();
+			fingerprint = value;
+		}
+		return value;
+	}
+
+	public int size(){
+		return content.limit();
+	}
+
+	/**
+	 * @return a read only view of the content, every call returns an independent view positioned at the start
+	 */
+	public ByteBuffer getContent(){
+		return content.asReadOnlyBuffer();
+	}
+
+	/**
+	 * @return a new stream over the content, streams opened from the same source do not affect each other
+	 */
+	public InputStream openStream(){
+		return new ByteBufferInputStream(content.duplicate());
+	}
+
+	private static class ByteBufferInputStream extends InputStream{
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if(length == 0)
+				return 0;
+			if(!buffer.hasRemaining())
+				return -1;
+
+			int count = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, count);
+			return count;
+		}
+
+		@Override
+		public long skip(long count) {
+			int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
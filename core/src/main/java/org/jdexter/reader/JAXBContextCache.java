@@ -0,0 +1,178 @@
+package org.jdexter.reader;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.validation.Schema;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Process wide, thread safe cache of {@link JAXBContext} per configuration class. Along with the context a bounded
+ * pool of configured {@link Unmarshaller}s is kept for each class, so a warm re-read neither rebuilds the context
+ * nor re-creates and re-configures the unmarshaller.
+ * <br/><br/>
+ * {@link JAXBContext} is thread safe while {@link Unmarshaller} is not, so an unmarshaller is handed out by
+ * {@link #borrowUnmarshaller(Class)} and MUST be given back using {@link #releaseUnmarshaller(Class, Unmarshaller)}
+ * once the caller is done with it, unless unmarshalling with it threw, after which its state is unspecified and it is
+ * to be dropped instead. When the pool is exhausted a new unmarshaller is created, and when it is full a released
+ * unmarshaller is simply dropped.
+ * <br/><br/>
+ * The context and the pool of a class are held by the class itself through a {@link ClassValue}, so the cache does
+ * not keep the configuration classes, nor their class loaders, from being unloaded.
+ * <br/><br/>
+ * When the class declares a schema in {@link org.jdexter.reader.annotation.XMLProperties}, the compiled schema from
+ * {@link SchemaCache} is attached to every unmarshaller of the class when it is borrowed, so a pooled unmarshaller
+ * validates the document in the same pass which binds it, against the current version of the XSD.
+ * <br/><br/>
+ * The listener firing {@link org.jdexter.annotation.PreRead} is only attached to the unmarshallers of a class when
+ * one of the classes it binds may declare a {@link org.jdexter.annotation.PreRead} method.
+ * @author Narendra
+ *
+ */
+public class JAXBContextCache {
+	public static final int DEFAULT_POOL_SIZE = 8;
+
+	private static final JAXBContextCache INSTANCE = new JAXBContextCache(DEFAULT_POOL_SIZE, SchemaCache.getInstance());
+
+	private final ClassValue<Entry> entries;
+	private final int poolSize;
+	private final SchemaCache schemaCache;
+	private final AtomicLong hitCount;
+	private final AtomicLong missCount;
+
+	JAXBContextCache(final int poolSize, SchemaCache schemaCache) {
+		if(poolSize < 1)
+			throw new IllegalArgumentException("Pool size must be atleast 1");
+		if(schemaCache == null)
+			throw new IllegalArgumentException("Schema cache cannot be null");
+
+		this.poolSize = poolSize;
+		this.schemaCache = schemaCache;
+		entries = new ClassValue<Entry>() {
+			@Override
+			protected Entry computeValue(Class<?> type) {
+				return new Entry(type, poolSize);
+			}
+		};
+		hitCount = new AtomicLong();
+		missCount = new AtomicLong();
+	}
+
+	public static JAXBContextCache getInstance(){
+		return INSTANCE;
+	}
+
+	public JAXBContext getContext(Class<?> classToRead) throws JAXBException{
+		return entryOf(classToRead).getContext();
+	}
+
+	public Unmarshaller borrowUnmarshaller(Class<?> classToRead) throws JAXBException{
+		Entry entry = entryOf(classToRead);
+		Unmarshaller unmarshaller = entry.pool.poll();
+		if(unmarshaller == null)
+			unmarshaller = entry.createUnmarshaller();
+
+		entry.attachSchema(unmarshaller, schemaCache);
+		return unmarshaller;
+	}
+
+	public void releaseUnmarshaller(Class<?> classToRead, Unmarshaller unmarshaller){
+		if(unmarshaller == null)
+			return;
+
+		entries.get(classToRead).pool.offer(unmarshaller);
+	}
+
+	/**
+	 * @return number of lookups which were served by an already built {@link JAXBContext}
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return number of lookups which had to build a new {@link JAXBContext}
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	int pooledUnmarshallerCount(Class<?> classToRead){
+		return entries.get(classToRead).pool.size();
+	}
+
+	private Entry entryOf(Class<?> classToRead) throws JAXBException{
+		if(classToRead == null)
+			throw new IllegalArgumentException("Class to read cannot be null");
+
+		Entry entry = entries.get(classToRead);
+		entry.initialize(this);
+		return entry;
+	}
+
+	private static class Entry{
+		private final Class<?> classToRead;
+		private final String schemaPath;
+		private final BlockingQueue<Unmarshaller> pool;
+		private volatile JAXBContext context;
+		private boolean preReadDeclared;
+
+		Entry(Class<?> classToRead, int poolSize) {
+			this.classToRead = classToRead;
+			this.schemaPath = ReaderUtil.extractSchemaPath(classToRead);
+			this.pool = new ArrayBlockingQueue<Unmarshaller>(poolSize);
+		}
+
+		void initialize(JAXBContextCache cache) throws JAXBException{
+			if(context != null){
+				cache.hitCount.incrementAndGet();
+				return;
+			}
+
+			synchronized (this) {
+				if(context != null){
+					cache.hitCount.incrementAndGet();
+					return;
+				}
+				//published along with the context
+				preReadDeclared = ReaderUtil.mayDeclarePreRead(classToRead);
+				context = JAXBContext.newInstance(classToRead);
+				cache.missCount.incrementAndGet();
+			}
+		}
+
+		JAXBContext getContext() {
+			return context;
+		}
+
+		Unmarshaller createUnmarshaller() throws JAXBException{
+			Unmarshaller unmarshaller = context.createUnmarshaller();
+			if(preReadDeclared)
+				unmarshaller.setListener(new JAXBReader.LifeCycleEventsExecutor());
+			return unmarshaller;
+		}
+
+		/**
+		 * Attaches the current schema of the class, a pooled unmarshaller may still have the schema of an XSD which has
+		 * changed since it was created
+		 */
+		void attachSchema(Unmarshaller unmarshaller, SchemaCache schemaCache) throws JAXBException{
+			if(schemaPath == null)
+				return;
+
+			Schema schema;
+			try {
+				schema = schemaCache.getSchema(schemaPath);
+			} catch (SAXException e) {
+				throw new JAXBException("Schema: " + schemaPath + " cannot be compiled", e);
+			}
+			if(unmarshaller.getSchema() != schema)
+				unmarshaller.setSchema(schema);
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package org.jdexter.reader;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.Unmarshaller.Listener;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+
+import org.jdexter.annotation.PreRead;
+import org.jdexter.reader.annotation.ThreadSafe;
+import org.jdexter.util.ReflectionUtil;
+
+/**
+ * Reads the XML document pointed by {@link org.jdexter.reader.annotation.XMLProperties} using JAXB. When the
+ * {@link XMLBinder} generated at compile time for the class is on the classpath, the document is bound by the
+ * binder and JAXB is not involved at all, otherwise the class is introspected by JAXB on its first read.
+ * <br/>
+ * Classes declaring a schema are always read by JAXB, which validates the document against the schema while binding it.
+ * @author Narendra
+ *
+ */
+@ThreadSafe
+public class JAXBReader extends Reader{
+
+	private final JAXBContextCache contextCache;
+
+	public JAXBReader() {
+		this(JAXBContextCache.getInstance());
+	}
+
+	JAXBReader(JAXBContextCache contextCache){
+		if(contextCache == null)
+			throw new IllegalArgumentException("JAXB context cache cannot be null");
+
+		this.contextCache = contextCache;
+	}
+
+	@Override
+	public Object read(Class<?> classToRead) throws Throwable {
+		FileSource source = FileSource.open(extractFileName(classToRead));
+		XMLBinder binder = binderOf(classToRead);
+		if(binder != null)
+			return bind(binder, ReaderUtil.createXMLStreamReader(source));
+
+		Unmarshaller unmarshaller = borrowUnMarshaller(classToRead);
+		Object instance = unmarshaller.unmarshal(new StreamSource(source.openStream(), source.getSystemId()));
+		releaseUnMarshaller(classToRead, unmarshaller);
+		return instance;
+	}
+
+	public String extractFileName(Class<?> classToRead) {
+		return ReaderUtil.extractFileName(classToRead);
+	}
+	
+	Object read(Class<?> classToRead, java.io.Reader reader) throws Throwable{
+		XMLBinder binder = binderOf(classToRead);
+		if(binder != null)
+			return bind(binder, ReaderUtil.createXMLStreamReader(reader));
+
+		Unmarshaller unmarshaller = borrowUnMarshaller(classToRead);
+		Object instance;
+		try{
+			instance = unmarshaller.unmarshal(reader);
+		}catch (IllegalArgumentException e) {
+			throw e.getCause();
+		}
+		releaseUnMarshaller(classToRead, unmarshaller);
+		return instance;
+	}
+
+	private static XMLBinder binderOf(Class<?> classToRead){
+		return ReaderUtil.extractSchemaPath(classToRead) == null ? XMLBinders.find(classToRead) : null;
+	}
+
+	private Object bind(XMLBinder binder, XMLStreamReader xmlReader) throws Throwable{
+		try{
+			return binder.bind(xmlReader);
+		}finally{
+			xmlReader.close();
+		}
+	}
+
+	/**
+	 * Creates an unmarshaller, with life cycle events listener already attached, from the cached context of the class.
+	 * The unmarshaller is not taken from the pool, so that the callers need not give it back.
+	 * @deprecated use {@link #borrowUnMarshaller(Class)} and {@link #releaseUnMarshaller(Class, Unmarshaller)}, which
+	 * reuse the unmarshallers of the class
+	 */
+	@Deprecated
+	public Unmarshaller createUnMarshaller(Class<?> classToRead) throws JAXBException {
+		Unmarshaller unmarshaller = contextCache.getContext(classToRead).createUnmarshaller();
+		unmarshaller.setListener(new LifeCycleEventsExecutor());
+		return unmarshaller;
+	}
+
+	/**
+	 * Borrows an unmarshaller, with life cycle events listener already attached, from the pool of the class.
+	 * The unmarshaller MUST be given back using {@link #releaseUnMarshaller(Class, Unmarshaller)} after use, unless
+	 * unmarshalling with it threw, in which case it is to be dropped.
+	 */
+	public Unmarshaller borrowUnMarshaller(Class<?> classToRead) throws JAXBException {
+		return contextCache.borrowUnmarshaller(classToRead);
+	}
+
+	public void releaseUnMarshaller(Class<?> classToRead, Unmarshaller unmarshaller){
+		contextCache.releaseUnmarshaller(classToRead, unmarshaller);
+	}
+	
+	static class LifeCycleEventsExecutor extends Listener{
+		@Override
+		public void beforeUnmarshal(Object arg0, Object arg1) {
+			try {
+				ReflectionUtil.invokeLifeCycleEvent(arg0, PreRead.class);
+			} catch (Throwable e) {
+				//FIXME these exceptions can be changed to some custom runtime exception as handler does not support checked exception
+				throw new IllegalArgumentException(e);
+			}
+		}
+	}
+}
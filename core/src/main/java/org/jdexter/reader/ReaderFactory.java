@@ -8,6 +8,7 @@ import org.jdexter.util.ReflectionUtil;
 /**
  * This is a non-caching reader factory, where on each invocation of {@link #getInstanceOf(Class)} a fresh instance
  * is created for the reader.
+ * @see CachingReaderFactory
  * @author Narendra
  *
  */
@@ -0,0 +1,212 @@
+package org.jdexter.reader;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementRef;
+import javax.xml.bind.annotation.XmlElementRefs;
+import javax.xml.bind.annotation.XmlElements;
+import javax.xml.bind.annotation.XmlRegistry;
+import javax.xml.bind.annotation.XmlSeeAlso;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jdexter.annotation.PreRead;
+import org.jdexter.reader.annotation.XMLProperties;
+import org.jdexter.util.LifeCycleIndex;
+
+/**
+ * Helpers shared by the file backed readers.
+ * @author Narendra
+ *
+ */
+public final class ReaderUtil {
+	private ReaderUtil(){}
+
+	private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+
+	public static String extractFileName(Class<?> classToRead) {
+		XMLProperties xmlProperties = classToRead.getAnnotation(XMLProperties.class);
+		if(xmlProperties == null)
+			throw new IllegalArgumentException("@XMLProperties annotation is missing from class: " + classToRead.getName());
+		
+		String path = xmlProperties.path();
+		if(path.length() == 0)
+			throw new IllegalArgumentException("path in @XMLProperties annotation cannot be blank or null");
+		
+		return path;
+	}
+
+	/**
+	 * @return path of the schema declared in {@link XMLProperties} or <code>null</code> if the class does not declare one
+	 */
+	public static String extractSchemaPath(Class<?> classToRead) {
+		XMLProperties xmlProperties = classToRead.getAnnotation(XMLProperties.class);
+		if(xmlProperties == null || xmlProperties.schema().length() == 0)
+			return null;
+
+		return xmlProperties.schema();
+	}
+
+	public static XMLStreamReader createXMLStreamReader(FileSource source) throws XMLStreamException{
+		return INPUT_FACTORY.createXMLStreamReader(source.getSystemId(), source.openStream());
+	}
+
+	static XMLStreamReader createXMLStreamReader(java.io.Reader reader) throws XMLStreamException{
+		return INPUT_FACTORY.createXMLStreamReader(reader);
+	}
+
+	/**
+	 * Walks the classes which may be bound while binding the class, that is the types of its fields and properties,
+	 * their element types, super classes, the classes referred by JAXB annotations and the classes created by the
+	 * {@link XmlRegistry} of the package of every bound class, looking for a {@link PreRead} life cycle method.
+	 * @return <code>false</code> only if none of the classes declares a {@link PreRead} method, <code>true</code> if one
+	 * does or the bound classes cannot be determined, such as for members of type {@link Object} or of an interface
+	 */
+	static boolean mayDeclarePreRead(Class<?> classToRead){
+		Set<Class<?>> visited = new HashSet<Class<?>>();
+		Deque<Type> pending = new ArrayDeque<Type>();
+		pending.add(classToRead);
+		while(!pending.isEmpty()){
+			Type type = pending.poll();
+			if(type instanceof ParameterizedType){
+				Class<?> rawType = (Class<?>) ((ParameterizedType) type).getRawType();
+				pending.add(rawType);
+				if(!isPlatformClass(rawType) || isContainer(rawType)){
+					for(Type argument : ((ParameterizedType) type).getActualTypeArguments()){
+						pending.add(argument);
+					}
+				}
+				continue;
+			}
+			if(type instanceof WildcardType){
+				for(Type bound : ((WildcardType) type).getUpperBounds()){
+					pending.add(bound);
+				}
+				continue;
+			}
+			if(type instanceof GenericArrayType){
+				pending.add(((GenericArrayType) type).getGenericComponentType());
+				continue;
+			}
+			if(!(type instanceof Class))
+				return true;
+
+			Class<?> clazz = (Class<?>) type;
+			while(clazz.isArray()){
+				clazz = clazz.getComponentType();
+			}
+			if(clazz == Object.class)
+				return true;
+			if(clazz.isPrimitive() || clazz.isEnum() || isPlatformClass(clazz) || !visited.add(clazz))
+				continue;
+			if(clazz.getAnnotation(XmlRegistry.class) != null){
+				addRegisteredClasses(clazz, pending);
+				continue;
+			}
+			if(clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers()) && clazz.getAnnotation(XmlSeeAlso.class) == null)
+				return true;
+			if(LifeCycleIndex.of(clazz).declares(PreRead.class))
+				return true;
+
+			if(clazz.getSuperclass() != Object.class)
+				pending.add(clazz.getSuperclass());
+			addReferencedClasses(clazz, pending);
+			addRegistryOf(clazz, pending);
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the classes created by the factory methods and element declarations of the registry
+	 */
+	private static void addRegisteredClasses(Class<?> registry, Deque<Type> pending){
+		for(Method method : registry.getDeclaredMethods()){
+			if(!method.isSynthetic() && !Modifier.isStatic(method.getModifiers()))
+				pending.add(method.getGenericReturnType());
+		}
+	}
+
+	/**
+	 * Adds the ObjectFactory of the package of the class, which JAXB binds along with any class of its package
+	 */
+	private static void addRegistryOf(Class<?> clazz, Deque<Type> pending){
+		String name = clazz.getName();
+		try{
+			Class<?> registry = Class.forName(name.substring(0, name.lastIndexOf('.') + 1) + "ObjectFactory", false, clazz.getClassLoader());
+			if(registry.getAnnotation(XmlRegistry.class) != null)
+				pending.add(registry);
+		}catch (ClassNotFoundException e) {
+			//the package has no registry
+		}
+	}
+
+	private static void addReferencedClasses(Class<?> clazz, Deque<Type> pending){
+		addAnnotatedClasses(clazz.getAnnotation(XmlSeeAlso.class), pending);
+		for(Field field : clazz.getDeclaredFields()){
+			if(field.isSynthetic() || Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()))
+				continue;
+			pending.add(field.getGenericType());
+			addAnnotatedClasses(field.getAnnotation(XmlElement.class), pending);
+			addAnnotatedClasses(field.getAnnotation(XmlElements.class), pending);
+			addAnnotatedClasses(field.getAnnotation(XmlElementRef.class), pending);
+			addAnnotatedClasses(field.getAnnotation(XmlElementRefs.class), pending);
+		}
+		for(Method method : clazz.getDeclaredMethods()){
+			if(method.isSynthetic() || Modifier.isStatic(method.getModifiers()))
+				continue;
+			String name = method.getName();
+			if(method.getParameterTypes().length == 0 && method.getReturnType() != void.class && (name.startsWith("get") || name.startsWith("is")))
+				pending.add(method.getGenericReturnType());
+			else if(method.getParameterTypes().length == 1 && name.startsWith("set"))
+				pending.add(method.getGenericParameterTypes()[0]);
+			addAnnotatedClasses(method.getAnnotation(XmlElement.class), pending);
+			addAnnotatedClasses(method.getAnnotation(XmlElements.class), pending);
+			addAnnotatedClasses(method.getAnnotation(XmlElementRef.class), pending);
+			addAnnotatedClasses(method.getAnnotation(XmlElementRefs.class), pending);
+		}
+	}
+
+	private static void addAnnotatedClasses(Object annotation, Deque<Type> pending){
+		if(annotation instanceof XmlSeeAlso){
+			for(Class<?> clazz : ((XmlSeeAlso) annotation).value()){
+				pending.add(clazz);
+			}
+		}else if(annotation instanceof XmlElement){
+			pending.add(((XmlElement) annotation).type());
+		}else if(annotation instanceof XmlElementRef){
+			pending.add(((XmlElementRef) annotation).type());
+		}else if(annotation instanceof XmlElements){
+			for(XmlElement element : ((XmlElements) annotation).value()){
+				pending.add(element.type());
+			}
+		}else if(annotation instanceof XmlElementRefs){
+			for(XmlElementRef element : ((XmlElementRefs) annotation).value()){
+				pending.add(element.type());
+			}
+		}
+	}
+
+	private static boolean isContainer(Class<?> clazz){
+		return Collection.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz) || clazz == JAXBElement.class;
+	}
+
+	private static boolean isPlatformClass(Class<?> clazz){
+		String name = clazz.getName();
+		return name.startsWith("java.") || name.startsWith("javax.");
+	}
+}
@@ -0,0 +1,119 @@
+package org.jdexter.reader;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.XMLConstants;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Process wide, thread safe cache of compiled {@link Schema}s keyed by the path of the XSD. A {@link Schema} is
+ * immutable and thread safe, so it is compiled once and shared by every unmarshaller validating against it.
+ * <br/>
+ * The modification time and the length of the XSD are kept along with its schema, and a lookup finding the file
+ * changed compiles it again, so an edited XSD is used by the next read, such as a reload, without restarting. Only
+ * the XSD of the path is checked, not the schemas it imports or includes.
+ * <br/>
+ * A schema which fails to compile is not cached, and is compiled again on the next lookup.
+ * @author Narendra
+ *
+ */
+public class SchemaCache {
+	private static final SchemaCache INSTANCE = new SchemaCache();
+
+	private final ConcurrentMap<String, Entry> entries;
+	private final AtomicLong hitCount;
+	private final AtomicLong missCount;
+
+	SchemaCache() {
+		entries = new ConcurrentHashMap<String, Entry>();
+		hitCount = new AtomicLong();
+		missCount = new AtomicLong();
+	}
+
+	public static SchemaCache getInstance(){
+		return INSTANCE;
+	}
+
+	public Schema getSchema(String path) throws SAXException{
+		if(path == null)
+			throw new IllegalArgumentException("Schema path cannot be null");
+
+		Entry entry = entries.get(path);
+		if(entry == null){
+			Entry newEntry = new Entry(path);
+			entry = entries.putIfAbsent(path, newEntry);
+			if(entry == null)
+				entry = newEntry;
+		}
+		return entry.getSchema(this);
+	}
+
+	/**
+	 * @return number of lookups which were served by an already compiled {@link Schema}
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return number of lookups which had to compile the {@link Schema}
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	private static class Entry{
+		private final File file;
+		private volatile Compiled compiled;
+
+		Entry(String path) {
+			this.file = new File(path);
+		}
+
+		Schema getSchema(SchemaCache cache) throws SAXException{
+			//taken before compiling, so that a change made while compiling is seen by the next lookup
+			long lastModified = file.lastModified();
+			long length = file.length();
+			Compiled current = compiled;
+			if(current != null && current.isOf(lastModified, length)){
+				cache.hitCount.incrementAndGet();
+				return current.schema;
+			}
+
+			synchronized (this) {
+				current = compiled;
+				if(current != null && current.isOf(lastModified, length)){
+					cache.hitCount.incrementAndGet();
+					return current.schema;
+				}
+				//factory is not thread safe, so one is created per compilation, which happens once per version of the file
+				Schema schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(file);
+				compiled = new Compiled(schema, lastModified, length);
+				cache.missCount.incrementAndGet();
+				return schema;
+			}
+		}
+	}
+
+	private static class Compiled{
+		private final Schema schema;
+		private final long lastModified;
+		private final long length;
+
+		Compiled(Schema schema, long lastModified, long length) {
+			this.schema = schema;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+
+		boolean isOf(long lastModified, long length){
+			return this.lastModified == lastModified && this.length == length;
+		}
+	}
+}
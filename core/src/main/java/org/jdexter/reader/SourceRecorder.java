@@ -0,0 +1,85 @@
+package org.jdexter.reader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the {@link FileSource}s opened by the calling thread while it is started, so that whoever invokes a reader
+ * can learn which files the reader read, and their content, without the reader knowing about it. Used by the context
+ * to keep the fingerprint of the source of every configuration it reads.
+ * <br/><br/>
+ * Recorders nest, a recorder started while another one is recording hides it until it is stopped.
+ * @author Narendra
+ *
+ */
+public final class SourceRecorder {
+	private static final ThreadLocal<SourceRecorder> CURRENT = new ThreadLocal<SourceRecorder>();
+
+	private final SourceRecorder enclosing;
+	private final List<FileSource> sources;
+	private final List<FileSource> restoredSources;
+
+	private SourceRecorder(SourceRecorder enclosing) {
+		this.enclosing = enclosing;
+		this.sources = new ArrayList<FileSource>(1);
+		this.restoredSources = new ArrayList<FileSource>(1);
+	}
+
+	/**
+	 * @return recorder recording the sources opened by the calling thread from now on, must be stopped by the same thread
+	 */
+	public static SourceRecorder start(){
+		SourceRecorder recorder = new SourceRecorder(CURRENT.get());
+		CURRENT.set(recorder);
+		return recorder;
+	}
+
+	public void stop(){
+		if(enclosing == null)
+			CURRENT.remove();
+		else
+			CURRENT.set(enclosing);
+	}
+
+	/**
+	 * @return the last recorded source of the file, <code>null</code> if the file was not opened
+	 */
+	public FileSource sourceOf(File file){
+		String path = file.getAbsolutePath();
+		for(int index = sources.size() - 1; index >= 0; index--){
+			FileSource source = sources.get(index);
+			if(source.getFile().getAbsolutePath().equals(path))
+				return source;
+		}
+		return null;
+	}
+
+	/**
+	 * @return true if the configuration was parsed from the source, false if a reader restored it without parsing the
+	 * source, see {@link #restored(FileSource)}
+	 */
+	public boolean isParsed(FileSource source){
+		for(FileSource restored : restoredSources){
+			if(restored == source)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Called by a reader which restores the configuration from elsewhere, such as a snapshot, after opening its source
+	 * only to check that the configuration is still the same, so that the source is not taken as parsed
+	 */
+	public static void restored(FileSource source){
+		SourceRecorder recorder = CURRENT.get();
+		if(recorder != null)
+			recorder.restoredSources.add(source);
+	}
+
+	static void opened(FileSource source){
+		SourceRecorder recorder = CURRENT.get();
+		if(recorder != null)
+			recorder.sources.add(source);
+	}
+}
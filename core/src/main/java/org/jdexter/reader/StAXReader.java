@@ -0,0 +1,98 @@
+package org.jdexter.reader;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLStreamReader;
+
+import org.jdexter.annotation.PreRead;
+import org.jdexter.reader.XMLBinding.Property;
+import org.jdexter.reader.annotation.ThreadSafe;
+
+/**
+ * Streaming counterpart of {@link JAXBReader} for very large XML configurations. The document pointed by
+ * {@link org.jdexter.reader.annotation.XMLProperties} is bound in a single forward pass over an {@link XMLStreamReader},
+ * so apart from the bound configuration itself only one object per nesting level is held at any point of time. The
+ * document is read through {@link FileSource}, hence large documents are parsed straight from a mapped buffer.
+ * <br/><br/>
+ * Members annotated with {@link javax.xml.bind.annotation.XmlElement} and {@link javax.xml.bind.annotation.XmlAttribute}
+ * are bound, see {@link XMLBinding} for the supported types. Like {@link JAXBReader}, the {@link PreRead} life cycle
+ * event is fired on every bound object before its content is bound, while {@link org.jdexter.annotation.PostRead} is
+ * left to the context. Elements which are not mapped to any member are skipped.
+ * @author Narendra
+ *
+ */
+@ThreadSafe
+public class StAXReader extends Reader{
+
+	@Override
+	public Object read(Class<?> classToRead) throws Throwable {
+		FileSource source = FileSource.open(ReaderUtil.extractFileName(classToRead));
+		return read(classToRead, ReaderUtil.createXMLStreamReader(source));
+	}
+
+	Object read(Class<?> classToRead, java.io.Reader reader) throws Throwable{
+		return read(classToRead, ReaderUtil.createXMLStreamReader(reader));
+	}
+
+	Object read(Class<?> classToRead, XMLStreamReader xmlReader) throws Throwable{
+		try{
+			XMLBinding binding = XMLBinding.of(classToRead);
+			if(binding.getRootElementName() == null)
+				throw new IllegalArgumentException("Class: " + classToRead.getName() + " is not annotated with @XmlRootElement");
+
+			XMLBinders.startRootElement(xmlReader, binding.getRootElementName());
+			return bind(binding, xmlReader);
+		}finally{
+			xmlReader.close();
+		}
+	}
+
+	/**
+	 * Binds the element the reader is currently positioned at, and leaves the reader at its end element. Occurrences
+	 * of list elements are collected and bound once the element ends.
+	 */
+	private Object bind(XMLBinding binding, XMLStreamReader xmlReader) throws Throwable{
+		Object instance = binding.newInstance();
+		XMLBinders.preRead(instance);
+
+		for(int index = 0; index < xmlReader.getAttributeCount(); index++){
+			Property attribute = binding.attribute(xmlReader.getAttributeLocalName(index));
+			if(attribute != null)
+				attribute.bind(instance, XMLBinding.convert(xmlReader.getAttributeValue(index), attribute.getType()));
+		}
+
+		Map<Property, List<Object>> lists = null;
+		while(XMLBinders.nextElement(xmlReader)){
+			Property element = binding.element(xmlReader.getLocalName());
+			if(element == null){
+				XMLBinders.skipElement(xmlReader);
+				continue;
+			}
+
+			Object value = element.isSimple() ? XMLBinding.convert(xmlReader.getElementText(), element.getType())
+					: bind(XMLBinding.of(element.getType()), xmlReader);
+			if(!element.isList()){
+				element.bind(instance, value);
+				continue;
+			}
+
+			if(lists == null)
+				lists = new LinkedHashMap<Property, List<Object>>();
+			List<Object> values = lists.get(element);
+			if(values == null){
+				values = new ArrayList<Object>();
+				lists.put(element, values);
+			}
+			values.add(value);
+		}
+
+		if(lists != null){
+			for(Map.Entry<Property, List<Object>> list : lists.entrySet())
+				list.getKey().bindAll(instance, list.getValue());
+		}
+		return instance;
+	}
+}
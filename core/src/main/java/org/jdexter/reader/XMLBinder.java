@@ -0,0 +1,30 @@
+package org.jdexter.reader;
+
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Binder dedicated to a single configuration class, generated at compile time by the JDexter annotation processor
+ * from the JAXB annotations of the class. {@link JAXBReader} uses the binder of a class, when it is present on the
+ * classpath, instead of introspecting the class through JAXB at runtime.
+ * <br/>
+ * The binder of class <code>a.b.C</code> is named <code>a.b.C{@value #SUFFIX}</code> and MUST have a public default
+ * constructor.
+ * @see XMLBinders
+ * @author Narendra
+ *
+ */
+public interface XMLBinder {
+	String SUFFIX = "$$XMLBinder";
+
+	/**
+	 * Binds the document the reader is positioned at, which MUST not have moved past the start of the document.
+	 * The {@link org.jdexter.annotation.PreRead} life cycle event is fired on every bound object before its content is bound.
+	 */
+	Object bind(XMLStreamReader reader) throws Throwable;
+
+	/**
+	 * Binds the element the reader is positioned at, leaving the reader at its end element. Used to bind a section of
+	 * a larger document, the name of the element is not checked.
+	 */
+	Object bindElement(XMLStreamReader reader) throws Throwable;
+}
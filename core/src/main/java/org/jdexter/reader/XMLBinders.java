@@ -0,0 +1,108 @@
+package org.jdexter.reader;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jdexter.annotation.PreRead;
+import org.jdexter.util.ReflectionUtil;
+
+/**
+ * Lookup of generated {@link XMLBinder}s along with the helpers the generated binders are built upon.
+ * @author Narendra
+ *
+ */
+public final class XMLBinders {
+	private XMLBinders(){}
+
+	private static final Object NO_BINDER = new Object();
+	private static final ClassValue<Object> BINDERS = new ClassValue<Object>() {
+		@Override
+		protected Object computeValue(Class<?> type) {
+			return load(type);
+		}
+	};
+
+	/**
+	 * @return the generated binder of the class or <code>null</code> if there is no binder on the classpath.
+	 * The outcome of the lookup is cached with the class, so classes without binder do not pay for the lookup again,
+	 * and the cache does not keep the class loaders of the read classes alive.
+	 */
+	public static XMLBinder find(Class<?> classToRead){
+		Object binder = BINDERS.get(classToRead);
+		return binder == NO_BINDER ? null : (XMLBinder) binder;
+	}
+
+	private static Object load(Class<?> classToRead){
+		Class<?> binderClass;
+		try {
+			binderClass = Class.forName(classToRead.getName() + XMLBinder.SUFFIX, true, classToRead.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			return NO_BINDER;
+		}
+
+		try {
+			return ReflectionUtil.createDefaultInstance(binderClass.asSubclass(XMLBinder.class));
+		} catch (Exception e) {
+			throw new IllegalStateException("Generated binder: " + binderClass.getName() + " cannot be instantiated", e);
+		}
+	}
+
+	/**
+	 * Moves the reader to the root element and checks its name.
+	 */
+	public static void startRootElement(XMLStreamReader reader, String rootElementName) throws XMLStreamException{
+		reader.nextTag();
+		if(!rootElementName.equals(reader.getLocalName()))
+			throw new XMLStreamException("Unexpected root element: " + reader.getLocalName() + ", expected: "
+					+ rootElementName, reader.getLocation());
+	}
+
+	/**
+	 * Moves the reader to the start of the next child of the current element.
+	 * @return <code>false</code> when the current element ended instead, with the reader left at its end element
+	 */
+	public static boolean nextElement(XMLStreamReader reader) throws XMLStreamException{
+		while(reader.hasNext()){
+			int event = reader.next();
+			if(event == XMLStreamConstants.START_ELEMENT)
+				return true;
+			if(event == XMLStreamConstants.END_ELEMENT)
+				return false;
+		}
+		throw new XMLStreamException("Premature end of document", reader.getLocation());
+	}
+
+	/**
+	 * Skips the element the reader is positioned at, along with all its content, leaving the reader at its end element.
+	 */
+	public static void skipElement(XMLStreamReader reader) throws XMLStreamException{
+		int depth = 1;
+		while(depth > 0){
+			int event = reader.next();
+			if(event == XMLStreamConstants.START_ELEMENT)
+				depth++;
+			else if(event == XMLStreamConstants.END_ELEMENT)
+				depth--;
+		}
+	}
+
+	public static void preRead(Object instance) throws Throwable{
+		ReflectionUtil.invokeLifeCycleEvent(instance, PreRead.class);
+	}
+
+	/**
+	 * Converts text to boolean the way JAXB does, that is, <code>true</code> and <code>1</code> are true.
+	 */
+	public static boolean parseBoolean(String text){
+		String value = text.trim();
+		return "true".equals(value) || "1".equals(value);
+	}
+
+	/**
+	 * Converts text to a value of the simple type exactly the way {@link StAXReader} does.
+	 */
+	public static Object convert(String text, Class<?> type){
+		return XMLBinding.convert(text, type);
+	}
+}
@@ -0,0 +1,405 @@
+package org.jdexter.reader;
+
+import java.beans.Introspector;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlEnumValue;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Binding meta data of a class as understood by {@link StAXReader}. Only the members which are explicitly
+ * annotated with {@link XmlElement} or {@link XmlAttribute} are bound, either fields or getter/setter methods.
+ * <br/>
+ * Simple values (primitives, their wrappers, {@link String}, {@link BigDecimal}, {@link BigInteger} and enums) are
+ * converted from text, any other type is bound as a nested element using its own binding. {@link List} typed
+ * element properties collect every occurrence of the element.
+ * <br/>
+ * The binding of a class is built once and cached with the class itself, so the cache does not keep the class loaders
+ * of the bound classes alive.
+ * @author Narendra
+ *
+ */
+class XMLBinding {
+	static final String DEFAULT_NAME = "##default";
+
+	private static final Set<Class<?>> SIMPLE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(String.class, Boolean.class,
+			Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+			BigDecimal.class, BigInteger.class));
+
+	private static final ClassValue<XMLBinding> BINDINGS = new ClassValue<XMLBinding>() {
+		@Override
+		protected XMLBinding computeValue(Class<?> type) {
+			return new XMLBinding(type);
+		}
+	};
+
+	private final Class<?> clazz;
+	private final Constructor<?> constructor;
+	private final String rootElementName;
+	private final Map<String, Property> elements;
+	private final Map<String, Property> attributes;
+
+	private XMLBinding(Class<?> clazz) {
+		this.clazz = clazz;
+		this.constructor = defaultConstructorOf(clazz);
+		this.rootElementName = extractRootElementName(clazz);
+		this.elements = new HashMap<String, Property>();
+		this.attributes = new HashMap<String, Property>();
+		collectProperties();
+	}
+
+	static XMLBinding of(Class<?> clazz){
+		if(clazz == null)
+			throw new IllegalArgumentException("Class to bind cannot be null");
+
+		return BINDINGS.get(clazz);
+	}
+
+	Class<?> getBoundClass() {
+		return clazz;
+	}
+
+	/**
+	 * @return name of the root element as per {@link XmlRootElement} or <code>null</code> if the class is not a root element
+	 */
+	String getRootElementName() {
+		return rootElementName;
+	}
+
+	Property element(String name){
+		return elements.get(name);
+	}
+
+	Property attribute(String name){
+		return attributes.get(name);
+	}
+
+	Collection<Property> getElements() {
+		return elements.values();
+	}
+
+	Collection<Property> getAttributes() {
+		return attributes.values();
+	}
+
+	Object newInstance() throws Throwable{
+		if(constructor == null)
+			throw new IllegalArgumentException("Class: " + clazz.getName() + " does not have a default constructor");
+		try{
+			return constructor.newInstance();
+		}catch (InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private static Constructor<?> defaultConstructorOf(Class<?> clazz){
+		try{
+			Constructor<?> constructor = clazz.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return constructor;
+		}catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private static String extractRootElementName(Class<?> clazz){
+		XmlRootElement rootElement = clazz.getAnnotation(XmlRootElement.class);
+		if(rootElement == null)
+			return null;
+
+		return DEFAULT_NAME.equals(rootElement.name()) ? Introspector.decapitalize(clazz.getSimpleName()) : rootElement.name();
+	}
+
+	private void collectProperties(){
+		for(Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()){
+			for(Field field : current.getDeclaredFields()){
+				if(Modifier.isStatic(field.getModifiers()) || !isBound(field))
+					continue;
+				register(field, field.getName(), field.getType(), field.getGenericType(), new FieldAccessor(field));
+			}
+
+			for(Method method : current.getDeclaredMethods()){
+				if(Modifier.isStatic(method.getModifiers()) || !isBound(method))
+					continue;
+				registerMethod(current, method);
+			}
+		}
+	}
+
+	private static boolean isBound(AccessibleObject member){
+		return member.getAnnotation(XmlElement.class) != null || member.getAnnotation(XmlAttribute.class) != null;
+	}
+
+	private void registerMethod(Class<?> declaringClass, Method method){
+		String propertyName = propertyNameOf(method);
+		if(propertyName == null)
+			throw new IllegalArgumentException("Method: " + method.getName() + " of class: " + clazz.getName() + " is neither a getter nor a setter");
+
+		Method getter;
+		Method setter;
+		if(method.getParameterTypes().length == 0){
+			getter = method;
+			setter = findMethod(declaringClass, "set" + capitalize(propertyName), method.getReturnType());
+		}else{
+			setter = method;
+			getter = findMethod(declaringClass, "get" + capitalize(propertyName));
+			if(getter == null)
+				getter = findMethod(declaringClass, "is" + capitalize(propertyName));
+		}
+
+		Class<?> type = setter != null ? setter.getParameterTypes()[0] : getter.getReturnType();
+		Type genericType = setter != null ? setter.getGenericParameterTypes()[0] : getter.getGenericReturnType();
+
+		register(method, propertyName, type, genericType, new MethodAccessor(getter, setter));
+	}
+
+	private void register(AccessibleObject member, String defaultName, Class<?> type, Type genericType, Accessor accessor){
+		XmlElement element = member.getAnnotation(XmlElement.class);
+		XmlAttribute attribute = member.getAnnotation(XmlAttribute.class);
+
+		boolean list = List.class.isAssignableFrom(type);
+		Class<?> valueType = list ? listElementTypeOf(genericType) : type;
+
+		if(element != null){
+			String name = nameOf(element.name(), defaultName);
+			elements.put(name, new Property(name, valueType, list, accessor));
+		}else{
+			if(list || !isSimple(valueType))
+				throw new IllegalArgumentException("Attribute: " + defaultName + " of class: " + clazz.getName() + " must be of simple type");
+			String name = nameOf(attribute.name(), defaultName);
+			attributes.put(name, new Property(name, valueType, false, accessor));
+		}
+	}
+
+	private Class<?> listElementTypeOf(Type genericType){
+		if(genericType instanceof ParameterizedType){
+			Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+			if(argument instanceof Class)
+				return (Class<?>) argument;
+		}
+		throw new IllegalArgumentException("List properties of class: " + clazz.getName() + " must declare a concrete element type");
+	}
+
+	private static Method findMethod(Class<?> declaringClass, String name, Class<?>... parameterTypes){
+		try{
+			Method method = declaringClass.getDeclaredMethod(name, parameterTypes);
+			method.setAccessible(true);
+			return method;
+		}catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	private static String propertyNameOf(Method method){
+		String name = method.getName();
+		int parameters = method.getParameterTypes().length;
+		if(parameters == 0 && name.startsWith("get") && name.length() > 3)
+			return Introspector.decapitalize(name.substring(3));
+		if(parameters == 0 && name.startsWith("is") && name.length() > 2)
+			return Introspector.decapitalize(name.substring(2));
+		if(parameters == 1 && name.startsWith("set") && name.length() > 3)
+			return Introspector.decapitalize(name.substring(3));
+		return null;
+	}
+
+	private static String capitalize(String name){
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private static String nameOf(String annotatedName, String defaultName){
+		return DEFAULT_NAME.equals(annotatedName) ? defaultName : annotatedName;
+	}
+
+	static boolean isSimple(Class<?> type){
+		return type.isPrimitive() || type.isEnum() || SIMPLE_TYPES.contains(type);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static Object convert(String text, Class<?> type){
+		if(type == String.class)
+			return text;
+
+		String value = text.trim();
+		if(type == int.class || type == Integer.class)
+			return Integer.valueOf(value);
+		if(type == long.class || type == Long.class)
+			return Long.valueOf(value);
+		if(type == boolean.class || type == Boolean.class)
+			return Boolean.valueOf(XMLBinders.parseBoolean(value));
+		if(type == double.class || type == Double.class)
+			return Double.valueOf(value);
+		if(type == float.class || type == Float.class)
+			return Float.valueOf(value);
+		if(type == short.class || type == Short.class)
+			return Short.valueOf(value);
+		if(type == byte.class || type == Byte.class)
+			return Byte.valueOf(value);
+		if(type == char.class || type == Character.class){
+			if(value.length() != 1)
+				throw new IllegalArgumentException("Value: " + value + " cannot be converted to a character");
+			return Character.valueOf(value.charAt(0));
+		}
+		if(type == BigDecimal.class)
+			return new BigDecimal(value);
+		if(type == BigInteger.class)
+			return new BigInteger(value);
+		if(type.isEnum())
+			return enumConstantOf((Class<? extends Enum>) type, value);
+
+		throw new IllegalArgumentException("Type: " + type.getName() + " cannot be converted from text");
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static Object enumConstantOf(Class<? extends Enum> type, String value){
+		for(Field field : type.getFields()){
+			if(!field.isEnumConstant())
+				continue;
+			XmlEnumValue enumValue = field.getAnnotation(XmlEnumValue.class);
+			String name = enumValue == null ? field.getName() : enumValue.value();
+			if(name.equals(value)){
+				try {
+					return field.get(null);
+				} catch (IllegalAccessException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+		throw new IllegalArgumentException("Value: " + value + " is not a constant of enum: " + type.getName());
+	}
+
+	static class Property{
+		private final String name;
+		private final Class<?> type;
+		private final boolean list;
+		private final boolean simple;
+		private final Accessor accessor;
+
+		Property(String name, Class<?> type, boolean list, Accessor accessor) {
+			this.name = name;
+			this.type = type;
+			this.list = list;
+			this.simple = XMLBinding.isSimple(type);
+			this.accessor = accessor;
+		}
+
+		String getName() {
+			return name;
+		}
+
+		/**
+		 * @return type of the value, which in case of list property is the type of the element of list
+		 */
+		Class<?> getType() {
+			return type;
+		}
+
+		boolean isList() {
+			return list;
+		}
+
+		boolean isSimple() {
+			return simple;
+		}
+
+		void bind(Object instance, Object value) throws Throwable{
+			if(list)
+				throw new IllegalArgumentException("List property: " + name + " is bound with all its values at once");
+			accessor.set(instance, value);
+		}
+
+		/**
+		 * Binds every occurrence of a list element. The values are added to the list returned by the getter, and
+		 * passed to the setter in one call when there is no such list, so a setter which copies its argument or
+		 * a getter which is missing does not lose the values bound earlier.
+		 */
+		@SuppressWarnings("unchecked")
+		void bindAll(Object instance, List<Object> values) throws Throwable{
+			if(!list)
+				throw new IllegalArgumentException("Property: " + name + " is not a list");
+
+			List<Object> existing = (List<Object>) accessor.get(instance);
+			if(existing == null)
+				accessor.set(instance, values);
+			else
+				existing.addAll(values);
+		}
+	}
+
+	static abstract class Accessor{
+		abstract Object get(Object instance) throws Throwable;
+		abstract void set(Object instance, Object value) throws Throwable;
+	}
+
+	static class FieldAccessor extends Accessor{
+		private final Field field;
+
+		FieldAccessor(Field field) {
+			this.field = field;
+			field.setAccessible(true);
+		}
+
+		@Override
+		Object get(Object instance) throws IllegalAccessException {
+			return field.get(instance);
+		}
+
+		@Override
+		void set(Object instance, Object value) throws IllegalAccessException {
+			field.set(instance, value);
+		}
+	}
+
+	static class MethodAccessor extends Accessor{
+		private final Method getter;
+		private final Method setter;
+
+		MethodAccessor(Method getter, Method setter) {
+			this.getter = getter;
+			this.setter = setter;
+			if(getter != null)
+				getter.setAccessible(true);
+			if(setter != null)
+				setter.setAccessible(true);
+		}
+
+		@Override
+		Object get(Object instance) throws Throwable {
+			if(getter == null)
+				return null;
+			return invoke(getter, instance);
+		}
+
+		@Override
+		void set(Object instance, Object value) throws Throwable {
+			if(setter == null)
+				throw new IllegalArgumentException("No setter found for property bound using method: " + getter.getName());
+			invoke(setter, instance, value);
+		}
+
+		private static Object invoke(Method method, Object instance, Object... arguments) throws Throwable{
+			try{
+				return method.invoke(instance, arguments);
+			}catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package org.jdexter.reader;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jdexter.reader.annotation.XMLDocument;
+
+/**
+ * Reads all the sections of a document declared with {@link XMLDocument} in a single streaming pass. The document is
+ * opened and parsed once, and every section is bound from the same {@link XMLStreamReader} as soon as it is met, by
+ * the generated {@link XMLBinder} of its class when there is one or by a pooled JAXB {@link Unmarshaller} otherwise.
+ * Elements which are not declared as sections are skipped.
+ * <br/>
+ * Like {@link JAXBReader}, the {@link org.jdexter.annotation.PreRead} life cycle event is fired on every bound object,
+ * while completing the sections is left to the context.
+ * @author Narendra
+ *
+ */
+public class XMLDocumentReader {
+
+	private final JAXBContextCache contextCache;
+
+	public XMLDocumentReader() {
+		this(JAXBContextCache.getInstance());
+	}
+
+	XMLDocumentReader(JAXBContextCache contextCache){
+		if(contextCache == null)
+			throw new IllegalArgumentException("JAXB context cache cannot be null");
+
+		this.contextCache = contextCache;
+	}
+
+	/**
+	 * @return bound sections keyed by their class, in the order they are declared in {@link XMLDocument}
+	 */
+	public Map<Class<?>, Object> read(Class<?> documentClass) throws Throwable{
+		XMLDocument document = documentOf(documentClass);
+		Map<String, Class<?>> sections = sectionsOf(document);
+
+		XMLStreamReader xmlReader = ReaderUtil.createXMLStreamReader(FileSource.open(document.path()));
+		try{
+			Map<Class<?>, Object> boundSections = bindSections(sections, xmlReader);
+
+			Map<Class<?>, Object> orderedSections = new LinkedHashMap<Class<?>, Object>();
+			for(Class<?> section : document.sections()){
+				Object instance = boundSections.get(section);
+				if(instance == null)
+					throw new XMLStreamException("Section of: " + section.getName() + " is missing from document: " + document.path());
+				orderedSections.put(section, instance);
+			}
+			return Collections.unmodifiableMap(orderedSections);
+		}finally{
+			xmlReader.close();
+		}
+	}
+
+	private Map<Class<?>, Object> bindSections(Map<String, Class<?>> sections, XMLStreamReader xmlReader) throws Throwable{
+		Map<Class<?>, Object> boundSections = new HashMap<Class<?>, Object>();
+		xmlReader.nextTag();
+
+		int event = xmlReader.next();
+		while(event != XMLStreamConstants.END_ELEMENT){
+			if(event != XMLStreamConstants.START_ELEMENT){
+				event = xmlReader.next();
+				continue;
+			}
+
+			Class<?> section = sections.get(xmlReader.getLocalName());
+			if(section == null){
+				XMLBinders.skipElement(xmlReader);
+				xmlReader.next();
+			}else{
+				if(boundSections.containsKey(section))
+					throw new XMLStreamException("Section of: " + section.getName() + " is repeated", xmlReader.getLocation());
+				boundSections.put(section, bindSection(section, xmlReader));
+			}
+			event = xmlReader.getEventType();
+		}
+		return boundSections;
+	}
+
+	/**
+	 * Binds the section the reader is positioned at, leaving the reader at the event following its end element, which
+	 * is where JAXB leaves it.
+	 */
+	private Object bindSection(Class<?> section, XMLStreamReader xmlReader) throws Throwable{
+		XMLBinder binder = XMLBinders.find(section);
+		if(binder != null){
+			Object instance = binder.bindElement(xmlReader);
+			xmlReader.next();
+			return instance;
+		}
+
+		Unmarshaller unmarshaller = contextCache.borrowUnmarshaller(section);
+		Object instance;
+		try{
+			instance = unmarshaller.unmarshal(xmlReader, section).getValue();
+		}catch (IllegalArgumentException e) {
+			throw e.getCause() == null ? e : e.getCause();
+		}
+		//an unmarshaller which threw is dropped, as its state is unspecified
+		contextCache.releaseUnmarshaller(section, unmarshaller);
+		return instance;
+	}
+
+	private static XMLDocument documentOf(Class<?> documentClass){
+		if(documentClass == null)
+			throw new IllegalArgumentException("Document class cannot be null");
+
+		XMLDocument document = documentClass.getAnnotation(XMLDocument.class);
+		if(document == null)
+			throw new IllegalArgumentException("@XMLDocument annotation is missing from class: " + documentClass.getName());
+		if(document.path().length() == 0)
+			throw new IllegalArgumentException("path in @XMLDocument annotation cannot be blank or null");
+
+		return document;
+	}
+
+	private static Map<String, Class<?>> sectionsOf(XMLDocument document){
+		Map<String, Class<?>> sections = new HashMap<String, Class<?>>();
+		for(Class<?> section : document.sections()){
+			String elementName = XMLBinding.of(section).getRootElementName();
+			if(elementName == null)
+				throw new IllegalArgumentException("Section: " + section.getName() + " is not annotated with @XmlRootElement");
+			if(sections.put(elementName, section) != null)
+				throw new IllegalArgumentException("More than one section is bound to element: " + elementName);
+		}
+		return sections;
+	}
+}
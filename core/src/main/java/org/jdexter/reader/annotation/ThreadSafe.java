@@ -0,0 +1,24 @@
+package org.jdexter.reader.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link org.jdexter.reader.Reader} whose instances can read any number of classes, concurrently from any
+ * number of threads. Such a reader keeps no state specific to a read, and whatever state it keeps across reads, such as
+ * JAXB contexts or compiled schemas, is safe for concurrent use.
+ * <br/>
+ * {@link org.jdexter.reader.CachingReaderFactory} shares a single instance of a reader marked with this annotation,
+ * while other readers get an instance per thread. The annotation is not inherited, a subclass of a thread safe reader
+ * has to be marked on its own.
+ * @author Narendra
+ *
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ThreadSafe {
+}
@@ -0,0 +1,27 @@
+package org.jdexter.reader.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a single XML document holding several configurations as sibling sections, that is, as the child elements
+ * of the root element of the document. The annotated class only describes the document and is never instantiated.
+ * <br/>
+ * <i>path:</i> path of the document
+ * <br/>
+ * <i>sections:</i> {@link org.jdexter.annotation.Configuration} classes bound from the sections, each matched to its
+ * section by the name in its {@link javax.xml.bind.annotation.XmlRootElement}
+ * <br/><br/>
+ * The document is read using {@link org.jdexter.context.ConfigurationContext#readDocument(Class)}, which parses it
+ * once for all the sections.
+ * @author Narendra
+ *
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface XMLDocument {
+	String path();
+	Class<?>[] sections();
+}
@@ -0,0 +1,24 @@
+package org.jdexter.reader.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Describes the XML document a configuration class is read from.
+ * <br/>
+ * <i>path:</i> path of the document
+ * <br/>
+ * <i>schema:</i> optional path of the XSD the document is validated against while it is read by
+ * {@link org.jdexter.reader.JAXBReader}. The schema is compiled once per path and validation happens in the same
+ * parse pass which binds the document.
+ * @author Narendra
+ *
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface XMLProperties {
+	String path();
+	String schema() default "";
+}
@@ -0,0 +1,189 @@
+package org.jdexter.reader.snapshot;
+
+import static org.jdexter.reader.snapshot.SnapshotFormat.MAGIC;
+import static org.jdexter.reader.snapshot.SnapshotFormat.VERSION;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jdexter.reader.FileSource;
+import org.jdexter.reader.snapshot.SnapshotDecoder.LifeCycleEventFailure;
+
+/**
+ * Directory of binary snapshots of configurations read from files. A snapshot is keyed by the configuration class,
+ * the source path, its modification time and a hash of its content, and is only restored when all of them, along
+ * with the layout of every class in the snapshot, still match. Anything else is reported as a miss so that the
+ * caller falls back to a normal read.
+ * <br/><br/>
+ * Along with hits and misses the cache keeps the time it saved, which is the time the original read took minus
+ * the time it took to restore the snapshot.
+ * @see SnapshotReader
+ * @author Narendra
+ *
+ */
+public class SnapshotCache {
+	private static final String SUFFIX = ".snapshot";
+
+	private final File directory;
+	private final AtomicLong hitCount;
+	private final AtomicLong missCount;
+	private final AtomicLong timeSavedNanos;
+
+	public SnapshotCache(File directory) {
+		if(directory == null)
+			throw new IllegalArgumentException("Snapshot directory cannot be null");
+
+		this.directory = directory;
+		this.hitCount = new AtomicLong();
+		this.missCount = new AtomicLong();
+		this.timeSavedNanos = new AtomicLong();
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	public long getTimeSaved(TimeUnit unit){
+		return unit.convert(timeSavedNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return the restored configuration or <code>null</code> when there is no usable snapshot for the source
+	 * @throws Throwable thrown by a {@link org.jdexter.annotation.PreRead} life cycle event of a restored object
+	 */
+	Object restore(Class<?> classToRead, FileSource source) throws Throwable{
+		File snapshot = snapshotFileOf(classToRead, source);
+		if(!snapshot.isFile()){
+			missCount.incrementAndGet();
+			return null;
+		}
+
+		long start = System.nanoTime();
+		try{
+			ByteArrayInputStream bytes = new ByteArrayInputStream(Files.readAllBytes(snapshot.toPath()));
+			long readNanos = readHeader(new DataInputStream(bytes), classToRead, source);
+			Object instance = new SnapshotDecoder(bytes, classToRead).readObject();
+			if(!classToRead.isInstance(instance))
+				throw new SnapshotMismatchException("Snapshot does not contain an instance of: " + classToRead.getName());
+
+			hitCount.incrementAndGet();
+			timeSavedNanos.addAndGet(Math.max(0, readNanos - (System.nanoTime() - start)));
+			return instance;
+		}catch (LifeCycleEventFailure e) {
+			throw e.getCause();
+		}catch (IOException e) {
+			missCount.incrementAndGet();
+			return null;
+		}catch (RuntimeException e) {
+			//a corrupt snapshot is as good as no snapshot
+			missCount.incrementAndGet();
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the snapshot of a freshly read configuration. Configurations which cannot be snapshotted are skipped,
+	 * as the snapshot is only an optimization and must never fail the read.
+	 */
+	void store(Class<?> classToRead, FileSource source, Object instance, long readNanos){
+		File snapshot = snapshotFileOf(classToRead, source);
+		File temporary = null;
+		try{
+			if(!directory.isDirectory() && !directory.mkdirs())
+				return;
+
+			temporary = File.createTempFile(snapshot.getName(), ".tmp", directory);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+			try{
+				writeHeader(out, classToRead, source, readNanos);
+				new SnapshotEncoder(out, classToRead).writeObject(instance);
+			}finally{
+				out.close();
+			}
+			Files.move(temporary.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			temporary = null;
+		}catch (IOException e) {
+			//snapshot is skipped
+		}catch (RuntimeException e) {
+			//snapshot is skipped
+		}finally{
+			if(temporary != null)
+				temporary.delete();
+		}
+	}
+
+	private void writeHeader(DataOutputStream out, Class<?> classToRead, FileSource source, long readNanos) throws IOException{
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeUTF(classToRead.getName());
+		out.writeUTF(pathOf(source));
+		out.writeLong(source.getLastModified());
+		out.writeLong(source.size());
+		byte[] hash = hashOf(source);
+		out.writeInt(hash.length);
+		out.write(hash);
+		out.writeLong(readNanos);
+	}
+
+	/**
+	 * @return time taken by the read which produced the snapshot
+	 */
+	private long readHeader(DataInputStream in, Class<?> classToRead, FileSource source) throws IOException{
+		if(in.readInt() != MAGIC || in.readInt() != VERSION)
+			throw new SnapshotMismatchException("Not a snapshot of this version");
+		if(!in.readUTF().equals(classToRead.getName()))
+			throw new SnapshotMismatchException("Snapshot of a different class");
+		if(!in.readUTF().equals(pathOf(source)))
+			throw new SnapshotMismatchException("Snapshot of a different source");
+		if(in.readLong() != source.getLastModified() || in.readLong() != source.size())
+			throw new SnapshotMismatchException("Source modified since the snapshot was taken");
+
+		int hashLength = in.readInt();
+		if(hashLength < 0 || hashLength > in.available())
+			throw new SnapshotMismatchException("Invalid hash length: " + hashLength);
+		byte[] hash = new byte[hashLength];
+		in.readFully(hash);
+		if(!Arrays.equals(hash, hashOf(source)))
+			throw new SnapshotMismatchException("Content of source changed since the snapshot was taken");
+
+		return in.readLong();
+	}
+
+	private File snapshotFileOf(Class<?> classToRead, FileSource source){
+		return new File(directory, classToRead.getName() + "-" + Integer.toHexString(pathOf(source).hashCode()) + SUFFIX);
+	}
+
+	private static String pathOf(FileSource source){
+		return source.getFile().getAbsolutePath();
+	}
+
+	private static byte[] hashOf(FileSource source){
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			digest.update(source.getContent());
+			return digest.digest();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-1 is required to be supported by every JVM", e);
+		}
+	}
+}
@@ -0,0 +1,270 @@
+package org.jdexter.reader.snapshot;
+
+import static org.jdexter.reader.snapshot.SnapshotFormat.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jdexter.annotation.PreRead;
+import org.jdexter.util.ReflectionUtil;
+
+/**
+ * Restores an object graph written by {@link SnapshotEncoder}. Like a reader binding the configuration, the
+ * {@link PreRead} life cycle event is fired on every restored configuration object before its fields are restored.
+ * <br/>
+ * Any difference between the snapshot and the classes as they are loaded now, such as a changed layout or a missing
+ * class, fails the decoding with {@link SnapshotMismatchException}. So does a snapshot which is corrupt or was tampered
+ * with: only the classes which may be part of the bound graph of the configuration are loaded and instantiated, and
+ * arrays and strings are never allocated larger than the bytes left in the snapshot could fill.
+ * @author Narendra
+ *
+ */
+class SnapshotDecoder {
+	private static final Map<String, Class<?>> PRIMITIVES = new HashMap<String, Class<?>>();
+	static{
+		for(Class<?> primitive : new Class<?>[]{boolean.class, byte.class, short.class, char.class, int.class,
+				long.class, float.class, double.class}){
+			PRIMITIVES.put(primitive.getName(), primitive);
+		}
+	}
+
+	private final ByteArrayInputStream snapshot;
+	private final DataInputStream in;
+	private final Class<?> root;
+	private final List<Object> handles;
+	private final List<Class<?>> classes;
+	private long unallocated;
+
+	/**
+	 * @param snapshot bytes of the snapshot positioned at the start of the object graph
+	 * @param root configuration class of the snapshot
+	 */
+	SnapshotDecoder(ByteArrayInputStream snapshot, Class<?> root) {
+		this.snapshot = snapshot;
+		this.in = new DataInputStream(snapshot);
+		this.root = root;
+		this.handles = new ArrayList<Object>();
+		this.classes = new ArrayList<Class<?>>();
+		//every array element takes at least a tag byte of its own
+		this.unallocated = snapshot.available();
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	Object readObject() throws IOException{
+		byte tag = in.readByte();
+		switch (tag) {
+		case NULL:
+			return null;
+		case REFERENCE:
+			return handleAt(in.readInt());
+		case STRING:
+			return readString();
+		case INTEGER:
+			return in.readInt();
+		case LONG:
+			return in.readLong();
+		case BOOLEAN:
+			return in.readBoolean();
+		case DOUBLE:
+			return in.readDouble();
+		case FLOAT:
+			return in.readFloat();
+		case SHORT:
+			return in.readShort();
+		case BYTE:
+			return in.readByte();
+		case CHARACTER:
+			return in.readChar();
+		case BIG_DECIMAL:
+			return new BigDecimal(readString());
+		case BIG_INTEGER:
+			return new BigInteger(readString());
+		case DATE:
+			return new Date(in.readLong());
+		case ENUM:
+			Class enumType = readClass();
+			if(!enumType.isEnum())
+				throw new SnapshotMismatchException("Not an enum: " + enumType.getName());
+			try{
+				return Enum.valueOf(enumType, readString());
+			}catch (IllegalArgumentException e) {
+				throw new SnapshotMismatchException(e);
+			}
+		case ARRAY:
+			return readArray();
+		case COLLECTION:
+			return readCollection();
+		case MAP:
+			return readMap();
+		case OBJECT:
+			return readPlainObject();
+		default:
+			throw new SnapshotMismatchException("Unknown tag: " + tag);
+		}
+	}
+
+	private Object readArray() throws IOException{
+		Class<?> componentType = readClass();
+		int length = in.readInt();
+		if(length < 0 || length > unallocated || length > snapshot.available())
+			throw new SnapshotMismatchException("Invalid array length: " + length);
+		unallocated -= length;
+
+		Object array;
+		try{
+			array = Array.newInstance(componentType, length);
+		}catch (OutOfMemoryError e) {
+			throw new SnapshotMismatchException("Array of length: " + length + " does not fit in memory");
+		}
+		handles.add(array);
+
+		for(int index = 0; index < length; index++){
+			Array.set(array, index, readObject());
+		}
+		return array;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object readCollection() throws IOException{
+		Collection<Object> collection = (Collection<Object>) instantiate(readClass(Collection.class));
+		handles.add(collection);
+
+		int size = readSize();
+		for(int index = 0; index < size; index++){
+			collection.add(readObject());
+		}
+		return collection;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object readMap() throws IOException{
+		Map<Object, Object> map = (Map<Object, Object>) instantiate(readClass(Map.class));
+		handles.add(map);
+
+		int size = readSize();
+		for(int index = 0; index < size; index++){
+			map.put(readObject(), readObject());
+		}
+		return map;
+	}
+
+	private Object readPlainObject() throws IOException{
+		Class<?> type = readClass();
+		if(isJDKType(type) || type.isArray() || type.isPrimitive())
+			throw new SnapshotMismatchException("Type: " + type.getName() + " cannot be restored as an object");
+		Object instance = instantiate(type);
+		handles.add(instance);
+
+		try {
+			ReflectionUtil.invokeLifeCycleEvent(instance, PreRead.class);
+		} catch (Throwable e) {
+			throw new LifeCycleEventFailure(e);
+		}
+
+		for(Field field : layoutOf(type)){
+			try {
+				field.set(instance, readObject());
+			} catch (IllegalAccessException e) {
+				throw new SnapshotMismatchException(e);
+			} catch (IllegalArgumentException e) {
+				throw new SnapshotMismatchException(e);
+			}
+		}
+		return instance;
+	}
+
+	private Object instantiate(Class<?> type) throws SnapshotMismatchException{
+		try {
+			return newInstance(type);
+		} catch (ReflectiveOperationException e) {
+			throw new SnapshotMismatchException(e);
+		}
+	}
+
+	private Object handleAt(int handle) throws SnapshotMismatchException{
+		if(handle < 0 || handle >= handles.size())
+			throw new SnapshotMismatchException("Invalid reference: " + handle);
+		return handles.get(handle);
+	}
+
+	/**
+	 * @return size of a collection or map, each entry of which takes at least a byte of the snapshot
+	 */
+	private int readSize() throws IOException{
+		int size = in.readInt();
+		if(size < 0 || size > snapshot.available())
+			throw new SnapshotMismatchException("Invalid size: " + size);
+		return size;
+	}
+
+	private Class<?> readClass(Class<?> expected) throws IOException{
+		Class<?> type = readClass();
+		if(!expected.isAssignableFrom(type))
+			throw new SnapshotMismatchException("Type: " + type.getName() + " is not a " + expected.getName());
+		return type;
+	}
+
+	private Class<?> readClass() throws IOException{
+		byte tag = in.readByte();
+		if(tag == KNOWN_CLASS){
+			int index = in.readInt();
+			if(index < 0 || index >= classes.size())
+				throw new SnapshotMismatchException("Invalid class reference: " + index);
+			return classes.get(index);
+		}
+
+		if(tag != NEW_CLASS)
+			throw new SnapshotMismatchException("Unknown class tag: " + tag);
+
+		String name = readString();
+		int signature = in.readInt();
+
+		Class<?> type = PRIMITIVES.get(name);
+		if(type == null)
+			type = restorableClassOf(root, name);
+		if(type == null)
+			throw new SnapshotMismatchException("Type: " + name + " is not part of the bound graph of: " + root.getName());
+
+		if(signatureOf(type) != signature)
+			throw new SnapshotMismatchException("Layout of class: " + name + " has changed since the snapshot was taken");
+
+		classes.add(type);
+		return type;
+	}
+
+	private String readString() throws IOException{
+		int length = in.readInt();
+		if(length < 0 || length > snapshot.available())
+			throw new SnapshotMismatchException("Invalid string length: " + length);
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, "UTF-8");
+	}
+
+	/**
+	 * Carries the failure of a life cycle event out of the decoder, so that it is reported as the failure of the
+	 * read instead of being mistaken for an unusable snapshot.
+	 */
+	static class LifeCycleEventFailure extends RuntimeException{
+
+		/**
+		 *
+		 */
+		private static final long serialVersionUID = 1L;
+
+		LifeCycleEventFailure(Throwable cause) {
+			super(cause);
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package org.jdexter.reader.snapshot;
+
+import static org.jdexter.reader.snapshot.SnapshotFormat.*;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+/**
+ * Writes the object graph of a bound configuration in the compact binary form read back by {@link SnapshotDecoder}.
+ * Every object is written once, later occurrences of the same instance are written as references. Class names are
+ * written once per snapshot along with the signature of their layout.
+ * <br/>
+ * Types which cannot be faithfully restored, such as JDK types other than the supported values, collections and
+ * maps, sorted collections and maps with a comparator, or classes which the decoder would not accept as part of the
+ * bound graph of the configuration, fail the encoding with {@link SnapshotMismatchException}.
+ * @author Narendra
+ *
+ */
+class SnapshotEncoder {
+	private final DataOutputStream out;
+	private final Class<?> root;
+	private final Map<Object, Integer> handles;
+	private final Map<Class<?>, Integer> classes;
+
+	/**
+	 * @param root configuration class of the snapshot
+	 */
+	SnapshotEncoder(DataOutputStream out, Class<?> root) {
+		this.out = out;
+		this.root = root;
+		this.handles = new IdentityHashMap<Object, Integer>();
+		this.classes = new HashMap<Class<?>, Integer>();
+	}
+
+	void writeObject(Object value) throws IOException{
+		if(value == null){
+			out.writeByte(NULL);
+			return;
+		}
+
+		if(writeValue(value))
+			return;
+
+		Integer handle = handles.get(value);
+		if(handle != null){
+			out.writeByte(REFERENCE);
+			out.writeInt(handle);
+			return;
+		}
+
+		Class<?> type = value.getClass();
+		if(type.isArray()){
+			writeArray(value);
+		}else if(value instanceof Collection){
+			writeCollection((Collection<?>) value);
+		}else if(value instanceof Map){
+			writeMap((Map<?, ?>) value);
+		}else if(isJDKType(type)){
+			throw new SnapshotMismatchException("Type: " + type.getName() + " is not supported in snapshots");
+		}else{
+			writePlainObject(value);
+		}
+	}
+
+	private boolean writeValue(Object value) throws IOException{
+		Class<?> type = value.getClass();
+		if(type == String.class){
+			out.writeByte(STRING);
+			writeString((String) value);
+		}else if(type == Integer.class){
+			out.writeByte(INTEGER);
+			out.writeInt((Integer) value);
+		}else if(type == Long.class){
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		}else if(type == Boolean.class){
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		}else if(type == Double.class){
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) value);
+		}else if(type == Float.class){
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) value);
+		}else if(type == Short.class){
+			out.writeByte(SHORT);
+			out.writeShort((Short) value);
+		}else if(type == Byte.class){
+			out.writeByte(BYTE);
+			out.writeByte((Byte) value);
+		}else if(type == Character.class){
+			out.writeByte(CHARACTER);
+			out.writeChar((Character) value);
+		}else if(type == BigDecimal.class){
+			out.writeByte(BIG_DECIMAL);
+			writeString(value.toString());
+		}else if(type == BigInteger.class){
+			out.writeByte(BIG_INTEGER);
+			writeString(value.toString());
+		}else if(type == Date.class){
+			out.writeByte(DATE);
+			out.writeLong(((Date) value).getTime());
+		}else if(value instanceof Enum){
+			out.writeByte(ENUM);
+			writeClass(((Enum<?>) value).getDeclaringClass());
+			writeString(((Enum<?>) value).name());
+		}else{
+			return false;
+		}
+		return true;
+	}
+
+	private void writeArray(Object array) throws IOException{
+		out.writeByte(ARRAY);
+		writeClass(array.getClass().getComponentType());
+		register(array);
+
+		int length = Array.getLength(array);
+		out.writeInt(length);
+		for(int index = 0; index < length; index++){
+			writeObject(Array.get(array, index));
+		}
+	}
+
+	private void writeCollection(Collection<?> collection) throws IOException{
+		checkRestorable(collection.getClass());
+		if(collection instanceof SortedSet && ((SortedSet<?>) collection).comparator() != null
+				|| collection instanceof PriorityQueue && ((PriorityQueue<?>) collection).comparator() != null)
+			throw new SnapshotMismatchException("Comparator of: " + collection.getClass().getName() + " cannot be restored");
+		out.writeByte(COLLECTION);
+		writeClass(collection.getClass());
+		register(collection);
+
+		out.writeInt(collection.size());
+		for(Object element : collection){
+			writeObject(element);
+		}
+	}
+
+	private void writeMap(Map<?, ?> map) throws IOException{
+		checkRestorable(map.getClass());
+		if(map instanceof SortedMap && ((SortedMap<?, ?>) map).comparator() != null)
+			throw new SnapshotMismatchException("Comparator of: " + map.getClass().getName() + " cannot be restored");
+		out.writeByte(MAP);
+		writeClass(map.getClass());
+		register(map);
+
+		out.writeInt(map.size());
+		for(Map.Entry<?, ?> entry : map.entrySet()){
+			writeObject(entry.getKey());
+			writeObject(entry.getValue());
+		}
+	}
+
+	private void writePlainObject(Object value) throws IOException{
+		checkRestorable(value.getClass());
+		out.writeByte(OBJECT);
+		writeClass(value.getClass());
+		register(value);
+
+		for(Field field : layoutOf(value.getClass())){
+			try {
+				writeObject(field.get(value));
+			} catch (IllegalAccessException e) {
+				throw new SnapshotMismatchException(e);
+			}
+		}
+	}
+
+	private void checkRestorable(Class<?> type) throws SnapshotMismatchException{
+		if(!hasDefaultConstructor(type))
+			throw new SnapshotMismatchException("Type: " + type.getName() + " cannot be restored as it has no default constructor");
+	}
+
+	private void register(Object value){
+		handles.put(value, handles.size());
+	}
+
+	private void writeClass(Class<?> type) throws IOException{
+		Integer index = classes.get(type);
+		if(index != null){
+			out.writeByte(KNOWN_CLASS);
+			out.writeInt(index);
+			return;
+		}
+
+		if(!type.isPrimitive() && !isRestorable(root, type))
+			throw new SnapshotMismatchException("Type: " + type.getName() + " is not part of the bound graph of: " + root.getName());
+
+		classes.put(type, classes.size());
+		out.writeByte(NEW_CLASS);
+		writeString(type.getName());
+		out.writeInt(signatureOf(type));
+	}
+
+	private void writeString(String value) throws IOException{
+		byte[] bytes = value.getBytes("UTF-8");
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+}
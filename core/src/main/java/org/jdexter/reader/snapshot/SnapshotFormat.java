@@ -0,0 +1,211 @@
+package org.jdexter.reader.snapshot;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementRef;
+import javax.xml.bind.annotation.XmlElementRefs;
+import javax.xml.bind.annotation.XmlElements;
+import javax.xml.bind.annotation.XmlSeeAlso;
+
+/**
+ * Tags and class layout shared by {@link SnapshotEncoder} and {@link SnapshotDecoder}.
+ * @author Narendra
+ *
+ */
+final class SnapshotFormat {
+	private SnapshotFormat(){}
+
+	static final int MAGIC = 0x4A445853;
+	static final int VERSION = 2;
+
+	static final byte NULL = 0;
+	static final byte REFERENCE = 1;
+	static final byte OBJECT = 2;
+	static final byte STRING = 3;
+	static final byte BOOLEAN = 4;
+	static final byte BYTE = 5;
+	static final byte SHORT = 6;
+	static final byte CHARACTER = 7;
+	static final byte INTEGER = 8;
+	static final byte LONG = 9;
+	static final byte FLOAT = 10;
+	static final byte DOUBLE = 11;
+	static final byte BIG_DECIMAL = 12;
+	static final byte BIG_INTEGER = 13;
+	static final byte DATE = 14;
+	static final byte ENUM = 15;
+	static final byte ARRAY = 16;
+	static final byte COLLECTION = 17;
+	static final byte MAP = 18;
+
+	static final byte NEW_CLASS = 0;
+	static final byte KNOWN_CLASS = 1;
+
+	private static final ClassValue<List<Field>> LAYOUTS = new ClassValue<List<Field>>() {
+		@Override
+		protected List<Field> computeValue(Class<?> clazz) {
+			List<Field> fields = new ArrayList<Field>();
+			for(Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()){
+				for(Field field : current.getDeclaredFields()){
+					int modifiers = field.getModifiers();
+					if(Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
+						continue;
+					field.setAccessible(true);
+					fields.add(field);
+				}
+			}
+			return Collections.unmodifiableList(fields);
+		}
+	};
+	private static final ClassValue<Map<String, Class<?>>> REACHABLE = new ClassValue<Map<String, Class<?>>>() {
+		@Override
+		protected Map<String, Class<?>> computeValue(Class<?> root) {
+			return Collections.unmodifiableMap(reachableFrom(root));
+		}
+	};
+
+	/**
+	 * @return instance fields of the class and its super classes, in a stable order, which make up the snapshot of an instance
+	 */
+	static List<Field> layoutOf(Class<?> clazz){
+		return LAYOUTS.get(clazz);
+	}
+
+	/**
+	 * @return signature of the layout of the class, which changes when fields are added, removed or change their type.
+	 * Only configuration classes have a layout, JDK types, enums, arrays and primitives always have <code>0</code> as signature.
+	 */
+	static int signatureOf(Class<?> clazz){
+		if(clazz.isPrimitive() || clazz.isArray() || clazz.isEnum() || isJDKType(clazz))
+			return 0;
+
+		StringBuilder signature = new StringBuilder(clazz.getName());
+		for(Field field : layoutOf(clazz)){
+			signature.append(';').append(field.getName()).append(':').append(field.getType().getName());
+		}
+		return signature.toString().hashCode();
+	}
+
+	/**
+	 * @return the class of the name if an instance of it may be part of the bound graph of the root class, that is if
+	 * it is a primitive, a class reached from the root through the declared types of the fields and the classes
+	 * referred by JAXB annotations, or a collection or map of <code>java.util</code>. <code>null</code> for any other
+	 * class, which is not even loaded.
+	 */
+	static Class<?> restorableClassOf(Class<?> root, String name){
+		Class<?> clazz = REACHABLE.get(root).get(name);
+		if(clazz != null || !name.startsWith("java.util."))
+			return clazz;
+
+		try {
+			//never initialized, and only looked up among the classes of the platform
+			clazz = Class.forName(name, false, null);
+		} catch (ClassNotFoundException e) {
+			return null;
+		}
+		return isContainer(clazz) ? clazz : null;
+	}
+
+	/**
+	 * @return true if instances of the class may be restored as part of the bound graph of the root class, see
+	 * {@link #restorableClassOf(Class, String)}
+	 */
+	static boolean isRestorable(Class<?> root, Class<?> clazz){
+		return REACHABLE.get(root).get(clazz.getName()) == clazz
+				|| clazz.getName().startsWith("java.util.") && isContainer(clazz);
+	}
+
+	private static boolean isContainer(Class<?> clazz){
+		return Collection.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz);
+	}
+
+	private static Map<String, Class<?>> reachableFrom(Class<?> root){
+		Map<String, Class<?>> reachable = new HashMap<String, Class<?>>();
+		Deque<Type> pending = new ArrayDeque<Type>();
+		pending.add(root);
+		while(!pending.isEmpty()){
+			Type type = pending.poll();
+			if(type instanceof ParameterizedType){
+				pending.add(((ParameterizedType) type).getRawType());
+				Collections.addAll(pending, ((ParameterizedType) type).getActualTypeArguments());
+			}else if(type instanceof WildcardType){
+				Collections.addAll(pending, ((WildcardType) type).getUpperBounds());
+			}else if(type instanceof GenericArrayType){
+				pending.add(((GenericArrayType) type).getGenericComponentType());
+			}else if(type instanceof TypeVariable){
+				Collections.addAll(pending, ((TypeVariable<?>) type).getBounds());
+			}else if(type instanceof Class && !reachable.containsKey(((Class<?>) type).getName())){
+				Class<?> clazz = (Class<?>) type;
+				reachable.put(clazz.getName(), clazz);
+				if(clazz.isArray()){
+					pending.add(clazz.getComponentType());
+				}else if(!clazz.isPrimitive() && !isJDKType(clazz)){
+					if(clazz.getSuperclass() != null)
+						pending.add(clazz.getSuperclass());
+					addAnnotatedClasses(clazz.getAnnotation(XmlSeeAlso.class), pending);
+					for(Field field : layoutOf(clazz)){
+						pending.add(field.getGenericType());
+						addAnnotatedClasses(field.getAnnotation(XmlElement.class), pending);
+						addAnnotatedClasses(field.getAnnotation(XmlElements.class), pending);
+						addAnnotatedClasses(field.getAnnotation(XmlElementRef.class), pending);
+						addAnnotatedClasses(field.getAnnotation(XmlElementRefs.class), pending);
+					}
+				}
+			}
+		}
+		return reachable;
+	}
+
+	private static void addAnnotatedClasses(Object annotation, Deque<Type> pending){
+		if(annotation instanceof XmlSeeAlso){
+			Collections.addAll(pending, ((XmlSeeAlso) annotation).value());
+		}else if(annotation instanceof XmlElement){
+			pending.add(((XmlElement) annotation).type());
+		}else if(annotation instanceof XmlElementRef){
+			pending.add(((XmlElementRef) annotation).type());
+		}else if(annotation instanceof XmlElements){
+			for(XmlElement element : ((XmlElements) annotation).value()){
+				pending.add(element.type());
+			}
+		}else if(annotation instanceof XmlElementRefs){
+			for(XmlElementRef element : ((XmlElementRefs) annotation).value()){
+				pending.add(element.type());
+			}
+		}
+	}
+
+	static boolean isJDKType(Class<?> clazz){
+		return clazz.getName().startsWith("java.") || clazz.getName().startsWith("javax.");
+	}
+
+	static boolean hasDefaultConstructor(Class<?> clazz){
+		try{
+			clazz.getDeclaredConstructor();
+			return true;
+		}catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	static Object newInstance(Class<?> clazz) throws ReflectiveOperationException{
+		Constructor<?> constructor = clazz.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		return constructor.newInstance();
+	}
+}
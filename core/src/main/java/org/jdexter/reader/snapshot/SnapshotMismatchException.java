@@ -0,0 +1,25 @@
+package org.jdexter.reader.snapshot;
+
+import java.io.IOException;
+
+/**
+ * Signals that a snapshot cannot be written for, or restored into, the configuration as it is now. The snapshot
+ * layer treats it as a miss and falls back to a normal read.
+ * @author Narendra
+ *
+ */
+class SnapshotMismatchException extends IOException{
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	SnapshotMismatchException(String message) {
+		super(message);
+	}
+
+	SnapshotMismatchException(Throwable cause) {
+		super(cause);
+	}
+}
@@ -0,0 +1,61 @@
+package org.jdexter.reader.snapshot;
+
+import org.jdexter.reader.FileSource;
+import org.jdexter.reader.Reader;
+import org.jdexter.reader.ReaderUtil;
+import org.jdexter.reader.SourceRecorder;
+import org.jdexter.reader.annotation.XMLProperties;
+
+/**
+ * Decorates a file backed reader with a {@link SnapshotCache}. When the source of the configuration has not changed
+ * since the last read the configuration is restored from its snapshot, without invoking the decorated reader at all.
+ * Otherwise the decorated reader is invoked and a fresh snapshot of the result is written for the next start. The
+ * source opened for looking up the snapshot is pinned while the decorated reader runs, see
+ * {@link FileSource#pin(FileSource)}, so a reader opening its file through {@link FileSource} parses the very content
+ * the snapshot is stored for, even if the file changes in between.
+ * <br/>
+ * Classes without {@link XMLProperties} are not file backed and are passed on to the decorated reader as is.
+ * @author Narendra
+ *
+ */
+public class SnapshotReader extends Reader{
+	private final Reader reader;
+	private final SnapshotCache cache;
+
+	public SnapshotReader(Reader reader, SnapshotCache cache) {
+		if(reader == null)
+			throw new IllegalArgumentException("Reader to decorate cannot be null");
+		if(cache == null)
+			throw new IllegalArgumentException("Snapshot cache cannot be null");
+
+		this.reader = reader;
+		this.cache = cache;
+	}
+
+	@Override
+	public Object read(Class<?> classToRead) throws Throwable {
+		if(classToRead.getAnnotation(XMLProperties.class) == null)
+			return reader.read(classToRead);
+
+		FileSource source = FileSource.open(ReaderUtil.extractFileName(classToRead));
+		Object instance = cache.restore(classToRead, source);
+		if(instance != null){
+			SourceRecorder.restored(source);
+			return instance;
+		}
+
+		long start = System.nanoTime();
+		FileSource previous = FileSource.pin(source);
+		try{
+			instance = reader.read(classToRead);
+		}finally{
+			FileSource.unpin(previous);
+		}
+		cache.store(classToRead, source, instance, System.nanoTime() - start);
+		return instance;
+	}
+
+	public Reader getReader() {
+		return reader;
+	}
+}
@@ -0,0 +1,42 @@
+package org.jdexter.reader.snapshot;
+
+import org.jdexter.reader.Reader;
+import org.jdexter.reader.ReaderFactory;
+import org.jdexter.reader.exception.ReaderInstantiationException;
+
+/**
+ * Opt-in snapshot layer for a context. Every reader handed out is decorated with a {@link SnapshotReader} sharing
+ * the same {@link SnapshotCache}:
+ * <pre>
+ * ConfigurationContext ctx = new ConfigurationContext(new SnapshotReaderFactory(new SnapshotCache(directory)));
+ * </pre>
+ * @author Narendra
+ *
+ */
+public class SnapshotReaderFactory extends ReaderFactory{
+	private final SnapshotCache cache;
+	private final ReaderFactory readerFactory;
+
+	public SnapshotReaderFactory(SnapshotCache cache) {
+		this(cache, new ReaderFactory());
+	}
+
+	public SnapshotReaderFactory(SnapshotCache cache, ReaderFactory readerFactory) {
+		if(cache == null)
+			throw new IllegalArgumentException("Snapshot cache cannot be null");
+		if(readerFactory == null)
+			throw new IllegalArgumentException("Reader Factory cannot be null");
+
+		this.cache = cache;
+		this.readerFactory = readerFactory;
+	}
+
+	@Override
+	public Reader getInstanceOf(Class<? extends Reader> readerClass) throws ReaderInstantiationException {
+		return new SnapshotReader(readerFactory.getInstanceOf(readerClass), cache);
+	}
+
+	public SnapshotCache getCache() {
+		return cache;
+	}
+}
@@ -0,0 +1,65 @@
+package org.jdexter.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Typed setter of a field, resolved once so that injecting the field is a direct call of a {@link MethodHandle}
+ * without any access checks, unlike {@link ReflectionUtil#injectFieldForcefully(Object, Field, Object)} which toggles
+ * the accessibility of the field on every injection.
+ * @author Narendra
+ *
+ */
+public final class FieldInjector {
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private final Field field;
+	private final MethodHandle setter;
+
+	private FieldInjector(Field field, MethodHandle setter) {
+		this.field = field;
+		this.setter = setter;
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the field is static or cannot be made accessible
+	 */
+	public static FieldInjector of(Field field){
+		if(field == null)
+			throw new IllegalArgumentException("Field cannot be null");
+		if(Modifier.isStatic(field.getModifiers()))
+			throw new IllegalArgumentException("Static field: " + field + " cannot be injected");
+
+		try {
+			field.setAccessible(true);
+			return new FieldInjector(field, MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE));
+		} catch (IllegalAccessException e) {
+			throw new IllegalArgumentException("Field: " + field + " cannot be injected", e);
+		} catch (SecurityException e) {
+			throw new IllegalArgumentException("Field: " + field + " cannot be injected", e);
+		}
+	}
+
+	public Field getField() {
+		return field;
+	}
+
+	/**
+	 * @throws ClassCastException if the instance does not declare the field or the value is not assignable to it
+	 */
+	public void inject(Object instance, Object value){
+		try {
+			setter.invokeExact(instance, value);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			//setters do not throw checked exceptions
+			throw new IllegalStateException(e);
+		}
+	}
+}
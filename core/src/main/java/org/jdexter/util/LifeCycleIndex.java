@@ -0,0 +1,131 @@
+package org.jdexter.util;
+
+import static org.jdexter.util.ReflectionUtil.Constraints.ATMOST_ONE;
+import static org.jdexter.util.ReflectionUtil.Constraints.NON_STATIC;
+import static org.jdexter.util.ReflectionUtil.Constraints.PUBLIC;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Life cycle methods, such as {@link org.jdexter.annotation.PreRead} and {@link org.jdexter.annotation.PostRead},
+ * declared by a class. The declared methods of a class are scanned and validated against the
+ * {@link ReflectionUtil.Constraints#ATMOST_ONE}, {@link ReflectionUtil.Constraints#PUBLIC} and
+ * {@link ReflectionUtil.Constraints#NON_STATIC} constraints only once, when the class is first indexed. Indexes are
+ * cached for as long as the class is loaded.
+ * <br/>
+ * A violation of the constraints is reported when the event is fired, exactly like it was when the class was scanned
+ * on every event.
+ * @author Narendra
+ *
+ */
+public final class LifeCycleIndex {
+	private static final EnumSet<ReflectionUtil.Constraints> CONSTRAINTS = EnumSet.of(ATMOST_ONE, PUBLIC, NON_STATIC);
+
+	private static final ClassValue<LifeCycleIndex> INDEXES = new ClassValue<LifeCycleIndex>() {
+		@Override
+		protected LifeCycleIndex computeValue(Class<?> type) {
+			return new LifeCycleIndex(type);
+		}
+	};
+
+	private final Map<Class<? extends Annotation>, Event> events;
+
+	private LifeCycleIndex(Class<?> clazz) {
+		Map<Class<? extends Annotation>, List<Method>> annotatedMethods = new HashMap<Class<? extends Annotation>, List<Method>>();
+		for(Method method : clazz.getDeclaredMethods()){
+			for(Annotation annotation : method.getDeclaredAnnotations()){
+				List<Method> methods = annotatedMethods.get(annotation.annotationType());
+				if(methods == null){
+					methods = new ArrayList<Method>();
+					annotatedMethods.put(annotation.annotationType(), methods);
+				}
+				methods.add(method);
+			}
+		}
+
+		if(annotatedMethods.isEmpty()){
+			events = Collections.emptyMap();
+			return;
+		}
+
+		events = new HashMap<Class<? extends Annotation>, Event>();
+		for(Map.Entry<Class<? extends Annotation>, List<Method>> entry : annotatedMethods.entrySet()){
+			events.put(entry.getKey(), Event.of(clazz, entry.getValue()));
+		}
+	}
+
+	public static LifeCycleIndex of(Class<?> clazz){
+		if(clazz == null)
+			throw new IllegalArgumentException("Class cannot be null");
+
+		return INDEXES.get(clazz);
+	}
+
+	/**
+	 * @return <code>false</code> if the class does not declare any annotated method, hence no life cycle method at all
+	 */
+	public boolean hasLifeCycleMethods(){
+		return !events.isEmpty();
+	}
+
+	/**
+	 * @return <code>true</code> if the class declares a method annotated with the event, even if it is not a valid life cycle method
+	 */
+	public boolean declares(Class<? extends Annotation> lifeCycleEvent){
+		return events.containsKey(lifeCycleEvent);
+	}
+
+	/**
+	 * Invokes the life cycle method of the event on the instance, if the class declares one
+	 * @throws IllegalArgumentException if the methods annotated with the event violate the constraints
+	 * @throws Throwable exactly as thrown by the life cycle method
+	 */
+	public void invoke(Object instance, Class<? extends Annotation> lifeCycleEvent) throws Throwable{
+		if(events.isEmpty())
+			return;
+
+		Event event = events.get(lifeCycleEvent);
+		if(event == null)
+			return;
+
+		event.invoke(instance);
+	}
+
+	private static class Event{
+		private final Method method;
+		private final String violations;
+
+		private Event(Method method, String violations) {
+			this.method = method;
+			this.violations = violations;
+		}
+
+		static Event of(Class<?> clazz, List<Method> annotatedMethods){
+			try{
+				ReflectionUtil.validateConstraints(annotatedMethods, clazz, CONSTRAINTS);
+				return new Event(annotatedMethods.get(0), null);
+			}catch (IllegalArgumentException e) {
+				return new Event(null, e.getMessage());
+			}
+		}
+
+		void invoke(Object instance) throws Throwable{
+			if(violations != null)
+				throw new IllegalArgumentException(violations);
+
+			try {
+				ReflectionUtil.invokeMethodWithNoArguments(method, instance);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		}
+	}
+}
@@ -1,9 +1,5 @@
 package org.jdexter.util;
 
-import static org.jdexter.util.ReflectionUtil.Constraints.ATMOST_ONE;
-import static org.jdexter.util.ReflectionUtil.Constraints.NON_STATIC;
-import static org.jdexter.util.ReflectionUtil.Constraints.PUBLIC;
-
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -78,16 +74,11 @@ public final class ReflectionUtil {
 		return clazz.cast(instance);
 	}
 	
+	/**
+	 * Invokes the life cycle method of the event declared by the class of the instance, see {@link LifeCycleIndex}
+	 */
 	public static void invokeLifeCycleEvent(Object instance, Class<? extends Annotation> lifeCycleEvent) throws Throwable{
-		try {
-			ReflectionUtil.invokeSingleNonStaticMethodWithAnnotation(lifeCycleEvent, instance, EnumSet.of(ATMOST_ONE,PUBLIC,NON_STATIC));
-		} catch (IllegalArgumentException e) {
-			throw e;
-		} catch (IllegalAccessException e) {
-			throw e;
-		} catch (InvocationTargetException e) {
-			throw e.getTargetException();
-		}
+		LifeCycleIndex.of(instance.getClass()).invoke(instance, lifeCycleEvent);
 	}
 
 	public static void invokeSingleNonStaticMethodWithAnnotation(Class<? extends Annotation> annotation, Object instance, EnumSet<Constraints> constraints) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
@@ -103,7 +94,7 @@ public final class ReflectionUtil {
 		invokeMethodWithNoArguments(annotatedMethods.get(0), instance);
 	}
 
-	private static void validateConstraints(List<Method> annotatedMethods, Class<?> clazzUnderValidation, EnumSet<Constraints> constraints) {
+	static void validateConstraints(List<Method> annotatedMethods, Class<?> clazzUnderValidation, EnumSet<Constraints> constraints) {
 		ConstraintsResultContainer cvc = new ConstraintsResultContainer();
 		for(Constraints constraint : constraints){
 			constraint.validateConstraint(annotatedMethods, clazzUnderValidation, cvc);
@@ -200,6 +200,24 @@ public class AnnotationMetaDataCollectorUnitTest {
 		assertEquals(dependsOn.size(), 1);
 	}
 	
+	@Test
+	public void testGetInjector_ShouldResolveInjectorOfConditionalConfiguration() throws SecurityException, NoSuchFieldException{
+		Field field = TestConfigurationWithConditionalDependentOnOtherConditional.class.getDeclaredField("ssc1");
+		MetaDataCollector mdc = AnnotationMetaDataCollector.of(TestConfigurationWithConditionalDependentOnOtherConditional.class);
+		assertEquals(mdc.getInjector(field).getField(), field);
+	}
+	
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testGetInjector_ShouldThrowIllegalArgumentException_WhenFieldIsNotInjectable() throws SecurityException, NoSuchFieldException{
+		MetaDataCollector mdc = AnnotationMetaDataCollector.of(TestConfigurationWithConditionalDependentOnOtherConditional.class);
+		mdc.getInjector(TestClassWithNonInjectableField.class.getDeclaredField("notInjectable"));
+	}
+	
+	private static class TestClassWithNonInjectableField{
+		@SuppressWarnings("unused")
+		private Object notInjectable;
+	}
+	
 	@DataProvider 
 	public static Object[][] dataFor_testOf_ShouldThrowIllegalArgumentException_WhenDependenciesAreNotProperlyStated(){
 		return new Object[][]{
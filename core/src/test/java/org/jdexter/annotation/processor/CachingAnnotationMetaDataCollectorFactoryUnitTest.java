@@ -0,0 +1,113 @@
+package org.jdexter.annotation.processor;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jdexter.annotation.processor.AnnotationMetaDataCollectorUnitTest.TestCompositeConfigurationWithConditionalConfigurationAndNoDecisionMethod;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class CachingAnnotationMetaDataCollectorFactoryUnitTest {
+
+	private CachingAnnotationMetaDataCollectorFactory factory;
+
+	@BeforeMethod
+	public void setUp(){
+		factory = new CachingAnnotationMetaDataCollectorFactory();
+	}
+	
+	@Test
+	public void testCreate_ShouldCacheCollectorInstanceOnSuccessfulCreation(){
+		factory.create(TestConfigurationClass.class);
+		assertNotNull(factory.cacheQuery(TestConfigurationClass.class));
+	}
+	
+	@Test
+	public void testCreate_ShouldReturnCachedInstanceOnSuccessiveCall(){
+		Object o1 = factory.create(TestConfigurationClass.class);
+		Object o2 = factory.create(TestConfigurationClass.class);
+		assertTrue(o1 == o2);
+	}
+	
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testCreate_ShouldRethrowExceptionIfThrownMyCollector(){
+		factory.create(TestCompositeConfigurationWithConditionalConfigurationAndNoDecisionMethod.class);
+	}
+	
+	@Test(dependsOnMethods = {"testCreate_ShouldRethrowExceptionIfThrownMyCollector"})
+	public void testCreate_ShouldReturnNullForClassWhoseCollectorThrewException(){
+		try{
+			factory.create(TestCompositeConfigurationWithConditionalConfigurationAndNoDecisionMethod.class);
+		}catch(IllegalArgumentException ex){
+			//chomp
+		}
+		assertNull(factory.cacheQuery(TestCompositeConfigurationWithConditionalConfigurationAndNoDecisionMethod.class));
+	}
+	
+	@Test
+	public void testCreate_ShouldKeepCachedInstance_WhenNothingElseReferencesIt() throws InterruptedException{
+		CountingFactory countingFactory = new CountingFactory();
+		WeakReference<Object> cached = new WeakReference<Object>(countingFactory.create(TestConfigurationClass.class));
+		WeakReference<Object> garbage = new WeakReference<Object>(new Object());
+
+		for(int attempt = 0; attempt < 50 && garbage.get() != null; attempt++){
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		assertNull(garbage.get(), "no garbage collection happened");
+		assertNotNull(cached.get());
+		assertTrue(countingFactory.create(TestConfigurationClass.class) == cached.get());
+		assertEquals(countingFactory.count.get(), 1);
+	}
+	
+	@Test(timeOut = 10000)
+	public void testCreate_ShouldCreateInstanceOnlyOnce_WhenCalledConcurrently() throws Exception{
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountingFactory countingFactory = new CountingFactory();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try{
+			List<Future<Object>> instances = new ArrayList<Future<Object>>();
+			for(int i = 0; i < 8; i++){
+				instances.add(executor.submit(new Callable<Object>() {
+					@Override
+					public Object call() throws Exception {
+						start.await();
+						return countingFactory.create(TestConfigurationClass.class);
+					}
+				}));
+			}
+			start.countDown();
+			
+			for(Future<Object> instance : instances){
+				assertTrue(instance.get() == instances.get(0).get());
+			}
+			assertEquals(countingFactory.count.get(), 1);
+		}finally{
+			executor.shutdownNow();
+		}
+	}
+	
+	private static class CountingFactory extends CachingFactory<Object>{
+		private final AtomicInteger count = new AtomicInteger();
+		
+		@Override
+		protected Object createInstance(Class<?> configurationClass) {
+			count.incrementAndGet();
+			return new Object();
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package org.jdexter.annotation.processor;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+
+import org.jdexter.annotation.Conditional;
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Decision;
+import org.jdexter.annotation.Depends;
+import org.jdexter.annotation.Optional;
+import org.jdexter.context.ConfigurationContext;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClass;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClass1;
+import org.jdexter.context.ConfigurationContextUnitTest.TestReader;
+import org.jdexter.exception.ReadConfigurationException;
+import org.testng.annotations.Test;
+
+public class CompiledMetaDataCollectorUnitTest {
+
+	@Test
+	public void testFind_ShouldReturnNull_WhenThereIsNoGeneratedCollector(){
+		assertNull(CompiledMetaDataCollector.find(TestConfigurationClass.class));
+	}
+
+	@Test
+	public void testFind_ShouldReturnNull_WhenGeneratedCollectorDoesNotMatchClass(){
+		assertNull(CompiledMetaDataCollector.find(TestStaleConfiguration.class));
+	}
+
+	@Test
+	public void testFind_ShouldResolveRegisteredMembers() throws NoSuchFieldException, NoSuchMethodException{
+		MetaDataCollector collector = CompiledMetaDataCollector.find(TestCompiledConfiguration.class);
+
+		assertEquals(collector.getReader(), TestReader.class);
+		assertEquals(collector.getDependencies().iterator().next(), TestCompiledConfiguration.class.getDeclaredField("dependency"));
+		assertEquals(collector.getOptionalDependencies().iterator().next(), TestSuperConfiguration.class.getDeclaredField("optionalDependency"));
+		assertEquals(collector.getInnerConfigurations().iterator().next(), TestCompiledConfiguration.class.getDeclaredField("inner"));
+		assertEquals(collector.getConditionalConfigurations().size(), 2);
+		assertEquals(collector.getDecisionMethod(), TestSuperConfiguration.class.getDeclaredMethod("decision", Class.class));
+	}
+
+	@Test
+	public void testGetDependenciesForConditionalConfiguration_ShouldReturnRegisteredDependencies() throws NoSuchFieldException{
+		MetaDataCollector collector = CompiledMetaDataCollector.find(TestCompiledConfiguration.class);
+		Field first = TestCompiledConfiguration.class.getDeclaredField("first");
+		Field second = TestCompiledConfiguration.class.getDeclaredField("second");
+
+		assertEquals(collector.getDependenciesForConditionalConfiguration(first).iterator().next(), second);
+		assertTrue(collector.getDependenciesForConditionalConfiguration(second).isEmpty());
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testGetDependenciesForConditionalConfiguration_ShouldThrowIllegalArgumentException_WhenFieldIsNotConditional() throws NoSuchFieldException{
+		CompiledMetaDataCollector.find(TestCompiledConfiguration.class)
+			.getDependenciesForConditionalConfiguration(TestCompiledConfiguration.class.getDeclaredField("dependency"));
+	}
+
+	@Test
+	public void testGetInjector_ShouldResolveInjectorOfRegisteredField() throws NoSuchFieldException{
+		Field field = TestSuperConfiguration.class.getDeclaredField("optionalDependency");
+		assertEquals(CompiledMetaDataCollector.find(TestCompiledConfiguration.class).getInjector(field).getField(), field);
+	}
+
+	@Test
+	public void testCreate_ShouldPreferGeneratedCollector(){
+		CachingMetaDataCollectorFactory factory = new CachingMetaDataCollectorFactory();
+
+		assertTrue(factory.create(TestCompiledConfiguration.class) instanceof CompiledMetaDataCollector);
+		assertTrue(factory.create(TestStaleConfiguration.class) instanceof AnnotationMetaDataCollector);
+	}
+
+	@Test
+	public void testCreate_ShouldCollectThroughReflection_WhenFactoryIsAnnotationMetaDataCollectorFactory(){
+		AnnotationMetaDataCollector collector = new CachingAnnotationMetaDataCollectorFactory().create(TestCompiledConfiguration.class);
+
+		assertEquals(collector.getDependencies(), CompiledMetaDataCollector.find(TestCompiledConfiguration.class).getDependencies());
+	}
+
+	@Test
+	public void testRead_ShouldReadGraphDescribedByGeneratedCollector() throws ReadConfigurationException{
+		TestCompiledConfiguration instance = new ConfigurationContext().read(TestCompiledConfiguration.class);
+
+		assertNotNull(instance.dependency);
+		assertNotNull(instance.optionalDependency);
+		assertNotNull(instance.inner);
+		assertNull(instance.first);
+		assertNotNull(instance.second);
+	}
+
+	public static class TestSuperConfiguration{
+		@Depends @Optional TestConfigurationClass optionalDependency;
+
+		@Decision
+		public boolean decision(Class<?> config){
+			return config == TestConfigurationClass1.class;
+		}
+	}
+
+	@Configuration(readWith = TestReader.class)
+	public static class TestCompiledConfiguration extends TestSuperConfiguration{
+		@Depends private TestConfigurationClass dependency;
+		@Configuration private TestConfigurationClass inner;
+		@Configuration @Conditional(dependsOn = {"second"}) private TestConfigurationClass first;
+		@Configuration @Conditional private TestConfigurationClass1 second;
+	}
+
+	/**
+	 * Written the way the annotation processor generates it
+	 */
+	public static final class TestCompiledConfiguration$$MetaData extends CompiledMetaDataCollector {
+
+		public TestCompiledConfiguration$$MetaData(Class<?> configurationClass) throws ReflectiveOperationException {
+			super(configurationClass);
+			dependency(0, "dependency");
+			optionalDependency(1, "optionalDependency");
+			innerConfiguration(0, "inner");
+			conditionalConfiguration(0, "first", "second");
+			conditionalConfiguration(0, "second");
+			decisionMethod(1, "decision");
+			complete();
+		}
+	}
+
+	@Configuration
+	public static class TestStaleConfiguration{
+		@Depends private TestConfigurationClass dependency;
+	}
+
+	/**
+	 * Generated for an earlier version of the class
+	 */
+	public static final class TestStaleConfiguration$$MetaData extends CompiledMetaDataCollector {
+
+		public TestStaleConfiguration$$MetaData(Class<?> configurationClass) throws ReflectiveOperationException {
+			super(configurationClass);
+			dependency(0, "removedDependency");
+			complete();
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package org.jdexter.annotation.processor;
+
+import static org.testng.Assert.assertEquals;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Set;
+
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClass;
+import org.jdexter.reader.Reader;
+import org.testng.annotations.Test;
+
+public class MetaDataCollectorUnitTest {
+
+	@Test
+	public void testGetInjector_ShouldResolveInjectorOfField_WhenCollectorDoesNotOverrideIt() throws NoSuchFieldException{
+		Field field = TestCollectedConfiguration.class.getDeclaredField("dependency");
+
+		assertEquals(new CollectorWithoutInjectors().getInjector(field).getField(), field);
+	}
+
+	/**
+	 * Collector implemented before the injectors were part of the metadata
+	 */
+	private static class CollectorWithoutInjectors implements MetaDataCollector{
+		@Override
+		public Class<? extends Reader> getReader() {
+			return null;
+		}
+
+		@Override
+		public Set<Field> getDependencies() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Set<Field> getOptionalDependencies() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Method getDecisionMethod() {
+			return null;
+		}
+
+		@Override
+		public Set<Field> getInnerConfigurations() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Set<Field> getConditionalConfigurations() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public Set<Field> getDependenciesForConditionalConfiguration(Field field) {
+			return Collections.emptySet();
+		}
+	}
+
+	public static class TestCollectedConfiguration{
+		TestConfigurationClass dependency;
+	}
+}
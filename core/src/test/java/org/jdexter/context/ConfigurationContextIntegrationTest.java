@@ -6,8 +6,11 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
@@ -21,6 +24,7 @@ import org.jdexter.exception.ReadConfigurationException;
 import org.jdexter.reader.JAXBReader;
 import org.jdexter.reader.Reader;
 import org.jdexter.reader.ReaderFactory;
+import org.jdexter.reader.annotation.XMLDocument;
 import org.jdexter.reader.annotation.XMLProperties;
 import org.jdexter.reader.exception.ReaderInstantiationException;
 import org.jdexter.util.ReflectionUtil;
@@ -99,6 +103,27 @@ public class ConfigurationContextIntegrationTest {
 		ctx.read(TestCompositeConfigurationWithJAXBReader.class);
 	}
 	
+	@Test
+	public void testReadDocument_ShouldCompleteEverySectionOfDocument() throws ReadConfigurationException{
+		Map<Class<?>, Object> sections = ctx.readDocument(TestApplicationDocument.class);
+		
+		TestDatabaseSection database = (TestDatabaseSection) sections.get(TestDatabaseSection.class);
+		assertTrue(database.postReadCalled);
+		assertSame(database.server, sections.get(TestServerSection.class));
+	}
+	
+	@Test
+	public void testReadDocument_ShouldSaveSectionsForConfigurationsDependingOnThem() throws ReadConfigurationException{
+		Map<Class<?>, Object> sections = ctx.readDocument(TestApplicationDocument.class);
+		
+		assertSame(ctx.read(TestConfigurationDependingOnSection.class).database, sections.get(TestDatabaseSection.class));
+	}
+	
+	@Test(expectedExceptions = {ReadConfigurationException.class})
+	public void testReadDocument_ShouldThrowReadConfigurationException_WhenClassIsNotADocument() throws ReadConfigurationException{
+		ctx.readDocument(TestServerSection.class);
+	}
+	
 	@DataProvider
 	public Object[][] dataFor_testRead_ShouldThrowProperlyWrappedExceptions_WhenReaderCannotBeInstantiated(){
 		return new Object[][]{
@@ -252,4 +277,32 @@ public class ConfigurationContextIntegrationTest {
 		}
 		
 	}
+
+	@XMLDocument(path = "src/test/resources/test-xml-document.xml", sections = {TestDatabaseSection.class, TestServerSection.class})
+	public static class TestApplicationDocument{
+	}
+	
+	@Configuration(readWith = JAXBReader.class)
+	@XmlRootElement(name = "server")
+	public static class TestServerSection{
+		@XmlElement(name = "port") private int port;
+	}
+	
+	@Configuration(readWith = JAXBReader.class)
+	@XmlRootElement(name = "database")
+	public static class TestDatabaseSection{
+		@XmlElement(name = "url") private String url;
+		@Depends private TestServerSection server;
+		private boolean postReadCalled;
+		
+		@PostRead
+		public void postRead(){
+			postReadCalled = server != null && server.port == 8080;
+		}
+	}
+	
+	@Configuration
+	public static class TestConfigurationDependingOnSection{
+		@Depends private TestDatabaseSection database;
+	}
 }
@@ -0,0 +1,215 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Depends;
+import org.jdexter.annotation.Optional;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.Reader;
+import org.jdexter.reader.ReaderFactory;
+import org.jdexter.util.ReflectionUtil;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class ConfigurationContextOptionalDependencyTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+	private RecordingListener listener;
+
+	@BeforeMethod
+	public void setUp(){
+		FlakyReader.failing = true;
+		FlakyReader.attempts.set(0);
+		listener = new RecordingListener();
+	}
+
+	@AfterClass
+	public void tearDown(){
+		executor.shutdownNow();
+	}
+
+	@DataProvider(name = "contexts")
+	public Object[][] contexts(){
+		return new Object[][]{
+				{new ConfigurationContext(new ReaderFactory())},
+				{new ConfigurationContext(new ReaderFactory(), executor)}
+		};
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testAddOptionalDependencyListener_ShouldThrowIllegalArgumentException_WhenListenerIsNull(){
+		new ConfigurationContext().addOptionalDependencyListener(null);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testSetOptionalDependencyFailureTtl_ShouldThrowIllegalArgumentException_WhenTtlIsNegative(){
+		new ConfigurationContext().setOptionalDependencyFailureTtl(-1, TimeUnit.SECONDS);
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testRead_ShouldNotReadFailedOptionalDependencyAgain_WithinTtl(ConfigurationContext context) throws ReadConfigurationException{
+		context.addOptionalDependencyListener(listener);
+
+		TestConfigurationWithOptionalDependency first = context.read(TestConfigurationWithOptionalDependency.class);
+		TestConfigurationWithOptionalDependency second = context.read(TestConfigurationWithOptionalDependency.class);
+
+		assertNull(first.dependency);
+		assertNull(second.dependency);
+		assertEquals(FlakyReader.attempts.get(), 1);
+		assertEquals(context.getSkippedOptionalDependencyReadCount(), 1);
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testRead_ShouldReportFailedOptionalDependencyOnce_WithinTtl(ConfigurationContext context) throws ReadConfigurationException{
+		context.addOptionalDependencyListener(listener);
+
+		context.read(TestConfigurationWithOptionalDependency.class);
+		context.read(TestConfigurationWithOptionalDependency.class);
+
+		assertEquals(listener.reported, Arrays.<Object>asList(TestConfigurationWithOptionalDependency.class, TestFailingDependency.class));
+		assertNotNull(listener.failure);
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testRead_ShouldReadAndReportFailedOptionalDependencyEveryTime_WhenTtlIsZero(ConfigurationContext context) throws ReadConfigurationException{
+		context.addOptionalDependencyListener(listener);
+		context.setOptionalDependencyFailureTtl(0, TimeUnit.SECONDS);
+
+		context.read(TestConfigurationWithOptionalDependency.class);
+		context.read(TestConfigurationWithOptionalDependency.class);
+
+		assertEquals(FlakyReader.attempts.get(), 2);
+		assertEquals(listener.reported.size(), 4);
+		assertEquals(context.getSkippedOptionalDependencyReadCount(), 0);
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testReload_ShouldForgetFailureOfOptionalDependency_WhenClassItReachesIsReloaded(ConfigurationContext context) throws ReadConfigurationException{
+		context.addOptionalDependencyListener(listener);
+		context.read(TestConfigurationWithOptionalDependency.class);
+		FlakyReader.failing = false;
+
+		context.reload(TestFlakyConfiguration.class);
+
+		assertNotNull(context.get(TestConfigurationWithOptionalDependency.class).dependency);
+		assertEquals(FlakyReader.attempts.get(), 2);
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testRead_ShouldInjectOptionalDependency_WhenItIsSavedAfterFailing(ConfigurationContext context) throws ReadConfigurationException{
+		context.addOptionalDependencyListener(listener);
+		context.read(TestConfigurationWithOptionalDependency.class);
+		FlakyReader.failing = false;
+		context.read(TestFailingDependency.class);
+
+		assertNotNull(context.read(TestConfigurationWithOptionalDependency.class).dependency);
+	}
+
+	@Test(dataProvider = "contexts", timeOut = 10000)
+	public void testRead_ShouldReadOptionalDependencyAgain_WhenItFailedOnlyByClosingCycle(ConfigurationContext context) throws ReadConfigurationException{
+		context.addOptionalDependencyListener(listener);
+		TestCycleStart start = context.read(TestCycleStart.class);
+
+		TestConfigurationReachingCycleEnd reaching = context.read(TestConfigurationReachingCycleEnd.class);
+
+		assertNull(start.end);
+		assertNotNull(reaching.end);
+		assertSame(reaching.end.start, start);
+		assertEquals(context.getSkippedOptionalDependencyReadCount(), 0);
+		assertEquals(listener.reported, Arrays.<Object>asList(TestCycleStart.class, TestCycleEnd.class));
+	}
+
+	@Test(dataProvider = "contexts", timeOut = 10000)
+	public void testReload_ShouldReportOptionalDependencyClosingCycleOnce_WithinTtl(ConfigurationContext context) throws ReadConfigurationException{
+		context.addOptionalDependencyListener(listener);
+		context.read(TestCycleStart.class);
+
+		context.reload(TestCycleStart.class);
+
+		assertNull(context.get(TestCycleStart.class).end);
+		assertEquals(listener.reported, Arrays.<Object>asList(TestCycleStart.class, TestCycleEnd.class));
+	}
+
+	@Test(dataProvider = "contexts", timeOut = 10000)
+	public void testReload_ShouldReportOptionalDependencyClosingCycleEveryTime_WhenTtlIsZero(ConfigurationContext context) throws ReadConfigurationException{
+		context.addOptionalDependencyListener(listener);
+		context.setOptionalDependencyFailureTtl(0, TimeUnit.SECONDS);
+		context.read(TestCycleStart.class);
+
+		context.reload(TestCycleStart.class);
+
+		assertEquals(listener.reported.size(), 4);
+	}
+
+	/**
+	 * Fails while {@link #failing} is set, counting every attempt
+	 */
+	public static class FlakyReader extends Reader{
+		private static volatile boolean failing;
+		private static final AtomicInteger attempts = new AtomicInteger();
+
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			attempts.incrementAndGet();
+			if(failing)
+				throw new Exception("Failure for testing purposes");
+			return ReflectionUtil.createDefaultInstance(classToRead);
+		}
+	}
+
+	private static class RecordingListener implements OptionalDependencyListener{
+		private final List<Object> reported = Collections.synchronizedList(new ArrayList<Object>());
+		private volatile ReadConfigurationException failure;
+
+		@Override
+		public void optionalDependencyFailed(Class<?> configurationClass, Class<?> dependencyClass, ReadConfigurationException e) {
+			reported.add(configurationClass);
+			reported.add(dependencyClass);
+			failure = e;
+		}
+	}
+
+	@Configuration(readWith = FlakyReader.class)
+	public static class TestFlakyConfiguration{
+	}
+
+	@Configuration
+	public static class TestFailingDependency{
+		@Depends private TestFlakyConfiguration flaky;
+	}
+
+	@Configuration
+	public static class TestConfigurationWithOptionalDependency{
+		@Depends @Optional private TestFailingDependency dependency;
+	}
+
+	@Configuration
+	public static class TestCycleStart{
+		@Depends @Optional private TestCycleEnd end;
+	}
+
+	@Configuration
+	public static class TestCycleEnd{
+		@Depends private TestCycleStart start;
+	}
+
+	@Configuration
+	public static class TestConfigurationReachingCycleEnd{
+		@Depends @Optional private TestCycleEnd end;
+	}
+}
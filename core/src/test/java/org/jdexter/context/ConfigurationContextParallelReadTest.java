@@ -0,0 +1,251 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Depends;
+import org.jdexter.context.ConfigurationContextUnitTest.MainConfiguration;
+import org.jdexter.context.ConfigurationContextUnitTest.TestCompositeConfigurationWhichUsesSavedInstance;
+import org.jdexter.context.ConfigurationContextUnitTest.TestCompositeConfigurationWithOneOptionalDependencies;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClassWithAllLifeCycleAnnotations;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationWithConditionalDependentOnOtherConditional;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationWithConditionalDependentOnOtherConditional1;
+import org.jdexter.context.ConfigurationContextUnitTest.TestDependenciesAreInjectedBeforeDecisionMethodCallback;
+import org.jdexter.context.ConfigurationContextUnitTest.TestOptionalDependencyWhichThrowsCheckedException;
+import org.jdexter.context.ConfigurationContextUnitTest.TestRequiresDependencyWhichThrowsCheckedException;
+import org.jdexter.context.ConfigurationContextUnitTest.TestRequiresDependencyWhichThrowsError;
+import org.jdexter.context.ConfigurationContextUnitTest.TestUnConditionalConfigurationIsInjectedBeforeConditionalConfiguration;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.Reader;
+import org.jdexter.reader.ReaderFactory;
+import org.jdexter.util.ReflectionUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class ConfigurationContextParallelReadTest {
+
+	private ExecutorService executor;
+
+	@BeforeMethod
+	public void setUp(){
+		executor = Executors.newFixedThreadPool(3);
+	}
+
+	@AfterMethod
+	public void tearDown(){
+		executor.shutdownNow();
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testConstructor_ShouldThrowIllegalArgumentException_WhenExecutorIsNull(){
+		new ConfigurationContext(new ReaderFactory(), null);
+	}
+
+	@Test(timeOut = 10000)
+	public void testRead_ShouldReadSiblingDependenciesConcurrently() throws ReadConfigurationException{
+		BarrierReader.barrier = new CyclicBarrier(3);
+		TestConfigurationWithWideGraph instance = new ConfigurationContext(new ReaderFactory(), executor).read(TestConfigurationWithWideGraph.class);
+
+		assertNotNull(instance.dependency1);
+		assertNotNull(instance.dependency2);
+		assertNotNull(instance.dependency3);
+	}
+
+	@Test(dataProvider = "dataFor_testRead_ShouldReadGraphLikeSequentialRead", timeOut = 10000)
+	public void testRead_ShouldReadGraphLikeSequentialRead(Class<?> configurationClassToRead) throws ReadConfigurationException{
+		ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+		try{
+			//a single thread executor would starve on nested reads if joining threads did not run pending reads themselves
+			assertNotNull(new ConfigurationContext(new ReaderFactory(), singleThreadExecutor).read(configurationClassToRead));
+			assertNotNull(new ConfigurationContext(new ReaderFactory(), executor).read(configurationClassToRead));
+			assertNotNull(new ConfigurationContext(new ReaderFactory(), ForkJoinPool.commonPool()).read(configurationClassToRead));
+		}finally{
+			singleThreadExecutor.shutdownNow();
+		}
+	}
+
+	@Test(dataProvider = "dataFor_testRead_ShouldThrowSameExceptionAsSequentialRead")
+	public void testRead_ShouldThrowSameExceptionAsSequentialRead(Class<?> configurationClassToRead, Class<?> expectedException){
+		try{
+			new ConfigurationContext(new ReaderFactory(), executor).read(configurationClassToRead);
+			fail("Expected to throw: " + expectedException);
+		}catch(ReadConfigurationException rce){
+			assertEquals(rce.getCause().getClass(), expectedException);
+		}
+	}
+
+	@Test
+	public void testRead_ShouldRunReadsOnCallingThread_WhenExecutorRejectsThem() throws ReadConfigurationException{
+		executor.shutdown();
+		assertNotNull(new ConfigurationContext(new ReaderFactory(), executor).read(TestCompositeConfigurationWhichUsesSavedInstance.class));
+	}
+
+	@Test
+	public void testReadAsync_ShouldNotReadOnCallingThread() throws Exception{
+		QueuingExecutor queuingExecutor = new QueuingExecutor();
+		ConfigurationContext configurationContext = new ConfigurationContext();
+
+		CompletableFuture<TestCompositeConfigurationWhichUsesSavedInstance> future =
+				configurationContext.readAsync(TestCompositeConfigurationWhichUsesSavedInstance.class, queuingExecutor);
+
+		assertFalse(future.isDone());
+		assertNull(configurationContext.get(TestCompositeConfigurationWhichUsesSavedInstance.class));
+		queuingExecutor.runAll();
+		assertSame(configurationContext.get(TestCompositeConfigurationWhichUsesSavedInstance.class), future.get());
+	}
+
+	@Test(dataProvider = "dataFor_testRead_ShouldReadGraphLikeSequentialRead", timeOut = 10000)
+	public void testReadAsync_ShouldReadGraphLikeSequentialRead(Class<?> configurationClassToRead) throws Exception{
+		assertNotNull(new ConfigurationContext(new ReaderFactory(), executor).readAsync(configurationClassToRead).get());
+		assertNotNull(new ConfigurationContext().readAsync(configurationClassToRead, executor).get());
+	}
+
+	@Test(timeOut = 10000)
+	public void testReadAsync_ShouldFireLifeCycleEventsInSameOrderAsRead() throws Exception{
+		TestConfigurationClassWithAllLifeCycleAnnotations instance = new ConfigurationContext(new ReaderFactory(), executor)
+				.readAsync(TestConfigurationClassWithAllLifeCycleAnnotations.class).get();
+
+		assertTrue(instance.isPreCalledBeforePost());
+		assertEquals(instance.getPostReadCallCount(), 1);
+	}
+
+	@Test(timeOut = 10000)
+	public void testReadAsync_ShouldReadConcurrently_WhenForkJoinPoolHasSingleWorker() throws Exception{
+		BarrierReader.barrier = new CyclicBarrier(2);
+		ForkJoinPool pool = new ForkJoinPool(1);
+		try{
+			ConfigurationContext configurationContext = new ConfigurationContext();
+			CompletableFuture<TestSlowConfiguration1> first = configurationContext.readAsync(TestSlowConfiguration1.class, pool);
+			CompletableFuture<TestSlowConfiguration2> second = configurationContext.readAsync(TestSlowConfiguration2.class, pool);
+
+			assertNotNull(first.get());
+			assertNotNull(second.get());
+		}finally{
+			pool.shutdownNow();
+		}
+	}
+
+	@Test(dataProvider = "dataFor_testRead_ShouldThrowSameExceptionAsSequentialRead", timeOut = 10000)
+	public void testReadAsync_ShouldCompleteWithSameExceptionAsSequentialRead(Class<?> configurationClassToRead, Class<?> expectedException) throws InterruptedException{
+		try{
+			new ConfigurationContext(new ReaderFactory(), executor).readAsync(configurationClassToRead).get();
+			fail("Expected to throw: " + expectedException);
+		}catch(ExecutionException e){
+			assertEquals(e.getCause().getClass(), ReadConfigurationException.class);
+			assertEquals(e.getCause().getCause().getClass(), expectedException);
+		}
+	}
+
+	@Test
+	public void testReadAsync_ShouldCompleteWithReadConfigurationException_WhenExecutorRejectsRead() throws InterruptedException{
+		executor.shutdown();
+		try{
+			new ConfigurationContext().readAsync(TestCompositeConfigurationWhichUsesSavedInstance.class, executor).get();
+			fail("Expected to throw: " + ReadConfigurationException.class);
+		}catch(ExecutionException e){
+			assertEquals(e.getCause().getClass(), ReadConfigurationException.class);
+		}
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testReadAsync_ShouldThrowIllegalArgumentException_WhenClassIsNull(){
+		new ConfigurationContext().readAsync(null);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testReadAsync_ShouldThrowIllegalArgumentException_WhenExecutorIsNull(){
+		new ConfigurationContext().readAsync(TestCompositeConfigurationWhichUsesSavedInstance.class, null);
+	}
+
+	@DataProvider
+	public static Object[][] dataFor_testRead_ShouldReadGraphLikeSequentialRead(){
+		return new Object[][]{
+				{TestCompositeConfigurationWhichUsesSavedInstance.class},
+				{TestCompositeConfigurationWithOneOptionalDependencies.class},
+				{TestOptionalDependencyWhichThrowsCheckedException.class},
+				{TestDependenciesAreInjectedBeforeDecisionMethodCallback.class},
+				{TestUnConditionalConfigurationIsInjectedBeforeConditionalConfiguration.class},
+				{MainConfiguration.class},
+				{TestConfigurationWithConditionalDependentOnOtherConditional.class},
+				{TestConfigurationWithConditionalDependentOnOtherConditional1.class},
+		};
+	}
+
+	@DataProvider
+	public static Object[][] dataFor_testRead_ShouldThrowSameExceptionAsSequentialRead(){
+		return new Object[][]{
+				{TestRequiresDependencyWhichThrowsCheckedException.class,	Exception.class},
+				{TestRequiresDependencyWhichThrowsError.class,				Error.class},
+		};
+	}
+
+	/**
+	 * Runs the submitted tasks only when asked to
+	 */
+	private static class QueuingExecutor implements Executor{
+		private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+		@Override
+		public void execute(Runnable task) {
+			tasks.add(task);
+		}
+
+		void runAll(){
+			for(Runnable task : tasks){
+				task.run();
+			}
+			tasks.clear();
+		}
+	}
+
+	/**
+	 * Reads only once all the parties of the barrier are reading, which never happens unless they read concurrently
+	 */
+	public static class BarrierReader extends Reader{
+		static volatile CyclicBarrier barrier;
+
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			barrier.await(5, TimeUnit.SECONDS);
+			return ReflectionUtil.createDefaultInstance(classToRead);
+		}
+	}
+
+	@Configuration
+	public static class TestConfigurationWithWideGraph{
+		@Depends private TestSlowConfiguration1 dependency1;
+		@Depends private TestSlowConfiguration2 dependency2;
+		@Configuration private TestSlowConfiguration3 dependency3;
+	}
+
+	@Configuration(readWith = BarrierReader.class)
+	public static class TestSlowConfiguration1{
+	}
+
+	@Configuration(readWith = BarrierReader.class)
+	public static class TestSlowConfiguration2{
+	}
+
+	@Configuration(readWith = BarrierReader.class)
+	public static class TestSlowConfiguration3{
+	}
+}
@@ -0,0 +1,175 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Depends;
+import org.jdexter.context.ConfigurationContextParallelReadTest.BarrierReader;
+import org.jdexter.context.ConfigurationContextParallelReadTest.TestSlowConfiguration1;
+import org.jdexter.context.ConfigurationContextParallelReadTest.TestSlowConfiguration2;
+import org.jdexter.context.ConfigurationContextParallelReadTest.TestSlowConfiguration3;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.Reader;
+import org.jdexter.reader.ReaderFactory;
+import org.jdexter.util.ReflectionUtil;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ClassToInstanceMap;
+
+public class ConfigurationContextReadAllTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@BeforeMethod
+	public void setUp(){
+		RecordingReader.read.clear();
+	}
+
+	@AfterClass
+	public void tearDown(){
+		executor.shutdownNow();
+	}
+
+	@DataProvider(name = "contexts")
+	public Object[][] contexts(){
+		return new Object[][]{
+				{new ConfigurationContext(new ReaderFactory())},
+				{new ConfigurationContext(new ReaderFactory(), executor)}
+		};
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testReadAll_ShouldThrowIllegalArgumentException_WhenClassesAreNull() throws ReadConfigurationException{
+		new ConfigurationContext().readAll((Class<?>[]) null);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testReadAll_ShouldThrowIllegalArgumentException_WhenCollectionIsNull() throws ReadConfigurationException{
+		new ConfigurationContext().readAll((Collection<Class<?>>) null);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testReadAll_ShouldThrowIllegalArgumentException_WhenClassesContainNull() throws ReadConfigurationException{
+		new ConfigurationContext().readAll(TestSharedConfiguration.class, null);
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testReadAll_ShouldReturnEveryClassTypedInGivenOrder(ConfigurationContext context) throws ReadConfigurationException{
+		ClassToInstanceMap<Object> configurations = context.readAll(TestFirstRoot.class, TestSecondRoot.class, TestFirstRoot.class);
+
+		assertEquals(new ArrayList<Class<?>>(configurations.keySet()), Arrays.<Class<?>>asList(TestFirstRoot.class, TestSecondRoot.class));
+		assertNotNull(configurations.getInstance(TestFirstRoot.class));
+		assertNotNull(configurations.getInstance(TestSecondRoot.class));
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testReadAll_ShouldReadSharedDependencyOnce(ConfigurationContext context) throws ReadConfigurationException{
+		ClassToInstanceMap<Object> configurations = context.readAll(TestFirstRoot.class, TestSecondRoot.class);
+
+		assertSame(configurations.getInstance(TestFirstRoot.class).shared, configurations.getInstance(TestSecondRoot.class).shared);
+		assertEquals(Collections.frequency(RecordingReader.read, TestSharedConfiguration.class), 1);
+	}
+
+	@DataProvider(name = "rootsReachingEachOther")
+	public Object[][] rootsReachingEachOther(){
+		List<Object[]> roots = new ArrayList<Object[]>();
+		for(Object[] context : contexts()){
+			roots.add(new Object[]{context[0], Arrays.<Class<?>>asList(TestSharedConfiguration.class, TestFirstRoot.class, TestSecondRoot.class)});
+		}
+		for(Object[] context : contexts()){
+			roots.add(new Object[]{context[0], Arrays.<Class<?>>asList(TestFirstRoot.class, TestSecondRoot.class, TestSharedConfiguration.class)});
+		}
+		return roots.toArray(new Object[roots.size()][]);
+	}
+
+	@Test(dataProvider = "rootsReachingEachOther")
+	public void testReadAll_ShouldReadClassOnce_WhenItIsAlsoDependencyOfAnotherClass(ConfigurationContext context, List<Class<?>> roots) throws ReadConfigurationException{
+		ClassToInstanceMap<Object> configurations = context.readAll(roots);
+
+		TestSharedConfiguration shared = configurations.getInstance(TestSharedConfiguration.class);
+		assertSame(configurations.getInstance(TestFirstRoot.class).shared, shared);
+		assertSame(configurations.getInstance(TestSecondRoot.class).shared, shared);
+		assertEquals(Collections.frequency(RecordingReader.read, TestSharedConfiguration.class), 1);
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testReadAll_ShouldPublishAllClassesAsOneGeneration(ConfigurationContext context) throws ReadConfigurationException{
+		long generation = context.getGeneration().getNumber();
+
+		ClassToInstanceMap<Object> configurations = context.readAll(TestFirstRoot.class, TestSecondRoot.class);
+
+		assertEquals(context.getGeneration().getNumber(), generation + 1);
+		assertSame(context.get(TestFirstRoot.class), configurations.getInstance(TestFirstRoot.class));
+		assertSame(context.get(TestSecondRoot.class), configurations.getInstance(TestSecondRoot.class));
+		assertSame(context.get(TestSharedConfiguration.class), configurations.getInstance(TestFirstRoot.class).shared);
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testReadAll_ShouldThrowReadConfigurationExceptionAndPublishNothing_WhenAnyClassFails(ConfigurationContext context){
+		long generation = context.getGeneration().getNumber();
+		try{
+			context.readAll(TestFirstRoot.class, TestFailingRoot.class);
+			fail("Expected to throw: " + ReadConfigurationException.class);
+		}catch(ReadConfigurationException expected){
+		}
+
+		assertEquals(context.getGeneration().getNumber(), generation);
+		assertEquals(context.get(TestFirstRoot.class), null);
+	}
+
+	@Test(timeOut = 10000)
+	public void testReadAll_ShouldReadIndependentClassesConcurrently_WhenContextHasExecutor() throws ReadConfigurationException{
+		BarrierReader.barrier = new CyclicBarrier(3);
+
+		ClassToInstanceMap<Object> configurations = new ConfigurationContext(new ReaderFactory(), executor)
+				.readAll(TestSlowConfiguration1.class, TestSlowConfiguration2.class, TestSlowConfiguration3.class);
+
+		assertEquals(configurations.size(), 3);
+	}
+
+	public static class RecordingReader extends Reader{
+		private static final List<Class<?>> read = Collections.synchronizedList(new ArrayList<Class<?>>());
+
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			read.add(classToRead);
+			if(classToRead == TestFailingRoot.class)
+				throw new Exception("Failure for testing purposes");
+			return ReflectionUtil.createDefaultInstance(classToRead);
+		}
+	}
+
+	@Configuration(readWith = RecordingReader.class)
+	public static class TestSharedConfiguration{
+	}
+
+	@Configuration(readWith = RecordingReader.class)
+	public static class TestFirstRoot{
+		@Depends private TestSharedConfiguration shared;
+	}
+
+	@Configuration(readWith = RecordingReader.class)
+	public static class TestSecondRoot{
+		@Depends private TestSharedConfiguration shared;
+	}
+
+	@Configuration(readWith = RecordingReader.class)
+	public static class TestFailingRoot{
+		@Depends private TestSharedConfiguration shared;
+	}
+}
@@ -0,0 +1,244 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Depends;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.JAXBReader;
+import org.jdexter.reader.Reader;
+import org.jdexter.reader.ReaderFactory;
+import org.jdexter.reader.annotation.XMLProperties;
+import org.jdexter.util.ReflectionUtil;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.io.Files;
+
+public class ConfigurationContextReloadTest {
+
+	private static final File FINGERPRINTED = new File("target/fingerprint-test/fingerprinted.xml");
+
+	private ConfigurationContext context;
+
+	@BeforeMethod
+	public void setUp(){
+		RecordingReader.failing = false;
+		RecordingReader.read.clear();
+		context = new ConfigurationContext(new ReaderFactory());
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testReload_ShouldThrowIllegalArgumentException_WhenClassIsNull() throws ReadConfigurationException{
+		context.reload((Class<?>) null);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testReload_ShouldThrowIllegalArgumentException_WhenClassesContainNull() throws ReadConfigurationException{
+		context.reload(Arrays.<Class<?>>asList(TestLeaf.class, null));
+	}
+
+	@Test
+	public void testReload_ShouldReadAgainOnlyChangedClassAndItsDependentsInDependencyOrder() throws ReadConfigurationException{
+		context.read(TestTop.class);
+		TestUnrelated unrelated = context.read(TestUnrelated.class);
+		RecordingReader.read.clear();
+
+		context.reload(TestLeaf.class);
+
+		assertEquals(RecordingReader.read, Arrays.<Class<?>>asList(TestLeaf.class, TestMid.class, TestTop.class));
+		assertSame(context.get(TestUnrelated.class), unrelated);
+	}
+
+	@Test
+	public void testReload_ShouldInjectFreshInstancesIntoDependentsAndPublishThemTogether() throws ReadConfigurationException{
+		TestTop top = context.read(TestTop.class);
+		long generation = context.getGeneration().getNumber();
+
+		TestLeaf leaf = context.reload(TestLeaf.class);
+
+		TestTop reloadedTop = context.get(TestTop.class);
+		assertNotSame(reloadedTop, top);
+		assertSame(reloadedTop.mid.leaf, leaf);
+		assertSame(context.get(TestMid.class), reloadedTop.mid);
+		assertNotSame(top.mid.leaf, leaf);
+		assertEquals(context.getGeneration().getNumber(), generation + 1);
+	}
+
+	@Test
+	public void testReload_ShouldNotReadDependentsWhichWereNeverRead() throws ReadConfigurationException{
+		context.read(TestMid.class);
+		RecordingReader.failing = true;
+		try{
+			context.read(TestTop.class);
+			fail("Expected to throw: " + ReadConfigurationException.class);
+		}catch(ReadConfigurationException expected){
+		}
+		RecordingReader.failing = false;
+
+		Map<Class<?>, Object> reloaded = context.reload(Collections.<Class<?>>singleton(TestLeaf.class));
+
+		assertEquals(new ArrayList<Class<?>>(reloaded.keySet()), Arrays.<Class<?>>asList(TestLeaf.class, TestMid.class));
+	}
+
+	@Test
+	public void testReload_ShouldReadFreshInnerConfigurationIntoItsContainer() throws ReadConfigurationException{
+		TestContainer container = context.read(TestContainer.class);
+
+		Map<Class<?>, Object> reloaded = context.reload(Collections.<Class<?>>singleton(TestLeaf.class));
+
+		TestContainer reloadedContainer = (TestContainer) reloaded.get(TestContainer.class);
+		assertNotSame(reloadedContainer, container);
+		assertSame(reloaded.get(TestLeaf.class), reloadedContainer.inner);
+	}
+
+	@Test
+	public void testReload_ShouldReadSharedDependentOnce_WhenSeveralClassesChange() throws ReadConfigurationException{
+		context.read(TestTop.class);
+		RecordingReader.read.clear();
+
+		context.reload(Arrays.<Class<?>>asList(TestMid.class, TestLeaf.class));
+
+		assertEquals(RecordingReader.read, Arrays.<Class<?>>asList(TestLeaf.class, TestMid.class, TestTop.class));
+	}
+
+	@Test
+	public void testReload_ShouldPublishNothing_WhenAnyAffectedClassFailsToBeRead() throws ReadConfigurationException{
+		TestTop top = context.read(TestTop.class);
+		Generation generation = context.getGeneration();
+		RecordingReader.failing = true;
+
+		try{
+			context.reload(TestLeaf.class);
+			fail("Expected to throw: " + ReadConfigurationException.class);
+		}catch(ReadConfigurationException expected){
+		}
+
+		assertSame(context.getGeneration(), generation);
+		assertSame(context.get(TestTop.class), top);
+	}
+
+	@Test
+	public void testReload_ShouldReadClassWhichWasNeverRead() throws ReadConfigurationException{
+		assertEquals(context.reload(TestLeaf.class).getClass(), TestLeaf.class);
+		assertEquals(context.getGeneration().getNumber(), 1);
+	}
+
+	@Test
+	public void testReload_ShouldKeepExistingInstanceWithoutParsing_WhenFileContentIsUnchanged() throws Exception{
+		write("<fingerprinted><version>1</version></fingerprinted>");
+		TestFingerprintedConfiguration configuration = context.read(TestFingerprintedConfiguration.class);
+		Generation generation = context.getGeneration();
+		write("<fingerprinted><version>1</version></fingerprinted>");
+
+		assertSame(context.reload(TestFingerprintedConfiguration.class), configuration);
+		assertSame(context.getGeneration(), generation);
+		assertEquals(context.getParseCount(), 1);
+		assertEquals(context.getSkippedParseCount(), 1);
+	}
+
+	@Test
+	public void testReload_ShouldParseAgain_WhenFileContentChanged() throws Exception{
+		write("<fingerprinted><version>1</version></fingerprinted>");
+		context.read(TestFingerprintedConfiguration.class);
+		write("<fingerprinted><version>2</version></fingerprinted>");
+
+		assertEquals(context.reload(TestFingerprintedConfiguration.class).version, 2);
+		assertEquals(context.getParseCount(), 2);
+		assertEquals(context.getSkippedParseCount(), 0);
+	}
+
+	@Test
+	public void testReload_ShouldStillReadDependentsOfChangedClass_WhenOnlySomeFilesAreUnchanged() throws Exception{
+		write("<fingerprinted><version>1</version></fingerprinted>");
+		TestDependsOnFingerprinted dependent = context.read(TestDependsOnFingerprinted.class);
+		write("<fingerprinted><version>1</version></fingerprinted>");
+
+		Map<Class<?>, Object> reloaded = context.reload(Arrays.<Class<?>>asList(TestFingerprintedConfiguration.class, TestLeaf.class));
+
+		assertSame(reloaded.get(TestFingerprintedConfiguration.class), dependent.fingerprinted);
+		assertNotSame(reloaded.get(TestLeaf.class), dependent.leaf);
+		assertNotSame(reloaded.get(TestDependsOnFingerprinted.class), dependent);
+		assertSame(((TestDependsOnFingerprinted) reloaded.get(TestDependsOnFingerprinted.class)).fingerprinted, dependent.fingerprinted);
+	}
+
+	@Test
+	public void testReload_ShouldParseAgain_WhenClassIsNotReadFromFile() throws ReadConfigurationException{
+		context.read(TestLeaf.class);
+		RecordingReader.read.clear();
+
+		context.reload(TestLeaf.class);
+
+		assertEquals(RecordingReader.read, Collections.<Class<?>>singletonList(TestLeaf.class));
+		assertEquals(context.getSkippedParseCount(), 0);
+	}
+
+	private static void write(String xml) throws IOException{
+		FINGERPRINTED.getParentFile().mkdirs();
+		Files.write(xml, FINGERPRINTED, Charset.forName("UTF-8"));
+	}
+
+	public static class RecordingReader extends Reader{
+		private static final List<Class<?>> read = Collections.synchronizedList(new ArrayList<Class<?>>());
+		private static volatile boolean failing;
+
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			read.add(classToRead);
+			if(failing && classToRead == TestTop.class)
+				throw new IllegalStateException("Failure for testing purposes");
+			return ReflectionUtil.createDefaultInstance(classToRead);
+		}
+	}
+
+	@Configuration(readWith = RecordingReader.class)
+	public static class TestLeaf{
+	}
+
+	@Configuration(readWith = RecordingReader.class)
+	public static class TestMid{
+		@Depends private TestLeaf leaf;
+	}
+
+	@Configuration(readWith = RecordingReader.class)
+	public static class TestTop{
+		@Depends private TestMid mid;
+	}
+
+	@Configuration(readWith = RecordingReader.class)
+	public static class TestUnrelated{
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XMLProperties(path = "target/fingerprint-test/fingerprinted.xml")
+	@XmlRootElement(name = "fingerprinted")
+	public static class TestFingerprintedConfiguration{
+		@XmlElement(name = "version") private int version;
+	}
+
+	@Configuration(readWith = RecordingReader.class)
+	public static class TestDependsOnFingerprinted{
+		@Depends private TestFingerprintedConfiguration fingerprinted;
+		@Depends private TestLeaf leaf;
+	}
+
+	@Configuration(readWith = RecordingReader.class)
+	public static class TestContainer{
+		@Configuration private TestLeaf inner;
+	}
+}
@@ -2,7 +2,9 @@ package org.jdexter.context;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
@@ -71,6 +73,20 @@ public class ConfigurationContextUnitTest {
 		assertNotNull(configurationContext.read(TestConfigurationClass.class));
 	}
 
+	@Test
+	public void testGet_ShouldReturnNull_WhenClassIsNotRead(){
+		assertNull(configurationContext.get(TestConfigurationClass.class));
+	}
+
+	@Test
+	public void testReload_ShouldReplaceInstanceReturnedByGet() throws ReadConfigurationException{
+		TestConfigurationClass read = configurationContext.read(TestConfigurationClass.class);
+		TestConfigurationClass reloaded = configurationContext.reload(TestConfigurationClass.class);
+
+		assertNotSame(reloaded, read);
+		assertSame(configurationContext.get(TestConfigurationClass.class), reloaded);
+	}
+
 	@Test
 	public void testRead_ShouldCallDefaultConstructor_WhenMultipleConstructorsAreAvailable() throws ReadConfigurationException{
 		TestConfigurationClassWithMultipleConstructorsWithNonDefaultConstructorThrowingException instance = configurationContext.read(TestConfigurationClassWithMultipleConstructorsWithNonDefaultConstructorThrowingException.class);
@@ -0,0 +1,104 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Depends;
+import org.jdexter.annotation.Optional;
+import org.jdexter.annotation.processor.AnnotationMetaDataCollector;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClass;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClass1;
+import org.jdexter.context.ReadPlanUnitTest.TestChainedConditionalConfiguration;
+import org.jdexter.context.ReadPlanUnitTest.TestConfigurationWithChainedConditionals;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class DependencyIndexUnitTest {
+
+	private DependencyIndex index;
+
+	@BeforeMethod
+	public void setUp(){
+		index = new DependencyIndex();
+	}
+
+	@Test
+	public void testRegister_ShouldRecordDependencyAndConditionalEdgesInBothDirections(){
+		register(TestConfigurationWithChainedConditionals.class);
+
+		assertEquals(index.dependenciesOf(TestConfigurationWithChainedConditionals.class).size(), 3);
+		assertTrue(index.dependentsOf(TestConfigurationClass.class).contains(TestConfigurationWithChainedConditionals.class));
+		assertTrue(index.dependentsOf(TestConfigurationClass1.class).contains(TestConfigurationWithChainedConditionals.class));
+		assertTrue(index.dependentsOf(TestChainedConditionalConfiguration.class).contains(TestConfigurationWithChainedConditionals.class));
+	}
+
+	@Test
+	public void testRegister_ShouldRecordInnerConfigurationAndOptionalDependencyEdges(){
+		register(TestIndexedTop.class);
+
+		assertEquals(index.dependentsOf(TestIndexedLeaf.class), Collections.singleton(TestIndexedTop.class));
+		assertEquals(index.dependentsOf(TestConfigurationClass1.class), Collections.singleton(TestIndexedTop.class));
+	}
+
+	@Test
+	public void testDependentsOf_ShouldBeEmpty_WhenClassIsNotReached(){
+		assertTrue(index.dependentsOf(TestConfigurationClass.class).isEmpty());
+	}
+
+	@Test
+	public void testAffectedBy_ShouldReturnTransitiveDependentsAfterTheClassesTheyReach(){
+		register(TestIndexedTop.class);
+		register(TestIndexedMid.class);
+		register(TestIndexedLeaf.class);
+		register(TestIndexedUnrelated.class);
+
+		assertEquals(index.affectedBy(Collections.singleton(TestIndexedLeaf.class)),
+				Arrays.<Class<?>>asList(TestIndexedLeaf.class, TestIndexedMid.class, TestIndexedTop.class));
+	}
+
+	@Test
+	public void testAffectedBy_ShouldReturnOnlyChangedClass_WhenNothingReachesIt(){
+		register(TestIndexedTop.class);
+
+		assertEquals(index.affectedBy(Collections.singleton(TestIndexedUnrelated.class)),
+				Collections.<Class<?>>singletonList(TestIndexedUnrelated.class));
+	}
+
+	@Test
+	public void testAffectedBy_ShouldListSharedDependentOnce_WhenSeveralClassesChange(){
+		register(TestIndexedTop.class);
+		register(TestIndexedMid.class);
+
+		assertEquals(index.affectedBy(Arrays.<Class<?>>asList(TestIndexedMid.class, TestIndexedLeaf.class)),
+				Arrays.<Class<?>>asList(TestIndexedLeaf.class, TestIndexedMid.class, TestIndexedTop.class));
+	}
+
+	private void register(Class<?> configurationClass){
+		index.register(configurationClass, AnnotationMetaDataCollector.of(configurationClass));
+	}
+
+	@Configuration
+	public static class TestIndexedLeaf{
+	}
+
+	@Configuration
+	public static class TestIndexedMid{
+		@Depends private TestIndexedLeaf leaf;
+	}
+
+	@Configuration
+	public static class TestIndexedTop{
+		@Depends private TestIndexedMid mid;
+		@Configuration private TestIndexedLeaf leaf;
+		@Depends @Optional private TestConfigurationClass1 optional;
+	}
+
+	@Configuration
+	public static class TestIndexedUnrelated{
+		@Depends private TestConfigurationClass dependency;
+	}
+}
@@ -0,0 +1,97 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Ticker;
+
+public class FailedReadsUnitTest {
+
+	private ManualTicker ticker;
+	private FailedReads failedReads;
+
+	@BeforeMethod
+	public void setUp(){
+		ticker = new ManualTicker();
+		failedReads = new FailedReads(10, TimeUnit.SECONDS, ticker);
+	}
+
+	@DataProvider(name = "invalidTimesToLive")
+	public Object[][] invalidTimesToLive(){
+		return new Object[][]{
+				{-1, TimeUnit.SECONDS},
+				{10, null}
+		};
+	}
+
+	@Test(dataProvider = "invalidTimesToLive", expectedExceptions = {IllegalArgumentException.class})
+	public void testSetTimeToLive_ShouldThrowIllegalArgumentException_WhenTimeToLiveIsInvalid(long timeToLive, TimeUnit unit){
+		failedReads.setTimeToLive(timeToLive, unit);
+	}
+
+	@Test
+	public void testHasFailed_ShouldReturnFalse_WhenClassNeverFailed(){
+		assertFalse(failedReads.hasFailed(String.class));
+	}
+
+	@Test
+	public void testFailed_ShouldReportOnlyFirstFailure_WithinTimeToLive(){
+		assertTrue(failedReads.failed(String.class));
+		ticker.advance(9, TimeUnit.SECONDS);
+
+		assertTrue(failedReads.hasFailed(String.class));
+		assertFalse(failedReads.failed(String.class));
+	}
+
+	@Test
+	public void testFailed_ShouldReportFailureAgain_WhenTimeToLiveHasPassed(){
+		failedReads.failed(String.class);
+		ticker.advance(10, TimeUnit.SECONDS);
+
+		assertFalse(failedReads.hasFailed(String.class));
+		assertTrue(failedReads.failed(String.class));
+		assertTrue(failedReads.hasFailed(String.class));
+	}
+
+	@Test
+	public void testFailed_ShouldReportEveryFailureAndKeepNone_WhenTimeToLiveIsZero(){
+		failedReads.failed(String.class);
+		failedReads.setTimeToLive(0, TimeUnit.SECONDS);
+
+		assertFalse(failedReads.hasFailed(String.class));
+		assertTrue(failedReads.failed(String.class));
+		assertTrue(failedReads.failed(String.class));
+		assertFalse(failedReads.hasFailed(String.class));
+	}
+
+	@Test
+	public void testInvalidate_ShouldForgetFailuresOfOnlyGivenClasses(){
+		failedReads.failed(String.class);
+		failedReads.failed(Integer.class);
+
+		failedReads.invalidate(Collections.<Class<?>>singleton(String.class));
+
+		assertFalse(failedReads.hasFailed(String.class));
+		assertTrue(failedReads.hasFailed(Integer.class));
+	}
+
+	private static class ManualTicker extends Ticker{
+		private long nanos = System.nanoTime();
+
+		@Override
+		public long read() {
+			return nanos;
+		}
+
+		void advance(long time, TimeUnit unit){
+			nanos += unit.toNanos(time);
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Depends;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClass;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClassUsesDependency;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClassWithReaderThrowingError;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.Reader;
+import org.jdexter.reader.ReaderFactory;
+import org.jdexter.util.ReflectionUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class GenerationUnitTest {
+
+	private ExecutorService executor;
+	private ConfigurationContext context;
+
+	@BeforeMethod
+	public void setUp(){
+		executor = Executors.newSingleThreadExecutor();
+		context = new ConfigurationContext();
+	}
+
+	@AfterMethod
+	public void tearDown(){
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testEmpty_ShouldHaveNumberZeroAndNoConfigurations(){
+		Generation generation = Generation.empty();
+
+		assertEquals(generation.getNumber(), 0);
+		assertNull(generation.get(TestConfigurationClass.class));
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testGet_ShouldThrowIllegalArgumentException_WhenClassIsNull(){
+		Generation.empty().get(null);
+	}
+
+	@Test
+	public void testNext_ShouldNotChangeEarlierGeneration(){
+		Generation first = Generation.empty();
+		Object configuration = new TestConfigurationClass();
+
+		Generation second = first.next(Collections.<Class<?>, Object>singletonMap(TestConfigurationClass.class, configuration));
+
+		assertEquals(second.getNumber(), 1);
+		assertSame(second.get(TestConfigurationClass.class), configuration);
+		assertNull(first.get(TestConfigurationClass.class));
+	}
+
+	@Test
+	public void testRead_ShouldPublishOneGenerationContainingDependencies() throws ReadConfigurationException{
+		TestConfigurationClassUsesDependency configuration = context.read(TestConfigurationClassUsesDependency.class);
+
+		Generation generation = context.getGeneration();
+		assertEquals(generation.getNumber(), 1);
+		assertSame(generation.get(TestConfigurationClassUsesDependency.class), configuration);
+		assertSame(generation.get(TestConfigurationClass.class), configuration.dependency1);
+	}
+
+	@Test
+	public void testRead_ShouldNotPublishGeneration_WhenReadFails(){
+		try{
+			context.read(TestConfigurationClassWithReaderThrowingError.class);
+			fail("Expected to throw: " + ReadConfigurationException.class);
+		}catch(ReadConfigurationException expected){
+		}
+
+		assertEquals(context.getGeneration().getNumber(), 0);
+	}
+
+	@Test(timeOut = 10000)
+	public void testGet_ShouldNotSeeConfigurationsOfReadInProgress() throws Exception{
+		GatedReader.entered = new CountDownLatch(1);
+		GatedReader.release = new CountDownLatch(1);
+		context = new ConfigurationContext(new ReaderFactory());
+
+		Future<TestConfigurationDependingOnGated> read = executor.submit(new Callable<TestConfigurationDependingOnGated>() {
+			@Override
+			public TestConfigurationDependingOnGated call() throws Exception {
+				return context.read(TestConfigurationDependingOnGated.class);
+			}
+		});
+		GatedReader.entered.await();
+
+		assertNull(context.get(TestConfigurationClass.class));
+		assertNull(context.get(TestConfigurationDependingOnGated.class));
+		assertEquals(context.getGeneration().getNumber(), 0);
+
+		GatedReader.release.countDown();
+		TestConfigurationDependingOnGated configuration = read.get();
+
+		assertSame(context.get(TestConfigurationDependingOnGated.class), configuration);
+		assertNotNull(context.get(TestConfigurationClass.class));
+		assertEquals(context.getGeneration().getNumber(), 1);
+	}
+
+	@Test(timeOut = 10000)
+	public void testRead_ShouldNotReplaceReloadedConfiguration_WhenReadStartedBeforeReload() throws Exception{
+		VersionedReader.versions.set(0);
+		VersionedReader.entered = new CountDownLatch(1);
+		VersionedReader.release = new CountDownLatch(1);
+		context = new ConfigurationContext(new ReaderFactory());
+
+		Future<TestVersionedConfiguration> read = executor.submit(new Callable<TestVersionedConfiguration>() {
+			@Override
+			public TestVersionedConfiguration call() throws Exception {
+				return context.read(TestVersionedConfiguration.class);
+			}
+		});
+		VersionedReader.entered.await();
+
+		TestVersionedConfiguration reloaded = context.reload(TestVersionedConfiguration.class);
+		VersionedReader.release.countDown();
+
+		assertEquals(read.get().version, 1);
+		assertEquals(reloaded.version, 2);
+		assertSame(context.get(TestVersionedConfiguration.class), reloaded);
+	}
+
+	@Test
+	public void testNext_ShouldRecordGenerationPublishingEveryConfiguration(){
+		Generation first = Generation.empty().next(Collections.<Class<?>, Object>singletonMap(TestConfigurationClass.class, new TestConfigurationClass()));
+
+		Generation second = first.next(Collections.<Class<?>, Object>singletonMap(TestGatedConfiguration.class, new TestGatedConfiguration()));
+
+		assertEquals(second.publicationOf(TestConfigurationClass.class), 1);
+		assertEquals(second.publicationOf(TestGatedConfiguration.class), 2);
+		assertEquals(second.publicationOf(TestVersionedConfiguration.class), 0);
+	}
+
+	/**
+	 * Versions every configuration it reads, holding the first read until released
+	 */
+	public static class VersionedReader extends Reader{
+		private static final AtomicInteger versions = new AtomicInteger();
+		private static volatile CountDownLatch entered;
+		private static volatile CountDownLatch release;
+
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			int version = versions.incrementAndGet();
+			if(version == 1){
+				entered.countDown();
+				release.await(5, TimeUnit.SECONDS);
+			}
+			TestVersionedConfiguration configuration = new TestVersionedConfiguration();
+			configuration.version = version;
+			return configuration;
+		}
+	}
+
+	@Configuration(readWith = VersionedReader.class)
+	public static class TestVersionedConfiguration{
+		private int version;
+	}
+
+	public static class GatedReader extends Reader{
+		private static volatile CountDownLatch entered;
+		private static volatile CountDownLatch release;
+
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			entered.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return ReflectionUtil.createDefaultInstance(classToRead);
+		}
+	}
+
+	@Configuration(readWith = GatedReader.class)
+	public static class TestGatedConfiguration{
+	}
+
+	@Configuration
+	public static class TestConfigurationDependingOnGated{
+		@Depends private TestConfigurationClass plain;
+		@Depends private TestGatedConfiguration gated;
+	}
+}
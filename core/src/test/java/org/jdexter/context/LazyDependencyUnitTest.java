@@ -0,0 +1,202 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Depends;
+import org.jdexter.annotation.Lazy;
+import org.jdexter.annotation.Optional;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.Reader;
+import org.jdexter.reader.ReaderFactory;
+import org.jdexter.util.ReflectionUtil;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class LazyDependencyUnitTest {
+
+	private static final int THREADS = 8;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@BeforeMethod
+	public void setUp(){
+		CountingReader.count.set(0);
+	}
+
+	@AfterClass
+	public void tearDown(){
+		executor.shutdownNow();
+	}
+
+	@DataProvider(name = "contexts")
+	public Object[][] contexts(){
+		return new Object[][]{
+				{new ConfigurationContext(new ReaderFactory())},
+				{new ConfigurationContext(new ReaderFactory(), executor)}
+		};
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testRead_ShouldInjectSupplierWithoutReadingDependency_WhenDependencyIsLazy(ConfigurationContext context) throws ReadConfigurationException{
+		TestConfigurationWithLazyDependency instance = context.read(TestConfigurationWithLazyDependency.class);
+
+		assertNotNull(instance.counted);
+		assertEquals(CountingReader.count.get(), 0);
+		assertNull(context.get(TestCountedConfiguration.class));
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testGet_ShouldReadDependencyOnlyOnFirstAccess(ConfigurationContext context) throws ReadConfigurationException{
+		TestConfigurationWithLazyDependency instance = context.read(TestConfigurationWithLazyDependency.class);
+
+		TestCountedConfiguration counted = instance.counted.get();
+
+		assertNotNull(counted);
+		assertSame(instance.counted.get(), counted);
+		assertSame(context.get(TestCountedConfiguration.class), counted);
+		assertEquals(CountingReader.count.get(), 1);
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testGet_ShouldInjectSavedInstance_WhenDependencyWasAlreadyRead(ConfigurationContext context) throws ReadConfigurationException{
+		TestCountedConfiguration counted = context.read(TestCountedConfiguration.class);
+
+		TestConfigurationWithLazyDependency instance = context.read(TestConfigurationWithLazyDependency.class);
+
+		assertSame(instance.counted.get(), counted);
+		assertEquals(CountingReader.count.get(), 1);
+	}
+
+	@Test(timeOut = 10000)
+	public void testGet_ShouldReadDependencyExactlyOnce_WhenAccessedConcurrently() throws Exception{
+		final TestConfigurationWithLazyDependency instance = new ConfigurationContext(new ReaderFactory()).read(TestConfigurationWithLazyDependency.class);
+		final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+		ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+		try{
+			List<Future<TestCountedConfiguration>> results = new ArrayList<Future<TestCountedConfiguration>>();
+			for(int thread = 0; thread < THREADS; thread++){
+				results.add(threads.submit(new Callable<TestCountedConfiguration>() {
+					@Override
+					public TestCountedConfiguration call() throws Exception {
+						barrier.await();
+						return instance.counted.get();
+					}
+				}));
+			}
+
+			TestCountedConfiguration counted = results.get(0).get();
+			for(Future<TestCountedConfiguration> result : results){
+				assertSame(result.get(), counted);
+			}
+			assertEquals(CountingReader.count.get(), 1);
+		}finally{
+			threads.shutdownNow();
+		}
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testGet_ShouldReturnNull_WhenOptionalLazyDependencyCannotBeRead(ConfigurationContext context) throws ReadConfigurationException{
+		TestConfigurationWithLazyFailingDependencies instance = context.read(TestConfigurationWithLazyFailingDependencies.class);
+
+		assertNull(instance.optional.get());
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testGet_ShouldThrowIllegalStateException_WhenRequiredLazyDependencyCannotBeRead(ConfigurationContext context) throws ReadConfigurationException{
+		TestConfigurationWithLazyFailingDependencies instance = context.read(TestConfigurationWithLazyFailingDependencies.class);
+
+		for(int attempt = 0; attempt < 2; attempt++){
+			try{
+				instance.required.get();
+				fail("Expected to throw: " + IllegalStateException.class);
+			}catch(IllegalStateException e){
+				assertTrue(e.getCause() instanceof ReadConfigurationException);
+			}
+		}
+	}
+
+	@DataProvider(name = "invalidLazyDependencies")
+	public Object[][] invalidLazyDependencies(){
+		return new Object[][]{
+				{TestConfigurationWithLazyDependencyNotSupplier.class},
+				{TestConfigurationWithLazyRawSupplier.class}
+		};
+	}
+
+	@Test(dataProvider = "invalidLazyDependencies", expectedExceptions = {ReadConfigurationException.class})
+	public void testRead_ShouldThrowReadConfigurationException_WhenLazyDependencyIsNotSupplierOfConfiguration(Class<?> configurationClass) throws ReadConfigurationException{
+		new ConfigurationContext(new ReaderFactory()).read(configurationClass);
+	}
+
+	@Test
+	public void testDependencyClassOf_ShouldReturnSuppliedClass_WhenFieldIsLazy() throws NoSuchFieldException{
+		assertEquals(LazyDependency.dependencyClassOf(TestConfigurationWithLazyDependency.class.getDeclaredField("counted")), TestCountedConfiguration.class);
+		assertEquals(LazyDependency.dependencyClassOf(TestConfigurationWithLazyDependencyNotSupplier.class.getDeclaredField("eager")), TestCountedConfiguration.class);
+	}
+
+	public static class CountingReader extends Reader{
+		private static final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			count.incrementAndGet();
+			return ReflectionUtil.createDefaultInstance(classToRead);
+		}
+	}
+
+	public static class FailingReader extends Reader{
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			throw new Exception("Failure for testing purposes");
+		}
+	}
+
+	@Configuration(readWith = CountingReader.class)
+	public static class TestCountedConfiguration{
+	}
+
+	@Configuration(readWith = FailingReader.class)
+	public static class TestFailingConfiguration{
+	}
+
+	@Configuration
+	public static class TestConfigurationWithLazyDependency{
+		@Depends @Lazy private Supplier<TestCountedConfiguration> counted;
+	}
+
+	@Configuration
+	public static class TestConfigurationWithLazyFailingDependencies{
+		@Depends @Lazy private Supplier<TestFailingConfiguration> required;
+		@Depends @Optional @Lazy private Supplier<TestFailingConfiguration> optional;
+	}
+
+	@Configuration
+	public static class TestConfigurationWithLazyDependencyNotSupplier{
+		@Depends @Lazy private TestCountedConfiguration lazy;
+		@Depends private TestCountedConfiguration eager;
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Configuration
+	public static class TestConfigurationWithLazyRawSupplier{
+		@Depends @Lazy private Supplier counted;
+	}
+}
@@ -0,0 +1,129 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import org.jdexter.annotation.Conditional;
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Decision;
+import org.jdexter.annotation.Depends;
+import org.jdexter.annotation.processor.AnnotationMetaDataCollector;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClass;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClass1;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.ReaderFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class ReadPlanUnitTest {
+
+	private ConfigurationContext configurationContext;
+
+	@BeforeMethod
+	public void setUp(){
+		configurationContext = new ConfigurationContext();
+	}
+
+	@Test
+	public void testPlanOf_ShouldCompilePlanOnlyOnce_WhenClassIsReadRepeatedly() throws ReadConfigurationException{
+		ReadPlan plan = configurationContext.planOf(TestConfigurationWithChainedConditionals.class);
+		configurationContext.read(TestConfigurationWithChainedConditionals.class);
+		configurationContext.read(TestConfigurationWithChainedConditionals.class);
+
+		assertSame(configurationContext.planOf(TestConfigurationWithChainedConditionals.class), plan);
+		assertEquals(plan.getConfigurationClass(), TestConfigurationWithChainedConditionals.class);
+	}
+
+	@Test
+	public void testCompile_ShouldHaveOneStepPerField_WhenReadSequentially(){
+		ReadPlan plan = ReadPlan.compile(TestConfigurationWithChainedConditionals.class,
+				AnnotationMetaDataCollector.of(TestConfigurationWithChainedConditionals.class), null);
+
+		//reader, dependency, three conditionals and completion
+		assertEquals(plan.size(), 6);
+	}
+
+	@Test
+	public void testCompile_ShouldResolveAllDependenciesInOneStep_WhenReadConcurrently(){
+		ReadPlan plan = ReadPlan.compile(TestConfigurationWithChainedConditionals.class,
+				AnnotationMetaDataCollector.of(TestConfigurationWithChainedConditionals.class), Executors.newCachedThreadPool());
+
+		//reader, concurrent resolution, three conditionals and completion
+		assertEquals(plan.size(), 6);
+	}
+
+	@Test
+	public void testRead_ShouldDecideEveryConditionalOnceAfterItsDependencies() throws ReadConfigurationException{
+		TestConfigurationWithChainedConditionals instance = configurationContext.read(TestConfigurationWithChainedConditionals.class);
+
+		assertEquals(instance.decided, Arrays.asList("third", "second", "first"));
+		assertNotNull(instance.third);
+		assertNull(instance.second);
+		assertNotNull(instance.first);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testCompile_ShouldThrowIllegalArgumentException_WhenConditionalsDependOnEachOtherInCycle(){
+		ReadPlan.compile(TestConfigurationWithCyclicConditionals.class,
+				AnnotationMetaDataCollector.of(TestConfigurationWithCyclicConditionals.class), null);
+	}
+
+	@Test(expectedExceptions = {ReadConfigurationException.class})
+	public void testRead_ShouldThrowReadConfigurationException_WhenConditionalsDependOnEachOtherInCycle() throws ReadConfigurationException{
+		configurationContext.read(TestConfigurationWithCyclicConditionals.class);
+	}
+
+	@Test
+	public void testRead_ShouldFollowSamePlan_WhenReadConcurrently() throws ReadConfigurationException{
+		TestConfigurationWithChainedConditionals instance = new ConfigurationContext(new ReaderFactory(), Executors.newCachedThreadPool())
+			.read(TestConfigurationWithChainedConditionals.class);
+
+		assertEquals(instance.decided, Arrays.asList("third", "second", "first"));
+		assertNotNull(instance.dependency);
+	}
+
+	@Configuration
+	public static class TestConfigurationWithChainedConditionals{
+		@Depends private TestConfigurationClass dependency;
+		@Configuration @Conditional(dependsOn = {"second"}) private TestConfigurationClass1 first;
+		@Configuration @Conditional(dependsOn = {"third"}) private TestChainedConditionalConfiguration second;
+		@Configuration @Conditional private TestConfigurationClass third;
+		private List<String> decided = new ArrayList<String>();
+
+		@Decision
+		public boolean decision(Class<?> config){
+			if(config == TestConfigurationClass.class){
+				decided.add("third");
+				return true;
+			}
+			if(config == TestChainedConditionalConfiguration.class){
+				decided.add("second");
+				return false;
+			}
+			decided.add("first");
+			return true;
+		}
+	}
+
+	@Configuration
+	public static class TestChainedConditionalConfiguration{
+	}
+
+	@Configuration
+	public static class TestConfigurationWithCyclicConditionals{
+		@Configuration @Conditional(dependsOn = {"second"}) private TestConfigurationClass first;
+		@Configuration @Conditional(dependsOn = {"first"}) private TestConfigurationClass1 second;
+
+		@Decision
+		public boolean decision(Class<?> config){
+			return true;
+		}
+	}
+}
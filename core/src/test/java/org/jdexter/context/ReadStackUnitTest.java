@@ -0,0 +1,222 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Depends;
+import org.jdexter.annotation.Optional;
+import org.jdexter.context.ConfigurationContextUnitTest.TestCircularDependency1;
+import org.jdexter.context.ConfigurationContextUnitTest.TestCircularDependency2;
+import org.jdexter.exception.CircularDependencyException;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.ReaderFactory;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.io.Files;
+
+public class ReadStackUnitTest {
+
+	private static final File DEEP_GRAPH = new File("target/deep-graph-test");
+	private static final int DEPTH = 2000;
+	private static final long SMALL_STACK_SIZE = 256 * 1024;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+	private final ExecutorService smallStackExecutor = Executors.newFixedThreadPool(4, new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable task) {
+			return new Thread(null, task, "small-stack-reader", SMALL_STACK_SIZE);
+		}
+	});
+
+	@AfterClass
+	public void tearDown(){
+		executor.shutdownNow();
+		smallStackExecutor.shutdownNow();
+	}
+
+	@DataProvider(name = "smallStackContexts")
+	public Object[][] smallStackContexts(){
+		return new Object[][]{
+				{new ConfigurationContext(new ReaderFactory())},
+				{new ConfigurationContext(new ReaderFactory(), smallStackExecutor)}
+		};
+	}
+
+	@DataProvider(name = "contexts")
+	public Object[][] contexts(){
+		return new Object[][]{
+				{new ConfigurationContext(new ReaderFactory())},
+				{new ConfigurationContext(new ReaderFactory(), executor)}
+		};
+	}
+
+	@Test(dataProvider = "contexts", timeOut = 10000)
+	public void testRead_ShouldReportCyclePath_WhenDependenciesAreCircular(ConfigurationContext context){
+		assertCycle(context, TestCircularDependency1.class,
+				TestCircularDependency1.class, TestCircularDependency2.class, TestCircularDependency1.class);
+	}
+
+	@Test(dataProvider = "contexts", timeOut = 10000)
+	public void testRead_ShouldReportCyclePath_WhenInnerConfigurationsAreCircular(ConfigurationContext context){
+		assertCycle(context, TestInnerCycleStart.class,
+				TestInnerCycleStart.class, TestInnerCycleEnd.class, TestInnerCycleStart.class);
+	}
+
+	@Test(dataProvider = "contexts", timeOut = 10000)
+	public void testRead_ShouldReportOnlyClassesInCycle_WhenCycleIsReachedThroughOtherClasses(ConfigurationContext context){
+		assertCycle(context, TestReachingCycle.class,
+				TestCircularDependency1.class, TestCircularDependency2.class, TestCircularDependency1.class);
+	}
+
+	@Test(dataProvider = "contexts", timeOut = 10000)
+	public void testRead_ShouldLeaveOutOptionalDependency_WhenItClosesCycle(ConfigurationContext context) throws ReadConfigurationException{
+		TestOptionalCycleStart instance = context.read(TestOptionalCycleStart.class);
+
+		assertNull(instance.end);
+	}
+
+	@Test(dataProvider = "contexts")
+	public void testRead_ShouldReadDependencySharedBySeveralPathsOnce(ConfigurationContext context) throws ReadConfigurationException{
+		TestDiamondTop top = context.read(TestDiamondTop.class);
+
+		assertNotNull(top.left.bottom);
+		assertSame(top.left.bottom, top.right.bottom);
+	}
+
+	@Test(dataProvider = "smallStackContexts", timeOut = 60000)
+	public void testRead_ShouldReadDeepGraphOnSmallThreadStack(final ConfigurationContext context) throws Throwable{
+		final Class<?> deepest = compileDeepGraph();
+		final AtomicReference<Object> read = new AtomicReference<Object>();
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+		Thread reader = new Thread(null, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					read.set(context.read(deepest));
+				} catch (Throwable t) {
+					failure.set(t);
+				}
+			}
+		}, "deep-graph-reader", SMALL_STACK_SIZE);
+		reader.start();
+		reader.join();
+
+		if(failure.get() != null)
+			throw failure.get();
+		assertTrue(deepest.isInstance(read.get()));
+	}
+
+	private static void assertCycle(ConfigurationContext context, Class<?> classToRead, Class<?>... cycle){
+		try{
+			context.read(classToRead);
+			fail("Expected to throw: " + ReadConfigurationException.class);
+		}catch(ReadConfigurationException rce){
+			assertEquals(rce.getCause().getClass(), CircularDependencyException.class);
+			StringBuilder path = new StringBuilder();
+			for(Class<?> configurationClass : cycle){
+				if(path.length() > 0)
+					path.append(" -> ");
+				path.append(configurationClass.getName());
+			}
+			assertEquals(rce.getCause().getMessage(), "Circular dependency: " + path);
+		}
+	}
+
+	/**
+	 * Compiles a chain of configurations, each depending on the previous one, far deeper than a thread stack of
+	 * {@link #SMALL_STACK_SIZE} would take if every level was read on it, by the calling thread or by the threads of
+	 * an executor
+	 * @return the last configuration of the chain
+	 */
+	private static Class<?> compileDeepGraph() throws IOException, ClassNotFoundException{
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if(compiler == null)
+			throw new SkipException("No java compiler available in the runtime");
+
+		StringBuilder source = new StringBuilder("public class DeepGraph{\n");
+		for(int level = 0; level < DEPTH; level++){
+			source.append("@").append(Configuration.class.getName()).append(" public static class Level").append(level).append("{");
+			if(level > 0)
+				source.append("@").append(Depends.class.getName()).append(" private Level").append(level - 1).append(" previous;");
+			source.append("}\n");
+		}
+		source.append("}\n");
+
+		DEEP_GRAPH.mkdirs();
+		File sourceFile = new File(DEEP_GRAPH, "DeepGraph.java");
+		Files.write(source, sourceFile, Charset.forName("UTF-8"));
+		String classpath = new File(Configuration.class.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+		int result = compiler.run(null, null, null, "-nowarn", "-classpath", classpath, "-d", DEEP_GRAPH.getPath(), sourceFile.getPath());
+		assertEquals(result, 0, "Deep graph did not compile");
+
+		ClassLoader loader = new URLClassLoader(new URL[]{DEEP_GRAPH.toURI().toURL()}, ReadStackUnitTest.class.getClassLoader());
+		return loader.loadClass("DeepGraph$Level" + (DEPTH - 1));
+	}
+
+	@Configuration
+	public static class TestInnerCycleStart{
+		@Configuration private TestInnerCycleEnd end;
+	}
+
+	@Configuration
+	public static class TestInnerCycleEnd{
+		@Configuration private TestInnerCycleStart start;
+	}
+
+	@Configuration
+	public static class TestReachingCycle{
+		@Depends private TestCircularDependency1 cycle;
+	}
+
+	@Configuration
+	public static class TestOptionalCycleStart{
+		@Depends @Optional private TestOptionalCycleEnd end;
+	}
+
+	@Configuration
+	public static class TestOptionalCycleEnd{
+		@Depends private TestOptionalCycleStart start;
+	}
+
+	@Configuration
+	public static class TestDiamondBottom{
+	}
+
+	@Configuration
+	public static class TestDiamondLeft{
+		@Depends private TestDiamondBottom bottom;
+	}
+
+	@Configuration
+	public static class TestDiamondRight{
+		@Depends private TestDiamondBottom bottom;
+	}
+
+	@Configuration
+	public static class TestDiamondTop{
+		@Depends private TestDiamondLeft left;
+		@Depends private TestDiamondRight right;
+	}
+}
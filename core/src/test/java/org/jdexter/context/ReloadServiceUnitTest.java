@@ -0,0 +1,238 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClass;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.JAXBReader;
+import org.jdexter.reader.annotation.XMLProperties;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.io.Files;
+
+public class ReloadServiceUnitTest {
+
+	private static final File FIRST = new File("target/reload-test/reload-configuration-1.xml");
+	private static final File SECOND = new File("target/reload-test/reload-configuration-2.xml");
+	private static final File UNWATCHED = new File("target/reload-test/unwatched.xml");
+
+	private ConfigurationContext context;
+	private ReloadService service;
+	private BlockingQueue<Object> reloaded;
+
+	@BeforeMethod
+	public void setUp() throws IOException{
+		write(FIRST, "first", 1);
+		write(SECOND, "second", 1);
+		context = new ConfigurationContext();
+		service = new ReloadService(context, 200, TimeUnit.MILLISECONDS);
+		reloaded = new LinkedBlockingQueue<Object>();
+		service.addListener(new ReloadListener() {
+			@Override
+			public void reloaded(Class<?> configurationClass, Object configuration) {
+				reloaded.add(configuration);
+			}
+
+			@Override
+			public void reloadFailed(Class<?> configurationClass, ReadConfigurationException e) {
+				reloaded.add(e);
+			}
+		});
+	}
+
+	@AfterMethod
+	public void tearDown() throws IOException{
+		service.close();
+	}
+
+	@DataProvider
+	public Object[][] invalidArguments(){
+		return new Object[][]{
+				{null, 1L, TimeUnit.SECONDS},
+				{new ConfigurationContext(), 0L, TimeUnit.SECONDS},
+				{new ConfigurationContext(), 1L, null}
+		};
+	}
+
+	@Test(dataProvider = "invalidArguments", expectedExceptions = {IllegalArgumentException.class})
+	public void testConstructor_ShouldThrowIllegalArgumentException_WhenArgumentIsInvalid(ConfigurationContext context,
+			long debounce, TimeUnit unit) throws IOException{
+		new ReloadService(context, debounce, unit).close();
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testWatch_ShouldThrowIllegalArgumentException_WhenClassIsNotReadFromFile() throws IOException{
+		service.watch(TestConfigurationClass.class);
+	}
+
+	@Test(timeOut = 10000)
+	public void testReload_ShouldReloadOnceAndReplaceSavedInstance_WhenFileIsWrittenInBurst() throws Exception{
+		context.read(TestReloadConfiguration1.class);
+		service.watch(TestReloadConfiguration1.class);
+		service.start();
+
+		for(int version = 2; version <= 5; version++){
+			write(FIRST, "first", version);
+		}
+
+		TestReloadConfiguration1 configuration = (TestReloadConfiguration1) reloaded.take();
+		assertEquals(configuration.version, 5);
+		assertEquals(context.get(TestReloadConfiguration1.class).version, 5);
+		assertEquals(reloaded.poll(500, TimeUnit.MILLISECONDS), null);
+		assertEquals(service.getBatchCount(), 1);
+		assertEquals(service.getReloadCount(), 1);
+	}
+
+	@Test(timeOut = 10000)
+	public void testReload_ShouldReloadBothClassesInOneBatch_WhenBothFilesChangeTogether() throws Exception{
+		service.watch(TestReloadConfiguration1.class);
+		service.watch(TestReloadConfiguration2.class);
+		service.start();
+
+		write(FIRST, "first", 2);
+		write(SECOND, "second", 2);
+
+		Set<Class<?>> reloadedClasses = new LinkedHashSet<Class<?>>();
+		reloadedClasses.add(reloaded.take().getClass());
+		reloadedClasses.add(reloaded.take().getClass());
+		assertEquals(reloadedClasses.size(), 2);
+		assertEquals(service.getBatchCount(), 1);
+	}
+
+	@Test(timeOut = 10000)
+	public void testReload_ShouldNotReload_WhenUnwatchedFileOfWatchedDirectoryChanges() throws Exception{
+		service.watch(TestReloadConfiguration1.class);
+		service.start();
+
+		write(UNWATCHED, "unwatched", 1);
+
+		assertEquals(reloaded.poll(1, TimeUnit.SECONDS), null);
+		assertEquals(service.getBatchCount(), 0);
+	}
+
+	@Test
+	public void testReload_ShouldReportFailure_WhenChangedFileCannotBeRead() throws Exception{
+		service.watch(TestReloadConfiguration1.class);
+		Files.write("<not-xml", FIRST, Charset.forName("UTF-8"));
+
+		service.reload(Collections.singleton(ReloadService.fileOf(TestReloadConfiguration1.class)));
+
+		assertTrue(reloaded.poll() instanceof ReadConfigurationException);
+		assertEquals(service.getReloadCount(), 1);
+	}
+
+	@Test(timeOut = 10000)
+	public void testReload_ShouldKeepReloading_WhenListenerThrows() throws Exception{
+		service.addListener(new ReloadListener() {
+			@Override
+			public void reloaded(Class<?> configurationClass, Object configuration) {
+				throw new IllegalStateException("Failure for testing purposes");
+			}
+
+			@Override
+			public void reloadFailed(Class<?> configurationClass, ReadConfigurationException e) {
+				throw new IllegalStateException("Failure for testing purposes");
+			}
+		});
+		service.watch(TestReloadConfiguration1.class);
+		service.start();
+
+		write(FIRST, "first", 2);
+		assertEquals(((TestReloadConfiguration1) reloaded.take()).version, 2);
+		write(FIRST, "first", 3);
+
+		assertEquals(((TestReloadConfiguration1) reloaded.take()).version, 3);
+		assertEquals(service.getBatchCount(), 2);
+	}
+
+	@Test
+	public void testReload_ShouldReloadOtherChangedClasses_WhenOneClassOfBatchFails() throws Exception{
+		service.watch(TestReloadConfiguration1.class);
+		service.watch(TestReloadConfiguration2.class);
+		Files.write("<not-xml", FIRST, Charset.forName("UTF-8"));
+		write(SECOND, "second", 2);
+
+		service.reload(new LinkedHashSet<Path>(Arrays.asList(ReloadService.fileOf(TestReloadConfiguration1.class),
+				ReloadService.fileOf(TestReloadConfiguration2.class))));
+
+		assertTrue(reloaded.poll() instanceof ReadConfigurationException);
+		assertEquals(((TestReloadConfiguration2) reloaded.poll()).version, 2);
+		assertEquals(reloaded.poll(), null);
+		assertEquals(context.get(TestReloadConfiguration2.class).version, 2);
+	}
+
+	@Test
+	public void testReload_ShouldPassListenerExceptionToHandler_WhenListenerThrows() throws Exception{
+		final IllegalStateException failure = new IllegalStateException("Failure for testing purposes");
+		final List<Throwable> handled = new ArrayList<Throwable>();
+		service.setListenerExceptionHandler(new Thread.UncaughtExceptionHandler() {
+			@Override
+			public void uncaughtException(Thread t, Throwable e) {
+				handled.add(e);
+			}
+		});
+		service.addListener(new ReloadListener() {
+			@Override
+			public void reloaded(Class<?> configurationClass, Object configuration) {
+				throw failure;
+			}
+
+			@Override
+			public void reloadFailed(Class<?> configurationClass, ReadConfigurationException e) {
+				throw failure;
+			}
+		});
+		service.watch(TestReloadConfiguration1.class);
+
+		service.reload(Collections.singleton(ReloadService.fileOf(TestReloadConfiguration1.class)));
+
+		assertEquals(handled, Collections.singletonList(failure));
+		assertTrue(reloaded.poll() instanceof TestReloadConfiguration1);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testSetListenerExceptionHandler_ShouldThrowIllegalArgumentException_WhenHandlerIsNull(){
+		service.setListenerExceptionHandler(null);
+	}
+
+	private static void write(File file, String name, int version) throws IOException{
+		file.getParentFile().mkdirs();
+		Files.write("<" + name + "><version>" + version + "</version></" + name + ">", file, Charset.forName("UTF-8"));
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XMLProperties(path = "target/reload-test/reload-configuration-1.xml")
+	@XmlRootElement(name = "first")
+	public static class TestReloadConfiguration1{
+		@XmlElement(name = "version") private int version;
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XMLProperties(path = "target/reload-test/reload-configuration-2.xml")
+	@XmlRootElement(name = "second")
+	public static class TestReloadConfiguration2{
+		@XmlElement(name = "version") private int version;
+	}
+}
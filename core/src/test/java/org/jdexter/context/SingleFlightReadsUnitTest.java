@@ -0,0 +1,219 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Depends;
+import org.jdexter.context.ConfigurationContextUnitTest.TestCircularDependency1;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.Reader;
+import org.jdexter.reader.ReaderFactory;
+import org.jdexter.util.ReflectionUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class SingleFlightReadsUnitTest {
+
+	private ExecutorService executor;
+	private SingleFlightReads reads;
+
+	@BeforeMethod
+	public void setUp(){
+		executor = Executors.newFixedThreadPool(2);
+		reads = new SingleFlightReads();
+	}
+
+	@AfterMethod
+	public void tearDown(){
+		executor.shutdownNow();
+	}
+
+	@Test(timeOut = 10000)
+	public void testRead_ShouldReadOnceAndShareResult_WhenSameClassIsReadConcurrently() throws Exception{
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger readCount = new AtomicInteger();
+		final Callable<Object> read = new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				readCount.incrementAndGet();
+				release.await();
+				return new Object();
+			}
+		};
+
+		Future<Object> first = executor.submit(readOf(String.class, read));
+		awaitReadCount(readCount, 1);
+		Future<Object> second = executor.submit(readOf(String.class, read));
+		awaitCoalescedCount(1);
+		release.countDown();
+
+		assertSame(first.get(), second.get());
+		assertEquals(readCount.get(), 1);
+	}
+
+	@Test
+	public void testRead_ShouldReadAgain_WhenPreviousReadIsComplete() throws Throwable{
+		Callable<Object> read = new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				return new Object();
+			}
+		};
+
+		Object first = reads.read(String.class, read);
+
+		assertEquals(reads.read(String.class, read) == first, false);
+		assertEquals(reads.getCoalescedCount(), 0);
+	}
+
+	@Test(timeOut = 10000)
+	public void testRead_ShouldThrowSameExceptionToAllCallers_WhenReadFails() throws Exception{
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger readCount = new AtomicInteger();
+		final Callable<Object> read = new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				readCount.incrementAndGet();
+				release.await();
+				throw new IllegalStateException("failed");
+			}
+		};
+
+		Future<Object> first = executor.submit(readOf(String.class, read));
+		awaitReadCount(readCount, 1);
+		Future<Object> second = executor.submit(readOf(String.class, read));
+		awaitCoalescedCount(1);
+		release.countDown();
+
+		assertSame(causeOf(first), causeOf(second));
+	}
+
+	@Test(expectedExceptions = {IllegalStateException.class})
+	public void testRead_ShouldThrowIllegalStateException_WhenReadWaitsForItself() throws Throwable{
+		reads.read(String.class, new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				try {
+					return reads.read(String.class, this);
+				} catch (Exception e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new AssertionError(e);
+				}
+			}
+		});
+	}
+
+	@Test(timeOut = 10000)
+	public void testResolveDependency_ShouldReadDependencyOnce_WhenDependentsAreReadConcurrently() throws Exception{
+		GatedReader.readCount.set(0);
+		GatedReader.release = new CountDownLatch(1);
+		final ConfigurationContext configurationContext = new ConfigurationContext(new ReaderFactory());
+
+		Future<TestConfigurationDependingOnGated1> first = executor.submit(new Callable<TestConfigurationDependingOnGated1>() {
+			@Override
+			public TestConfigurationDependingOnGated1 call() throws Exception {
+				return configurationContext.read(TestConfigurationDependingOnGated1.class);
+			}
+		});
+		awaitReadCount(GatedReader.readCount, 1);
+		Future<TestConfigurationDependingOnGated2> second = executor.submit(new Callable<TestConfigurationDependingOnGated2>() {
+			@Override
+			public TestConfigurationDependingOnGated2 call() throws Exception {
+				return configurationContext.read(TestConfigurationDependingOnGated2.class);
+			}
+		});
+		while(configurationContext.getCoalescedReadCount() == 0){
+			Thread.sleep(5);
+		}
+		GatedReader.release.countDown();
+
+		assertSame(first.get().dependency, second.get().dependency);
+		assertEquals(GatedReader.readCount.get(), 1);
+		assertEquals(configurationContext.getCoalescedReadCount(), 1);
+	}
+
+	@Test(timeOut = 10000)
+	public void testResolveDependency_ShouldThrowReadConfigurationException_WhenDependenciesAreCircularAndReadConcurrently(){
+		try{
+			new ConfigurationContext(new ReaderFactory(), executor).read(TestCircularDependency1.class);
+			fail("Expected to throw: " + ReadConfigurationException.class);
+		}catch(ReadConfigurationException expected){
+		}
+	}
+
+	private Callable<Object> readOf(final Class<?> configurationClass, final Callable<Object> read){
+		return new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				try {
+					return reads.read(configurationClass, read);
+				} catch (Exception e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new AssertionError(e);
+				}
+			}
+		};
+	}
+
+	private void awaitCoalescedCount(long count) throws InterruptedException{
+		//the count is incremented right before the caller starts waiting
+		while(reads.getCoalescedCount() < count){
+			Thread.sleep(5);
+		}
+	}
+
+	private static void awaitReadCount(AtomicInteger readCount, int count) throws InterruptedException{
+		while(readCount.get() < count){
+			Thread.sleep(5);
+		}
+	}
+
+	private static Throwable causeOf(Future<?> future) throws InterruptedException{
+		try{
+			future.get(5, TimeUnit.SECONDS);
+			fail("Expected to fail");
+			return null;
+		}catch (Exception e) {
+			return e.getCause();
+		}
+	}
+
+	public static class GatedReader extends Reader{
+		private static final AtomicInteger readCount = new AtomicInteger();
+		private static volatile CountDownLatch release;
+
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			readCount.incrementAndGet();
+			release.await(5, TimeUnit.SECONDS);
+			return ReflectionUtil.createDefaultInstance(classToRead);
+		}
+	}
+
+	@Configuration(readWith = GatedReader.class)
+	public static class TestGatedConfiguration{
+	}
+
+	@Configuration
+	public static class TestConfigurationDependingOnGated1{
+		@Depends private TestGatedConfiguration dependency;
+	}
+
+	@Configuration
+	public static class TestConfigurationDependingOnGated2{
+		@Depends private TestGatedConfiguration dependency;
+	}
+}
@@ -0,0 +1,123 @@
+package org.jdexter.context;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Depends;
+import org.jdexter.context.ConfigurationContextParallelReadTest.BarrierReader;
+import org.jdexter.context.ConfigurationContextParallelReadTest.TestConfigurationWithWideGraph;
+import org.jdexter.exception.ReadConfigurationException;
+import org.jdexter.reader.Reader;
+import org.jdexter.reader.ReaderFactory;
+import org.jdexter.util.ReflectionUtil;
+import org.testng.annotations.Test;
+
+public class ThreadPerReadExecutorUnitTest {
+
+	@Test(timeOut = 10000)
+	public void testExecute_ShouldRunReadOnNewDaemonThread() throws InterruptedException{
+		final AtomicReference<Thread> runner = new AtomicReference<Thread>();
+		final CountDownLatch ran = new CountDownLatch(1);
+
+		new ThreadPerReadExecutor(false).execute(new Runnable() {
+			@Override
+			public void run() {
+				runner.set(Thread.currentThread());
+				ran.countDown();
+			}
+		});
+		ran.await();
+
+		assertNotSame(runner.get(), Thread.currentThread());
+		assertTrue(runner.get().isDaemon());
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testExecute_ShouldThrowIllegalArgumentException_WhenReadIsNull(){
+		new ThreadPerReadExecutor().execute(null);
+	}
+
+	@Test
+	public void testIsVirtual_ShouldBeTrueOnlyWhenRuntimeHasVirtualThreads(){
+		assertEquals(new ThreadPerReadExecutor().isVirtual(), ThreadPerReadExecutor.virtualThreadFactory() != null);
+		assertFalse(new ThreadPerReadExecutor(false).isVirtual());
+	}
+
+	@Test(timeOut = 10000)
+	public void testRead_ShouldReadEveryDependencyOnItsOwnThread() throws ReadConfigurationException{
+		BarrierReader.barrier = new CyclicBarrier(3);
+		TestConfigurationWithWideGraph instance = new ConfigurationContext(new ReaderFactory(), new ThreadPerReadExecutor())
+				.read(TestConfigurationWithWideGraph.class);
+
+		assertNotNull(instance);
+	}
+
+	@Test(timeOut = 10000)
+	public void testRead_ShouldFailWithFirstFailureAndInterruptSiblingReads() throws InterruptedException{
+		BlockingReader.started = new CountDownLatch(1);
+		BlockingReader.interrupted = new CountDownLatch(1);
+		try{
+			new ConfigurationContext(new ReaderFactory(), new ThreadPerReadExecutor()).read(TestConfigurationWithFailingSibling.class);
+			fail("Expected to throw: " + ReadConfigurationException.class);
+		}catch(ReadConfigurationException rce){
+			assertEquals(rce.getCause().getClass(), Exception.class);
+		}
+
+		assertTrue(BlockingReader.interrupted.await(5, TimeUnit.SECONDS), "Sibling read was not interrupted");
+	}
+
+	/**
+	 * Blocks until interrupted
+	 */
+	public static class BlockingReader extends Reader{
+		private static volatile CountDownLatch started;
+		private static volatile CountDownLatch interrupted;
+
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			started.countDown();
+			try{
+				new CountDownLatch(1).await(10, TimeUnit.SECONDS);
+			}catch (InterruptedException e) {
+				interrupted.countDown();
+				throw e;
+			}
+			return ReflectionUtil.createDefaultInstance(classToRead);
+		}
+	}
+
+	/**
+	 * Fails once the blocking sibling is being read
+	 */
+	public static class FailingReader extends Reader{
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			BlockingReader.started.await(5, TimeUnit.SECONDS);
+			throw new Exception("Failure for testing purposes");
+		}
+	}
+
+	@Configuration(readWith = BlockingReader.class)
+	public static class TestBlockingConfiguration{
+	}
+
+	@Configuration(readWith = FailingReader.class)
+	public static class TestFailingConfiguration{
+	}
+
+	@Configuration
+	public static class TestConfigurationWithFailingSibling{
+		@Depends private TestBlockingConfiguration blocking;
+		@Depends private TestFailingConfiguration failing;
+	}
+}
@@ -0,0 +1,112 @@
+package org.jdexter.reader;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.jdexter.context.ConfigurationContext;
+import org.jdexter.context.ConfigurationContextUnitTest.TestCompositeConfigurationWhichUsesSavedInstance;
+import org.jdexter.context.ConfigurationContextUnitTest.TestReader;
+import org.jdexter.reader.ReaderFactoryUnitTest.ReaderThrowingUnCheckedExceptionFromDefaultConstructor;
+import org.jdexter.reader.annotation.ThreadSafe;
+import org.jdexter.reader.exception.ReaderInstantiationException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class CachingReaderFactoryUnitTest {
+
+	private CachingReaderFactory readerFactory;
+	private ExecutorService executor;
+
+	@BeforeMethod
+	public void setUp(){
+		readerFactory = new CachingReaderFactory();
+		executor = Executors.newSingleThreadExecutor();
+	}
+
+	@AfterMethod
+	public void tearDown(){
+		executor.shutdownNow();
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testConstructor_ShouldThrowIllegalArgumentException_WhenReaderFactoryIsNull(){
+		new CachingReaderFactory(null);
+	}
+
+	@Test
+	public void testGetInstanceOf_ShouldShareInstanceAcrossThreads_WhenReaderIsThreadSafe() throws Exception{
+		Reader reader = readerFactory.getInstanceOf(TestThreadSafeReader.class);
+
+		assertTrue(reader == readerFactory.getInstanceOf(TestThreadSafeReader.class));
+		assertTrue(reader == instanceOnOtherThread(TestThreadSafeReader.class));
+	}
+
+	@Test
+	public void testGetInstanceOf_ShouldCreateInstancePerThread_WhenReaderIsNotThreadSafe() throws Exception{
+		Reader reader = readerFactory.getInstanceOf(TestReader.class);
+
+		assertTrue(reader == readerFactory.getInstanceOf(TestReader.class));
+		assertTrue(reader != instanceOnOtherThread(TestReader.class));
+	}
+
+	@Test
+	public void testGetInstanceOf_ShouldNotInheritThreadSafety_WhenSubclassIsNotMarked() throws Exception{
+		assertTrue(readerFactory.getInstanceOf(TestSubclassOfThreadSafeReader.class) != instanceOnOtherThread(TestSubclassOfThreadSafeReader.class));
+	}
+
+	@Test
+	public void testGetInstanceOf_ShouldShareBuiltInReaders() throws Exception{
+		assertTrue(readerFactory.getInstanceOf(JAXBReader.class) == instanceOnOtherThread(JAXBReader.class));
+		assertTrue(readerFactory.getInstanceOf(StAXReader.class) == instanceOnOtherThread(StAXReader.class));
+		assertTrue(readerFactory.getInstanceOf(DefaultReader.class) == instanceOnOtherThread(DefaultReader.class));
+	}
+
+	@Test
+	public void testGetInstanceOf_ShouldThrowExactExceptionOnEveryCall_WhenReaderCannotBeCreated(){
+		for(int attempt = 0; attempt < 2; attempt++){
+			try{
+				readerFactory.getInstanceOf(ReaderThrowingUnCheckedExceptionFromDefaultConstructor.class);
+				fail("Expected to throw: " + ReaderInstantiationException.class);
+			}catch (ReaderInstantiationException e) {
+				assertEquals(e.getCause().getClass(), RuntimeException.class);
+			}
+		}
+	}
+
+	@Test(expectedExceptions = {ReaderInstantiationException.class})
+	public void testGetInstanceOf_ShouldThrowReaderInstantiationException_WhenReaderClassIsNull() throws ReaderInstantiationException{
+		readerFactory.getInstanceOf(null);
+	}
+
+	@Test
+	public void testRead_ShouldReadGraphUsingCachedReaders() throws Exception{
+		assertNotNull(new ConfigurationContext(readerFactory).read(TestCompositeConfigurationWhichUsesSavedInstance.class));
+	}
+
+	private Reader instanceOnOtherThread(final Class<? extends Reader> readerClass) throws Exception{
+		return executor.submit(new Callable<Reader>() {
+			@Override
+			public Reader call() throws Exception {
+				return readerFactory.getInstanceOf(readerClass);
+			}
+		}).get();
+	}
+
+	@ThreadSafe
+	public static class TestThreadSafeReader extends Reader{
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			return null;
+		}
+	}
+
+	public static class TestSubclassOfThreadSafeReader extends TestThreadSafeReader{
+	}
+}
@@ -0,0 +1,156 @@
+package org.jdexter.reader;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.io.Files;
+
+public class FileSourceUnitTest {
+
+	private static final String FILE_NAME = "src/test/resources/test-xml-configuration.xml";
+
+	@Test
+	public void testOpen_ShouldMapFile_WhenSizeIsAtleastThreshold() throws IOException{
+		assertTrue(FileSource.open(FILE_NAME, 0).isMapped());
+	}
+
+	@Test
+	public void testOpen_ShouldReadFileIntoHeap_WhenSizeIsBelowThreshold() throws IOException{
+		assertFalse(FileSource.open(FILE_NAME, Long.MAX_VALUE).isMapped());
+	}
+
+	@Test(expectedExceptions = {FileNotFoundException.class})
+	public void testOpen_ShouldThrowFileNotFoundException_WhenFileDoesNotExist() throws IOException{
+		FileSource.open("src/test/resources/non-existent.xml");
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testOpen_ShouldThrowIllegalArgumentException_WhenFileNameIsNull() throws IOException{
+		FileSource.open(null);
+	}
+
+	@Test(dataProvider = "dataFor_thresholds")
+	public void testOpenStream_ShouldReturnCompleteContentOfFile(long threshold) throws IOException{
+		FileSource source = FileSource.open(FILE_NAME, threshold);
+		byte[] expected = Files.toByteArray(new File(FILE_NAME));
+
+		assertEquals(source.size(), expected.length);
+		assertEquals(readFully(source.openStream()), expected);
+	}
+
+	@Test(dataProvider = "dataFor_thresholds")
+	public void testOpenStream_StreamsShouldBeIndependentOfEachOther(long threshold) throws IOException{
+		FileSource source = FileSource.open(FILE_NAME, threshold);
+		InputStream first = source.openStream();
+		first.skip(10);
+
+		assertEquals(source.openStream().available(), source.size());
+		assertEquals(first.available(), source.size() - 10);
+	}
+
+	@Test
+	public void testGetFingerprint_ShouldBeSameForMappedAndHeapSourcesOfSameContent() throws IOException{
+		assertEquals(FileSource.open(FILE_NAME, 0).getFingerprint(), FileSource.open(FILE_NAME, Long.MAX_VALUE).getFingerprint());
+	}
+
+	@Test
+	public void testGetFingerprint_ShouldDiffer_WhenContentDiffers() throws IOException{
+		File directory = Files.createTempDir();
+		File first = new File(directory, "first.xml");
+		File second = new File(directory, "second.xml");
+		Files.write("<a>1</a>".getBytes("UTF-8"), first);
+		Files.write("<a>2</a>".getBytes("UTF-8"), second);
+
+		assertFalse(FileSource.open(first.getPath()).getFingerprint() == FileSource.open(second.getPath()).getFingerprint());
+	}
+
+	@Test
+	public void testOpen_ShouldBeRecordedBySourceRecorderOfCallingThread() throws IOException{
+		SourceRecorder recorder = SourceRecorder.start();
+		FileSource source;
+		try{
+			source = FileSource.open(FILE_NAME);
+		}finally{
+			recorder.stop();
+		}
+
+		assertTrue(recorder.sourceOf(new File(FILE_NAME)) == source);
+	}
+
+	@Test
+	public void testOpen_ShouldNotBeRecorded_WhenRecorderIsStopped() throws IOException{
+		SourceRecorder recorder = SourceRecorder.start();
+		recorder.stop();
+		FileSource.open(FILE_NAME);
+
+		assertTrue(recorder.sourceOf(new File(FILE_NAME)) == null);
+	}
+
+	@Test
+	public void testOpen_ShouldBeRecordedByInnermostRecorderOnly() throws IOException{
+		SourceRecorder outer = SourceRecorder.start();
+		SourceRecorder inner = SourceRecorder.start();
+		try{
+			FileSource.open(FILE_NAME);
+		}finally{
+			inner.stop();
+		}
+		FileSource.open(FILE_NAME);
+		outer.stop();
+
+		assertTrue(inner.sourceOf(new File(FILE_NAME)) != null);
+		assertTrue(outer.sourceOf(new File(FILE_NAME)) != null);
+		assertTrue(inner.sourceOf(new File(FILE_NAME)) != outer.sourceOf(new File(FILE_NAME)));
+	}
+
+	@Test
+	public void testOpen_ShouldReturnPinnedSource_WhileItIsPinned() throws IOException{
+		FileSource source = FileSource.open(FILE_NAME);
+		FileSource previous = FileSource.pin(source);
+		FileSource pinned;
+		FileSource other;
+		try{
+			pinned = FileSource.open(new File(FILE_NAME).getAbsolutePath());
+			other = FileSource.open("src/test/resources/test-xml-configuration1.xml");
+		}finally{
+			FileSource.unpin(previous);
+		}
+
+		assertTrue(pinned == source);
+		assertTrue(other != source);
+		assertTrue(FileSource.open(FILE_NAME) != source);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testPin_ShouldThrowIllegalArgumentException_WhenSourceIsNull(){
+		FileSource.pin(null);
+	}
+
+	@DataProvider
+	public Object[][] dataFor_thresholds(){
+		return new Object[][]{
+				{0},
+				{Long.MAX_VALUE}
+		};
+	}
+
+	private static byte[] readFully(InputStream in) throws IOException{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] chunk = new byte[7];
+		int read;
+		while((read = in.read(chunk, 0, chunk.length)) != -1){
+			out.write(chunk, 0, read);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,153 @@
+package org.jdexter.reader;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.StringReader;
+import java.util.List;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.jdexter.annotation.PreRead;
+import org.jdexter.reader.JAXBReaderUnitTest.TestXMLConfigurationWithProperXMLRootElement;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class JAXBContextCacheUnitTest {
+
+	private JAXBContextCache cache;
+
+	@BeforeMethod
+	public void setUp(){
+		cache = new JAXBContextCache(2, new SchemaCache());
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testConstructor_ShouldThrowIllegalArgumentException_WhenPoolSizeIsLessThanOne(){
+		new JAXBContextCache(0, new SchemaCache());
+	}
+
+	@Test
+	public void testGetInstance_ShouldReturnSameInstanceOnSuccessiveCalls(){
+		assertTrue(JAXBContextCache.getInstance() == JAXBContextCache.getInstance());
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testGetContext_ShouldThrowIllegalArgumentException_WhenClassIsNull() throws JAXBException{
+		cache.getContext(null);
+	}
+
+	@Test
+	public void testGetContext_ShouldReturnSameContextOnSuccessiveCalls() throws JAXBException{
+		assertTrue(cache.getContext(TestXMLConfigurationWithProperXMLRootElement.class) == cache.getContext(TestXMLConfigurationWithProperXMLRootElement.class));
+	}
+
+	@Test
+	public void testGetContext_ShouldCountMissOnlyForFirstLookup() throws JAXBException{
+		cache.getContext(TestXMLConfigurationWithProperXMLRootElement.class);
+		cache.getContext(TestXMLConfigurationWithProperXMLRootElement.class);
+		cache.getContext(TestXMLConfigurationWithProperXMLRootElement.class);
+
+		assertEquals(cache.getMissCount(), 1);
+		assertEquals(cache.getHitCount(), 2);
+	}
+
+	@Test
+	public void testBorrowUnmarshaller_ShouldAttachLifeCycleEventsListener() throws JAXBException{
+		Unmarshaller unmarshaller = cache.borrowUnmarshaller(TestXMLConfigurationWithProperXMLRootElement.class);
+		assertNotNull(unmarshaller.getListener());
+	}
+
+	@Test
+	public void testBorrowUnmarshaller_ShouldNotAttachLifeCycleEventsListener_WhenNoBoundClassDeclaresPreRead() throws JAXBException{
+		assertNull(cache.borrowUnmarshaller(TestXMLConfigurationWithoutPreRead.class).getListener());
+	}
+
+	@Test
+	public void testBorrowUnmarshaller_ShouldAttachLifeCycleEventsListener_WhenNestedBoundClassDeclaresPreRead() throws JAXBException{
+		assertNotNull(cache.borrowUnmarshaller(TestXMLConfigurationWithNestedPreRead.class).getListener());
+	}
+
+	@Test
+	public void testRead_ShouldCallPreReadOnNestedObjects() throws Throwable{
+		TestXMLConfigurationWithNestedPreRead instance = (TestXMLConfigurationWithNestedPreRead) new JAXBReader(cache)
+			.read(TestXMLConfigurationWithNestedPreRead.class, new StringReader("<nested><element><value>1</value></element></nested>"));
+
+		assertTrue(instance.elements.get(0).preReadCalled);
+	}
+
+	@Test
+	public void testBorrowUnmarshaller_ShouldReuseReleasedUnmarshaller() throws JAXBException{
+		Unmarshaller unmarshaller = cache.borrowUnmarshaller(TestXMLConfigurationWithProperXMLRootElement.class);
+		cache.releaseUnmarshaller(TestXMLConfigurationWithProperXMLRootElement.class, unmarshaller);
+
+		assertTrue(unmarshaller == cache.borrowUnmarshaller(TestXMLConfigurationWithProperXMLRootElement.class));
+	}
+
+	@Test
+	public void testReleaseUnmarshaller_ShouldNotPoolMoreThanPoolSize() throws JAXBException{
+		Unmarshaller u1 = cache.borrowUnmarshaller(TestXMLConfigurationWithProperXMLRootElement.class);
+		Unmarshaller u2 = cache.borrowUnmarshaller(TestXMLConfigurationWithProperXMLRootElement.class);
+		Unmarshaller u3 = cache.borrowUnmarshaller(TestXMLConfigurationWithProperXMLRootElement.class);
+
+		cache.releaseUnmarshaller(TestXMLConfigurationWithProperXMLRootElement.class, u1);
+		cache.releaseUnmarshaller(TestXMLConfigurationWithProperXMLRootElement.class, u2);
+		cache.releaseUnmarshaller(TestXMLConfigurationWithProperXMLRootElement.class, u3);
+
+		assertEquals(cache.pooledUnmarshallerCount(TestXMLConfigurationWithProperXMLRootElement.class), 2);
+	}
+
+	@Test
+	public void testRead_WarmReReadShouldNeverRebuildContext() throws Throwable{
+		JAXBReader reader = new JAXBReader(cache);
+		reader.read(TestXMLConfigurationWithProperXMLRootElement.class, new StringReader(TestXMLConfigurationWithProperXMLRootElement.xml));
+		reader.read(TestXMLConfigurationWithProperXMLRootElement.class, new StringReader(TestXMLConfigurationWithProperXMLRootElement.xml));
+
+		assertEquals(cache.getMissCount(), 1);
+		assertEquals(cache.pooledUnmarshallerCount(TestXMLConfigurationWithProperXMLRootElement.class), 1);
+	}
+
+	@Test
+	public void testRead_ShouldNotPoolUnmarshaller_WhenUnmarshalFails() throws Throwable{
+		JAXBReader reader = new JAXBReader(cache);
+		try{
+			reader.read(TestXMLConfigurationWithProperXMLRootElement.class, new StringReader("<not-xml"));
+			fail("Malformed document was read");
+		}catch (Exception e) {
+			//expected
+		}
+
+		assertEquals(cache.pooledUnmarshallerCount(TestXMLConfigurationWithProperXMLRootElement.class), 0);
+	}
+
+	@XmlRootElement(name = "plain")
+	public static class TestXMLConfigurationWithoutPreRead{
+		@XmlElement(name = "name") private String name;
+		@XmlElement(name = "element") private List<TestElementWithoutPreRead> elements;
+	}
+
+	public static class TestElementWithoutPreRead{
+		@XmlElement(name = "value") private int value;
+	}
+
+	@XmlRootElement(name = "nested")
+	public static class TestXMLConfigurationWithNestedPreRead{
+		@XmlElement(name = "element") private List<TestElementWithPreRead> elements;
+	}
+
+	public static class TestElementWithPreRead{
+		@XmlElement(name = "value") private int value;
+		private transient boolean preReadCalled;
+
+		@PreRead
+		public void preRead(){
+			preReadCalled = true;
+		}
+	}
+}
@@ -7,6 +7,7 @@ import static org.testng.Assert.assertTrue;
 import java.io.FileNotFoundException;
 import java.io.StringReader;
 
+import javax.xml.bind.UnmarshalException;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
@@ -35,6 +36,11 @@ public class JAXBReaderUnitTest {
 		assertEquals(JAXBReader.class.getSuperclass(),Reader.class);
 	}
 	
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testConstructor_ShouldThrowIllegalArgumentException_WhenContextCacheIsNull(){
+		new JAXBReader(null);
+	}
+	
 	@Test
 	public void testRead_ShouldReturnNonNullInstance() throws Throwable{
 		assertNotNull(reader.read(TestXMLConfigurationWithProperXMLRootElement.class, new StringReader(TestXMLConfigurationWithProperXMLRootElement.xml)));
@@ -63,6 +69,14 @@ public class JAXBReaderUnitTest {
 		assertEquals(instance.getPreReadCallCount(), 1);
 	}
 	
+	@SuppressWarnings("deprecation")
+	@Test
+	public void testCreateUnMarshaller_ShouldCreateUnMarshallerCallingPreRead() throws Throwable{
+		TestXMLConfigurationWithProperXMLRootElement instance = (TestXMLConfigurationWithProperXMLRootElement) reader.createUnMarshaller(TestXMLConfigurationWithProperXMLRootElement.class)
+				.unmarshal(new StringReader(TestXMLConfigurationWithProperXMLRootElement.xml));
+		assertTrue(instance.isPreReadCalled());
+	}
+	
 	
 	@Test(expectedExceptions = {Exception.class},
 			dataProvider = "dataFor_testRead_ShouldThrowException_WhenConfigurationClassHasInvalidXMLRootElementAnnotation")
@@ -115,6 +129,28 @@ public class JAXBReaderUnitTest {
 	}
 	
 	
+	@Test
+	public void testRead_ShouldReadDocument_WhenDocumentIsValidAgainstSchema() throws Throwable{
+		TestXMLConfigurationWithSchema instance = (TestXMLConfigurationWithSchema) reader.read(TestXMLConfigurationWithSchema.class);
+		assertEquals(instance.port, 8080);
+	}
+	
+	@Test(expectedExceptions = {UnmarshalException.class})
+	public void testRead_ShouldThrowUnmarshalException_WhenDocumentIsInvalidAgainstSchema() throws Throwable{
+		reader.read(TestInvalidXMLConfigurationWithSchema.class);
+	}
+	
+	@Test
+	public void testRead_ShouldCompileSchemaOnce_WhenReadRepeatedly() throws Throwable{
+		SchemaCache schemaCache = new SchemaCache();
+		JAXBReader reader = new JAXBReader(new JAXBContextCache(1, schemaCache));
+		reader.read(TestXMLConfigurationWithSchema.class);
+		reader.read(TestXMLConfigurationWithSchema.class);
+		reader.read(TestXMLConfigurationWithSchema.class);
+		
+		assertEquals(schemaCache.getMissCount(), 1);
+	}
+	
 	@DataProvider
 	public Object[][] dataFor_testRead_ShouldBeAbleToReadInMemoryXMLFile() {
 		return new Object[][] {
@@ -140,6 +176,20 @@ public class JAXBReaderUnitTest {
 		};
 	}
 	
+	@Configuration(readWith = JAXBReader.class)
+	@XMLProperties(path = "src/test/resources/test-schema-configuration.xml", schema = "src/test/resources/test-schema-configuration.xsd")
+	@XmlRootElement(name = "schema-configuration")
+	public static class TestXMLConfigurationWithSchema{
+		@XmlElement(name = "port") private int port;
+	}
+	
+	@Configuration(readWith = JAXBReader.class)
+	@XMLProperties(path = "src/test/resources/test-invalid-schema-configuration.xml", schema = "src/test/resources/test-schema-configuration.xsd")
+	@XmlRootElement(name = "schema-configuration")
+	public static class TestInvalidXMLConfigurationWithSchema{
+		@XmlElement(name = "port") private int port;
+	}
+	
 	@Configuration(readWith = JAXBReader.class)
 	public static class TestXMLConfigurationWithoutXMLRootElement{
 		
@@ -0,0 +1,56 @@
+package org.jdexter.reader;
+
+import static org.testng.Assert.assertEquals;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlElementRef;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.jdexter.annotation.PreRead;
+import org.jdexter.reader.JAXBContextCacheUnitTest.TestXMLConfigurationWithNestedPreRead;
+import org.jdexter.reader.JAXBContextCacheUnitTest.TestXMLConfigurationWithoutPreRead;
+import org.jdexter.reader.registry.ObjectFactory;
+import org.jdexter.reader.registry.TestRegistryConfiguration;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class ReaderUtilUnitTest {
+
+	@DataProvider
+	public Object[][] dataFor_testMayDeclarePreRead(){
+		return new Object[][]{
+				{TestXMLConfigurationWithoutPreRead.class, false},
+				{TestXMLConfigurationWithNestedPreRead.class, true},
+				{TestConfigurationWithElementType.class, true},
+				{TestConfigurationWithElementRef.class, true},
+				{TestRegistryConfiguration.class, true},
+				{ObjectFactory.class, true}
+		};
+	}
+
+	@Test(dataProvider = "dataFor_testMayDeclarePreRead")
+	public void testMayDeclarePreRead_ShouldFindPreReadOfEveryClassJAXBMayBind(Class<?> classToRead, boolean expected){
+		assertEquals(ReaderUtil.mayDeclarePreRead(classToRead), expected);
+	}
+
+	@XmlRootElement(name = "typed")
+	public static class TestConfigurationWithElementType{
+		@XmlElement(name = "element", type = TestSubElementWithPreRead.class) private TestElement element;
+	}
+
+	@XmlRootElement(name = "referring")
+	public static class TestConfigurationWithElementRef{
+		@XmlElementRef(type = TestSubElementWithPreRead.class) private TestElement element;
+	}
+
+	public static class TestElement{
+		@XmlElement(name = "value") private int value;
+	}
+
+	@XmlRootElement(name = "sub")
+	public static class TestSubElementWithPreRead extends TestElement{
+		@PreRead
+		public void preRead(){
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package org.jdexter.reader;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.Charset;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.validation.Schema;
+
+import org.jdexter.reader.JAXBReaderUnitTest.TestXMLConfigurationWithProperXMLRootElement;
+import org.jdexter.reader.JAXBReaderUnitTest.TestXMLConfigurationWithSchema;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.xml.sax.SAXException;
+
+import com.google.common.io.Files;
+
+public class SchemaCacheUnitTest {
+
+	private static final String SCHEMA = "src/test/resources/test-schema-configuration.xsd";
+
+	private SchemaCache cache;
+
+	@BeforeMethod
+	public void setUp(){
+		cache = new SchemaCache();
+	}
+
+	@Test
+	public void testGetInstance_ShouldReturnSameInstanceOnSuccessiveCalls(){
+		assertTrue(SchemaCache.getInstance() == SchemaCache.getInstance());
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testGetSchema_ShouldThrowIllegalArgumentException_WhenPathIsNull() throws SAXException{
+		cache.getSchema(null);
+	}
+
+	@Test
+	public void testGetSchema_ShouldReturnSameSchemaOnSuccessiveCalls() throws SAXException{
+		assertTrue(cache.getSchema(SCHEMA) == cache.getSchema(SCHEMA));
+	}
+
+	@Test
+	public void testGetSchema_ShouldCountMissOnlyForFirstLookup() throws SAXException{
+		cache.getSchema(SCHEMA);
+		cache.getSchema(SCHEMA);
+		cache.getSchema(SCHEMA);
+
+		assertEquals(cache.getMissCount(), 1);
+		assertEquals(cache.getHitCount(), 2);
+	}
+
+	@Test
+	public void testGetSchema_ShouldNotCacheFailure_WhenSchemaCannotBeCompiled(){
+		for(int attempt = 0; attempt < 2; attempt++){
+			try {
+				cache.getSchema("src/test/resources/missing.xsd");
+			} catch (SAXException expected) {
+			}
+		}
+		assertEquals(cache.getMissCount(), 0);
+	}
+
+	@Test
+	public void testGetSchema_ShouldCompileSchemaAgain_WhenFileChanges() throws Exception{
+		File schemaFile = new File("target/schema-test/changing-schema.xsd");
+		schemaFile.getParentFile().mkdirs();
+		Files.copy(new File(SCHEMA), schemaFile);
+		assertTrue(schemaFile.setLastModified(1000000000000L));
+		Schema first = cache.getSchema(schemaFile.getPath());
+
+		Files.append("<!-- changed -->", schemaFile, Charset.forName("UTF-8"));
+		Schema second = cache.getSchema(schemaFile.getPath());
+
+		assertTrue(first != second);
+		assertTrue(second == cache.getSchema(schemaFile.getPath()));
+		assertEquals(cache.getMissCount(), 2);
+	}
+
+	@Test
+	public void testBorrowUnmarshaller_ShouldAttachSchema_WhenClassDeclaresSchema() throws JAXBException{
+		JAXBContextCache contextCache = new JAXBContextCache(1, cache);
+
+		assertNotNull(contextCache.borrowUnmarshaller(TestXMLConfigurationWithSchema.class).getSchema());
+		assertEquals(contextCache.borrowUnmarshaller(TestXMLConfigurationWithProperXMLRootElement.class).getSchema(), null);
+	}
+}
@@ -0,0 +1,184 @@
+package org.jdexter.reader;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlEnumValue;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.stream.XMLStreamException;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.PostRead;
+import org.jdexter.annotation.PreRead;
+import org.jdexter.context.ConfigurationContext;
+import org.jdexter.reader.JAXBReaderUnitTest.TestXMLConfigurationWithElements;
+import org.jdexter.reader.JAXBReaderUnitTest.TestXMLConfigurationWithPreReadThrowingException;
+import org.jdexter.reader.JAXBReaderUnitTest.TestXMLConfigurationWithProperXMLRootElement;
+import org.jdexter.reader.annotation.XMLProperties;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class StAXReaderUnitTest {
+
+	private StAXReader reader;
+
+	@BeforeMethod
+	public void setUp(){
+		reader = new StAXReader();
+	}
+
+	@Test
+	public void testStAXReader_ShouldInheritReaderClass(){
+		assertEquals(StAXReader.class.getSuperclass(), Reader.class);
+	}
+
+	@Test
+	public void testRead_ShouldReturnTheInstanceOfConfigurationClassPassed() throws Throwable{
+		assertEquals(reader.read(TestXMLConfigurationWithProperXMLRootElement.class, new StringReader(TestXMLConfigurationWithProperXMLRootElement.xml)).getClass(),
+				TestXMLConfigurationWithProperXMLRootElement.class);
+	}
+
+	@Test
+	public void testRead_ShouldCallPreReadLifeCycleEventOnce() throws Throwable{
+		TestXMLConfigurationWithProperXMLRootElement instance = (TestXMLConfigurationWithProperXMLRootElement) reader.read(TestXMLConfigurationWithProperXMLRootElement.class, new StringReader(TestXMLConfigurationWithProperXMLRootElement.xml));
+		assertEquals(instance.getPreReadCallCount(), 1);
+	}
+
+	@Test
+	public void testRead_ShouldBindElementDeclaredOnGetter() throws Throwable{
+		TestXMLConfigurationWithElements instance = (TestXMLConfigurationWithElements) reader.read(TestXMLConfigurationWithElements.class, new StringReader("<test-xml-configuration><int-val>1</int-val></test-xml-configuration>"));
+		assertEquals(instance.getIntVal(), 1);
+	}
+
+	@Test(expectedExceptions = {Exception.class})
+	public void testRead_ShouldThrowExactException_WhenPreReadThrowsException() throws Throwable{
+		reader.read(TestXMLConfigurationWithPreReadThrowingException.class, new StringReader("<test-xml-configuration></test-xml-configuration>"));
+	}
+
+	@Test(expectedExceptions = {XMLStreamException.class})
+	public void testRead_ShouldThrowXMLStreamException_WhenRootElementDoesNotMatch() throws Throwable{
+		reader.read(TestRoutingTable.class, new StringReader("<test-xml-configuration></test-xml-configuration>"));
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testRead_ShouldThrowIllegalArgumentException_WhenXmlRootElementIsMissing() throws Throwable{
+		reader.read(TestRoute.class, new StringReader("<route></route>"));
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testRead_ShouldThrowIllegalArgumentException_WhenXMLPropertiesAnnotationIsNotPresent() throws Throwable{
+		reader.read(TestRoute.class);
+	}
+
+	@Test
+	public void testRead_ShouldBindAttributesNestedElementsAndLists() throws Throwable{
+		TestRoutingTable table = (TestRoutingTable) reader.read(TestRoutingTable.class);
+
+		assertEquals(table.version, 3);
+		assertEquals(table.name, "default");
+		assertEquals(table.routes.size(), 2);
+		assertEquals(table.routes.get(0).destination, "10.0.0.0");
+		assertEquals(table.routes.get(0).mode, Mode.DIRECT);
+		assertEquals(table.routes.get(1).mode, Mode.PROXIED);
+		assertEquals(table.routes.get(1).weight, Integer.valueOf(20));
+	}
+
+	@Test
+	public void testRead_ShouldCallPreReadOnNestedElements() throws Throwable{
+		TestRoutingTable table = (TestRoutingTable) reader.read(TestRoutingTable.class);
+
+		assertTrue(table.routes.get(0).preReadCalled);
+		assertTrue(table.routes.get(1).preReadCalled);
+	}
+
+	@Test
+	public void testRead_ShouldSkipUnmappedElements() throws Throwable{
+		TestRoutingTable table = (TestRoutingTable) reader.read(TestRoutingTable.class,
+				new StringReader("<routing-table><unknown><name>ignored</name></unknown><name>n</name></routing-table>"));
+
+		assertEquals(table.name, "n");
+		assertNull(table.routes);
+	}
+
+	@Test
+	public void testRead_ShouldBeUsableFromConfigurationContext() throws Throwable{
+		TestRoutingTable table = new ConfigurationContext().read(TestRoutingTable.class);
+		assertTrue(table.postReadCalled);
+	}
+
+	@Test
+	public void testRead_ShouldProduceSameResultAsJAXBReader() throws Throwable{
+		TestRoutingTable stax = (TestRoutingTable) reader.read(TestRoutingTable.class);
+		TestRoutingTable jaxb = (TestRoutingTable) new JAXBReader().read(TestRoutingTable.class);
+
+		assertEquals(stax.version, jaxb.version);
+		assertEquals(stax.name, jaxb.name);
+		assertEquals(stax.routes.size(), jaxb.routes.size());
+		assertEquals(stax.routes.get(1).destination, jaxb.routes.get(1).destination);
+		assertEquals(stax.routes.get(1).weight, jaxb.routes.get(1).weight);
+	}
+
+	@Test
+	public void testRead_ShouldBindEveryListElement_WhenListHasSetterOnly() throws Throwable{
+		TestSetterOnlyRoutingTable table = (TestSetterOnlyRoutingTable) reader.read(TestSetterOnlyRoutingTable.class,
+				new StringReader("<routing-table><route destination=\"a\"/><name>n</name><route destination=\"b\"/><route destination=\"c\"/></routing-table>"));
+
+		assertEquals(table.setterCallCount, 1);
+		assertEquals(table.routes.size(), 3);
+		assertEquals(table.routes.get(0).destination, "a");
+		assertEquals(table.routes.get(2).destination, "c");
+	}
+
+	public static enum Mode{
+		@XmlEnumValue("direct") DIRECT,
+		@XmlEnumValue("proxied") PROXIED
+	}
+
+	@Configuration(readWith = StAXReader.class)
+	@XMLProperties(path = "src/test/resources/test-stax-configuration.xml")
+	@XmlRootElement(name = "routing-table")
+	public static class TestRoutingTable{
+		@XmlAttribute(name = "version") private int version;
+		@XmlElement(name = "name") private String name;
+		@XmlElement(name = "route") private List<TestRoute> routes;
+		private boolean postReadCalled;
+
+		@PostRead
+		public void postRead(){
+			postReadCalled = true;
+			assertNotNull(name);
+		}
+	}
+
+	@XmlRootElement(name = "routing-table")
+	public static class TestSetterOnlyRoutingTable{
+		private List<TestRoute> routes;
+		private int setterCallCount;
+
+		@XmlElement(name = "route")
+		public void setRoutes(List<TestRoute> routes){
+			this.routes = new ArrayList<TestRoute>(routes);
+			setterCallCount++;
+		}
+	}
+
+	public static class TestRoute{
+		@XmlAttribute(name = "destination") private String destination;
+		@XmlAttribute(name = "mode") private Mode mode;
+		@XmlElement(name = "weight") private Integer weight;
+		private boolean preReadCalled;
+
+		@PreRead
+		public void preRead(){
+			preReadCalled = true;
+		}
+	}
+}
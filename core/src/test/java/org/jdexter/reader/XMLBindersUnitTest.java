@@ -0,0 +1,109 @@
+package org.jdexter.reader;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.StringReader;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.PreRead;
+import org.testng.annotations.Test;
+
+public class XMLBindersUnitTest {
+
+	private static final String XML = "<bound-configuration><ignored><x>1</x></ignored><x>5</x></bound-configuration>";
+
+	@Test
+	public void testFind_ShouldReturnNull_WhenNoBinderIsGeneratedForClass(){
+		assertNull(XMLBinders.find(TestUnboundConfiguration.class));
+	}
+
+	@Test
+	public void testFind_ShouldReturnSameBinder_WhenCalledTwice(){
+		assertTrue(XMLBinders.find(TestBoundConfiguration.class) instanceof TestBoundConfiguration$$XMLBinder);
+		assertSame(XMLBinders.find(TestBoundConfiguration.class), XMLBinders.find(TestBoundConfiguration.class));
+	}
+
+	@Test
+	public void testRead_ShouldUseGeneratedBinder_WhenBinderIsPresent() throws Throwable{
+		TestBoundConfiguration instance = (TestBoundConfiguration) new JAXBReader().read(TestBoundConfiguration.class, new StringReader(XML));
+
+		assertTrue(instance.boundByBinder);
+		assertEquals(instance.x, 5);
+		assertTrue(instance.preReadCalled);
+	}
+
+	@Test
+	public void testRead_ShouldFallBackToJAXB_WhenBinderIsAbsent() throws Throwable{
+		TestUnboundConfiguration instance = (TestUnboundConfiguration) new JAXBReader().read(TestUnboundConfiguration.class, new StringReader(XML));
+
+		assertEquals(instance.x, 5);
+	}
+
+	@Test(expectedExceptions = {XMLStreamException.class})
+	public void testStartRootElement_ShouldThrowXMLStreamException_WhenRootElementDiffers() throws Throwable{
+		XMLBinders.startRootElement(ReaderUtil.createXMLStreamReader(new StringReader(XML)), "other");
+	}
+
+	@Test
+	public void testSkipElement_ShouldSkipNestedContent() throws Throwable{
+		XMLStreamReader xmlReader = ReaderUtil.createXMLStreamReader(new StringReader(XML));
+		XMLBinders.startRootElement(xmlReader, "bound-configuration");
+
+		assertTrue(XMLBinders.nextElement(xmlReader));
+		XMLBinders.skipElement(xmlReader);
+		assertTrue(XMLBinders.nextElement(xmlReader));
+		assertEquals(xmlReader.getLocalName(), "x");
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XmlRootElement(name = "bound-configuration")
+	public static class TestBoundConfiguration{
+		int x;
+		boolean boundByBinder;
+		boolean preReadCalled;
+
+		@PreRead
+		public void preRead(){
+			preReadCalled = true;
+		}
+	}
+
+	/**
+	 * Stands in for the binder the annotation processor would generate for {@link TestBoundConfiguration}.
+	 */
+	public static class TestBoundConfiguration$$XMLBinder implements XMLBinder{
+		@Override
+		public Object bind(XMLStreamReader reader) throws Throwable {
+			XMLBinders.startRootElement(reader, "bound-configuration");
+			return bindElement(reader);
+		}
+
+		@Override
+		public Object bindElement(XMLStreamReader reader) throws Throwable {
+			TestBoundConfiguration instance = new TestBoundConfiguration();
+			XMLBinders.preRead(instance);
+			instance.boundByBinder = true;
+			while(XMLBinders.nextElement(reader)){
+				if("x".equals(reader.getLocalName()))
+					instance.x = Integer.parseInt(reader.getElementText().trim());
+				else
+					XMLBinders.skipElement(reader);
+			}
+			return instance;
+		}
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XmlRootElement(name = "bound-configuration")
+	public static class TestUnboundConfiguration{
+		@XmlElement(name = "x") private int x;
+	}
+}
@@ -0,0 +1,145 @@
+package org.jdexter.reader;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.stream.XMLStreamException;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.PreRead;
+import org.jdexter.reader.XMLBindersUnitTest.TestBoundConfiguration;
+import org.jdexter.reader.annotation.XMLDocument;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class XMLDocumentReaderUnitTest {
+
+	private XMLDocumentReader reader;
+
+	@BeforeMethod
+	public void setUp(){
+		reader = new XMLDocumentReader();
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testConstructor_ShouldThrowIllegalArgumentException_WhenContextCacheIsNull(){
+		new XMLDocumentReader(null);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testRead_ShouldThrowIllegalArgumentException_WhenDocumentClassIsNull() throws Throwable{
+		reader.read(null);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testRead_ShouldThrowIllegalArgumentException_WhenXMLDocumentAnnotationIsNotPresent() throws Throwable{
+		reader.read(TestServerSection.class);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testRead_ShouldThrowIllegalArgumentException_WhenTwoSectionsAreBoundToSameElement() throws Throwable{
+		reader.read(TestDocumentWithDuplicateSections.class);
+	}
+
+	@Test(expectedExceptions = {XMLStreamException.class})
+	public void testRead_ShouldThrowXMLStreamException_WhenSectionIsMissingFromDocument() throws Throwable{
+		reader.read(TestDocumentWithMissingSection.class);
+	}
+
+	@Test(dataProvider = "dataFor_testRead_ShouldBindEverySectionInSinglePass")
+	public void testRead_ShouldBindEverySectionInSinglePass(Class<?> documentClass, int port, String url, int x) throws Throwable{
+		Map<Class<?>, Object> sections = reader.read(documentClass);
+
+		assertEquals(((TestServerSection) sections.get(TestServerSection.class)).port, port);
+		assertEquals(((TestDatabaseSection) sections.get(TestDatabaseSection.class)).url, url);
+		assertEquals(((TestBoundConfiguration) sections.get(TestBoundConfiguration.class)).x, x);
+	}
+
+	@Test
+	public void testRead_ShouldReturnSectionsInDeclaredOrder() throws Throwable{
+		Map<Class<?>, Object> sections = reader.read(TestDocument.class);
+
+		assertEquals(new ArrayList<Class<?>>(sections.keySet()), Arrays.<Class<?>>asList(TestDatabaseSection.class,
+				TestServerSection.class, TestBoundConfiguration.class));
+	}
+
+	@Test
+	public void testRead_ShouldCallPreReadOnEverySection() throws Throwable{
+		Map<Class<?>, Object> sections = reader.read(TestDocument.class);
+
+		assertTrue(((TestServerSection) sections.get(TestServerSection.class)).preReadCalled);
+		assertTrue(((TestBoundConfiguration) sections.get(TestBoundConfiguration.class)).preReadCalled);
+	}
+
+	@Test
+	public void testRead_ShouldUseGeneratedBinder_WhenSectionHasOne() throws Throwable{
+		Map<Class<?>, Object> sections = reader.read(TestDocument.class);
+
+		assertTrue(((TestBoundConfiguration) sections.get(TestBoundConfiguration.class)).boundByBinder);
+	}
+
+	@DataProvider
+	public Object[][] dataFor_testRead_ShouldBindEverySectionInSinglePass(){
+		return new Object[][]{
+				{TestDocument.class,			8080, "jdbc:h2:mem",	7},
+				{TestCompactDocument.class,		9090, "jdbc:h2:file",	3}
+		};
+	}
+
+	@XMLDocument(path = "src/test/resources/test-xml-document.xml",
+			sections = {TestDatabaseSection.class, TestServerSection.class, TestBoundConfiguration.class})
+	public static class TestDocument{
+	}
+
+	@XMLDocument(path = "src/test/resources/test-compact-xml-document.xml",
+			sections = {TestDatabaseSection.class, TestServerSection.class, TestBoundConfiguration.class})
+	public static class TestCompactDocument{
+	}
+
+	@XMLDocument(path = "src/test/resources/test-compact-xml-document.xml",
+			sections = {TestServerSection.class, TestMonitoringSection.class})
+	public static class TestDocumentWithMissingSection{
+	}
+
+	@XMLDocument(path = "src/test/resources/test-xml-document.xml",
+			sections = {TestServerSection.class, TestOtherServerSection.class})
+	public static class TestDocumentWithDuplicateSections{
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XmlRootElement(name = "server")
+	public static class TestServerSection{
+		@XmlElement(name = "port") private int port;
+		private boolean preReadCalled;
+
+		@PreRead
+		public void preRead(){
+			preReadCalled = true;
+		}
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XmlRootElement(name = "server")
+	public static class TestOtherServerSection{
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XmlRootElement(name = "database")
+	public static class TestDatabaseSection{
+		@XmlElement(name = "url") private String url;
+		@XmlElement(name = "pool-size") private int poolSize;
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XmlRootElement(name = "monitoring")
+	public static class TestMonitoringSection{
+		@XmlElement(name = "enabled") private boolean enabled;
+	}
+}
@@ -0,0 +1,22 @@
+package org.jdexter.reader.registry;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.annotation.XmlElementDecl;
+import javax.xml.bind.annotation.XmlRegistry;
+import javax.xml.namespace.QName;
+
+/**
+ * Registry of the package, declaring the only element which reaches {@link TestRegisteredElement}
+ */
+@XmlRegistry
+public class ObjectFactory {
+
+	public TestRegistryConfiguration createTestRegistryConfiguration(){
+		return new TestRegistryConfiguration();
+	}
+
+	@XmlElementDecl(name = "registered")
+	public JAXBElement<TestRegisteredElement> createRegistered(TestRegisteredElement value){
+		return new JAXBElement<TestRegisteredElement>(new QName("registered"), TestRegisteredElement.class, value);
+	}
+}
@@ -0,0 +1,13 @@
+package org.jdexter.reader.registry;
+
+import javax.xml.bind.annotation.XmlElement;
+
+import org.jdexter.annotation.PreRead;
+
+public class TestRegisteredElement {
+	@XmlElement(name = "value") private int value;
+
+	@PreRead
+	public void preRead(){
+	}
+}
@@ -0,0 +1,9 @@
+package org.jdexter.reader.registry;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement(name = "registry")
+public class TestRegistryConfiguration {
+	@XmlElement(name = "name") private String name;
+}
@@ -0,0 +1,155 @@
+package org.jdexter.reader.snapshot;
+
+import static org.jdexter.reader.snapshot.SnapshotFormat.*;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class SnapshotDecoderUnitTest {
+
+	@BeforeMethod
+	public void setUp(){
+		TestUnreachable.instantiated = false;
+	}
+
+	@DataProvider
+	public Object[][] corruptSnapshots() throws IOException{
+		return new Object[][]{
+				{new Snapshot().tag(OBJECT).newClass(TestUnreachable.class.getName(), 0).bytes()},
+				{new Snapshot().tag(COLLECTION).newClass(Thread.class.getName(), 0).bytes()},
+				{new Snapshot().tag(COLLECTION).newClass("java.util.Date", 0).bytes()},
+				{new Snapshot().tag(OBJECT).newClass("java.util.ArrayList", 0).bytes()},
+				{new Snapshot().tag(ARRAY).newClass("int", 0).size(Integer.MAX_VALUE).bytes()},
+				{new Snapshot().tag(ARRAY).newClass("int", 0).size(-1).bytes()},
+				{new Snapshot().tag(STRING).size(Integer.MAX_VALUE).bytes()},
+				{new Snapshot().tag(COLLECTION).newClass("java.util.ArrayList", 0).size(Integer.MAX_VALUE).bytes()},
+				{new Snapshot().tag(ENUM).newClass(TestRoot.class.getName(), signatureOf(TestRoot.class)).bytes()}
+		};
+	}
+
+	@Test(dataProvider = "corruptSnapshots")
+	public void testReadObject_ShouldThrowSnapshotMismatchException_WhenSnapshotIsCorrupt(byte[] snapshot) throws IOException{
+		try{
+			new SnapshotDecoder(new ByteArrayInputStream(snapshot), TestRoot.class).readObject();
+			fail("Expected to throw: " + SnapshotMismatchException.class);
+		}catch(SnapshotMismatchException expected){
+		}
+
+		assertFalse(TestUnreachable.instantiated);
+	}
+
+	@Test
+	public void testReadObject_ShouldRestoreGraphWrittenByEncoder() throws IOException{
+		TestRoot root = new TestRoot();
+		root.elements.add(new TestElement());
+		root.elements.get(0).value = 7;
+		root.names.add("b");
+		root.names.add("a");
+		root.values = new int[]{1, 2};
+
+		TestRoot restored = (TestRoot) decode(encode(root));
+
+		assertEquals(restored.elements.get(0).value, 7);
+		assertEquals(new ArrayList<String>(restored.names), Arrays.asList("a", "b"));
+		assertEquals(restored.values, new int[]{1, 2});
+	}
+
+	@Test(expectedExceptions = {SnapshotMismatchException.class})
+	public void testWriteObject_ShouldThrowSnapshotMismatchException_WhenSortedSetHasComparator() throws IOException{
+		TestRoot root = new TestRoot();
+		root.names = new TreeSet<String>(Collections.reverseOrder());
+
+		encode(root);
+	}
+
+	@Test(expectedExceptions = {SnapshotMismatchException.class})
+	public void testWriteObject_ShouldThrowSnapshotMismatchException_WhenClassIsNotPartOfBoundGraph() throws IOException{
+		TestRoot root = new TestRoot();
+		root.any = new TestUnreachable();
+
+		encode(root);
+	}
+
+	@Test
+	public void testRestorableClassOf_ShouldNotLoadClassOutsideOfBoundGraph(){
+		assertNull(restorableClassOf(TestRoot.class, "java.lang.ProcessBuilder"));
+		assertNull(restorableClassOf(TestRoot.class, TestUnreachable.class.getName()));
+		assertEquals(restorableClassOf(TestRoot.class, TestElement.class.getName()), TestElement.class);
+	}
+
+	private static byte[] encode(TestRoot root) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new SnapshotEncoder(new DataOutputStream(bytes), TestRoot.class).writeObject(root);
+		return bytes.toByteArray();
+	}
+
+	private static Object decode(byte[] snapshot) throws IOException{
+		return new SnapshotDecoder(new ByteArrayInputStream(snapshot), TestRoot.class).readObject();
+	}
+
+	/**
+	 * Writes snapshots by hand, as the encoder never writes corrupt ones
+	 */
+	private static class Snapshot{
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		private final DataOutputStream out = new DataOutputStream(bytes);
+
+		Snapshot tag(byte tag) throws IOException{
+			out.writeByte(tag);
+			return this;
+		}
+
+		Snapshot newClass(String name, int signature) throws IOException{
+			out.writeByte(NEW_CLASS);
+			byte[] encoded = name.getBytes("UTF-8");
+			out.writeInt(encoded.length);
+			out.write(encoded);
+			out.writeInt(signature);
+			return this;
+		}
+
+		Snapshot size(int size) throws IOException{
+			out.writeInt(size);
+			return this;
+		}
+
+		byte[] bytes(){
+			return bytes.toByteArray();
+		}
+	}
+
+	public static class TestRoot{
+		private List<TestElement> elements = new ArrayList<TestElement>();
+		private SortedSet<String> names = new TreeSet<String>();
+		private int[] values;
+		private Object any;
+	}
+
+	public static class TestElement{
+		private int value;
+	}
+
+	public static class TestUnreachable{
+		private static boolean instantiated;
+
+		public TestUnreachable() {
+			instantiated = true;
+		}
+	}
+}
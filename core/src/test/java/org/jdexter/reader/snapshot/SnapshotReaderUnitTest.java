@@ -0,0 +1,216 @@
+package org.jdexter.reader.snapshot;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.PreRead;
+import org.jdexter.context.ConfigurationContext;
+import org.jdexter.context.ConfigurationContextUnitTest.TestConfigurationClass;
+import org.jdexter.reader.JAXBReader;
+import org.jdexter.reader.Reader;
+import org.jdexter.reader.annotation.XMLProperties;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.io.Files;
+
+public class SnapshotReaderUnitTest {
+
+	private static final File SOURCE = new File("target/snapshot-test/snapshot-configuration.xml");
+	private static final String XML = "<snapshot-configuration version=\"2\"><name>tariffs</name>"
+			+ "<tariff><code>A</code><rate>1.5</rate></tariff><tariff><code>B</code><rate>2.5</rate></tariff></snapshot-configuration>";
+
+	private File directory;
+	private SnapshotCache cache;
+	private CountingReader delegate;
+	private SnapshotReader reader;
+
+	@BeforeMethod
+	public void setUp() throws IOException{
+		directory = Files.createTempDir();
+		write(XML);
+		cache = new SnapshotCache(directory);
+		delegate = new CountingReader();
+		reader = new SnapshotReader(delegate, cache);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testConstructor_ShouldThrowIllegalArgumentException_WhenReaderIsNull(){
+		new SnapshotReader(null, cache);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testConstructor_ShouldThrowIllegalArgumentException_WhenCacheIsNull(){
+		new SnapshotReader(delegate, null);
+	}
+
+	@Test
+	public void testRead_ShouldInvokeDecoratedReaderAndWriteSnapshot_WhenNoSnapshotExists() throws Throwable{
+		reader.read(TestSnapshotConfiguration.class);
+
+		assertEquals(delegate.count, 1);
+		assertEquals(cache.getMissCount(), 1);
+		assertEquals(directory.listFiles().length, 1);
+	}
+
+	@Test
+	public void testRead_ShouldRestoreFromSnapshotWithoutInvokingDecoratedReader() throws Throwable{
+		reader.read(TestSnapshotConfiguration.class);
+		TestSnapshotConfiguration restored = (TestSnapshotConfiguration) new SnapshotReader(delegate, cache).read(TestSnapshotConfiguration.class);
+
+		assertEquals(delegate.count, 1);
+		assertEquals(cache.getHitCount(), 1);
+		assertEquals(restored.version, 2);
+		assertEquals(restored.name, "tariffs");
+		assertEquals(restored.tariffs.size(), 2);
+		assertEquals(restored.tariffs.get(1).code, "B");
+		assertEquals(restored.tariffs.get(1).rate, 2.5d);
+	}
+
+	@Test
+	public void testRead_ShouldCallPreReadOnRestoredObjects() throws Throwable{
+		reader.read(TestSnapshotConfiguration.class);
+		TestSnapshotConfiguration restored = (TestSnapshotConfiguration) reader.read(TestSnapshotConfiguration.class);
+
+		assertEquals(restored.preReadCallCount, 1);
+		assertTrue(restored.tariffs.get(0).preReadCalled);
+	}
+
+	@Test
+	public void testRead_ShouldFallBackToDecoratedReader_WhenSourceIsModified() throws Throwable{
+		reader.read(TestSnapshotConfiguration.class);
+		write(XML.replace("tariffs", "changed"));
+		SOURCE.setLastModified(SOURCE.lastModified() + 2000);
+
+		TestSnapshotConfiguration instance = (TestSnapshotConfiguration) reader.read(TestSnapshotConfiguration.class);
+
+		assertEquals(delegate.count, 2);
+		assertEquals(instance.name, "changed");
+		assertEquals(cache.getHitCount(), 0);
+	}
+
+	@Test
+	public void testRead_ShouldFallBackToDecoratedReader_WhenSnapshotIsCorrupt() throws Throwable{
+		reader.read(TestSnapshotConfiguration.class);
+		Files.write("corrupt".getBytes(), directory.listFiles()[0]);
+
+		assertNotNull(reader.read(TestSnapshotConfiguration.class));
+		assertEquals(delegate.count, 2);
+	}
+
+	@Test
+	public void testRead_ShouldPassOnClassesWhichAreNotFileBacked() throws Throwable{
+		assertNotNull(reader.read(TestConfigurationClass.class));
+		assertEquals(delegate.count, 1);
+		assertEquals(cache.getMissCount(), 0);
+	}
+
+	@Test
+	public void testRead_ShouldAccountTimeSaved() throws Throwable{
+		reader.read(TestSnapshotConfiguration.class);
+		reader.read(TestSnapshotConfiguration.class);
+
+		assertTrue(cache.getTimeSaved(TimeUnit.NANOSECONDS) >= 0);
+	}
+
+	@Test
+	public void testReaderFactory_ShouldDecorateReadersUsedByContext() throws Throwable{
+		new ConfigurationContext(new SnapshotReaderFactory(cache)).read(TestSnapshotConfiguration.class);
+		TestSnapshotConfiguration restored = new ConfigurationContext(new SnapshotReaderFactory(cache)).read(TestSnapshotConfiguration.class);
+
+		assertEquals(cache.getHitCount(), 1);
+		assertEquals(restored.name, "tariffs");
+		assertFalse(restored.tariffs.isEmpty());
+	}
+
+	@Test
+	public void testReaderFactory_ShouldNotCountRestoredConfigurationAsParsed() throws Throwable{
+		ConfigurationContext parsing = new ConfigurationContext(new SnapshotReaderFactory(cache));
+		parsing.read(TestSnapshotConfiguration.class);
+		ConfigurationContext restoring = new ConfigurationContext(new SnapshotReaderFactory(cache));
+		restoring.read(TestSnapshotConfiguration.class);
+
+		assertEquals(parsing.getParseCount(), 1);
+		assertEquals(restoring.getParseCount(), 0);
+		assertEquals(cache.getHitCount(), 1);
+	}
+
+	@Test
+	public void testRead_ShouldStoreSnapshotOfContentItWasLookedUpWith_WhenFileChangesDuringRead() throws Throwable{
+		final long lastModified = 1000000000000L;
+		assertTrue(SOURCE.setLastModified(lastModified));
+		TestSnapshotConfiguration read = (TestSnapshotConfiguration) new SnapshotReader(new Reader() {
+			@Override
+			public Object read(Class<?> classToRead) throws Throwable {
+				write(XML.replace("tariffs", "changed"));
+				assertTrue(SOURCE.setLastModified(lastModified + 60000));
+				return delegate.read(classToRead);
+			}
+		}, cache).read(TestSnapshotConfiguration.class);
+		write(XML);
+		assertTrue(SOURCE.setLastModified(lastModified));
+
+		TestSnapshotConfiguration restored = (TestSnapshotConfiguration) reader.read(TestSnapshotConfiguration.class);
+
+		assertEquals(read.name, "tariffs");
+		assertEquals(cache.getHitCount(), 1);
+		assertEquals(restored.name, "tariffs");
+	}
+
+	private static void write(String xml) throws IOException{
+		SOURCE.getParentFile().mkdirs();
+		Files.write(xml, SOURCE, Charset.forName("UTF-8"));
+	}
+
+	private static class CountingReader extends Reader{
+		private final Reader reader = new JAXBReader();
+		private int count;
+
+		@Override
+		public Object read(Class<?> classToRead) throws Throwable {
+			count++;
+			if(classToRead.getAnnotation(XMLProperties.class) == null)
+				return classToRead.newInstance();
+			return reader.read(classToRead);
+		}
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XMLProperties(path = "target/snapshot-test/snapshot-configuration.xml")
+	@XmlRootElement(name = "snapshot-configuration")
+	public static class TestSnapshotConfiguration{
+		@XmlAttribute(name = "version") private int version;
+		@XmlElement(name = "name") private String name;
+		@XmlElement(name = "tariff") private List<TestTariff> tariffs;
+		private transient int preReadCallCount;
+
+		@PreRead
+		public void preRead(){
+			preReadCallCount++;
+		}
+	}
+
+	public static class TestTariff{
+		@XmlElement(name = "code") private String code;
+		@XmlElement(name = "rate") private double rate;
+		private transient boolean preReadCalled;
+
+		@PreRead
+		public void preRead(){
+			preReadCalled = true;
+		}
+	}
+}
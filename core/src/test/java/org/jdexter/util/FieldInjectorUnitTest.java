@@ -0,0 +1,75 @@
+package org.jdexter.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.lang.reflect.Field;
+
+import org.testng.annotations.Test;
+
+public class FieldInjectorUnitTest {
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testOf_ShouldThrowIllegalArgumentException_WhenFieldIsNull(){
+		FieldInjector.of(null);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testOf_ShouldThrowIllegalArgumentException_WhenFieldIsStatic() throws NoSuchFieldException{
+		FieldInjector.of(TestInjectable.class.getDeclaredField("CONSTANT"));
+	}
+
+	@Test
+	public void testInject_ShouldSetPrivateField() throws NoSuchFieldException{
+		TestInjectable instance = new TestInjectable();
+		FieldInjector.of(TestInjectable.class.getDeclaredField("dependency")).inject(instance, "injected");
+
+		assertEquals(instance.dependency, "injected");
+	}
+
+	@Test
+	public void testInject_ShouldSetNull() throws NoSuchFieldException{
+		TestInjectable instance = new TestInjectable();
+		instance.dependency = "existing";
+		FieldInjector.of(TestInjectable.class.getDeclaredField("dependency")).inject(instance, null);
+
+		assertNull(instance.dependency);
+	}
+
+	@Test
+	public void testInject_ShouldSetInheritedField() throws NoSuchFieldException{
+		TestSubInjectable instance = new TestSubInjectable();
+		FieldInjector.of(TestInjectable.class.getDeclaredField("dependency")).inject(instance, "injected");
+
+		assertEquals(instance.getDependency(), "injected");
+	}
+
+	@Test(expectedExceptions = {ClassCastException.class})
+	public void testInject_ShouldThrowClassCastException_WhenValueIsNotAssignable() throws NoSuchFieldException{
+		FieldInjector.of(TestInjectable.class.getDeclaredField("dependency")).inject(new TestInjectable(), 1);
+	}
+
+	@Test(expectedExceptions = {ClassCastException.class})
+	public void testInject_ShouldThrowClassCastException_WhenInstanceDoesNotDeclareField() throws NoSuchFieldException{
+		FieldInjector.of(TestInjectable.class.getDeclaredField("dependency")).inject(new Object(), "injected");
+	}
+
+	@Test
+	public void testGetField_ShouldReturnInjectedField() throws NoSuchFieldException{
+		Field field = TestInjectable.class.getDeclaredField("dependency");
+		assertEquals(FieldInjector.of(field).getField(), field);
+	}
+
+	private static class TestInjectable{
+		@SuppressWarnings("unused")
+		private static final String CONSTANT = "constant";
+		private String dependency;
+
+		String getDependency() {
+			return dependency;
+		}
+	}
+
+	private static class TestSubInjectable extends TestInjectable{
+	}
+}
@@ -0,0 +1,94 @@
+package org.jdexter.util;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.jdexter.annotation.PostRead;
+import org.jdexter.annotation.PreRead;
+import org.testng.annotations.Test;
+
+public class LifeCycleIndexUnitTest {
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testOf_ShouldThrowIllegalArgumentException_WhenClassIsNull(){
+		LifeCycleIndex.of(null);
+	}
+
+	@Test
+	public void testOf_ShouldReturnSameIndexOnSuccessiveCalls(){
+		assertTrue(LifeCycleIndex.of(TestLifeCycle.class) == LifeCycleIndex.of(TestLifeCycle.class));
+	}
+
+	@Test
+	public void testHasLifeCycleMethods_ShouldReturnFalse_WhenClassDeclaresNoAnnotatedMethod(){
+		assertFalse(LifeCycleIndex.of(TestWithoutLifeCycle.class).hasLifeCycleMethods());
+		assertTrue(LifeCycleIndex.of(TestLifeCycle.class).hasLifeCycleMethods());
+	}
+
+	@Test
+	public void testDeclares_ShouldReturnTrueOnlyForDeclaredEvents(){
+		assertTrue(LifeCycleIndex.of(TestLifeCycle.class).declares(PreRead.class));
+		assertFalse(LifeCycleIndex.of(TestLifeCycle.class).declares(PostRead.class));
+	}
+
+	@Test
+	public void testInvoke_ShouldInvokeLifeCycleMethodOfEvent() throws Throwable{
+		TestLifeCycle instance = new TestLifeCycle();
+		LifeCycleIndex.of(TestLifeCycle.class).invoke(instance, PreRead.class);
+		LifeCycleIndex.of(TestLifeCycle.class).invoke(instance, PostRead.class);
+
+		assertEquals(instance.preReadCallCount, 1);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testInvoke_ShouldThrowIllegalArgumentException_WhenConstraintsAreViolated() throws Throwable{
+		LifeCycleIndex.of(TestMultipleLifeCycleMethods.class).invoke(new TestMultipleLifeCycleMethods(), PreRead.class);
+	}
+
+	@Test(expectedExceptions = {IllegalArgumentException.class})
+	public void testInvoke_ShouldThrowIllegalArgumentExceptionOnEveryInvocation_WhenConstraintsAreViolated() throws Throwable{
+		try{
+			LifeCycleIndex.of(TestMultipleLifeCycleMethods.class).invoke(new TestMultipleLifeCycleMethods(), PreRead.class);
+		}catch (IllegalArgumentException e) {
+			//chomp
+		}
+		LifeCycleIndex.of(TestMultipleLifeCycleMethods.class).invoke(new TestMultipleLifeCycleMethods(), PreRead.class);
+	}
+
+	@Test(expectedExceptions = {UnsupportedOperationException.class})
+	public void testInvoke_ShouldThrowExactException_WhenLifeCycleMethodThrows() throws Throwable{
+		LifeCycleIndex.of(TestThrowingLifeCycle.class).invoke(new TestThrowingLifeCycle(), PostRead.class);
+	}
+
+	public static class TestWithoutLifeCycle{
+		public void method(){
+		}
+	}
+
+	public static class TestLifeCycle{
+		private int preReadCallCount;
+
+		@PreRead
+		public void preRead(){
+			preReadCallCount++;
+		}
+	}
+
+	public static class TestMultipleLifeCycleMethods{
+		@PreRead
+		public void preRead(){
+		}
+
+		@PreRead
+		public void preRead1(){
+		}
+	}
+
+	public static class TestThrowingLifeCycle{
+		@PostRead
+		public void postRead(){
+			throw new UnsupportedOperationException();
+		}
+	}
+}
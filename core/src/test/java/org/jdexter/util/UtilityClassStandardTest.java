@@ -8,6 +8,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 
+import org.jdexter.reader.ReaderUtil;
+import org.jdexter.reader.XMLBinders;
 import org.jdexter.util.ReflectionUtil;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Factory;
@@ -26,7 +28,9 @@ public final class UtilityClassStandardTest {
 	public static Object[][] dataFor_UtilityClassStandardTest(){
 		return new Object[][]{
 				{ReflectionUtil.class},
-				{Maps.class}
+				{Maps.class},
+				{ReaderUtil.class},
+				{XMLBinders.class}
 		};
 	}
 	
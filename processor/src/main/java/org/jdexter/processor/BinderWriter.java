@@ -0,0 +1,139 @@
+package org.jdexter.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import org.jdexter.processor.BindingAnalyzer.BoundEnum;
+import org.jdexter.processor.BoundType.BoundProperty;
+
+/**
+ * Writes the source of a generated binder. Every bound type gets a bind method which instantiates the type, fires
+ * {@link org.jdexter.annotation.PreRead}, binds the attributes and then the child elements of the current element
+ * while skipping the elements which are not bound, just like JAXB does.
+ * @author Narendra
+ *
+ */
+class BinderWriter {
+	private final StringBuilder source;
+
+	BinderWriter() {
+		this.source = new StringBuilder();
+	}
+
+	void write(Writer writer, String packageName, String binderName, String rootElementName, BindingAnalyzer analyzer) throws IOException{
+		if(packageName.length() > 0)
+			line("package %s;", packageName).line("");
+		line("import javax.xml.stream.XMLStreamReader;").line("");
+		line("import org.jdexter.reader.XMLBinder;");
+		line("import org.jdexter.reader.XMLBinders;").line("");
+		line("@javax.annotation.Generated(\"%s\")", XMLBinderProcessor.class.getName());
+		line("public final class %s implements XMLBinder {", binderName).line("");
+
+		BoundType root = analyzer.getBoundTypes().iterator().next();
+		line("\t@Override");
+		line("\tpublic Object bind(XMLStreamReader reader) throws Throwable {");
+		line("\t\tXMLBinders.startRootElement(reader, \"%s\");", escape(rootElementName));
+		line("\t\treturn %s(reader);", root.getBindMethodName());
+		line("\t}").line("");
+		line("\t@Override");
+		line("\tpublic Object bindElement(XMLStreamReader reader) throws Throwable {");
+		line("\t\treturn %s(reader);", root.getBindMethodName());
+		line("\t}");
+
+		for(BoundType type : analyzer.getBoundTypes()){
+			writeBindMethod(type);
+		}
+		for(BoundEnum boundEnum : analyzer.getBoundEnums()){
+			writeConvertMethod(boundEnum);
+		}
+		line("}");
+
+		writer.write(source.toString());
+	}
+
+	private void writeBindMethod(BoundType type){
+		line("");
+		line("\tstatic %s %s(XMLStreamReader reader) throws Throwable {", type.getTypeName(), type.getBindMethodName());
+		line("\t\t%1$s instance = new %1$s();", type.getTypeName());
+		line("\t\tXMLBinders.preRead(instance);");
+
+		if(!type.getAttributes().isEmpty()){
+			line("\t\tfor(int index = 0; index < reader.getAttributeCount(); index++){");
+			line("\t\t\tString name = reader.getAttributeLocalName(index);");
+			String prefix = "\t\t\t";
+			for(BoundProperty attribute : type.getAttributes()){
+				line("%sif(\"%s\".equals(name)){", prefix, escape(attribute.getXmlName()));
+				writeAssignment(attribute, "reader.getAttributeValue(index)", "\t\t\t\t");
+				prefix = "\t\t\t}else ";
+			}
+			line("\t\t\t}");
+			line("\t\t}");
+		}
+
+		line("\t\twhile(XMLBinders.nextElement(reader)){");
+		line("\t\t\tString name = reader.getLocalName();");
+		String prefix = "\t\t\t";
+		for(BoundProperty element : type.getElements()){
+			line("%sif(\"%s\".equals(name)){", prefix, escape(element.getXmlName()));
+			writeAssignment(element, "reader.getElementText()", "\t\t\t\t");
+			prefix = "\t\t\t}else ";
+		}
+		if(type.getElements().isEmpty()){
+			line("\t\t\tXMLBinders.skipElement(reader);");
+		}else{
+			line("\t\t\t}else{");
+			line("\t\t\t\tXMLBinders.skipElement(reader);");
+			line("\t\t\t}");
+		}
+		line("\t\t}");
+		line("\t\treturn instance;");
+		line("\t}");
+	}
+
+	private void writeAssignment(BoundProperty property, String text, String indent){
+		String value = String.format(property.getConversion(), text);
+		if(!property.isList()){
+			if(property.isField())
+				line("%sinstance.%s = %s;", indent, property.getFieldName(), value);
+			else
+				line("%sinstance.%s(%s);", indent, property.getSetterName(), value);
+			return;
+		}
+
+		String listType = "java.util.List<" + property.getValueTypeName() + ">";
+		if(property.isField()){
+			line("%sif(instance.%s == null)", indent, property.getFieldName());
+			line("%s\tinstance.%s = new java.util.ArrayList<%s>();", indent, property.getFieldName(), property.getValueTypeName());
+			line("%sinstance.%s.add(%s);", indent, property.getFieldName(), value);
+		}else{
+			line("%s%s values = instance.%s();", indent, listType, property.getGetterName());
+			line("%sif(values == null){", indent);
+			line("%s\tvalues = new java.util.ArrayList<%s>();", indent, property.getValueTypeName());
+			line("%s\tinstance.%s(values);", indent, property.getSetterName());
+			line("%s}", indent);
+			line("%svalues.add(%s);", indent, value);
+		}
+	}
+
+	private void writeConvertMethod(BoundEnum boundEnum){
+		line("");
+		line("\tstatic %s %s(String text) {", boundEnum.getTypeName(), boundEnum.getConvertMethodName());
+		line("\t\tString value = text.trim();");
+		for(Map.Entry<String, String> constant : boundEnum.getConstants().entrySet()){
+			line("\t\tif(\"%s\".equals(value))", escape(constant.getKey()));
+			line("\t\t\treturn %s.%s;", boundEnum.getTypeName(), constant.getValue());
+		}
+		line("\t\treturn null;");
+		line("\t}");
+	}
+
+	private BinderWriter line(String format, Object... arguments){
+		source.append(String.format(format, arguments)).append('\n');
+		return this;
+	}
+
+	private static String escape(String value){
+		return value.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+}
@@ -0,0 +1,450 @@
+package org.jdexter.processor;
+
+import java.beans.Introspector;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlEnumValue;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
+import javax.xml.bind.annotation.XmlType;
+
+import org.jdexter.processor.BoundType.BoundProperty;
+import org.jdexter.reader.annotation.XMLProperties;
+
+/**
+ * Builds the model of a generated binder from the JAXB annotations of a configuration class, following the classes
+ * of its elements. Only the subset of JAXB which can be bound exactly the way JAXB binds it is supported:
+ * <ul>
+ * <li>members annotated with {@link XmlElement} or {@link XmlAttribute}, either fields or getter/setter pairs,
+ * which are accessible from the package of the binder</li>
+ * <li>values of primitive, wrapper, {@link String}, {@link java.math.BigDecimal}, {@link java.math.BigInteger}
+ * and enum types, classes with an accessible default constructor, and {@link java.util.List}s of those as elements</li>
+ * </ul>
+ * Anything else, like namespaces, adapters or members JAXB binds without annotation, fails the analysis with
+ * {@link UnsupportedBindingException}.
+ * @author Narendra
+ *
+ */
+class BindingAnalyzer {
+	private static final String DEFAULT = "##default";
+	private static final String JAXB_ANNOTATION_PACKAGE = XmlElement.class.getPackage().getName();
+	private static final Set<String> SUPPORTED_MEMBER_ANNOTATIONS = new HashSet<String>();
+	private static final Set<String> SUPPORTED_TYPE_ANNOTATIONS = new HashSet<String>();
+	private static final Map<String, String> CONVERSIONS = new LinkedHashMap<String, String>();
+	static{
+		SUPPORTED_MEMBER_ANNOTATIONS.add(XmlElement.class.getName());
+		SUPPORTED_MEMBER_ANNOTATIONS.add(XmlAttribute.class.getName());
+		SUPPORTED_MEMBER_ANNOTATIONS.add(XmlTransient.class.getName());
+
+		SUPPORTED_TYPE_ANNOTATIONS.add(XmlRootElement.class.getName());
+		SUPPORTED_TYPE_ANNOTATIONS.add(XmlType.class.getName());
+
+		CONVERSIONS.put("java.lang.String", "%s");
+		CONVERSIONS.put("int", "Integer.parseInt(%s.trim())");
+		CONVERSIONS.put("java.lang.Integer", "Integer.valueOf(%s.trim())");
+		CONVERSIONS.put("long", "Long.parseLong(%s.trim())");
+		CONVERSIONS.put("java.lang.Long", "Long.valueOf(%s.trim())");
+		CONVERSIONS.put("short", "Short.parseShort(%s.trim())");
+		CONVERSIONS.put("java.lang.Short", "Short.valueOf(%s.trim())");
+		CONVERSIONS.put("byte", "Byte.parseByte(%s.trim())");
+		CONVERSIONS.put("java.lang.Byte", "Byte.valueOf(%s.trim())");
+		CONVERSIONS.put("double", "Double.parseDouble(%s.trim())");
+		CONVERSIONS.put("java.lang.Double", "Double.valueOf(%s.trim())");
+		CONVERSIONS.put("float", "Float.parseFloat(%s.trim())");
+		CONVERSIONS.put("java.lang.Float", "Float.valueOf(%s.trim())");
+		CONVERSIONS.put("boolean", "XMLBinders.parseBoolean(%s)");
+		CONVERSIONS.put("java.lang.Boolean", "Boolean.valueOf(XMLBinders.parseBoolean(%s))");
+		CONVERSIONS.put("java.math.BigDecimal", "new java.math.BigDecimal(%s.trim())");
+		CONVERSIONS.put("java.math.BigInteger", "new java.math.BigInteger(%s.trim())");
+	}
+
+	private final Elements elements;
+	private final Types types;
+	private final PackageElement binderPackage;
+	private final Map<String, BoundType> boundTypes;
+	private final Map<String, BoundEnum> boundEnums;
+
+	BindingAnalyzer(Elements elements, Types types, TypeElement configurationClass) {
+		this.elements = elements;
+		this.types = types;
+		this.binderPackage = elements.getPackageOf(configurationClass);
+		this.boundTypes = new LinkedHashMap<String, BoundType>();
+		this.boundEnums = new LinkedHashMap<String, BoundEnum>();
+	}
+
+	static String rootElementNameOf(TypeElement configurationClass) throws UnsupportedBindingException{
+		XMLProperties xmlProperties = configurationClass.getAnnotation(XMLProperties.class);
+		if(xmlProperties != null && xmlProperties.schema().length() > 0)
+			throw new UnsupportedBindingException("schema validation is not supported");
+
+		XmlRootElement rootElement = configurationClass.getAnnotation(XmlRootElement.class);
+		if(rootElement == null)
+			throw new UnsupportedBindingException("class is not annotated with @XmlRootElement");
+		if(!DEFAULT.equals(rootElement.namespace()))
+			throw new UnsupportedBindingException("namespaces are not supported");
+
+		return DEFAULT.equals(rootElement.name())
+				? Introspector.decapitalize(configurationClass.getSimpleName().toString())
+				: rootElement.name();
+	}
+
+	Collection<BoundType> getBoundTypes() {
+		return boundTypes.values();
+	}
+
+	Collection<BoundEnum> getBoundEnums() {
+		return boundEnums.values();
+	}
+
+	BoundType analyze(TypeElement type) throws UnsupportedBindingException{
+		String typeName = type.getQualifiedName().toString();
+		BoundType boundType = boundTypes.get(typeName);
+		if(boundType != null)
+			return boundType;
+
+		checkInstantiable(type);
+		checkAnnotations(elements.getPackageOf(type), Collections.<String>emptySet());
+		checkAnnotations(type, SUPPORTED_TYPE_ANNOTATIONS);
+
+		boundType = new BoundType(typeName, "bind" + boundTypes.size());
+		//registered before its members, as the members may refer back to the type
+		boundTypes.put(typeName, boundType);
+
+		for(TypeElement current = type; current != null; current = superclassOf(current)){
+			if(current != type)
+				checkAnnotations(current, SUPPORTED_TYPE_ANNOTATIONS);
+			analyzeMembers(boundType, current);
+		}
+		return boundType;
+	}
+
+	private void analyzeMembers(BoundType boundType, TypeElement type) throws UnsupportedBindingException{
+		Set<String> boundPropertyNames = new HashSet<String>();
+		for(VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())){
+			checkAnnotations(field, SUPPORTED_MEMBER_ANNOTATIONS);
+			if(field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.TRANSIENT)
+					|| field.getAnnotation(XmlTransient.class) != null)
+				continue;
+
+			if(!isAnnotated(field)){
+				if(field.getModifiers().contains(Modifier.PUBLIC))
+					throw new UnsupportedBindingException("public field: " + field + " is bound by JAXB without annotation");
+				continue;
+			}
+
+			boundPropertyNames.add(field.getSimpleName().toString());
+			analyzeField(boundType, type, field);
+		}
+
+		for(ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())){
+			checkAnnotations(method, SUPPORTED_MEMBER_ANNOTATIONS);
+			String propertyName = propertyNameOf(method);
+			if(propertyName == null || method.getModifiers().contains(Modifier.STATIC)
+					|| method.getAnnotation(XmlTransient.class) != null)
+				continue;
+
+			if(isAnnotated(method)){
+				boundPropertyNames.add(propertyName);
+				analyzeProperty(boundType, type, method, propertyName);
+			}
+		}
+
+		for(ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())){
+			String propertyName = propertyNameOf(method);
+			if(propertyName != null && method.getModifiers().contains(Modifier.PUBLIC) && !isAnnotated(method)
+					&& method.getAnnotation(XmlTransient.class) == null && !boundPropertyNames.contains(propertyName)
+					&& method.getSimpleName().toString().startsWith("set") && getterOf(type, propertyName) != null
+					&& getterOf(type, propertyName).getModifiers().contains(Modifier.PUBLIC))
+				throw new UnsupportedBindingException("public property: " + propertyName + " is bound by JAXB without annotation");
+		}
+	}
+
+	private void analyzeField(BoundType boundType, TypeElement type, VariableElement field) throws UnsupportedBindingException{
+		String name = field.getSimpleName().toString();
+		String xmlName = xmlNameOf(field, name);
+		boolean attribute = field.getAnnotation(XmlAttribute.class) != null;
+		TypeMirror fieldType = field.asType();
+
+		if(isAccessible(field)){
+			add(boundType, attribute, new PropertyFactory(xmlName, fieldType, name, null, null));
+			return;
+		}
+
+		String capitalized = capitalize(name);
+		ExecutableElement setter = setterOf(type, capitalized, fieldType);
+		ExecutableElement getter = getterOf(type, name);
+		if(setter == null || !isAccessible(setter) || (isList(fieldType) && (getter == null || !isAccessible(getter))))
+			throw new UnsupportedBindingException("field: " + name + " is neither accessible nor has accessible accessors");
+
+		add(boundType, attribute, new PropertyFactory(xmlName, fieldType, null,
+				getter == null ? null : getter.getSimpleName().toString(), setter.getSimpleName().toString()));
+	}
+
+	private void analyzeProperty(BoundType boundType, TypeElement type, ExecutableElement method, String propertyName) throws UnsupportedBindingException{
+		String xmlName = xmlNameOf(method, propertyName);
+		boolean attribute = method.getAnnotation(XmlAttribute.class) != null;
+		ExecutableElement getter = getterOf(type, propertyName);
+		if(getter == null)
+			throw new UnsupportedBindingException("property: " + propertyName + " has no getter");
+
+		TypeMirror propertyType = getter.getReturnType();
+		ExecutableElement setter = setterOf(type, capitalize(propertyName), propertyType);
+		if(setter == null || !isAccessible(setter) || (isList(propertyType) && !isAccessible(getter)))
+			throw new UnsupportedBindingException("property: " + propertyName + " has no accessible accessors");
+
+		add(boundType, attribute, new PropertyFactory(xmlName, propertyType, null,
+				getter.getSimpleName().toString(), setter.getSimpleName().toString()));
+	}
+
+	private void add(BoundType boundType, boolean attribute, PropertyFactory factory) throws UnsupportedBindingException{
+		if(boundType.isBound(factory.xmlName))
+			throw new UnsupportedBindingException("more than one member is bound to: " + factory.xmlName);
+
+		if(attribute){
+			if(isList(factory.type))
+				throw new UnsupportedBindingException("list attributes are not supported");
+			String conversion = conversionOf(factory.type);
+			if(conversion == null)
+				throw new UnsupportedBindingException("attribute of type: " + factory.type + " is not supported");
+			boundType.getAttributes().add(factory.create(factory.type, conversion, false));
+			return;
+		}
+
+		TypeMirror valueType = factory.type;
+		boolean list = isList(valueType);
+		if(list){
+			DeclaredType listType = (DeclaredType) valueType;
+			if(listType.getTypeArguments().size() != 1 || listType.getTypeArguments().get(0).getKind() != TypeKind.DECLARED)
+				throw new UnsupportedBindingException("only lists of classes are supported");
+			valueType = listType.getTypeArguments().get(0);
+		}
+
+		String conversion = conversionOf(valueType);
+		if(conversion == null){
+			if(valueType.getKind() != TypeKind.DECLARED)
+				throw new UnsupportedBindingException("element of type: " + valueType + " is not supported");
+			TypeElement valueClass = (TypeElement) ((DeclaredType) valueType).asElement();
+			if(valueClass.getQualifiedName().toString().startsWith("java."))
+				throw new UnsupportedBindingException("element of type: " + valueType + " is not supported");
+			conversion = analyze(valueClass).getBindMethodName() + "(reader)";
+		}
+		boundType.getElements().add(factory.create(valueType, conversion, list));
+	}
+
+	/**
+	 * @return the conversion of text to the value of the type or <code>null</code> if the type is not converted from text
+	 */
+	private String conversionOf(TypeMirror type) throws UnsupportedBindingException{
+		String conversion = CONVERSIONS.get(types.erasure(type).toString());
+		if(conversion != null)
+			return conversion;
+
+		if(type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM)
+			return analyzeEnum((TypeElement) ((DeclaredType) type).asElement()).getConvertMethodName() + "(%s)";
+
+		if(type.getKind().isPrimitive())
+			throw new UnsupportedBindingException("primitive type: " + type + " is not supported");
+		return null;
+	}
+
+	private BoundEnum analyzeEnum(TypeElement type) throws UnsupportedBindingException{
+		String typeName = type.getQualifiedName().toString();
+		BoundEnum boundEnum = boundEnums.get(typeName);
+		if(boundEnum != null)
+			return boundEnum;
+
+		checkAccessible(type);
+		boundEnum = new BoundEnum(typeName, "convert" + boundEnums.size());
+		for(VariableElement constant : ElementFilter.fieldsIn(type.getEnclosedElements())){
+			if(constant.getKind() != ElementKind.ENUM_CONSTANT)
+				continue;
+			XmlEnumValue value = constant.getAnnotation(XmlEnumValue.class);
+			String name = constant.getSimpleName().toString();
+			boundEnum.getConstants().put(value == null ? name : value.value(), name);
+		}
+		boundEnums.put(typeName, boundEnum);
+		return boundEnum;
+	}
+
+	private void checkInstantiable(TypeElement type) throws UnsupportedBindingException{
+		if(type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT))
+			throw new UnsupportedBindingException("type: " + type + " is not a concrete class");
+		if(type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC))
+			throw new UnsupportedBindingException("type: " + type + " is an inner class");
+		checkAccessible(type);
+
+		for(ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())){
+			if(constructor.getParameters().isEmpty() && isAccessible(constructor))
+				return;
+		}
+		throw new UnsupportedBindingException("type: " + type + " has no accessible default constructor");
+	}
+
+	private void checkAccessible(TypeElement type) throws UnsupportedBindingException{
+		for(Element current = type; current.getKind() != ElementKind.PACKAGE; current = current.getEnclosingElement()){
+			if(!isAccessible(current))
+				throw new UnsupportedBindingException("type: " + type + " is not accessible from package: " + binderPackage);
+		}
+	}
+
+	private boolean isAccessible(Element element){
+		Set<Modifier> modifiers = element.getModifiers();
+		if(modifiers.contains(Modifier.PUBLIC))
+			return true;
+		return !modifiers.contains(Modifier.PRIVATE) && elements.getPackageOf(element).equals(binderPackage);
+	}
+
+	private void checkAnnotations(Element element, Set<String> supportedAnnotations) throws UnsupportedBindingException{
+		for(AnnotationMirror annotation : element.getAnnotationMirrors()){
+			TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+			String annotationName = annotationType.getQualifiedName().toString();
+			if(elements.getPackageOf(annotationType).getQualifiedName().contentEquals(JAXB_ANNOTATION_PACKAGE)
+					&& !supportedAnnotations.contains(annotationName))
+				throw new UnsupportedBindingException("@" + annotationType.getSimpleName() + " is not supported");
+
+			if(annotationName.equals(XmlElement.class.getName()) || annotationName.equals(XmlAttribute.class.getName())){
+				for(Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : annotation.getElementValues().entrySet()){
+					String attribute = value.getKey().getSimpleName().toString();
+					if(!attribute.equals("name") && !attribute.equals("required") && !attribute.equals("nillable"))
+						throw new UnsupportedBindingException("@" + annotationType.getSimpleName() + "(" + attribute + ") is not supported");
+				}
+			}
+		}
+	}
+
+	private static boolean isAnnotated(Element member){
+		return member.getAnnotation(XmlElement.class) != null || member.getAnnotation(XmlAttribute.class) != null;
+	}
+
+	private static String xmlNameOf(Element member, String propertyName){
+		XmlElement element = member.getAnnotation(XmlElement.class);
+		String name = element != null ? element.name() : member.getAnnotation(XmlAttribute.class).name();
+		return DEFAULT.equals(name) ? propertyName : name;
+	}
+
+	private boolean isList(TypeMirror type){
+		return type.getKind() == TypeKind.DECLARED && types.isSameType(types.erasure(type),
+				types.erasure(elements.getTypeElement("java.util.List").asType()));
+	}
+
+	private TypeElement superclassOf(TypeElement type){
+		TypeMirror superclass = type.getSuperclass();
+		if(superclass.getKind() != TypeKind.DECLARED)
+			return null;
+		TypeElement superclassElement = (TypeElement) ((DeclaredType) superclass).asElement();
+		return superclassElement.getQualifiedName().contentEquals("java.lang.Object") ? null : superclassElement;
+	}
+
+	private static String propertyNameOf(ExecutableElement method){
+		String name = method.getSimpleName().toString();
+		int parameters = method.getParameters().size();
+		if(name.startsWith("get") && name.length() > 3 && parameters == 0)
+			return Introspector.decapitalize(name.substring(3));
+		if(name.startsWith("is") && name.length() > 2 && parameters == 0)
+			return Introspector.decapitalize(name.substring(2));
+		if(name.startsWith("set") && name.length() > 3 && parameters == 1)
+			return Introspector.decapitalize(name.substring(3));
+		return null;
+	}
+
+	private static ExecutableElement getterOf(TypeElement type, String propertyName){
+		String capitalized = capitalize(propertyName);
+		for(ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())){
+			String name = method.getSimpleName().toString();
+			if(method.getParameters().isEmpty() && method.getReturnType().getKind() != TypeKind.VOID
+					&& (name.equals("get" + capitalized) || name.equals("is" + capitalized)))
+				return method;
+		}
+		return null;
+	}
+
+	private ExecutableElement setterOf(TypeElement type, String capitalizedName, TypeMirror valueType){
+		for(ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())){
+			if(method.getSimpleName().contentEquals("set" + capitalizedName) && method.getParameters().size() == 1
+					&& types.isSameType(method.getParameters().get(0).asType(), valueType))
+				return method;
+		}
+		return null;
+	}
+
+	private static String capitalize(String name){
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private class PropertyFactory{
+		private final String xmlName;
+		private final TypeMirror type;
+		private final String fieldName;
+		private final String getterName;
+		private final String setterName;
+
+		PropertyFactory(String xmlName, TypeMirror type, String fieldName, String getterName, String setterName) {
+			this.xmlName = xmlName;
+			this.type = type;
+			this.fieldName = fieldName;
+			this.getterName = getterName;
+			this.setterName = setterName;
+		}
+
+		BoundProperty create(TypeMirror valueType, String conversion, boolean list){
+			String valueTypeName = valueType.getKind().isPrimitive() ? valueType.toString()
+					: ((TypeElement) types.asElement(valueType)).getQualifiedName().toString();
+			return fieldName != null
+					? BoundProperty.ofField(xmlName, valueTypeName, conversion, list, fieldName)
+					: BoundProperty.ofAccessors(xmlName, valueTypeName, conversion, list, getterName, setterName);
+		}
+	}
+
+	/**
+	 * An enum bound from text, by a convert method of the generated binder.
+	 */
+	static class BoundEnum{
+		private final String typeName;
+		private final String convertMethodName;
+		private final Map<String, String> constants;
+
+		BoundEnum(String typeName, String convertMethodName) {
+			this.typeName = typeName;
+			this.convertMethodName = convertMethodName;
+			this.constants = new LinkedHashMap<String, String>();
+		}
+
+		String getTypeName() {
+			return typeName;
+		}
+
+		String getConvertMethodName() {
+			return convertMethodName;
+		}
+
+		/**
+		 * @return names of the constants keyed by their value in XML
+		 */
+		Map<String, String> getConstants() {
+			return constants;
+		}
+	}
+}
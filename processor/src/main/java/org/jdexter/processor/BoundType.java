@@ -0,0 +1,124 @@
+package org.jdexter.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class bound by a generated binder along with its bound members. Every bound type gets its own bind method in the
+ * generated binder.
+ * @author Narendra
+ *
+ */
+class BoundType {
+	private final String typeName;
+	private final String bindMethodName;
+	private final List<BoundProperty> attributes;
+	private final List<BoundProperty> elements;
+
+	BoundType(String typeName, String bindMethodName) {
+		this.typeName = typeName;
+		this.bindMethodName = bindMethodName;
+		this.attributes = new ArrayList<BoundProperty>();
+		this.elements = new ArrayList<BoundProperty>();
+	}
+
+	String getTypeName() {
+		return typeName;
+	}
+
+	String getBindMethodName() {
+		return bindMethodName;
+	}
+
+	List<BoundProperty> getAttributes() {
+		return attributes;
+	}
+
+	List<BoundProperty> getElements() {
+		return elements;
+	}
+
+	boolean isBound(String xmlName){
+		for(BoundProperty property : attributes){
+			if(property.getXmlName().equals(xmlName))
+				return true;
+		}
+		for(BoundProperty property : elements){
+			if(property.getXmlName().equals(xmlName))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * A bound member. The value is either assigned to the field directly or passed to the setter, while values of
+	 * lists are added to the list, which is created first when the member does not hold one yet.
+	 */
+	static class BoundProperty{
+		private final String xmlName;
+		private final String valueTypeName;
+		private final String conversion;
+		private final boolean list;
+		private final String fieldName;
+		private final String getterName;
+		private final String setterName;
+
+		private BoundProperty(String xmlName, String valueTypeName, String conversion, boolean list,
+				String fieldName, String getterName, String setterName) {
+			this.xmlName = xmlName;
+			this.valueTypeName = valueTypeName;
+			this.conversion = conversion;
+			this.list = list;
+			this.fieldName = fieldName;
+			this.getterName = getterName;
+			this.setterName = setterName;
+		}
+
+		static BoundProperty ofField(String xmlName, String valueTypeName, String conversion, boolean list, String fieldName){
+			return new BoundProperty(xmlName, valueTypeName, conversion, list, fieldName, null, null);
+		}
+
+		static BoundProperty ofAccessors(String xmlName, String valueTypeName, String conversion, boolean list,
+				String getterName, String setterName){
+			return new BoundProperty(xmlName, valueTypeName, conversion, list, null, getterName, setterName);
+		}
+
+		String getXmlName() {
+			return xmlName;
+		}
+
+		/**
+		 * @return source name of the type of the value, for lists the type of the values in the list
+		 */
+		String getValueTypeName() {
+			return valueTypeName;
+		}
+
+		/**
+		 * @return expression converting the text, or reading the element, referred to as <code>%s</code> in the expression
+		 */
+		String getConversion() {
+			return conversion;
+		}
+
+		boolean isList() {
+			return list;
+		}
+
+		boolean isField(){
+			return fieldName != null;
+		}
+
+		String getFieldName() {
+			return fieldName;
+		}
+
+		String getGetterName() {
+			return getterName;
+		}
+
+		String getSetterName() {
+			return setterName;
+		}
+	}
+}
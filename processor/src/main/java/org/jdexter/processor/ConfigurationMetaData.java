@@ -0,0 +1,175 @@
+package org.jdexter.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import org.jdexter.annotation.Conditional;
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Decision;
+import org.jdexter.annotation.Depends;
+import org.jdexter.annotation.Optional;
+
+/**
+ * Metadata of a configuration class as collected by {@link org.jdexter.annotation.processor.AnnotationMetaDataCollector}
+ * at runtime, collected from the class hierarchy at compile time instead. Every member is recorded with the distance
+ * of its declaring class from the configuration class.
+ * @author Narendra
+ *
+ */
+class ConfigurationMetaData {
+	private final List<Member> dependencies;
+	private final List<Member> optionalDependencies;
+	private final List<Member> innerConfigurations;
+	private final Map<Member, List<String>> conditionalConfigurations;
+	private Member decisionMethod;
+
+	private ConfigurationMetaData() {
+		this.dependencies = new ArrayList<Member>();
+		this.optionalDependencies = new ArrayList<Member>();
+		this.innerConfigurations = new ArrayList<Member>();
+		this.conditionalConfigurations = new LinkedHashMap<Member, List<String>>();
+	}
+
+	/**
+	 * @throws InvalidMetaDataException if the metadata would be rejected at runtime, or cannot be described by a generated collector
+	 */
+	static ConfigurationMetaData of(TypeElement configurationClass, Elements elements, Types types) throws InvalidMetaDataException{
+		ConfigurationMetaData metaData = new ConfigurationMetaData();
+		TypeElement current = configurationClass;
+		int distance = 0;
+		while(current != null && !current.getQualifiedName().contentEquals(Object.class.getName())){
+			metaData.collect(current, distance, types);
+			current = superclassOf(current);
+			distance++;
+		}
+
+		for(Element member : elements.getAllMembers(configurationClass)){
+			if(member.getAnnotation(Decision.class) != null && member.getEnclosingElement().getKind() == ElementKind.INTERFACE)
+				throw new InvalidMetaDataException("decision method is declared by an interface");
+		}
+
+		metaData.validate();
+		return metaData;
+	}
+
+	private void collect(TypeElement declaringClass, int distance, Types types){
+		for(Element member : declaringClass.getEnclosedElements()){
+			if(member.getKind() == ElementKind.FIELD){
+				collectField((VariableElement) member, distance);
+			}else if(member.getKind() == ElementKind.METHOD && decisionMethod == null && isDecisionMethod((ExecutableElement) member, types)){
+				decisionMethod = new Member(distance, member.getSimpleName().toString());
+			}
+		}
+	}
+
+	private void collectField(VariableElement field, int distance){
+		Member member = new Member(distance, field.getSimpleName().toString());
+		if(field.getAnnotation(Depends.class) != null){
+			if(field.getAnnotation(Optional.class) != null)
+				optionalDependencies.add(member);
+			else
+				dependencies.add(member);
+		}
+
+		if(field.getAnnotation(Configuration.class) != null){
+			Conditional conditional = field.getAnnotation(Conditional.class);
+			if(conditional != null)
+				conditionalConfigurations.put(member, Arrays.asList(conditional.dependsOn()));
+			else
+				innerConfigurations.add(member);
+		}
+	}
+
+	private static boolean isDecisionMethod(ExecutableElement method, Types types){
+		if(method.getAnnotation(Decision.class) == null || method.getReturnType().getKind() != TypeKind.BOOLEAN
+				|| method.getParameters().size() != 1)
+			return false;
+
+		TypeMirror parameter = types.erasure(method.getParameters().get(0).asType());
+		return parameter.toString().equals(Class.class.getName());
+	}
+
+	private void validate() throws InvalidMetaDataException{
+		if(!conditionalConfigurations.isEmpty() && decisionMethod == null)
+			throw new InvalidMetaDataException("there is no boolean returning method accepting Class<?> as parameter annotated with @Decision");
+
+		Set<String> names = new HashSet<String>();
+		for(Member conditionalConfiguration : conditionalConfigurations.keySet()){
+			if(!names.add(conditionalConfiguration.getName()))
+				throw new InvalidMetaDataException("conditional configuration " + conditionalConfiguration.getName() + " is declared more than once in the class hierarchy");
+		}
+		for(Map.Entry<Member, List<String>> conditionalConfiguration : conditionalConfigurations.entrySet()){
+			for(String dependency : conditionalConfiguration.getValue()){
+				if(!names.contains(dependency))
+					throw new InvalidMetaDataException(dependency + " provided as dependency of " + conditionalConfiguration.getKey().getName()
+							+ " is not a conditional configuration");
+				if(dependency.equals(conditionalConfiguration.getKey().getName()))
+					throw new InvalidMetaDataException("conditional configuration " + dependency + " depends on itself");
+			}
+		}
+	}
+
+	private static TypeElement superclassOf(TypeElement type){
+		TypeMirror superclass = type.getSuperclass();
+		if(superclass.getKind() != TypeKind.DECLARED)
+			return null;
+		return (TypeElement) ((DeclaredType) superclass).asElement();
+	}
+
+	List<Member> getDependencies() {
+		return dependencies;
+	}
+
+	List<Member> getOptionalDependencies() {
+		return optionalDependencies;
+	}
+
+	List<Member> getInnerConfigurations() {
+		return innerConfigurations;
+	}
+
+	Map<Member, List<String>> getConditionalConfigurations() {
+		return conditionalConfigurations;
+	}
+
+	Member getDecisionMethod() {
+		return decisionMethod;
+	}
+
+	/**
+	 * A field or method, along with the distance of its declaring class from the configuration class
+	 */
+	static class Member{
+		private final int distance;
+		private final String name;
+
+		Member(int distance, String name) {
+			this.distance = distance;
+			this.name = name;
+		}
+
+		int getDistance() {
+			return distance;
+		}
+
+		String getName() {
+			return name;
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package org.jdexter.processor;
+
+/**
+ * Thrown when the metadata of a configuration class is invalid. No collector is generated for such classes, so they
+ * are collected through reflection at runtime, which reports the problem when the class is read.
+ * @author Narendra
+ *
+ */
+class InvalidMetaDataException extends Exception {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 1L;
+
+	InvalidMetaDataException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,81 @@
+package org.jdexter.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.processor.CompiledMetaDataCollector;
+
+/**
+ * Generates a {@link CompiledMetaDataCollector} for every class annotated with {@link Configuration}, so that the
+ * metadata of the class is not collected by scanning its class hierarchy through reflection at runtime.
+ * <br/>
+ * Classes with invalid metadata, such as conditional configurations without a decision method, are reported with a
+ * warning and keep being collected through reflection, which fails the read of the class.
+ * @author Narendra
+ *
+ */
+public class MetaDataProcessor extends AbstractProcessor{
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(Configuration.class.getName());
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for(Element element : roundEnv.getElementsAnnotatedWith(Configuration.class)){
+			if(element.getKind() != ElementKind.CLASS || !isNamed((TypeElement) element))
+				continue;
+
+			TypeElement configurationClass = (TypeElement) element;
+			try {
+				generateCollector(configurationClass);
+			} catch (InvalidMetaDataException e) {
+				processingEnv.getMessager().printMessage(Kind.WARNING, "Metadata collector not generated for: "
+						+ configurationClass.getQualifiedName() + " as " + e.getMessage() + ", it is collected through reflection instead", configurationClass);
+			} catch (IOException e) {
+				processingEnv.getMessager().printMessage(Kind.ERROR, "Metadata collector could not be written: " + e, configurationClass);
+			}
+		}
+		return false;
+	}
+
+	private void generateCollector(TypeElement configurationClass) throws InvalidMetaDataException, IOException{
+		ConfigurationMetaData metaData = ConfigurationMetaData.of(configurationClass, processingEnv.getElementUtils(), processingEnv.getTypeUtils());
+
+		String packageName = processingEnv.getElementUtils().getPackageOf(configurationClass).getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(configurationClass).toString();
+		String collectorName = binaryName.substring(packageName.length() == 0 ? 0 : packageName.length() + 1) + CompiledMetaDataCollector.SUFFIX;
+
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(
+				packageName.length() == 0 ? collectorName : packageName + "." + collectorName, configurationClass);
+		Writer writer = file.openWriter();
+		try{
+			new MetaDataWriter().write(writer, packageName, collectorName, metaData);
+		}finally{
+			writer.close();
+		}
+	}
+
+	private static boolean isNamed(TypeElement type){
+		return type.getNestingKind() == NestingKind.TOP_LEVEL || type.getNestingKind() == NestingKind.MEMBER;
+	}
+}
@@ -0,0 +1,64 @@
+package org.jdexter.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+import org.jdexter.annotation.processor.CompiledMetaDataCollector;
+import org.jdexter.processor.ConfigurationMetaData.Member;
+
+/**
+ * Writes the source of a generated {@link CompiledMetaDataCollector}, which registers the members of the configuration
+ * class in its constructor.
+ * @author Narendra
+ *
+ */
+class MetaDataWriter {
+	private final StringBuilder source;
+
+	MetaDataWriter() {
+		this.source = new StringBuilder();
+	}
+
+	void write(Writer writer, String packageName, String collectorName, ConfigurationMetaData metaData) throws IOException{
+		if(packageName.length() > 0)
+			line("package %s;", packageName).line("");
+		line("import %s;", CompiledMetaDataCollector.class.getName()).line("");
+		line("@javax.annotation.Generated(\"%s\")", MetaDataProcessor.class.getName());
+		line("public final class %s extends CompiledMetaDataCollector {", collectorName).line("");
+		line("\tpublic %s(Class<?> configurationClass) throws ReflectiveOperationException {", collectorName);
+		line("\t\tsuper(configurationClass);");
+
+		for(Member dependency : metaData.getDependencies()){
+			line("\t\tdependency(%d, \"%s\");", dependency.getDistance(), dependency.getName());
+		}
+		for(Member dependency : metaData.getOptionalDependencies()){
+			line("\t\toptionalDependency(%d, \"%s\");", dependency.getDistance(), dependency.getName());
+		}
+		for(Member innerConfiguration : metaData.getInnerConfigurations()){
+			line("\t\tinnerConfiguration(%d, \"%s\");", innerConfiguration.getDistance(), innerConfiguration.getName());
+		}
+		for(Map.Entry<Member, List<String>> conditionalConfiguration : metaData.getConditionalConfigurations().entrySet()){
+			StringBuilder dependsOn = new StringBuilder();
+			for(String dependency : conditionalConfiguration.getValue()){
+				dependsOn.append(", \"").append(dependency).append('"');
+			}
+			line("\t\tconditionalConfiguration(%d, \"%s\"%s);", conditionalConfiguration.getKey().getDistance(),
+					conditionalConfiguration.getKey().getName(), dependsOn);
+		}
+		if(metaData.getDecisionMethod() != null)
+			line("\t\tdecisionMethod(%d, \"%s\");", metaData.getDecisionMethod().getDistance(), metaData.getDecisionMethod().getName());
+
+		line("\t\tcomplete();");
+		line("\t}");
+		line("}");
+
+		writer.write(source.toString());
+	}
+
+	private MetaDataWriter line(String format, Object... arguments){
+		source.append(String.format(format, arguments)).append('\n');
+		return this;
+	}
+}
@@ -0,0 +1,19 @@
+package org.jdexter.processor;
+
+/**
+ * Thrown when a configuration class uses a part of JAXB the generated binders do not support. No binder is generated
+ * for such classes, so they keep being read by JAXB at runtime.
+ * @author Narendra
+ *
+ */
+class UnsupportedBindingException extends Exception {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 1L;
+
+	UnsupportedBindingException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,97 @@
+package org.jdexter.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.reader.JAXBReader;
+import org.jdexter.reader.XMLBinder;
+
+/**
+ * Generates an {@link XMLBinder} for every class annotated with <code>@Configuration(readWith = JAXBReader.class)</code>,
+ * so that {@link JAXBReader} binds the class without introspecting it through JAXB at runtime.
+ * <br/>
+ * Classes using a part of JAXB which is not supported by the generated binders, see {@link BindingAnalyzer}, are
+ * reported with a note and keep being read by JAXB.
+ * @author Narendra
+ *
+ */
+public class XMLBinderProcessor extends AbstractProcessor{
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(Configuration.class.getName());
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for(Element element : roundEnv.getElementsAnnotatedWith(Configuration.class)){
+			if(element.getKind() != ElementKind.CLASS || !isReadWithJAXBReader(element))
+				continue;
+
+			TypeElement configurationClass = (TypeElement) element;
+			try {
+				generateBinder(configurationClass);
+			} catch (UnsupportedBindingException e) {
+				processingEnv.getMessager().printMessage(Kind.NOTE, "XML binder not generated for: "
+						+ configurationClass.getQualifiedName() + " as " + e.getMessage() + ", it is read by JAXB instead", configurationClass);
+			} catch (IOException e) {
+				processingEnv.getMessager().printMessage(Kind.ERROR, "XML binder could not be written: " + e, configurationClass);
+			}
+		}
+		return false;
+	}
+
+	private void generateBinder(TypeElement configurationClass) throws UnsupportedBindingException, IOException{
+		String rootElementName = BindingAnalyzer.rootElementNameOf(configurationClass);
+		BindingAnalyzer analyzer = new BindingAnalyzer(processingEnv.getElementUtils(), processingEnv.getTypeUtils(), configurationClass);
+		analyzer.analyze(configurationClass);
+
+		String packageName = processingEnv.getElementUtils().getPackageOf(configurationClass).getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(configurationClass).toString();
+		String binderName = binaryName.substring(packageName.length() == 0 ? 0 : packageName.length() + 1) + XMLBinder.SUFFIX;
+
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(
+				packageName.length() == 0 ? binderName : packageName + "." + binderName, configurationClass);
+		Writer writer = file.openWriter();
+		try{
+			new BinderWriter().write(writer, packageName, binderName, rootElementName, analyzer);
+		}finally{
+			writer.close();
+		}
+	}
+
+	private static boolean isReadWithJAXBReader(Element element){
+		for(AnnotationMirror annotation : element.getAnnotationMirrors()){
+			if(!annotation.getAnnotationType().toString().equals(Configuration.class.getName()))
+				continue;
+
+			for(Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : annotation.getElementValues().entrySet()){
+				if(value.getKey().getSimpleName().contentEquals("readWith"))
+					return ((TypeMirror) value.getValue().getValue()).toString().equals(JAXBReader.class.getName());
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,124 @@
+package org.jdexter.processor;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+
+import org.jdexter.annotation.Conditional;
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.Decision;
+import org.jdexter.annotation.Depends;
+import org.jdexter.annotation.Optional;
+import org.jdexter.annotation.processor.AnnotationMetaDataCollector;
+import org.jdexter.annotation.processor.CompiledMetaDataCollector;
+import org.jdexter.annotation.processor.MetaDataCollector;
+import org.jdexter.context.ConfigurationContext;
+import org.jdexter.exception.ReadConfigurationException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class MetaDataProcessorTest {
+
+	@Test
+	public void testProcess_ShouldGenerateCollector_ForConfigurationClass(){
+		assertNotNull(CompiledMetaDataCollector.find(TestMetaDataConfiguration.class));
+		assertNotNull(CompiledMetaDataCollector.find(TestPrivateConfiguration.class));
+	}
+
+	@Test(dataProvider = "dataFor_testProcess_ShouldNotGenerateCollector_ForClassWithInvalidMetaData")
+	public void testProcess_ShouldNotGenerateCollector_ForClassWithInvalidMetaData(Class<?> configurationClass){
+		assertNull(CompiledMetaDataCollector.find(configurationClass));
+	}
+
+	@Test
+	public void testFind_ShouldCollectSameMetaDataAsReflection() throws NoSuchFieldException{
+		MetaDataCollector compiled = CompiledMetaDataCollector.find(TestMetaDataConfiguration.class);
+		MetaDataCollector reflected = AnnotationMetaDataCollector.of(TestMetaDataConfiguration.class);
+
+		assertEquals(compiled.getReader(), reflected.getReader());
+		assertEquals(compiled.getDependencies(), reflected.getDependencies());
+		assertEquals(compiled.getOptionalDependencies(), reflected.getOptionalDependencies());
+		assertEquals(compiled.getInnerConfigurations(), reflected.getInnerConfigurations());
+		assertEquals(compiled.getConditionalConfigurations(), reflected.getConditionalConfigurations());
+		assertEquals(compiled.getDecisionMethod(), reflected.getDecisionMethod());
+		for(Field field : reflected.getConditionalConfigurations()){
+			assertEquals(compiled.getDependenciesForConditionalConfiguration(field), reflected.getDependenciesForConditionalConfiguration(field));
+		}
+	}
+
+	@Test
+	public void testRead_ShouldReadGraphUsingGeneratedCollector() throws ReadConfigurationException{
+		TestMetaDataConfiguration instance = new ConfigurationContext().read(TestMetaDataConfiguration.class);
+
+		assertNotNull(instance.dependency);
+		assertNotNull(instance.optionalDependency);
+		assertNotNull(instance.inner);
+		assertNotNull(instance.first);
+		assertNull(instance.second);
+		assertTrue(instance.decidedSecondBeforeFirst);
+	}
+
+	@DataProvider
+	public static Object[][] dataFor_testProcess_ShouldNotGenerateCollector_ForClassWithInvalidMetaData(){
+		return new Object[][]{
+				{TestConfigurationWithoutDecisionMethod.class},
+				{TestConfigurationWithUnknownConditionalDependency.class},
+		};
+	}
+
+	@Configuration
+	public static class TestDependency{
+	}
+
+	@Configuration
+	public static class TestInnerConfiguration{
+		@Depends TestDependency dependency;
+	}
+
+	public static class TestSuperConfiguration{
+		@Depends @Optional TestDependency optionalDependency;
+		boolean decidedSecond;
+		boolean decidedSecondBeforeFirst;
+
+		@Decision
+		public boolean decide(Class<?> configurationClass){
+			if(configurationClass == TestInnerConfiguration.class){
+				decidedSecond = true;
+				return false;
+			}
+			decidedSecondBeforeFirst = decidedSecond;
+			return true;
+		}
+	}
+
+	@Configuration
+	public static class TestMetaDataConfiguration extends TestSuperConfiguration{
+		@Depends private TestDependency dependency;
+		@Configuration private TestInnerConfiguration inner;
+		@Configuration @Conditional(dependsOn = {"second"}) private TestDependency first;
+		@Configuration @Conditional private TestInnerConfiguration second;
+	}
+
+	@Configuration
+	private static class TestPrivateConfiguration{
+		@Depends private TestDependency dependency;
+	}
+
+	@Configuration
+	public static class TestConfigurationWithoutDecisionMethod{
+		@Configuration @Conditional private TestDependency conditional;
+	}
+
+	@Configuration
+	public static class TestConfigurationWithUnknownConditionalDependency{
+		@Configuration @Conditional(dependsOn = {"unknown"}) private TestDependency conditional;
+
+		@Decision
+		public boolean decide(Class<?> configurationClass){
+			return true;
+		}
+	}
+}
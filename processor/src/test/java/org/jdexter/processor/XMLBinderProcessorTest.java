@@ -0,0 +1,188 @@
+package org.jdexter.processor;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlEnumValue;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.jdexter.annotation.Configuration;
+import org.jdexter.annotation.PostRead;
+import org.jdexter.annotation.PreRead;
+import org.jdexter.context.ConfigurationContext;
+import org.jdexter.reader.JAXBReader;
+import org.jdexter.reader.XMLBinders;
+import org.jdexter.reader.annotation.XMLProperties;
+import org.testng.annotations.Test;
+
+public class XMLBinderProcessorTest {
+
+	private static final String PATH = "src/test/resources/test-binder-configuration.xml";
+
+	@Test
+	public void testProcess_ShouldGenerateBinder_ForClassReadWithJAXBReader(){
+		assertNotNull(XMLBinders.find(TestBinderConfiguration.class));
+	}
+
+	@Test
+	public void testProcess_ShouldNotGenerateBinder_ForClassNotReadWithJAXBReader(){
+		assertNull(XMLBinders.find(TestConfigurationReadWithDefaultReader.class));
+	}
+
+	@Test
+	public void testProcess_ShouldNotGenerateBinder_ForClassUsingUnsupportedJAXBFeatures(){
+		assertNull(XMLBinders.find(TestConfigurationWithAccessorType.class));
+	}
+
+	@Test
+	public void testProcess_ShouldNotGenerateBinder_ForClassDeclaringSchema(){
+		assertNull(XMLBinders.find(TestConfigurationWithSchema.class));
+	}
+
+	@Test
+	public void testRead_ShouldBindSameValuesAsJAXB() throws Throwable{
+		TestBinderConfiguration bound = (TestBinderConfiguration) new JAXBReader().read(TestBinderConfiguration.class);
+		TestBinderConfiguration unmarshalled = (TestBinderConfiguration) JAXBContext.newInstance(TestBinderConfiguration.class)
+				.createUnmarshaller().unmarshal(new File(PATH));
+
+		assertEquals(bound.version, unmarshalled.version);
+		assertEquals(bound.enabled, unmarshalled.enabled);
+		assertEquals(bound.name, unmarshalled.name);
+		assertEquals(bound.getTimeout(), unmarshalled.getTimeout());
+		assertEquals(bound.mode, unmarshalled.mode);
+		assertEquals(bound.ratio, unmarshalled.ratio);
+		assertEquals(bound.endpoints.size(), unmarshalled.endpoints.size());
+		for(int index = 0; index < bound.endpoints.size(); index++){
+			assertEquals(bound.endpoints.get(index).port, unmarshalled.endpoints.get(index).port);
+			assertEquals(bound.endpoints.get(index).host, unmarshalled.endpoints.get(index).host);
+			assertEquals(bound.endpoints.get(index).getTags(), unmarshalled.endpoints.get(index).getTags());
+		}
+	}
+
+	@Test
+	public void testRead_ShouldBindDocumentUsingGeneratedBinder() throws Throwable{
+		TestBinderConfiguration bound = (TestBinderConfiguration) new JAXBReader().read(TestBinderConfiguration.class);
+
+		assertEquals(bound.version, 3);
+		assertTrue(bound.enabled);
+		assertEquals(bound.name, "gateway");
+		assertEquals(bound.getTimeout(), Long.valueOf(1500));
+		assertEquals(bound.mode, TestMode.ACTIVE_STANDBY);
+		assertEquals(bound.ratio, new BigDecimal("0.75"));
+		assertEquals(bound.endpoints.size(), 2);
+		assertEquals(bound.endpoints.get(0).getTags().size(), 2);
+		assertNull(bound.endpoints.get(1).getTags());
+	}
+
+	@Test
+	public void testRead_ShouldCallPreReadOnEveryBoundObject() throws Throwable{
+		TestBinderConfiguration bound = (TestBinderConfiguration) new JAXBReader().read(TestBinderConfiguration.class);
+
+		assertEquals(bound.preReadCallCount, 1);
+		assertTrue(bound.endpoints.get(0).preReadCalled);
+		assertTrue(bound.endpoints.get(1).preReadCalled);
+	}
+
+	@Test
+	public void testRead_ShouldCallPostReadAfterPreRead_WhenReadThroughContext() throws Throwable{
+		TestBinderConfiguration bound = new ConfigurationContext().read(TestBinderConfiguration.class);
+
+		assertTrue(bound.postReadCalledAfterPreRead);
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XMLProperties(path = PATH)
+	@XmlRootElement(name = "binder-configuration")
+	public static class TestBinderConfiguration{
+		@XmlAttribute(name = "version") int version;
+		@XmlAttribute(name = "enabled") private boolean enabled;
+		@XmlElement(name = "name") String name;
+		@XmlElement(name = "mode") TestMode mode;
+		@XmlElement(name = "endpoint") List<TestEndpoint> endpoints;
+		@XmlElement(name = "ratio") BigDecimal ratio;
+		private Long timeout;
+		private transient int preReadCallCount;
+		private transient boolean postReadCalledAfterPreRead;
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		@XmlElement(name = "timeout")
+		public Long getTimeout() {
+			return timeout;
+		}
+
+		public void setTimeout(Long timeout) {
+			this.timeout = timeout;
+		}
+
+		@PreRead
+		public void preRead(){
+			preReadCallCount++;
+		}
+
+		@PostRead
+		public void postRead(){
+			postReadCalledAfterPreRead = preReadCallCount == 1;
+		}
+	}
+
+	public static class TestEndpoint{
+		@XmlAttribute(name = "port") int port;
+		@XmlElement(name = "host") String host;
+		private List<String> tags;
+		private transient boolean preReadCalled;
+
+		@XmlElement(name = "tag")
+		public List<String> getTags() {
+			return tags;
+		}
+
+		public void setTags(List<String> tags) {
+			this.tags = tags;
+		}
+
+		@PreRead
+		public void preRead(){
+			preReadCalled = true;
+		}
+	}
+
+	public enum TestMode{
+		@XmlEnumValue("active-standby") ACTIVE_STANDBY,
+		@XmlEnumValue("active-active") ACTIVE_ACTIVE
+	}
+
+	@Configuration
+	@XmlRootElement(name = "binder-configuration")
+	public static class TestConfigurationReadWithDefaultReader{
+		@XmlElement(name = "name") String name;
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XMLProperties(path = PATH)
+	@XmlRootElement(name = "binder-configuration")
+	@XmlAccessorType(XmlAccessType.FIELD)
+	public static class TestConfigurationWithAccessorType{
+		String name;
+	}
+
+	@Configuration(readWith = JAXBReader.class)
+	@XMLProperties(path = PATH, schema = "src/test/resources/test-binder-configuration.xsd")
+	@XmlRootElement(name = "binder-configuration")
+	public static class TestConfigurationWithSchema{
+		@XmlElement(name = "name") String name;
+	}
+}